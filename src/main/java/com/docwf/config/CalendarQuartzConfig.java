@@ -3,6 +3,7 @@ package com.docwf.config;
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.job.CalendarWorkflowExecutionJob;
 import com.docwf.repository.WorkflowCalendarRepository;
+import com.docwf.service.cluster.CalendarJobPartitioner;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,8 +31,16 @@ public class CalendarQuartzConfig implements CommandLineRunner {
     @Autowired
     private WorkflowCalendarRepository calendarRepository;
     
+    @Autowired
+    private CalendarJobPartitioner calendarJobPartitioner;
+    
     @Override
     public void run(String... args) throws Exception {
+        // Partitioned calendar jobs are scheduled by their owning node instead
+        if (calendarJobPartitioner.isEnabled()) {
+            logger.info("Calendar job partitioning is enabled; skipping clustered calendar jobs");
+            return;
+        }
         // Initialize calendar-specific jobs when application starts
         initializeCalendarJobs();
     }
@@ -149,6 +158,10 @@ public class CalendarQuartzConfig implements CommandLineRunner {
      * Add a new calendar job dynamically
      */
     public void addCalendarJob(WorkflowCalendar calendar) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendar.getCalendarId());
+            return;
+        }
         try {
             Scheduler scheduler = schedulerFactory.getScheduler();
             createCalendarJob(scheduler, calendar);
@@ -162,6 +175,10 @@ public class CalendarQuartzConfig implements CommandLineRunner {
      * Remove a calendar job dynamically
      */
     public void removeCalendarJob(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendarId);
+            return;
+        }
         try {
             Scheduler scheduler = schedulerFactory.getScheduler();
             String jobName = "calendarWorkflowJob_" + calendarId;
@@ -2,6 +2,7 @@ package com.docwf.config;
 
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.job.CalendarWorkflowExecutionJob;
+import com.docwf.service.cluster.CalendarJobPartitioner;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,9 @@ public class CalendarSchedulerConfig {
     @Autowired
     private Scheduler scheduler;
     
+    @Autowired
+    private CalendarJobPartitioner calendarJobPartitioner;
+    
     /**
      * Schedule a workflow based on calendar configuration
      */
@@ -35,6 +39,12 @@ public class CalendarSchedulerConfig {
                 return;
             }
             
+            // Partitioned calendars are fired by their owning node, not the clustered store
+            if (calendarJobPartitioner.isEnabled()) {
+                calendarJobPartitioner.refreshCalendar(calendar.getCalendarId());
+                return;
+            }
+            
             // Create job detail for this specific calendar
             JobDetail jobDetail = createCalendarJobDetail(calendar);
             
@@ -56,6 +66,10 @@ public class CalendarSchedulerConfig {
      * Update an existing workflow schedule
      */
     public void updateWorkflowSchedule(WorkflowCalendar calendar) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendar.getCalendarId());
+            return;
+        }
         try {
             // First unschedule the existing job
             unscheduleWorkflow(calendar.getCalendarId());
@@ -74,6 +88,10 @@ public class CalendarSchedulerConfig {
      * Unschedule a workflow
      */
     public void unscheduleWorkflow(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendarId);
+            return;
+        }
         try {
             String jobName = "calendar_" + calendarId;
             String jobGroup = "calendarWorkflows";
@@ -138,6 +156,9 @@ public class CalendarSchedulerConfig {
      * Check if a calendar is already scheduled
      */
     public boolean isCalendarScheduled(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.isScheduled(calendarId);
+        }
         try {
             String jobName = "calendar_" + calendarId;
             String jobGroup = "calendarWorkflows";
@@ -153,6 +174,9 @@ public class CalendarSchedulerConfig {
      * Get next execution time for a calendar
      */
     public Date getNextExecutionTime(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.getNextFireTime(calendarId);
+        }
         try {
             String jobName = "calendar_" + calendarId;
             String jobGroup = "calendarWorkflows";
@@ -175,6 +199,10 @@ public class CalendarSchedulerConfig {
      * Get execution status for a calendar
      */
     public String getExecutionStatus(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.isScheduled(calendarId)
+                    ? "OWNED_BY_" + calendarJobPartitioner.getOwner(calendarId) : "NONE";
+        }
         try {
             String jobName = "calendar_" + calendarId;
             String jobGroup = "calendarWorkflows";
@@ -0,0 +1,119 @@
+package com.docwf.controller;
+
+import com.docwf.dto.CompositeCalendarDto;
+import com.docwf.service.CompositeCalendarService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendar/composites")
+@Tag(name = "Composite Calendars", description = "APIs for calendars defined as union, intersection, difference and shift of workflow calendars")
+public class CompositeCalendarController {
+
+    @Autowired
+    private CompositeCalendarService compositeCalendarService;
+
+    // ===== COMPOSITE CRUD OPERATIONS =====
+
+    @PostMapping
+    @Operation(summary = "Create composite calendar", description = "Creates a composite calendar from an expression such as intersect(1, 2) over calendar IDs")
+    public ResponseEntity<CompositeCalendarDto> createComposite(
+            @Valid @RequestBody CompositeCalendarDto compositeDto) {
+        CompositeCalendarDto createdComposite = compositeCalendarService.createComposite(compositeDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdComposite);
+    }
+
+    @GetMapping("/{compositeId}")
+    @Operation(summary = "Get composite calendar", description = "Retrieves a composite calendar by its ID")
+    public ResponseEntity<CompositeCalendarDto> getComposite(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId) {
+        return compositeCalendarService.getCompositeById(compositeId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all composite calendars", description = "Retrieves all composite calendars")
+    public ResponseEntity<List<CompositeCalendarDto>> getAllComposites() {
+        return ResponseEntity.ok(compositeCalendarService.getAllComposites());
+    }
+
+    @PutMapping("/{compositeId}")
+    @Operation(summary = "Update composite calendar", description = "Updates the name, description or expression of a composite calendar")
+    public ResponseEntity<CompositeCalendarDto> updateComposite(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Valid @RequestBody CompositeCalendarDto compositeDto) {
+        CompositeCalendarDto updatedComposite = compositeCalendarService.updateComposite(compositeId, compositeDto);
+        return ResponseEntity.ok(updatedComposite);
+    }
+
+    @DeleteMapping("/{compositeId}")
+    @Operation(summary = "Delete composite calendar", description = "Deletes a composite calendar; the calendars it references are not affected")
+    public ResponseEntity<Void> deleteComposite(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId) {
+        compositeCalendarService.deleteComposite(compositeId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ===== COMPOSITE VALIDATION =====
+
+    @GetMapping("/{compositeId}/validate-date")
+    @Operation(summary = "Validate date", description = "Checks if a date is valid in the composite calendar")
+    public ResponseEntity<Boolean> isDateValid(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Date to validate") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(compositeCalendarService.isDateValid(compositeId, date));
+    }
+
+    @GetMapping("/{compositeId}/can-execute")
+    @Operation(summary = "Check execution", description = "Checks if a workflow can execute on a date under the composite calendar")
+    public ResponseEntity<Boolean> canExecuteWorkflow(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Date to check") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(compositeCalendarService.canExecuteWorkflow(compositeId, date));
+    }
+
+    @GetMapping("/{compositeId}/valid-dates")
+    @Operation(summary = "Get valid dates in range", description = "Retrieves all valid dates of the composite calendar within a date range")
+    public ResponseEntity<List<LocalDate>> getValidDatesInRange(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(compositeCalendarService.getValidDatesInRange(compositeId, startDate, endDate));
+    }
+
+    @GetMapping("/{compositeId}/next-valid-date")
+    @Operation(summary = "Get next valid date", description = "Finds the next valid date of the composite calendar")
+    public ResponseEntity<LocalDate> getNextValidDate(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Date to start from") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate) {
+        return ResponseEntity.ok(compositeCalendarService.getNextValidDate(compositeId, fromDate));
+    }
+
+    @GetMapping("/{compositeId}/previous-valid-date")
+    @Operation(summary = "Get previous valid date", description = "Finds the previous valid date of the composite calendar")
+    public ResponseEntity<LocalDate> getPreviousValidDate(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Date to start from") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate) {
+        return ResponseEntity.ok(compositeCalendarService.getPreviousValidDate(compositeId, fromDate));
+    }
+
+    @GetMapping("/{compositeId}/business-days-between")
+    @Operation(summary = "Count business days", description = "Counts the valid dates of the composite calendar between two dates inclusive")
+    public ResponseEntity<Integer> countBusinessDaysBetween(
+            @Parameter(description = "Composite calendar ID") @PathVariable Long compositeId,
+            @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(compositeCalendarService.countBusinessDaysBetween(compositeId, startDate, endDate));
+    }
+}
@@ -1,16 +1,29 @@
 package com.docwf.controller;
 
+import com.docwf.dto.FileUploadSessionDto;
 import com.docwf.dto.WorkflowInstanceTaskFileDto;
 import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.FileConsolidationService;
+import com.docwf.service.FileConsolidationService.ConsolidationFormat;
+import com.docwf.service.FileSearchService;
+import com.docwf.service.FileUploadService;
+import com.docwf.service.FileVersionService;
+import com.docwf.service.file.FileDownloadSender;
+import com.docwf.service.file.VersionContent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,15 +32,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
-import java.nio.file.DirectoryStream;
 
 @RestController
 @RequestMapping("/api/files")
@@ -39,11 +48,24 @@ public class FileController {
     @Value("${app.file.upload-dir:/data/uploads}")
     private String uploadDir;
     
-    @Value("${app.file.consolidated-dir:/data/consolidated}")
-    private String consolidatedDir;
+    @Autowired
+    private FileUploadService fileUploadService;
+    
+    @Autowired
+    private FileDownloadSender fileDownloadSender;
+    
+    @Autowired
+    private FileConsolidationService fileConsolidationService;
+    
+    @Autowired
+    private FileVersionService fileVersionService;
+    
+    @Autowired
+    private FileSearchService fileSearchService;
     
     @PostMapping("/upload")
-    @Operation(summary = "Upload file", description = "Uploads a new file to the system (creates version 1)")
+    @Operation(summary = "Upload file", description = "Uploads a new file to the system (creates version 1); "
+            + "content already stored is kept once")
     public ResponseEntity<WorkflowInstanceTaskFileDto> uploadFile(
             @Parameter(description = "File to upload") @RequestParam("file") MultipartFile file,
             @Parameter(description = "Instance Task ID") @RequestParam Long instanceTaskId,
@@ -51,87 +73,132 @@ public class FileController {
             @Parameter(description = "User who uploaded the file") @RequestParam String createdBy) {
         
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            // Generate unique instance file ID and filename
-            Long instanceFileId = System.currentTimeMillis(); // Simple ID generation - should use proper sequence
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null ? 
-                    originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String uniqueFilename = instanceFileId + "_v1_" + UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath);
-            
-            // Create file DTO
-            WorkflowInstanceTaskFileDto fileDto = new WorkflowInstanceTaskFileDto();
-            fileDto.setInstanceFileId(instanceFileId);
-            fileDto.setInstanceTaskId(instanceTaskId);
-            fileDto.setFileName(originalFilename);
-            fileDto.setFilePath(filePath.toString());
-            fileDto.setActionType(actionType);
-            fileDto.setFileVersion(1); // First version
-            fileDto.setCreatedBy(createdBy);
-            fileDto.setCreatedAt(LocalDateTime.now());
-            
-            // TODO: Save to database
-            // INSERT INTO WORKFLOW_INSTANCE_TASK_FILE (INSTANCE_FILE_ID, INSTANCE_TASK_ID, VERSION, FILE_NAME, FILE_PATH, ...)
-            
+            WorkflowInstanceTaskFileDto fileDto = fileUploadService.storeFile(instanceTaskId, null,
+                    file.getOriginalFilename(), actionType, createdBy, out -> file.getInputStream().transferTo(out));
             return ResponseEntity.status(HttpStatus.CREATED).body(fileDto);
             
+        } catch (WorkflowException e) {
+            logger.warn("Could not upload {} for task {}: {}", file.getOriginalFilename(), instanceTaskId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
             logger.error("Error uploading file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
-    @GetMapping("/download/{filename:.+}")
-    @Operation(summary = "Download file", description = "Downloads a file from the system")
-    public ResponseEntity<Resource> downloadFile(
-            @Parameter(description = "Filename to download") @PathVariable String filename) {
+    // ===== CHUNKED UPLOAD ENDPOINTS =====
+    
+    @PostMapping("/uploads")
+    @Operation(summary = "Start chunked upload", description = "Starts a resumable upload of a new file, or of a new version when instanceFileId is given")
+    public ResponseEntity<FileUploadSessionDto> initUpload(
+            @Parameter(description = "Instance Task ID") @RequestParam Long instanceTaskId,
+            @Parameter(description = "Existing file to add a version to") @RequestParam(required = false) Long instanceFileId,
+            @Parameter(description = "Original file name") @RequestParam String fileName,
+            @Parameter(description = "Total size in bytes") @RequestParam long totalSize,
+            @Parameter(description = "Action type") @RequestParam(required = false) ActionType actionType,
+            @Parameter(description = "User who uploaded the file") @RequestParam String createdBy) {
         
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-            
-        } catch (MalformedURLException e) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(
+                    fileUploadService.initUpload(instanceTaskId, instanceFileId, fileName, totalSize, actionType, createdBy));
+        } catch (WorkflowException e) {
+            logger.warn("Could not start upload of {}: {}", fileName, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
     
-    @GetMapping("/view/{filename:.+}")
-    @Operation(summary = "View file", description = "Views a file in the browser")
-    public ResponseEntity<Resource> viewFile(
-            @Parameter(description = "Filename to view") @PathVariable String filename) {
+    @PutMapping("/uploads/{uploadId}")
+    @Operation(summary = "Upload chunk", description = "Appends the raw request body (application/octet-stream) at the given offset, "
+            + "which must equal bytesReceived; on 409 resume from the bytesReceived returned")
+    public ResponseEntity<FileUploadSessionDto> uploadChunk(
+            @Parameter(description = "Upload ID") @PathVariable Long uploadId,
+            @Parameter(description = "Offset of the first byte of this chunk") @RequestParam long offset,
+            HttpServletRequest request) {
         
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-            
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.ok(fileUploadService.appendChunk(uploadId, offset, request.getInputStream()));
+        } catch (WorkflowException e) {
+            logger.warn("Rejected chunk at offset {} for upload {}: {}", offset, uploadId, e.getMessage());
+            return fileUploadService.getUpload(uploadId)
+                    .map(upload -> ResponseEntity.status(HttpStatus.CONFLICT).body(upload))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IOException e) {
+            logger.warn("Chunk for upload {} was interrupted: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "Get chunked upload", description = "Returns an upload's status and the offset to resume from")
+    public ResponseEntity<FileUploadSessionDto> getUpload(
+            @Parameter(description = "Upload ID") @PathVariable Long uploadId) {
+        return fileUploadService.getUpload(uploadId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(summary = "Complete chunked upload", description = "Moves the fully received file into place and records it as a task file version")
+    public ResponseEntity<WorkflowInstanceTaskFileDto> completeUpload(
+            @Parameter(description = "Upload ID") @PathVariable Long uploadId,
+            @Parameter(description = "Expected SHA-256 of the whole file, hex encoded") @RequestParam(required = false) String checksum) {
+        
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(fileUploadService.completeUpload(uploadId, checksum));
+        } catch (WorkflowException e) {
+            logger.warn("Could not complete upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            logger.error("Error completing upload {}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "Abort chunked upload", description = "Discards an unfinished upload and the bytes received so far")
+    public ResponseEntity<Void> abortUpload(
+            @Parameter(description = "Upload ID") @PathVariable Long uploadId) {
+        
+        try {
+            fileUploadService.abortUpload(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (WorkflowException e) {
+            // Already completed or discarded, or never existed
+            return fileUploadService.getUpload(uploadId).isPresent()
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                    : ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/download/{filename:.+}")
+    @Operation(summary = "Download file", description = "Downloads a file from the system; supports Range, If-Range, "
+            + "If-None-Match and If-Modified-Since")
+    public void downloadFile(
+            @Parameter(description = "Filename to download") @PathVariable String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        
+        sendStoredFile(filename, true, request, response);
+    }
+    
+    @GetMapping("/view/{filename:.+}")
+    @Operation(summary = "View file", description = "Views a file in the browser; supports Range, If-Range, "
+            + "If-None-Match and If-Modified-Since")
+    public void viewFile(
+            @Parameter(description = "Filename to view") @PathVariable String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        
+        sendStoredFile(filename, false, request, response);
+    }
+    
+    private void sendStoredFile(String filename, boolean attachment, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path filePath = uploadPath.resolve(filename).normalize();
+        if (!filePath.startsWith(uploadPath)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
         }
+        fileDownloadSender.send(filePath, attachment, request, response);
     }
     
     @DeleteMapping("/{filename:.+}")
@@ -154,66 +221,50 @@ public class FileController {
     }
     
     @PostMapping("/consolidate")
-    @Operation(summary = "Consolidate files", description = "Consolidates multiple files into one")
+    @Operation(summary = "Consolidate files", description = "Consolidates the latest versions of files into one, "
+            + "recorded as a new CONSOLIDATE file of the task")
     public ResponseEntity<WorkflowInstanceTaskFileDto> consolidateFiles(
             @Parameter(description = "Instance Task ID") @RequestParam Long instanceTaskId,
             @Parameter(description = "File IDs to consolidate") @RequestParam Long[] fileIds,
+            @Parameter(description = "ZIP (default) or CONCAT") @RequestParam(defaultValue = "ZIP") ConsolidationFormat format,
             @Parameter(description = "User who consolidated the files") @RequestParam String createdBy) {
         
         try {
-            // Create consolidated directory if it doesn't exist
-            Path consolidatedPath = Paths.get(consolidatedDir);
-            if (!Files.exists(consolidatedPath)) {
-                Files.createDirectories(consolidatedPath);
-            }
-            
-            // Generate consolidated filename
-            String consolidatedFilename = "consolidated_" + UUID.randomUUID().toString() + ".zip";
-            Path consolidatedFilePath = consolidatedPath.resolve(consolidatedFilename);
-            
-            // Implement actual file consolidation logic
-            try (java.util.zip.ZipOutputStream zipOut = new java.util.zip.ZipOutputStream(Files.newOutputStream(consolidatedFilePath))) {
-                
-                for (Long fileId : fileIds) {
-                    // Get file information from the database
-                    // This would typically involve querying a file repository
-                    // For now, we'll create a placeholder entry
-                    
-                    String entryName = "file_" + fileId + ".txt";
-                    java.util.zip.ZipEntry zipEntry = new java.util.zip.ZipEntry(entryName);
-                    zipOut.putNextEntry(zipEntry);
-                    
-                    // Write placeholder content
-                    String content = "Consolidated file content for file ID: " + fileId + "\n";
-                    zipOut.write(content.getBytes());
-                    
-                    zipOut.closeEntry();
-                }
-                
-                logger.info("Successfully consolidated {} files into {}", fileIds.length, consolidatedFilename);
-                
-            } catch (IOException e) {
-                logger.error("Error consolidating files", e);
-                throw new RuntimeException("Failed to consolidate files", e);
-            }
-            
-            // Create consolidated file DTO
-            WorkflowInstanceTaskFileDto consolidatedFileDto = new WorkflowInstanceTaskFileDto();
-            consolidatedFileDto.setInstanceTaskId(instanceTaskId);
-            consolidatedFileDto.setFileName(consolidatedFilename);
-            consolidatedFileDto.setFilePath(consolidatedFilePath.toString());
-            consolidatedFileDto.setActionType(ActionType.CONSOLIDATE);
-            consolidatedFileDto.setFileVersion(1);
-            consolidatedFileDto.setCreatedBy(createdBy);
-            consolidatedFileDto.setCreatedAt(LocalDateTime.now());
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(consolidatedFileDto);
-            
+            WorkflowInstanceTaskFileDto consolidated = fileConsolidationService.consolidate(
+                    instanceTaskId, Arrays.asList(fileIds), format, createdBy);
+            return ResponseEntity.status(HttpStatus.CREATED).body(consolidated);
+        } catch (WorkflowException e) {
+            logger.warn("Could not consolidate files for task {}: {}", instanceTaskId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
+            logger.error("Error consolidating files for task {}", instanceTaskId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    @GetMapping("/consolidate/stream")
+    @Operation(summary = "Stream consolidated files", description = "Streams the consolidation of the latest versions "
+            + "of files straight to the response without storing it")
+    public void streamConsolidatedFiles(
+            @Parameter(description = "File IDs to consolidate") @RequestParam Long[] fileIds,
+            @Parameter(description = "ZIP (default) or CONCAT") @RequestParam(defaultValue = "ZIP") ConsolidationFormat format,
+            HttpServletResponse response) throws IOException {
+        
+        List<WorkflowInstanceTaskFileDto> sources;
+        try {
+            sources = fileConsolidationService.resolveSources(Arrays.asList(fileIds));
+        } catch (WorkflowException e) {
+            logger.warn("Could not stream consolidation of files {}: {}", Arrays.toString(fileIds), e.getMessage());
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        boolean zip = format == ConsolidationFormat.ZIP;
+        response.setContentType(zip ? "application/zip" : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("consolidated" + (zip ? ".zip" : ".txt")).build().toString());
+        fileConsolidationService.writeConsolidated(sources, format, response.getOutputStream());
+    }
+    
     @GetMapping("/info/{filename:.+}")
     @Operation(summary = "Get file info", description = "Retrieves information about a file")
     public ResponseEntity<FileInfo> getFileInfo(
@@ -242,64 +293,53 @@ public class FileController {
     // ===== SEARCH ENDPOINTS =====
     
     @GetMapping("/search")
-    @Operation(summary = "Search files", description = "Search files using multiple criteria")
-    public ResponseEntity<List<FileInfo>> searchFiles(
+    @Operation(summary = "Search files", description = "Search recorded file metadata using multiple criteria, "
+            + "with paging and sorting; only the latest version of each file unless allVersions is set")
+    public ResponseEntity<Page<WorkflowInstanceTaskFileDto>> searchFiles(
             @Parameter(description = "Filename pattern (partial match)") @RequestParam(required = false) String filename,
             @Parameter(description = "File extension") @RequestParam(required = false) String extension,
             @Parameter(description = "Minimum file size in bytes") @RequestParam(required = false) Long minSize,
             @Parameter(description = "Maximum file size in bytes") @RequestParam(required = false) Long maxSize,
             @Parameter(description = "Modified after date (ISO format)") @RequestParam(required = false) String modifiedAfter,
-            @Parameter(description = "Modified before date (ISO format)") @RequestParam(required = false) String modifiedBefore) {
+            @Parameter(description = "Modified before date (ISO format)") @RequestParam(required = false) String modifiedBefore,
+            @Parameter(description = "Instance Task ID") @RequestParam(required = false) Long instanceTaskId,
+            @Parameter(description = "Workflow Instance ID") @RequestParam(required = false) Long instanceId,
+            @Parameter(description = "Uploaded by") @RequestParam(required = false) String createdBy,
+            @Parameter(description = "Action type") @RequestParam(required = false) ActionType actionType,
+            @Parameter(description = "Include earlier versions") @RequestParam(defaultValue = "false") boolean allVersions,
+            Pageable pageable) {
         
-        try {
-            List<FileInfo> files = searchFilesInDirectory(filename, extension, minSize, maxSize, modifiedAfter, modifiedBefore);
-            return ResponseEntity.ok(files);
-        } catch (Exception e) {
-            logger.error("Error searching files", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return search(filename, extension, minSize, maxSize, modifiedAfter, modifiedBefore, instanceTaskId,
+                instanceId, createdBy, actionType, allVersions, pageable);
     }
     
     @GetMapping("/search/consolidated")
-    @Operation(summary = "Search consolidated files", description = "Search consolidated files using multiple criteria")
-    public ResponseEntity<List<FileInfo>> searchConsolidatedFiles(
+    @Operation(summary = "Search consolidated files", description = "Search consolidated files using multiple criteria, with paging and sorting")
+    public ResponseEntity<Page<WorkflowInstanceTaskFileDto>> searchConsolidatedFiles(
             @Parameter(description = "Filename pattern (partial match)") @RequestParam(required = false) String filename,
             @Parameter(description = "File extension") @RequestParam(required = false) String extension,
             @Parameter(description = "Minimum file size in bytes") @RequestParam(required = false) Long minSize,
             @Parameter(description = "Maximum file size in bytes") @RequestParam(required = false) Long maxSize,
             @Parameter(description = "Modified after date (ISO format)") @RequestParam(required = false) String modifiedAfter,
-            @Parameter(description = "Modified before date (ISO format)") @RequestParam(required = false) String modifiedBefore) {
+            @Parameter(description = "Modified before date (ISO format)") @RequestParam(required = false) String modifiedBefore,
+            @Parameter(description = "Instance Task ID") @RequestParam(required = false) Long instanceTaskId,
+            @Parameter(description = "Workflow Instance ID") @RequestParam(required = false) Long instanceId,
+            @Parameter(description = "Include earlier versions") @RequestParam(defaultValue = "false") boolean allVersions,
+            Pageable pageable) {
         
-        try {
-            List<FileInfo> files = searchFilesInDirectory(filename, extension, minSize, maxSize, modifiedAfter, modifiedBefore, consolidatedDir);
-            return ResponseEntity.ok(files);
-        } catch (Exception e) {
-            logger.error("Error searching consolidated files", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return search(filename, extension, minSize, maxSize, modifiedAfter, modifiedBefore, instanceTaskId,
+                instanceId, null, ActionType.CONSOLIDATE, allVersions, pageable);
     }
     
     // ===== FILE VERSIONING ENDPOINTS =====
     
     @GetMapping("/versions/{instanceFileId}")
-    @Operation(summary = "Get all versions of a file", description = "Retrieves all versions of a specific file by instance file ID")
+    @Operation(summary = "Get all versions of a file", description = "Retrieves all versions of a specific file by instance file ID, newest first")
     public ResponseEntity<List<WorkflowInstanceTaskFileDto>> getFileVersions(
             @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId) {
         
-        try {
-            // This would typically query the database for all versions of the file
-            // For now, returning a placeholder response
-            List<WorkflowInstanceTaskFileDto> versions = new ArrayList<>();
-            
-            // TODO: Implement database query to get all versions for the given instanceFileId
-            // SELECT * FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ? ORDER BY VERSION DESC
-            
-            return ResponseEntity.ok(versions);
-            
-        } catch (Exception e) {
-            logger.error("Error retrieving file versions for file ID: {}", instanceFileId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        List<WorkflowInstanceTaskFileDto> versions = fileVersionService.getVersions(instanceFileId);
+        return versions.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(versions);
     }
     
     @GetMapping("/versions/{instanceFileId}/latest")
@@ -307,19 +347,9 @@ public class FileController {
     public ResponseEntity<WorkflowInstanceTaskFileDto> getLatestFileVersion(
             @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId) {
         
-        try {
-            // This would typically query the database for the latest version of the file
-            // For now, returning a placeholder response
-            
-            // TODO: Implement database query to get the latest version for the given instanceFileId
-            // SELECT * FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ? ORDER BY VERSION DESC LIMIT 1
-            
-            return ResponseEntity.notFound().build();
-            
-        } catch (Exception e) {
-            logger.error("Error retrieving latest file version for file ID: {}", instanceFileId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        return fileVersionService.getLatestVersion(instanceFileId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/versions/{instanceFileId}/{version}")
@@ -328,65 +358,56 @@ public class FileController {
             @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId,
             @Parameter(description = "Version number") @PathVariable Integer version) {
         
+        return fileUploadService.getFile(instanceFileId, version)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/versions/{instanceFileId}/{version}/content")
+    @Operation(summary = "Download specific version of a file", description = "Downloads the content of a file version "
+            + "under its original name; supports Range, If-Range, If-None-Match and If-Modified-Since")
+    public void downloadFileVersion(
+            @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId,
+            @Parameter(description = "Version number") @PathVariable Integer version,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        
+        WorkflowInstanceTaskFileDto file = fileUploadService.getFile(instanceFileId, version).orElse(null);
+        if (file == null || file.getFilePath() == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // Older versions stored as deltas are rebuilt, or served from the rebuilt copy cache
+        VersionContent content;
         try {
-            // This would typically query the database for the specific version of the file
-            // For now, returning a placeholder response
-            
-            // TODO: Implement database query to get the specific version
-            // SELECT * FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ? AND VERSION = ?
-            
-            return ResponseEntity.notFound().build();
-            
-        } catch (Exception e) {
-            logger.error("Error retrieving file version {} for file ID: {}", version, instanceFileId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            content = fileVersionService.openVersion(instanceFileId, version);
+        } catch (WorkflowException e) {
+            logger.error("Could not rebuild version {} of file {}: {}", version, instanceFileId, e.getMessage());
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
+        // A rebuilt copy stays pinned in the cache until it is sent
+        try (content) {
+            fileDownloadSender.send(content, file.getFileName(), true, request, response);
         }
     }
     
     @PostMapping("/versions/{instanceFileId}")
-    @Operation(summary = "Create new version of a file", description = "Creates a new version of an existing file")
+    @Operation(summary = "Create new version of a file", description = "Creates a new version of an existing file; "
+            + "content already stored is kept once")
     public ResponseEntity<WorkflowInstanceTaskFileDto> createFileVersion(
             @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId,
             @Parameter(description = "File to upload") @RequestParam("file") MultipartFile file,
             @Parameter(description = "User who created the version") @RequestParam String createdBy) {
         
         try {
-            // Get the latest version to determine the next version number
-            // TODO: Implement database query to get the latest version
-            // SELECT MAX(VERSION) FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ?
-            Integer nextVersion = 1; // Placeholder - should be MAX(VERSION) + 1
-            
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            // Generate unique filename for the new version
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null ? 
-                    originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String uniqueFilename = instanceFileId + "_v" + nextVersion + "_" + UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath);
-            
-            // Create file DTO for the new version
-            WorkflowInstanceTaskFileDto fileDto = new WorkflowInstanceTaskFileDto();
-            fileDto.setInstanceFileId(instanceFileId);
-            fileDto.setVersion(nextVersion);
-            fileDto.setFileName(originalFilename);
-            fileDto.setFilePath(filePath.toString());
-            fileDto.setActionType(ActionType.UPDATE); // New version is typically an update
-            fileDto.setCreatedBy(createdBy);
-            fileDto.setCreatedAt(LocalDateTime.now());
-            
-            // TODO: Save to database
-            // INSERT INTO WORKFLOW_INSTANCE_TASK_FILE (INSTANCE_FILE_ID, VERSION, FILE_NAME, FILE_PATH, ...)
-            
+            // A new version stays on the task of the file's latest version
+            WorkflowInstanceTaskFileDto fileDto = fileUploadService.storeFile(null, instanceFileId,
+                    file.getOriginalFilename(), ActionType.UPDATE, createdBy, out -> file.getInputStream().transferTo(out));
             return ResponseEntity.status(HttpStatus.CREATED).body(fileDto);
             
+        } catch (WorkflowException e) {
+            logger.warn("Could not create new version of file {}: {}", instanceFileId, e.getMessage());
+            return ResponseEntity.notFound().build();
         } catch (IOException e) {
             logger.error("Error creating new file version for file ID: {}", instanceFileId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -394,19 +415,18 @@ public class FileController {
     }
     
     @DeleteMapping("/versions/{instanceFileId}/{version}")
-    @Operation(summary = "Delete specific version of a file", description = "Deletes a specific version of a file")
+    @Operation(summary = "Delete specific version of a file", description = "Deletes a specific version of a file; "
+            + "its content is reclaimed once no other version uses it")
     public ResponseEntity<Void> deleteFileVersion(
             @Parameter(description = "Instance File ID") @PathVariable Long instanceFileId,
             @Parameter(description = "Version number") @PathVariable Integer version) {
         
         try {
-            // TODO: Implement database query to get file path and delete the file
-            // SELECT FILE_PATH FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ? AND VERSION = ?
-            // DELETE FROM WORKFLOW_INSTANCE_TASK_FILE WHERE INSTANCE_FILE_ID = ? AND VERSION = ?
-            
-            // For now, just return success
+            fileUploadService.deleteFileVersion(instanceFileId, version);
             return ResponseEntity.noContent().build();
             
+        } catch (WorkflowException e) {
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             logger.error("Error deleting file version {} for file ID: {}", version, instanceFileId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -418,103 +438,20 @@ public class FileController {
     public ResponseEntity<List<WorkflowInstanceTaskFileDto>> getLatestFilesForTask(
             @Parameter(description = "Instance Task ID") @PathVariable Long instanceTaskId) {
         
-        try {
-            // This would typically query the database for the latest version of each file for the task
-            // For now, returning a placeholder response
-            List<WorkflowInstanceTaskFileDto> latestFiles = new ArrayList<>();
-            
-            // TODO: Implement database query to get latest versions for the task
-            // SELECT f1.* FROM WORKFLOW_INSTANCE_TASK_FILE f1
-            // WHERE f1.INSTANCE_TASK_ID = ? 
-            // AND f1.VERSION = (
-            //     SELECT MAX(f2.VERSION) 
-            //     FROM WORKFLOW_INSTANCE_TASK_FILE f2 
-            //     WHERE f2.INSTANCE_FILE_ID = f1.INSTANCE_FILE_ID
-            // )
-            // ORDER BY f1.INSTANCE_FILE_ID
-            
-            return ResponseEntity.ok(latestFiles);
-            
-        } catch (Exception e) {
-            logger.error("Error retrieving latest files for task ID: {}", instanceTaskId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
-    }
-    
-    /**
-     * Search files in a specific directory with multiple criteria
-     */
-    private List<FileInfo> searchFilesInDirectory(String filename, String extension, Long minSize, Long maxSize, 
-                                                 String modifiedAfter, String modifiedBefore) throws IOException {
-        return searchFilesInDirectory(filename, extension, minSize, maxSize, modifiedAfter, modifiedBefore, uploadDir);
+        return ResponseEntity.ok(fileVersionService.getLatestVersions(instanceTaskId));
     }
     
-    /**
-     * Search files in a specific directory with multiple criteria
-     */
-    private List<FileInfo> searchFilesInDirectory(String filename, String extension, Long minSize, Long maxSize, 
-                                                 String modifiedAfter, String modifiedBefore, String directory) throws IOException {
-        List<FileInfo> results = new ArrayList<>();
-        Path dirPath = Paths.get(directory);
-        
-        if (!Files.exists(dirPath)) {
-            return results;
-        }
-        
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dirPath)) {
-            for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
-                    FileInfo fileInfo = new FileInfo();
-                    fileInfo.setFilename(path.getFileName().toString());
-                    fileInfo.setSize(Files.size(path));
-                    fileInfo.setLastModified(Files.getLastModifiedTime(path).toInstant());
-                    fileInfo.setPath(path.toString());
-                    
-                    // Apply filters
-                    if (filename != null && !fileInfo.getFilename().toLowerCase().contains(filename.toLowerCase())) {
-                        continue;
-                    }
-                    
-                    if (extension != null && !fileInfo.getFilename().toLowerCase().endsWith(extension.toLowerCase())) {
-                        continue;
-                    }
-                    
-                    if (minSize != null && fileInfo.getSize() < minSize) {
-                        continue;
-                    }
-                    
-                    if (maxSize != null && fileInfo.getSize() > maxSize) {
-                        continue;
-                    }
-                    
-                    if (modifiedAfter != null) {
-                        try {
-                            java.time.LocalDateTime afterDate = java.time.LocalDateTime.parse(modifiedAfter);
-                            if (fileInfo.getLastModified().isBefore(afterDate.atZone(java.time.ZoneId.systemDefault()).toInstant())) {
-                                continue;
-                            }
-                        } catch (Exception e) {
-                            logger.warn("Invalid modifiedAfter date format: {}", modifiedAfter);
-                        }
-                    }
-                    
-                    if (modifiedBefore != null) {
-                        try {
-                            java.time.LocalDateTime beforeDate = java.time.LocalDateTime.parse(modifiedBefore);
-                            if (fileInfo.getLastModified().isAfter(beforeDate.atZone(java.time.ZoneId.systemDefault()).toInstant())) {
-                                continue;
-                            }
-                        } catch (Exception e) {
-                            logger.warn("Invalid modifiedBefore date format: {}", modifiedBefore);
-                        }
-                    }
-                    
-                    results.add(fileInfo);
-                }
-            }
+    private ResponseEntity<Page<WorkflowInstanceTaskFileDto>> search(String filename, String extension, Long minSize,
+                                                                     Long maxSize, String modifiedAfter, String modifiedBefore,
+                                                                     Long instanceTaskId, Long instanceId, String createdBy,
+                                                                     ActionType actionType, boolean allVersions, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(fileSearchService.searchFiles(filename, extension, minSize, maxSize,
+                    modifiedAfter, modifiedBefore, instanceTaskId, instanceId, createdBy, actionType, allVersions, pageable));
+        } catch (WorkflowException e) {
+            logger.warn("Rejected file search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
-        
-        return results;
     }
     
     // Inner class for file information
@@ -56,7 +56,10 @@ public class SchedulerManagementController {
             List<QuartzJobStatusDto> jobs = new ArrayList<>();
             
             for (String groupName : scheduler.getJobGroupNames()) {
-                Set<JobKey> jobKeys = scheduler.getJobKeys(GroupMatcher.groupEquals(groupName));
+                // Quartz 2.0 returns the group matchers raw
+                @SuppressWarnings("unchecked")
+                GroupMatcher<JobKey> groupJobs = GroupMatcher.groupEquals(groupName);
+                Set<JobKey> jobKeys = scheduler.getJobKeys(groupJobs);
                 for (JobKey jobKey : jobKeys) {
                     JobDetail jobDetail = scheduler.getJobDetail(jobKey);
                     List<? extends Trigger> triggers = scheduler.getTriggersOfJob(jobKey);
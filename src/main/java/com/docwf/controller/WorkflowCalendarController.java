@@ -3,8 +3,11 @@ package com.docwf.controller;
 import com.docwf.dto.WorkflowCalendarDto;
 import com.docwf.dto.WorkflowCalendarDayDto;
 import com.docwf.dto.CreateCalendarWithDaysDto;
+import com.docwf.dto.CalendarDayImportResultDto;
+import com.docwf.exception.WorkflowException;
 import com.docwf.service.WorkflowCalendarService;
 import com.docwf.service.CalendarSchedulerService;
+import com.docwf.service.calendar.CalendarDayImportReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,10 +17,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -279,6 +287,22 @@ public class WorkflowCalendarController {
         return ResponseEntity.status(HttpStatus.CREATED).body(addedDays);
     }
     
+    @PostMapping(value = "/{calendarId}/days/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import calendar days", description = "Streams holidays and run days from a JSON array, CSV or iCalendar (.ics) upload into a calendar, skipping days it already has")
+    public ResponseEntity<CalendarDayImportResultDto> importCalendarDays(
+            @Parameter(description = "Calendar ID") @PathVariable Long calendarId,
+            @Parameter(description = "JSON, CSV or iCalendar file") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "json, csv or ics; taken from the file extension when omitted") @RequestParam(required = false) String format,
+            @Parameter(description = "Day type for rows without one, and for every iCalendar event") @RequestParam(defaultValue = "HOLIDAY") String dayType) {
+        CalendarDayImportReader.Format importFormat = CalendarDayImportReader.Format.resolve(format, file.getOriginalFilename());
+        try (InputStream content = file.getInputStream()) {
+            CalendarDayImportResultDto result = calendarService.importCalendarDays(calendarId, content, importFormat, dayType);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            throw new WorkflowException("Failed to read calendar day upload", e);
+        }
+    }
+    
     @GetMapping("/{calendarId}/days")
     @Operation(summary = "Get calendar days", description = "Retrieves all days of a calendar")
     public ResponseEntity<List<WorkflowCalendarDayDto>> getCalendarDays(
@@ -342,6 +366,26 @@ public class WorkflowCalendarController {
         return ResponseEntity.ok(previousValidDate);
     }
     
+    @GetMapping("/{calendarId}/business-day-of-month")
+    @Operation(summary = "Get Nth business day of month", description = "Finds the Nth valid date of a month; negative N counts back from the month end")
+    public ResponseEntity<LocalDate> getNthBusinessDayOfMonth(
+            @Parameter(description = "Calendar ID") @PathVariable Long calendarId,
+            @Parameter(description = "Month (yyyy-MM)") @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @Parameter(description = "Business day number, e.g. 1 for the first or -1 for the last") @RequestParam int n) {
+        LocalDate businessDay = calendarService.getNthBusinessDayOfMonth(calendarId, month, n);
+        return ResponseEntity.ok(businessDay);
+    }
+    
+    @GetMapping("/{calendarId}/business-days-between")
+    @Operation(summary = "Count business days", description = "Counts the valid dates between two dates inclusive")
+    public ResponseEntity<Integer> countBusinessDaysBetween(
+            @Parameter(description = "Calendar ID") @PathVariable Long calendarId,
+            @Parameter(description = "Start date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int businessDays = calendarService.countBusinessDaysBetween(calendarId, startDate, endDate);
+        return ResponseEntity.ok(businessDays);
+    }
+    
     // ===== UTILITY OPERATIONS =====
     
     @GetMapping("/{calendarId}/days/type/{dayType}")
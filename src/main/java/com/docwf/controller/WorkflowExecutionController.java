@@ -3,7 +3,10 @@ package com.docwf.controller;
 import com.docwf.dto.WorkflowInstanceDto;
 import com.docwf.dto.WorkflowInstanceTaskDto;
 import com.docwf.dto.TaskInstanceDecisionOutcomeDto;
+import com.docwf.dto.TaskTransitionDto;
 import com.docwf.dto.CreateWorkflowInstanceDto;
+import com.docwf.dto.BulkWorkflowStartRequestDto;
+import com.docwf.dto.BulkWorkflowStartResultDto;
 import com.docwf.service.WorkflowExecutionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -45,6 +48,15 @@ public class WorkflowExecutionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(instance);
     }
     
+    @PostMapping("/workflows/start-bulk")
+    @Operation(summary = "Start workflow instances in bulk", description = "Starts one instance per workflow for a calendar execution date and reports the outcome of each workflow")
+    public ResponseEntity<BulkWorkflowStartResultDto> startWorkflowsBulk(
+            @Valid @RequestBody BulkWorkflowStartRequestDto request) {
+        BulkWorkflowStartResultDto result = executionService.startWorkflowsBulk(
+                request.getCalendarId(), request.getWorkflowIds(), request.getExecutionDate());
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/instances/{instanceId}")
     @Operation(summary = "Get workflow instance", description = "Retrieves a workflow instance by ID")
     public ResponseEntity<WorkflowInstanceDto> getWorkflowInstance(
@@ -268,6 +280,30 @@ public class WorkflowExecutionController {
         return ResponseEntity.ok(outcomes);
     }
     
+    @GetMapping("/tasks/{instanceTaskId}/transitions")
+    @Operation(summary = "Get task transitions", description = "Retrieves the state transition log of an instance task, oldest first")
+    public ResponseEntity<List<TaskTransitionDto>> getTaskTransitions(
+            @Parameter(description = "Instance Task ID") @PathVariable Long instanceTaskId) {
+        List<TaskTransitionDto> transitions = executionService.getTaskTransitions(instanceTaskId);
+        return ResponseEntity.ok(transitions);
+    }
+    
+    @GetMapping("/instances/{instanceId}/transitions")
+    @Operation(summary = "Get instance transitions", description = "Retrieves the state transition log of every task in a workflow instance, oldest first")
+    public ResponseEntity<List<TaskTransitionDto>> getInstanceTransitions(
+            @Parameter(description = "Instance ID") @PathVariable Long instanceId) {
+        List<TaskTransitionDto> transitions = executionService.getInstanceTransitions(instanceId);
+        return ResponseEntity.ok(transitions);
+    }
+    
+    @PostMapping("/instances/{instanceId}/replay")
+    @Operation(summary = "Replay instance transitions", description = "Rebuilds task status and assignee from the transition log and returns the tasks that were corrected")
+    public ResponseEntity<List<WorkflowInstanceTaskDto>> replayInstanceTransitions(
+            @Parameter(description = "Instance ID") @PathVariable Long instanceId) {
+        List<WorkflowInstanceTaskDto> corrected = executionService.replayInstanceTransitions(instanceId);
+        return ResponseEntity.ok(corrected);
+    }
+    
     @PostMapping("/tasks/{instanceTaskId}/process-decision")
     @Operation(summary = "Process decision outcome", description = "Processes a decision outcome and moves to next task")
     public ResponseEntity<WorkflowInstanceTaskDto> processDecisionOutcome(
@@ -286,6 +322,14 @@ public class WorkflowExecutionController {
         return ResponseEntity.ok(task);
     }
     
+    @PostMapping("/instances/{instanceId}/activate-ready")
+    @Operation(summary = "Activate ready tasks", description = "Activates every pending task whose dependencies are complete so parallel branches run together")
+    public ResponseEntity<List<WorkflowInstanceTaskDto>> activateReadyTasks(
+            @Parameter(description = "Instance ID") @PathVariable Long instanceId) {
+        List<WorkflowInstanceTaskDto> tasks = executionService.activateReadyTasks(instanceId);
+        return ResponseEntity.ok(tasks);
+    }
+    
     @GetMapping("/instances/{instanceId}/complete")
     @Operation(summary = "Check workflow completion", description = "Checks if a workflow instance is complete")
     public ResponseEntity<Boolean> isWorkflowComplete(
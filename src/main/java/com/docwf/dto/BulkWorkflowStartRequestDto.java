@@ -0,0 +1,51 @@
+package com.docwf.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+public class BulkWorkflowStartRequestDto {
+    
+    @NotNull(message = "Calendar ID is required")
+    private Long calendarId;
+    
+    @NotEmpty(message = "At least one workflow ID is required")
+    private List<Long> workflowIds;
+    
+    private LocalDate executionDate; // Defaults to today when not provided
+    
+    // Constructors
+    public BulkWorkflowStartRequestDto() {}
+    
+    public BulkWorkflowStartRequestDto(Long calendarId, List<Long> workflowIds, LocalDate executionDate) {
+        this.calendarId = calendarId;
+        this.workflowIds = workflowIds;
+        this.executionDate = executionDate;
+    }
+    
+    // Getters and Setters
+    public Long getCalendarId() {
+        return calendarId;
+    }
+    
+    public void setCalendarId(Long calendarId) {
+        this.calendarId = calendarId;
+    }
+    
+    public List<Long> getWorkflowIds() {
+        return workflowIds;
+    }
+    
+    public void setWorkflowIds(List<Long> workflowIds) {
+        this.workflowIds = workflowIds;
+    }
+    
+    public LocalDate getExecutionDate() {
+        return executionDate;
+    }
+    
+    public void setExecutionDate(LocalDate executionDate) {
+        this.executionDate = executionDate;
+    }
+}
@@ -0,0 +1,163 @@
+package com.docwf.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkWorkflowStartResultDto {
+    
+    private Long calendarId;
+    private LocalDate executionDate;
+    private int requestedCount;
+    private int startedCount;
+    private int failedCount;
+    private int skippedCount;
+    private long durationMs;
+    private List<ItemResultDto> items = new ArrayList<>();
+    
+    // Constructors
+    public BulkWorkflowStartResultDto() {}
+    
+    public BulkWorkflowStartResultDto(Long calendarId, LocalDate executionDate) {
+        this.calendarId = calendarId;
+        this.executionDate = executionDate;
+    }
+    
+    // Helper methods
+    public void addStarted(Long workflowId, WorkflowInstanceDto instance) {
+        items.add(new ItemResultDto(workflowId, instance.getInstanceId(), ItemResultDto.STARTED, null));
+        startedCount++;
+    }
+    
+    public void addFailed(Long workflowId, String errorMessage) {
+        items.add(new ItemResultDto(workflowId, null, ItemResultDto.FAILED, errorMessage));
+        failedCount++;
+    }
+    
+    public void addSkipped(Long workflowId, String reason) {
+        items.add(new ItemResultDto(workflowId, null, ItemResultDto.SKIPPED, reason));
+        skippedCount++;
+    }
+    
+    // Getters and Setters
+    public Long getCalendarId() {
+        return calendarId;
+    }
+    
+    public void setCalendarId(Long calendarId) {
+        this.calendarId = calendarId;
+    }
+    
+    public LocalDate getExecutionDate() {
+        return executionDate;
+    }
+    
+    public void setExecutionDate(LocalDate executionDate) {
+        this.executionDate = executionDate;
+    }
+    
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+    
+    public void setRequestedCount(int requestedCount) {
+        this.requestedCount = requestedCount;
+    }
+    
+    public int getStartedCount() {
+        return startedCount;
+    }
+    
+    public void setStartedCount(int startedCount) {
+        this.startedCount = startedCount;
+    }
+    
+    public int getFailedCount() {
+        return failedCount;
+    }
+    
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+    
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+    
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+    
+    public long getDurationMs() {
+        return durationMs;
+    }
+    
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+    
+    public List<ItemResultDto> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<ItemResultDto> items) {
+        this.items = items;
+    }
+    
+    /**
+     * Inner class for the outcome of a single workflow start
+     */
+    public static class ItemResultDto {
+        public static final String STARTED = "STARTED";
+        public static final String FAILED = "FAILED";
+        public static final String SKIPPED = "SKIPPED"; // already started for the calendar and date
+        
+        private Long workflowId;
+        private Long instanceId;
+        private String status;
+        private String errorMessage;
+        
+        // Default constructor
+        public ItemResultDto() {}
+        
+        public ItemResultDto(Long workflowId, Long instanceId, String status, String errorMessage) {
+            this.workflowId = workflowId;
+            this.instanceId = instanceId;
+            this.status = status;
+            this.errorMessage = errorMessage;
+        }
+        
+        // Getters and Setters
+        public Long getWorkflowId() {
+            return workflowId;
+        }
+        
+        public void setWorkflowId(Long workflowId) {
+            this.workflowId = workflowId;
+        }
+        
+        public Long getInstanceId() {
+            return instanceId;
+        }
+        
+        public void setInstanceId(Long instanceId) {
+            this.instanceId = instanceId;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public void setStatus(String status) {
+            this.status = status;
+        }
+        
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+        
+        public void setErrorMessage(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.docwf.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CalendarDayImportResultDto {
+    
+    private Long calendarId;
+    
+    private String format; // JSON, CSV, ICAL
+    
+    private int received; // Days read from the upload, including rejected and duplicate ones
+    
+    private int imported;
+    
+    private int duplicates; // Already on the calendar or repeated in the upload
+    
+    private int rejected;
+    
+    private List<String> errors = new ArrayList<>(); // First rejection reasons, by row
+    
+    // Constructors
+    public CalendarDayImportResultDto() {}
+    
+    public CalendarDayImportResultDto(Long calendarId, String format) {
+        this.calendarId = calendarId;
+        this.format = format;
+    }
+    
+    // Getters and Setters
+    public Long getCalendarId() {
+        return calendarId;
+    }
+    
+    public void setCalendarId(Long calendarId) {
+        this.calendarId = calendarId;
+    }
+    
+    public String getFormat() {
+        return format;
+    }
+    
+    public void setFormat(String format) {
+        this.format = format;
+    }
+    
+    public int getReceived() {
+        return received;
+    }
+    
+    public void setReceived(int received) {
+        this.received = received;
+    }
+    
+    public int getImported() {
+        return imported;
+    }
+    
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    public int getDuplicates() {
+        return duplicates;
+    }
+    
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,132 @@
+package com.docwf.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CompositeCalendarDto {
+    
+    private Long compositeId;
+    
+    @NotBlank(message = "Composite name is required")
+    private String compositeName;
+    
+    private String description;
+    
+    @NotBlank(message = "Expression is required")
+    private String expression; // e.g. intersect(1, 2) or shift(union(1, 3), -1)
+    
+    private List<Long> calendarIds; // Calendars referenced by the expression (read-only)
+    
+    private LocalDate startDate; // Range the composite covers (read-only)
+    
+    private LocalDate endDate;
+    
+    @NotBlank(message = "Created by is required")
+    private String createdBy;
+    
+    private LocalDateTime createdAt;
+    
+    private String updatedBy;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public CompositeCalendarDto() {}
+    
+    public CompositeCalendarDto(String compositeName, String expression, String createdBy) {
+        this.compositeName = compositeName;
+        this.expression = expression;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public Long getCompositeId() {
+        return compositeId;
+    }
+    
+    public void setCompositeId(Long compositeId) {
+        this.compositeId = compositeId;
+    }
+    
+    public String getCompositeName() {
+        return compositeName;
+    }
+    
+    public void setCompositeName(String compositeName) {
+        this.compositeName = compositeName;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getExpression() {
+        return expression;
+    }
+    
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+    
+    public List<Long> getCalendarIds() {
+        return calendarIds;
+    }
+    
+    public void setCalendarIds(List<Long> calendarIds) {
+        this.calendarIds = calendarIds;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+    
+    public void setUpdatedBy(String updatedBy) {
+        this.updatedBy = updatedBy;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,133 @@
+package com.docwf.dto;
+
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a chunked upload; bytesReceived is the offset the next chunk must start at
+ */
+public class FileUploadSessionDto {
+
+    private Long uploadId;
+    private Long instanceTaskId;
+    private Long instanceFileId;
+    private String fileName;
+    private ActionType actionType;
+    private long totalSize;
+    private long bytesReceived;
+    private long maxChunkBytes;
+    private String status;
+    private String checksum;
+    private Integer fileVersion;
+    private LocalDateTime createdOn;
+    private LocalDateTime updatedOn;
+
+    // Constructors
+    public FileUploadSessionDto() {}
+
+    // Getters and Setters
+    public Long getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(Long uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public Long getInstanceTaskId() {
+        return instanceTaskId;
+    }
+
+    public void setInstanceTaskId(Long instanceTaskId) {
+        this.instanceTaskId = instanceTaskId;
+    }
+
+    public Long getInstanceFileId() {
+        return instanceFileId;
+    }
+
+    public void setInstanceFileId(Long instanceFileId) {
+        this.instanceFileId = instanceFileId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public ActionType getActionType() {
+        return actionType;
+    }
+
+    public void setActionType(ActionType actionType) {
+        this.actionType = actionType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public void setBytesReceived(long bytesReceived) {
+        this.bytesReceived = bytesReceived;
+    }
+
+    public long getMaxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    public void setMaxChunkBytes(long maxChunkBytes) {
+        this.maxChunkBytes = maxChunkBytes;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public Integer getFileVersion() {
+        return fileVersion;
+    }
+
+    public void setFileVersion(Integer fileVersion) {
+        this.fileVersion = fileVersion;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(LocalDateTime createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public LocalDateTime getUpdatedOn() {
+        return updatedOn;
+    }
+
+    public void setUpdatedOn(LocalDateTime updatedOn) {
+        this.updatedOn = updatedOn;
+    }
+}
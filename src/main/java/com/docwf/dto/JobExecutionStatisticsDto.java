@@ -0,0 +1,118 @@
+package com.docwf.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Execution totals for a job, or all jobs, since an instant, summed from the
+ * hourly execution rollups
+ */
+public class JobExecutionStatisticsDto {
+
+    private String jobName;
+    private LocalDateTime since;
+    private long totalExecutions;
+    private long failedExecutions;
+    private long totalDurationMs;
+    private long maxDurationMs;
+    private long totalStartDelayMs;
+    private long instancesCreated;
+    private int jobCount;
+
+    // Constructors
+    public JobExecutionStatisticsDto() {}
+
+    public JobExecutionStatisticsDto(String jobName, LocalDateTime since) {
+        this.jobName = jobName;
+        this.since = since;
+    }
+
+    // Derived values
+    public long getSuccessfulExecutions() {
+        return totalExecutions - failedExecutions;
+    }
+
+    public long getAverageDurationMs() {
+        return totalExecutions > 0 ? totalDurationMs / totalExecutions : 0;
+    }
+
+    public long getAverageStartDelayMs() {
+        return totalExecutions > 0 ? totalStartDelayMs / totalExecutions : 0;
+    }
+
+    public double getSuccessRate() {
+        return totalExecutions > 0 ? 100.0 * getSuccessfulExecutions() / totalExecutions : 100.0;
+    }
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void setSince(LocalDateTime since) {
+        this.since = since;
+    }
+
+    public long getTotalExecutions() {
+        return totalExecutions;
+    }
+
+    public void setTotalExecutions(long totalExecutions) {
+        this.totalExecutions = totalExecutions;
+    }
+
+    public long getFailedExecutions() {
+        return failedExecutions;
+    }
+
+    public void setFailedExecutions(long failedExecutions) {
+        this.failedExecutions = failedExecutions;
+    }
+
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    public void setTotalDurationMs(long totalDurationMs) {
+        this.totalDurationMs = totalDurationMs;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public void setMaxDurationMs(long maxDurationMs) {
+        this.maxDurationMs = maxDurationMs;
+    }
+
+    public long getTotalStartDelayMs() {
+        return totalStartDelayMs;
+    }
+
+    public void setTotalStartDelayMs(long totalStartDelayMs) {
+        this.totalStartDelayMs = totalStartDelayMs;
+    }
+
+    public long getInstancesCreated() {
+        return instancesCreated;
+    }
+
+    public void setInstancesCreated(long instancesCreated) {
+        this.instancesCreated = instancesCreated;
+    }
+
+    public int getJobCount() {
+        return jobCount;
+    }
+
+    public void setJobCount(int jobCount) {
+        this.jobCount = jobCount;
+    }
+}
@@ -0,0 +1,100 @@
+package com.docwf.dto;
+
+import java.time.LocalDateTime;
+
+public class TaskTransitionDto {
+    
+    private Long transitionId;
+    
+    private Long instanceId;
+    
+    private Long instanceTaskId;
+    
+    private String event;
+    
+    private String fromStatus;
+    
+    private String toStatus;
+    
+    private Long assignedTo;
+    
+    private String detail;
+    
+    private LocalDateTime occurredOn;
+    
+    // Constructors
+    public TaskTransitionDto() {}
+    
+    // Getters and Setters
+    public Long getTransitionId() {
+        return transitionId;
+    }
+    
+    public void setTransitionId(Long transitionId) {
+        this.transitionId = transitionId;
+    }
+    
+    public Long getInstanceId() {
+        return instanceId;
+    }
+    
+    public void setInstanceId(Long instanceId) {
+        this.instanceId = instanceId;
+    }
+    
+    public Long getInstanceTaskId() {
+        return instanceTaskId;
+    }
+    
+    public void setInstanceTaskId(Long instanceTaskId) {
+        this.instanceTaskId = instanceTaskId;
+    }
+    
+    public String getEvent() {
+        return event;
+    }
+    
+    public void setEvent(String event) {
+        this.event = event;
+    }
+    
+    public String getFromStatus() {
+        return fromStatus;
+    }
+    
+    public void setFromStatus(String fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+    
+    public String getToStatus() {
+        return toStatus;
+    }
+    
+    public void setToStatus(String toStatus) {
+        this.toStatus = toStatus;
+    }
+    
+    public Long getAssignedTo() {
+        return assignedTo;
+    }
+    
+    public void setAssignedTo(Long assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+    
+    public LocalDateTime getOccurredOn() {
+        return occurredOn;
+    }
+    
+    public void setOccurredOn(LocalDateTime occurredOn) {
+        this.occurredOn = occurredOn;
+    }
+}
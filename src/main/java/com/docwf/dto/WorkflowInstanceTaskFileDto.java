@@ -1,5 +1,6 @@
 package com.docwf.dto;
 
+import com.docwf.entity.WorkflowInstanceTaskFile;
 import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
 import java.time.LocalDateTime;
 
@@ -11,12 +12,20 @@ public class WorkflowInstanceTaskFileDto {
     
     private String fileName;
     
+    private String fileExtension;
+    
     private String filePath;
     
     private Integer fileVersion;
     
     private ActionType actionType;
     
+    private Long fileSize;
+    
+    private String checksum;
+    
+    private Integer deltaBaseVersion;
+    
     private String createdBy;
     
     private LocalDateTime createdAt;
@@ -31,6 +40,20 @@ public class WorkflowInstanceTaskFileDto {
         this.createdBy = createdBy;
     }
     
+    public static WorkflowInstanceTaskFileDto from(WorkflowInstanceTaskFile file) {
+        WorkflowInstanceTaskFileDto dto = new WorkflowInstanceTaskFileDto(file.getFileName(), file.getFilePath(),
+            file.getActionType(), file.getCreatedBy());
+        dto.setInstanceFileId(file.getInstanceFileId());
+        dto.setInstanceTaskId(file.getInstanceTask().getInstanceTaskId());
+        dto.setFileExtension(file.getFileExtension());
+        dto.setFileVersion(file.getVersion());
+        dto.setFileSize(file.getFileSize());
+        dto.setChecksum(file.getChecksum());
+        dto.setDeltaBaseVersion(file.getDeltaBaseVersion());
+        dto.setCreatedAt(file.getCreatedAt());
+        return dto;
+    }
+    
     // Getters and Setters
     public Long getInstanceFileId() {
         return instanceFileId;
@@ -56,6 +79,14 @@ public class WorkflowInstanceTaskFileDto {
         this.fileName = fileName;
     }
     
+    public String getFileExtension() {
+        return fileExtension;
+    }
+    
+    public void setFileExtension(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+    
     public String getFilePath() {
         return filePath;
     }
@@ -84,6 +115,30 @@ public class WorkflowInstanceTaskFileDto {
         this.actionType = actionType;
     }
     
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public String getChecksum() {
+        return checksum;
+    }
+    
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+    
+    public Integer getDeltaBaseVersion() {
+        return deltaBaseVersion;
+    }
+    
+    public void setDeltaBaseVersion(Integer deltaBaseVersion) {
+        this.deltaBaseVersion = deltaBaseVersion;
+    }
+    
     public String getCreatedBy() {
         return createdBy;
     }
@@ -1,6 +1,7 @@
 package com.docwf.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class WorkflowProgressDto {
     
@@ -14,6 +15,11 @@ public class WorkflowProgressDto {
     private double progressPercentage;
     private LocalDateTime estimatedCompletion;
     private String currentStatus;
+    private int readyTasks;
+    private List<Long> criticalPathTaskIds;
+    private int criticalPathLength;
+    private int criticalPathExpectedCompletion;
+    private int remainingCriticalPathLength;
     
     // Constructors
     public WorkflowProgressDto() {}
@@ -104,6 +110,46 @@ public class WorkflowProgressDto {
         this.currentStatus = currentStatus;
     }
     
+    public int getReadyTasks() {
+        return readyTasks;
+    }
+    
+    public void setReadyTasks(int readyTasks) {
+        this.readyTasks = readyTasks;
+    }
+    
+    public List<Long> getCriticalPathTaskIds() {
+        return criticalPathTaskIds;
+    }
+    
+    public void setCriticalPathTaskIds(List<Long> criticalPathTaskIds) {
+        this.criticalPathTaskIds = criticalPathTaskIds;
+    }
+    
+    public int getCriticalPathLength() {
+        return criticalPathLength;
+    }
+    
+    public void setCriticalPathLength(int criticalPathLength) {
+        this.criticalPathLength = criticalPathLength;
+    }
+    
+    public int getCriticalPathExpectedCompletion() {
+        return criticalPathExpectedCompletion;
+    }
+    
+    public void setCriticalPathExpectedCompletion(int criticalPathExpectedCompletion) {
+        this.criticalPathExpectedCompletion = criticalPathExpectedCompletion;
+    }
+    
+    public int getRemainingCriticalPathLength() {
+        return remainingCriticalPathLength;
+    }
+    
+    public void setRemainingCriticalPathLength(int remainingCriticalPathLength) {
+        this.remainingCriticalPathLength = remainingCriticalPathLength;
+    }
+    
     // Utility methods
     public void calculateProgress() {
         if (totalTasks > 0) {
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.RelationTargetAuditMode;
 
 import java.time.LocalDateTime;
 
@@ -20,6 +21,7 @@ public class TaskInstanceDecisionOutcome {
     private Long outcomeId;
     
     @NotNull
+    @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "INSTANCE_TASK_ID", nullable = false)
     private WorkflowInstanceTask instanceTask;
@@ -34,10 +36,12 @@ public class TaskInstanceDecisionOutcome {
     @Column(name = "NEXT_ACTION", length = 100)
     private String nextAction;
     
+    @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "NEXT_INSTANCE_TASK_ID")
     private WorkflowInstanceTask nextInstanceTask;
     
+    @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PRIOR_INSTANCE_TASK_ID")
     private WorkflowInstanceTask priorInstanceTask;
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TimeZone;
 
 @Entity
 @Table(name = "WORKFLOW_CALENDAR")
@@ -56,6 +57,9 @@ public class WorkflowCalendar {
     @Column(name = "IS_ACTIVE", length = 1)
     private String isActive = "Y"; // Y/N - whether calendar is active for scheduling
     
+    @Column(name = "SCHEDULE_PAUSED", length = 1)
+    private String schedulePaused = "N"; // Y/N - whether the cron schedule is paused, honoured by whichever node owns it
+    
     @Column(name = "WORKFLOW_ID")
     private Long workflowId; // Associated workflow configuration ID
     
@@ -267,6 +271,14 @@ public class WorkflowCalendar {
         this.isActive = isActive;
     }
     
+    public String getSchedulePaused() {
+        return schedulePaused;
+    }
+    
+    public void setSchedulePaused(String schedulePaused) {
+        this.schedulePaused = schedulePaused;
+    }
+    
     public Long getWorkflowId() {
         return workflowId;
     }
@@ -389,6 +401,14 @@ public class WorkflowCalendar {
         return "Y".equals(isActive);
     }
     
+    /**
+     * Check if the calendar's cron schedule is paused
+     * @return true if the schedule is paused
+     */
+    public boolean isSchedulePaused() {
+        return "Y".equals(schedulePaused);
+    }
+    
     /**
      * Check if calendar has cron-based scheduling
      * @return true if cron expression is set
@@ -405,6 +425,15 @@ public class WorkflowCalendar {
         return timezone != null ? timezone : "UTC";
     }
     
+    /**
+     * Get the time zone the calendar's cron fires and execution dates are in,
+     * default to UTC if not set
+     * @return time zone
+     */
+    public TimeZone getEffectiveTimeZone() {
+        return TimeZone.getTimeZone(timezone != null && !timezone.trim().isEmpty() ? timezone : "UTC");
+    }
+    
     /**
      * Check if calendar is region-specific
      * @return true if region is set
@@ -13,7 +13,7 @@ public class WorkflowCalendarDay {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_CALENDAR_DAY")
-    @SequenceGenerator(name = "SEQ_WORKFLOW_CALENDAR_DAY", sequenceName = "SEQ_WORKFLOW_CALENDAR_DAY", allocationSize = 1)
+    @SequenceGenerator(name = "SEQ_WORKFLOW_CALENDAR_DAY", sequenceName = "SEQ_WORKFLOW_CALENDAR_DAY", allocationSize = 50)
     @Column(name = "CALENDAR_DAY_ID")
     private Long calendarDayId;
     
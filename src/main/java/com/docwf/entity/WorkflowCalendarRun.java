@@ -0,0 +1,98 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger entry for one scheduled start of a workflow by a calendar on an
+ * effective date.
+ *
+ * Written in the same transaction as the instance it records, and unique per
+ * calendar, effective date and workflow, so a misfired, retriggered or
+ * failed-over calendar job cannot start the same workflow twice for a date.
+ */
+@Entity
+@Table(name = "WORKFLOW_CALENDAR_RUN",
+       uniqueConstraints = @UniqueConstraint(name = "UK_WORKFLOW_CALENDAR_RUN",
+                                             columnNames = {"CALENDAR_ID", "EFFECTIVE_DATE", "WORKFLOW_ID"}))
+public class WorkflowCalendarRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_CALENDAR_RUN")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_CALENDAR_RUN", sequenceName = "SEQ_WORKFLOW_CALENDAR_RUN", allocationSize = 50)
+    @Column(name = "RUN_ID")
+    private Long runId;
+
+    @NotNull
+    @Column(name = "CALENDAR_ID", nullable = false, updatable = false)
+    private Long calendarId;
+
+    @NotNull
+    @Column(name = "EFFECTIVE_DATE", nullable = false, updatable = false)
+    private LocalDate effectiveDate;
+
+    @NotNull
+    @Column(name = "WORKFLOW_ID", nullable = false, updatable = false)
+    private Long workflowId;
+
+    @Column(name = "INSTANCE_ID")
+    private Long instanceId;
+
+    @NotNull
+    @Column(name = "STARTED_ON", nullable = false, updatable = false)
+    private LocalDateTime startedOn;
+
+    // Constructors
+    public WorkflowCalendarRun() {}
+
+    public WorkflowCalendarRun(Long calendarId, LocalDate effectiveDate, Long workflowId, Long instanceId) {
+        this.calendarId = calendarId;
+        this.effectiveDate = effectiveDate;
+        this.workflowId = workflowId;
+        this.instanceId = instanceId;
+        this.startedOn = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getRunId() {
+        return runId;
+    }
+
+    public Long getCalendarId() {
+        return calendarId;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public Long getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(Long instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public LocalDateTime getStartedOn() {
+        return startedOn;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowCalendarRun{" +
+                "runId=" + runId +
+                ", calendarId=" + calendarId +
+                ", effectiveDate=" + effectiveDate +
+                ", workflowId=" + workflowId +
+                ", instanceId=" + instanceId +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A calendar defined as a set expression over existing workflow calendars,
+ * e.g. {@code intersect(1, 2)} for days that are business days in both the
+ * US and the EU calendar. See {@code CalendarExpression} for the grammar.
+ */
+@Entity
+@Table(name = "WORKFLOW_COMPOSITE_CALENDAR")
+public class WorkflowCompositeCalendar {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_COMPOSITE_CALENDAR")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_COMPOSITE_CALENDAR", sequenceName = "SEQ_WORKFLOW_COMPOSITE_CALENDAR", allocationSize = 1)
+    @Column(name = "COMPOSITE_ID")
+    private Long compositeId;
+    
+    @NotBlank
+    @Column(name = "COMPOSITE_NAME", length = 100, nullable = false, unique = true)
+    private String compositeName;
+    
+    @Column(name = "DESCRIPTION", length = 255)
+    private String description;
+    
+    @NotBlank
+    @Column(name = "EXPRESSION", length = 1000, nullable = false)
+    private String expression;
+    
+    @NotBlank
+    @Column(name = "CREATED_BY", length = 100, nullable = false)
+    private String createdBy;
+    
+    @CreationTimestamp
+    @Column(name = "CREATED_AT")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "UPDATED_BY", length = 100)
+    private String updatedBy;
+    
+    @UpdateTimestamp
+    @Column(name = "UPDATED_AT")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public WorkflowCompositeCalendar() {}
+    
+    public WorkflowCompositeCalendar(String compositeName, String description, String expression, String createdBy) {
+        this.compositeName = compositeName;
+        this.description = description;
+        this.expression = expression;
+        this.createdBy = createdBy;
+    }
+    
+    // Getters and Setters
+    public Long getCompositeId() {
+        return compositeId;
+    }
+    
+    public void setCompositeId(Long compositeId) {
+        this.compositeId = compositeId;
+    }
+    
+    public String getCompositeName() {
+        return compositeName;
+    }
+    
+    public void setCompositeName(String compositeName) {
+        this.compositeName = compositeName;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getExpression() {
+        return expression;
+    }
+    
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+    
+    public void setUpdatedBy(String updatedBy) {
+        this.updatedBy = updatedBy;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
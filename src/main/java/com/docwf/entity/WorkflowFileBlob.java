@@ -0,0 +1,94 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored content of task files, keyed by its SHA-256.
+ *
+ * Identical payloads uploaded to several tasks or as several versions are kept
+ * once. REF_COUNT is the number of task file rows using the blob; when it drops
+ * to zero UNREFERENCED_ON is set and the blob is collected after a grace period,
+ * once a count of the task file rows confirms nothing refers to it.
+ */
+@Entity
+@Table(name = "WORKFLOW_FILE_BLOB")
+public class WorkflowFileBlob {
+
+    @Id
+    @Column(name = "CHECKSUM", length = 64)
+    private String checksum;
+
+    @NotNull
+    @Column(name = "SIZE_BYTES", nullable = false, updatable = false)
+    private Long sizeBytes;
+
+    @NotNull
+    @Column(name = "BLOB_PATH", length = 1000, nullable = false, updatable = false)
+    private String blobPath;
+
+    @NotNull
+    @Column(name = "REF_COUNT", nullable = false)
+    private Integer refCount = 0;
+
+    @NotNull
+    @Column(name = "CREATED_ON", nullable = false, updatable = false)
+    private LocalDateTime createdOn;
+
+    @Column(name = "UNREFERENCED_ON")
+    private LocalDateTime unreferencedOn;
+
+    // Constructors
+    public WorkflowFileBlob() {}
+
+    public WorkflowFileBlob(String checksum, Long sizeBytes, String blobPath) {
+        this.checksum = checksum;
+        this.sizeBytes = sizeBytes;
+        this.blobPath = blobPath;
+        this.createdOn = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getBlobPath() {
+        return blobPath;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public LocalDateTime getUnreferencedOn() {
+        return unreferencedOn;
+    }
+
+    public void setUnreferencedOn(LocalDateTime unreferencedOn) {
+        this.unreferencedOn = unreferencedOn;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowFileBlob{" +
+                "checksum='" + checksum + '\'' +
+                ", sizeBytes=" + sizeBytes +
+                ", refCount=" + refCount +
+                '}';
+    }
+}
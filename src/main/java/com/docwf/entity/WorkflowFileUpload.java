@@ -0,0 +1,195 @@
+package com.docwf.entity;
+
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * A chunked upload in progress.
+ *
+ * Chunks are appended in order to a part file beside the final location and
+ * BYTES_RECEIVED only advances once a chunk's bytes are forced to disk, so it
+ * is always a safe offset to resume from. Completing the upload renames the
+ * part file into place and records it as a new file, or a new version of an
+ * existing one; a new file takes the upload's ID as its instance file ID.
+ */
+@Entity
+@Table(name = "WORKFLOW_FILE_UPLOAD")
+public class WorkflowFileUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_FILE_UPLOAD")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_FILE_UPLOAD", sequenceName = "SEQ_WORKFLOW_FILE_UPLOAD", allocationSize = 50)
+    @Column(name = "UPLOAD_ID")
+    private Long uploadId;
+
+    @NotNull
+    @Column(name = "INSTANCE_TASK_ID", nullable = false, updatable = false)
+    private Long instanceTaskId;
+
+    @Column(name = "INSTANCE_FILE_ID", updatable = false)
+    private Long instanceFileId;
+
+    @NotNull
+    @Column(name = "FILE_NAME", length = 500, nullable = false, updatable = false)
+    private String fileName;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ACTION_TYPE", length = 50, nullable = false, updatable = false)
+    private ActionType actionType;
+
+    @NotNull
+    @Column(name = "TOTAL_SIZE", nullable = false)
+    private Long totalSize;
+
+    @NotNull
+    @Column(name = "BYTES_RECEIVED", nullable = false)
+    private Long bytesReceived = 0L;
+
+    @Column(name = "PART_PATH", length = 1000)
+    private String partPath;
+
+    @Column(name = "CHECKSUM", length = 64)
+    private String checksum;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 20, nullable = false)
+    private UploadStatus status = UploadStatus.ACTIVE;
+
+    @Column(name = "FILE_VERSION")
+    private Integer fileVersion;
+
+    @Column(name = "CREATED_BY", length = 100, updatable = false)
+    private String createdBy;
+
+    @NotNull
+    @Column(name = "CREATED_ON", nullable = false, updatable = false)
+    private LocalDateTime createdOn;
+
+    @NotNull
+    @Column(name = "UPDATED_ON", nullable = false)
+    private LocalDateTime updatedOn;
+
+    public enum UploadStatus {
+        ACTIVE, COMPLETED, ABORTED, EXPIRED
+    }
+
+    // Constructors
+    public WorkflowFileUpload() {}
+
+    public WorkflowFileUpload(Long instanceTaskId, Long instanceFileId, String fileName, ActionType actionType,
+                              Long totalSize, String createdBy) {
+        this.instanceTaskId = instanceTaskId;
+        this.instanceFileId = instanceFileId;
+        this.fileName = fileName;
+        this.actionType = actionType;
+        this.totalSize = totalSize;
+        this.createdBy = createdBy;
+        this.createdOn = LocalDateTime.now();
+        this.updatedOn = this.createdOn;
+    }
+
+    // Getters and Setters
+    public Long getUploadId() {
+        return uploadId;
+    }
+
+    public Long getInstanceTaskId() {
+        return instanceTaskId;
+    }
+
+    public Long getInstanceFileId() {
+        return instanceFileId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public ActionType getActionType() {
+        return actionType;
+    }
+
+    public Long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(Long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public Long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public void setBytesReceived(Long bytesReceived) {
+        this.bytesReceived = bytesReceived;
+    }
+
+    public String getPartPath() {
+        return partPath;
+    }
+
+    public void setPartPath(String partPath) {
+        this.partPath = partPath;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public UploadStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UploadStatus status) {
+        this.status = status;
+    }
+
+    public Integer getFileVersion() {
+        return fileVersion;
+    }
+
+    public void setFileVersion(Integer fileVersion) {
+        this.fileVersion = fileVersion;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public LocalDateTime getUpdatedOn() {
+        return updatedOn;
+    }
+
+    public void setUpdatedOn(LocalDateTime updatedOn) {
+        this.updatedOn = updatedOn;
+    }
+
+    public boolean isFullyReceived() {
+        return bytesReceived.equals(totalSize);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowFileUpload{" +
+                "uploadId=" + uploadId +
+                ", fileName='" + fileName + '\'' +
+                ", bytesReceived=" + bytesReceived +
+                ", totalSize=" + totalSize +
+                ", status=" + status +
+                '}';
+    }
+}
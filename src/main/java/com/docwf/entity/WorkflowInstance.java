@@ -4,10 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "WORKFLOW_INSTANCE")
@@ -16,7 +18,7 @@ public class WorkflowInstance {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_INSTANCE")
-    @SequenceGenerator(name = "SEQ_WORKFLOW_INSTANCE", sequenceName = "SEQ_WORKFLOW_INSTANCE", allocationSize = 1)
+    @SequenceGenerator(name = "SEQ_WORKFLOW_INSTANCE", sequenceName = "SEQ_WORKFLOW_INSTANCE", allocationSize = 50)
     @Column(name = "INSTANCE_ID")
     private Long instanceId;
     
@@ -48,10 +50,44 @@ public class WorkflowInstance {
     @JoinColumn(name = "CALENDAR_ID")
     private WorkflowCalendar calendar;
     
+    // Bumped by every task transition, so concurrent changes to one instance conflict
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+    
+    // Task counts by status, maintained by task transitions so progress and
+    // completion checks never load the task rows. Not audited, since the
+    // transition log already records every change.
+    @NotAudited
+    @Column(name = "TOTAL_TASKS", nullable = false)
+    private Integer totalTasks = 0;
+    
+    @NotAudited
+    @Column(name = "PENDING_TASKS", nullable = false)
+    private Integer pendingTasks = 0;
+    
+    @NotAudited
+    @Column(name = "IN_PROGRESS_TASKS", nullable = false)
+    private Integer inProgressTasks = 0;
+    
+    @NotAudited
+    @Column(name = "COMPLETED_TASKS", nullable = false)
+    private Integer completedTasks = 0;
+    
+    @NotAudited
+    @Column(name = "FAILED_TASKS", nullable = false)
+    private Integer failedTasks = 0;
+    
+    @NotAudited
+    @Column(name = "ESCALATED_TASKS", nullable = false)
+    private Integer escalatedTasks = 0;
+    
     // Relationships
     @OneToMany(mappedBy = "workflowInstance", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<WorkflowInstanceRole> instanceRoles = new ArrayList<>();
     
+    // Task history is kept in WORKFLOW_INSTANCE_TASK_TRANSITION rather than Envers
+    @NotAudited
     @OneToMany(mappedBy = "workflowInstance", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<WorkflowInstanceTask> instanceTasks = new ArrayList<>();
     
@@ -137,6 +173,34 @@ public class WorkflowInstance {
         this.calendar = calendar;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public Integer getTotalTasks() {
+        return totalTasks;
+    }
+    
+    public Integer getPendingTasks() {
+        return pendingTasks;
+    }
+    
+    public Integer getInProgressTasks() {
+        return inProgressTasks;
+    }
+    
+    public Integer getCompletedTasks() {
+        return completedTasks;
+    }
+    
+    public Integer getFailedTasks() {
+        return failedTasks;
+    }
+    
+    public Integer getEscalatedTasks() {
+        return escalatedTasks;
+    }
+    
     public List<WorkflowInstanceRole> getInstanceRoles() {
         return instanceRoles;
     }
@@ -164,6 +228,58 @@ public class WorkflowInstance {
         instanceTask.setWorkflowInstance(this);
     }
     
+    /**
+     * Move one task between status counters. A null fromStatus adds a new task.
+     */
+    public void countTaskTransition(WorkflowInstanceTask.TaskInstanceStatus fromStatus,
+                                    WorkflowInstanceTask.TaskInstanceStatus toStatus) {
+        if (fromStatus == null) {
+            totalTasks++;
+        } else {
+            adjustTaskCount(fromStatus, -1);
+        }
+        adjustTaskCount(toStatus, 1);
+    }
+    
+    /**
+     * Replace all counters, e.g. when backfilling an instance created before they existed
+     */
+    public void resetTaskCounts(Map<WorkflowInstanceTask.TaskInstanceStatus, Integer> countsByStatus) {
+        totalTasks = 0;
+        pendingTasks = 0;
+        inProgressTasks = 0;
+        completedTasks = 0;
+        failedTasks = 0;
+        escalatedTasks = 0;
+        countsByStatus.forEach((status, count) -> {
+            totalTasks += count;
+            adjustTaskCount(status, count);
+        });
+    }
+    
+    // REJECTED tasks only count towards the total
+    private void adjustTaskCount(WorkflowInstanceTask.TaskInstanceStatus status, int delta) {
+        switch (status) {
+            case PENDING:
+                pendingTasks += delta;
+                break;
+            case IN_PROGRESS:
+                inProgressTasks += delta;
+                break;
+            case COMPLETED:
+                completedTasks += delta;
+                break;
+            case FAILED:
+                failedTasks += delta;
+                break;
+            case ESCALATED:
+                escalatedTasks += delta;
+                break;
+            default:
+                break;
+        }
+    }
+    
     @Override
     public String toString() {
         return "WorkflowInstance{" +
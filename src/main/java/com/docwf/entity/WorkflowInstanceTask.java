@@ -3,20 +3,22 @@ package com.docwf.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.envers.Audited;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Not audited by Envers: status and assignee changes are recorded as
+ * {@link WorkflowInstanceTaskTransition} rows instead.
+ */
 @Entity
 @Table(name = "WORKFLOW_INSTANCE_TASK")
-@Audited
 public class WorkflowInstanceTask {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_INSTANCE_TASK")
-    @SequenceGenerator(name = "SEQ_WORKFLOW_INSTANCE_TASK", sequenceName = "SEQ_WORKFLOW_INSTANCE_TASK", allocationSize = 1)
+    @SequenceGenerator(name = "SEQ_WORKFLOW_INSTANCE_TASK", sequenceName = "SEQ_WORKFLOW_INSTANCE_TASK", allocationSize = 50)
     @Column(name = "INSTANCE_TASK_ID")
     private Long instanceTaskId;
     
@@ -63,6 +65,10 @@ public class WorkflowInstanceTask {
     @Column(name = "PARENT_TASK_IDS", length = 500)
     private String parentTaskIds;
     
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+    
     // Relationships
     @OneToMany(mappedBy = "instanceTask", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<WorkflowInstanceTaskFile> instanceTaskFiles = new ArrayList<>();
@@ -193,6 +199,10 @@ public class WorkflowInstanceTask {
         this.parentTaskIds = parentTaskIds;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
     public List<WorkflowInstanceTaskFile> getInstanceTaskFiles() {
         return instanceTaskFiles;
     }
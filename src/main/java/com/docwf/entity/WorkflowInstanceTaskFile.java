@@ -4,8 +4,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.RelationTargetAuditMode;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "WORKFLOW_INSTANCE_TASK_FILE")
@@ -22,6 +24,7 @@ public class WorkflowInstanceTaskFile {
     private Integer version = 1;
     
     @NotNull
+    @Audited(targetAuditMode = RelationTargetAuditMode.NOT_AUDITED)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "INSTANCE_TASK_ID", nullable = false)
     private WorkflowInstanceTask instanceTask;
@@ -29,12 +32,29 @@ public class WorkflowInstanceTaskFile {
     @Column(name = "FILE_NAME", length = 500)
     private String fileName;
     
+    // Lower case, without the dot; kept with the name so searches by type can use an index
+    @Column(name = "FILE_EXTENSION", length = 50)
+    private String fileExtension;
+    
     @Column(name = "FILE_PATH", length = 1000)
     private String filePath;
     
     @Column(name = "FILE_LOCATION", length = 1000)
     private String fileLocation;
     
+    @Column(name = "FILE_SIZE")
+    private Long fileSize;
+    
+    @Column(name = "CHECKSUM", length = 64)
+    private String checksum;
+    
+    // Set when the version is stored as a delta against a newer one; FILE_PATH is then the delta's blob
+    @Column(name = "DELTA_BASE_VERSION")
+    private Integer deltaBaseVersion;
+    
+    @Column(name = "DELTA_CHECKSUM", length = 64)
+    private String deltaChecksum;
+    
     @Column(name = "FILE_TYPE_REGEX", length = 100)
     private String fileTypeRegex;
     
@@ -84,7 +104,7 @@ public class WorkflowInstanceTaskFile {
     public WorkflowInstanceTaskFile() {}
     
     public WorkflowInstanceTaskFile(String fileName, String filePath, ActionType actionType, String createdBy) {
-        this.fileName = fileName;
+        setFileName(fileName);
         this.filePath = filePath;
         this.actionType = actionType;
         this.createdBy = createdBy;
@@ -121,6 +141,15 @@ public class WorkflowInstanceTaskFile {
     
     public void setFileName(String fileName) {
         this.fileName = fileName;
+        this.fileExtension = extensionOf(fileName);
+    }
+    
+    public String getFileExtension() {
+        return fileExtension;
+    }
+    
+    public void setFileExtension(String fileExtension) {
+        this.fileExtension = fileExtension;
     }
     
     public String getFilePath() {
@@ -139,6 +168,42 @@ public class WorkflowInstanceTaskFile {
         this.fileLocation = fileLocation;
     }
     
+    public Long getFileSize() {
+        return fileSize;
+    }
+    
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+    
+    public String getChecksum() {
+        return checksum;
+    }
+    
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+    
+    public Integer getDeltaBaseVersion() {
+        return deltaBaseVersion;
+    }
+    
+    public void setDeltaBaseVersion(Integer deltaBaseVersion) {
+        this.deltaBaseVersion = deltaBaseVersion;
+    }
+    
+    public String getDeltaChecksum() {
+        return deltaChecksum;
+    }
+    
+    public void setDeltaChecksum(String deltaChecksum) {
+        this.deltaChecksum = deltaChecksum;
+    }
+    
+    public boolean isDeltaEncoded() {
+        return deltaChecksum != null;
+    }
+    
     public String getFileTypeRegex() {
         return fileTypeRegex;
     }
@@ -245,4 +310,19 @@ public class WorkflowInstanceTaskFile {
                 ", actionType=" + actionType +
                 '}';
     }
+    
+    /**
+     * Extension of a file name, lower case and without the dot, or null if it has none
+     */
+    public static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) {
+            return null;
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return extension.length() <= 50 ? extension : null;
+    }
 }
@@ -0,0 +1,155 @@
+package com.docwf.entity;
+
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Append-only log of instance task state changes.
+ *
+ * Every status or assignee change on WORKFLOW_INSTANCE_TASK writes one row
+ * here. The task table is not audited by Envers, so this table is the audit
+ * source for task history, and an instance's task states can be rebuilt by
+ * replaying its transitions in order. Rows are never updated.
+ */
+@Entity
+@Table(name = "WORKFLOW_INSTANCE_TASK_TRANSITION")
+public class WorkflowInstanceTaskTransition {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_INSTANCE_TASK_TRANSITION")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_INSTANCE_TASK_TRANSITION", sequenceName = "SEQ_WORKFLOW_INSTANCE_TASK_TRANSITION", allocationSize = 50)
+    @Column(name = "TRANSITION_ID")
+    private Long transitionId;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "INSTANCE_ID", nullable = false, updatable = false)
+    private WorkflowInstance workflowInstance;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "INSTANCE_TASK_ID", nullable = false, updatable = false)
+    private WorkflowInstanceTask instanceTask;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "EVENT", length = 20, nullable = false, updatable = false)
+    private TransitionEvent event;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "FROM_STATUS", length = 50, updatable = false)
+    private TaskInstanceStatus fromStatus;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TO_STATUS", length = 50, nullable = false, updatable = false)
+    private TaskInstanceStatus toStatus;
+    
+    @Column(name = "ASSIGNED_TO", updatable = false)
+    private Long assignedTo;
+    
+    @Column(name = "DETAIL", length = 500, updatable = false)
+    private String detail;
+    
+    @NotNull
+    @Column(name = "OCCURRED_ON", nullable = false, updatable = false)
+    private LocalDateTime occurredOn;
+    
+    /**
+     * Task state machine. Each event names the statuses it may be applied in
+     * and the status it leaves the task in; events without a target status
+     * only change the assignee.
+     */
+    public enum TransitionEvent {
+        CREATE(TaskInstanceStatus.PENDING, EnumSet.noneOf(TaskInstanceStatus.class)),
+        ACTIVATE(null, EnumSet.of(TaskInstanceStatus.PENDING)),
+        ASSIGN(null, EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS, TaskInstanceStatus.ESCALATED)),
+        START(TaskInstanceStatus.IN_PROGRESS, EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.ESCALATED)),
+        COMPLETE(TaskInstanceStatus.COMPLETED, EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS, TaskInstanceStatus.ESCALATED)),
+        FAIL(TaskInstanceStatus.FAILED, EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS, TaskInstanceStatus.ESCALATED)),
+        ESCALATE(TaskInstanceStatus.ESCALATED, EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS, TaskInstanceStatus.ESCALATED)),
+        REOPEN(TaskInstanceStatus.PENDING, EnumSet.allOf(TaskInstanceStatus.class)),
+        OVERRIDE(TaskInstanceStatus.COMPLETED, EnumSet.allOf(TaskInstanceStatus.class));
+        
+        private final TaskInstanceStatus targetStatus;
+        private final Set<TaskInstanceStatus> allowedFrom;
+        
+        TransitionEvent(TaskInstanceStatus targetStatus, Set<TaskInstanceStatus> allowedFrom) {
+            this.targetStatus = targetStatus;
+            this.allowedFrom = allowedFrom;
+        }
+        
+        /**
+         * Whether this event may be applied to a task in the given status;
+         * only CREATE applies to a task with no status yet
+         */
+        public boolean isAllowedFrom(TaskInstanceStatus status) {
+            return status == null ? this == CREATE : allowedFrom.contains(status);
+        }
+        
+        /**
+         * Status a task in the given status is left in after this event
+         */
+        public TaskInstanceStatus resultingStatus(TaskInstanceStatus status) {
+            return targetStatus != null ? targetStatus : status;
+        }
+    }
+    
+    // Constructors
+    public WorkflowInstanceTaskTransition() {}
+    
+    public WorkflowInstanceTaskTransition(WorkflowInstanceTask instanceTask, TransitionEvent event,
+                                          TaskInstanceStatus fromStatus, TaskInstanceStatus toStatus,
+                                          Long assignedTo, String detail, LocalDateTime occurredOn) {
+        this.workflowInstance = instanceTask.getWorkflowInstance();
+        this.instanceTask = instanceTask;
+        this.event = event;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.assignedTo = assignedTo;
+        this.detail = detail;
+        this.occurredOn = occurredOn;
+    }
+    
+    // Getters
+    public Long getTransitionId() {
+        return transitionId;
+    }
+    
+    public WorkflowInstance getWorkflowInstance() {
+        return workflowInstance;
+    }
+    
+    public WorkflowInstanceTask getInstanceTask() {
+        return instanceTask;
+    }
+    
+    public TransitionEvent getEvent() {
+        return event;
+    }
+    
+    public TaskInstanceStatus getFromStatus() {
+        return fromStatus;
+    }
+    
+    public TaskInstanceStatus getToStatus() {
+        return toStatus;
+    }
+    
+    public Long getAssignedTo() {
+        return assignedTo;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    public LocalDateTime getOccurredOn() {
+        return occurredOn;
+    }
+}
@@ -0,0 +1,186 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One execution of a Quartz job, recorded by the job history listener.
+ *
+ * Inserted as RUNNING when the job is handed a thread and completed in place
+ * when it returns, so a row still RUNNING long after it fired is a job that is
+ * stuck or whose node died. Kept for the history retention period; the hourly
+ * {@link WorkflowJobExecutionRollup} totals outlive it.
+ */
+@Entity
+@Table(name = "WORKFLOW_JOB_EXECUTION")
+public class WorkflowJobExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_JOB_EXECUTION")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_JOB_EXECUTION", sequenceName = "SEQ_WORKFLOW_JOB_EXECUTION", allocationSize = 50)
+    @Column(name = "EXECUTION_ID")
+    private Long executionId;
+
+    @NotNull
+    @Column(name = "JOB_NAME", length = 200, nullable = false, updatable = false)
+    private String jobName;
+
+    @NotNull
+    @Column(name = "JOB_GROUP", length = 200, nullable = false, updatable = false)
+    private String jobGroup;
+
+    @Column(name = "CALENDAR_ID", updatable = false)
+    private Long calendarId;
+
+    @Column(name = "SCHEDULER_INSTANCE", length = 200, updatable = false)
+    private String schedulerInstance;
+
+    @Column(name = "SCHEDULED_FIRE_TIME", updatable = false)
+    private LocalDateTime scheduledFireTime;
+
+    @NotNull
+    @Column(name = "FIRED_ON", nullable = false, updatable = false)
+    private LocalDateTime firedOn;
+
+    @Column(name = "COMPLETED_ON")
+    private LocalDateTime completedOn;
+
+    @Column(name = "DURATION_MS")
+    private Long durationMs;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 20, nullable = false)
+    private ExecutionStatus status = ExecutionStatus.RUNNING;
+
+    @Column(name = "INSTANCES_CREATED")
+    private Integer instancesCreated;
+
+    @Column(name = "RECOVERING", nullable = false, updatable = false)
+    private Boolean recovering = false;
+
+    @Column(name = "ERROR_MESSAGE", length = 1000)
+    private String errorMessage;
+
+    public enum ExecutionStatus {
+        RUNNING, SUCCEEDED, FAILED, VETOED
+    }
+
+    // Constructors
+    public WorkflowJobExecution() {}
+
+    public WorkflowJobExecution(String jobName, String jobGroup, LocalDateTime scheduledFireTime, LocalDateTime firedOn) {
+        this.jobName = jobName;
+        this.jobGroup = jobGroup;
+        this.scheduledFireTime = scheduledFireTime;
+        this.firedOn = firedOn;
+    }
+
+    // Getters and Setters
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getJobGroup() {
+        return jobGroup;
+    }
+
+    public Long getCalendarId() {
+        return calendarId;
+    }
+
+    public void setCalendarId(Long calendarId) {
+        this.calendarId = calendarId;
+    }
+
+    public String getSchedulerInstance() {
+        return schedulerInstance;
+    }
+
+    public void setSchedulerInstance(String schedulerInstance) {
+        this.schedulerInstance = schedulerInstance;
+    }
+
+    public LocalDateTime getScheduledFireTime() {
+        return scheduledFireTime;
+    }
+
+    public LocalDateTime getFiredOn() {
+        return firedOn;
+    }
+
+    public LocalDateTime getCompletedOn() {
+        return completedOn;
+    }
+
+    public void setCompletedOn(LocalDateTime completedOn) {
+        this.completedOn = completedOn;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public ExecutionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ExecutionStatus status) {
+        this.status = status;
+    }
+
+    public Integer getInstancesCreated() {
+        return instancesCreated;
+    }
+
+    public void setInstancesCreated(Integer instancesCreated) {
+        this.instancesCreated = instancesCreated;
+    }
+
+    public Boolean getRecovering() {
+        return recovering;
+    }
+
+    public void setRecovering(Boolean recovering) {
+        this.recovering = recovering;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Delay between the scheduled and actual fire time, e.g. waiting for a thread
+     */
+    public Long getStartDelayMs() {
+        return scheduledFireTime != null
+            ? Duration.between(scheduledFireTime, firedOn).toMillis() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowJobExecution{" +
+                "executionId=" + executionId +
+                ", jobName='" + jobName + '\'' +
+                ", jobGroup='" + jobGroup + '\'' +
+                ", firedOn=" + firedOn +
+                ", status=" + status +
+                ", durationMs=" + durationMs +
+                '}';
+    }
+}
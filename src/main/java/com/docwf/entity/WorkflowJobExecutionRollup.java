@@ -0,0 +1,140 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Execution totals for one Quartz job over one hour, added to as each
+ * execution completes.
+ *
+ * Statistics and health over a period sum at most one row per job and hour
+ * instead of scanning the raw history, and stay available after the history
+ * itself has been pruned.
+ */
+@Entity
+@Table(name = "WORKFLOW_JOB_EXECUTION_ROLLUP")
+@IdClass(WorkflowJobExecutionRollup.RollupKey.class)
+public class WorkflowJobExecutionRollup {
+
+    @Id
+    @Column(name = "JOB_NAME", length = 200)
+    private String jobName;
+
+    @Id
+    @Column(name = "JOB_GROUP", length = 200)
+    private String jobGroup;
+
+    @Id
+    @Column(name = "BUCKET_START")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "EXECUTIONS", nullable = false)
+    private long executions;
+
+    @Column(name = "FAILURES", nullable = false)
+    private long failures;
+
+    @Column(name = "TOTAL_DURATION_MS", nullable = false)
+    private long totalDurationMs;
+
+    @Column(name = "MAX_DURATION_MS", nullable = false)
+    private long maxDurationMs;
+
+    @Column(name = "TOTAL_START_DELAY_MS", nullable = false)
+    private long totalStartDelayMs;
+
+    @Column(name = "INSTANCES_CREATED", nullable = false)
+    private long instancesCreated;
+
+    // Constructors
+    public WorkflowJobExecutionRollup() {}
+
+    public WorkflowJobExecutionRollup(String jobName, String jobGroup, LocalDateTime bucketStart) {
+        this.jobName = jobName;
+        this.jobGroup = jobGroup;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Count one completed execution into this bucket
+     */
+    public void add(boolean failed, long durationMs, long startDelayMs, int instancesCreated) {
+        this.executions++;
+        if (failed) {
+            this.failures++;
+        }
+        this.totalDurationMs += durationMs;
+        this.maxDurationMs = Math.max(this.maxDurationMs, durationMs);
+        this.totalStartDelayMs += startDelayMs;
+        this.instancesCreated += instancesCreated;
+    }
+
+    // Getters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getJobGroup() {
+        return jobGroup;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getTotalDurationMs() {
+        return totalDurationMs;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public long getTotalStartDelayMs() {
+        return totalStartDelayMs;
+    }
+
+    public long getInstancesCreated() {
+        return instancesCreated;
+    }
+
+    public static class RollupKey implements Serializable {
+
+        private String jobName;
+        private String jobGroup;
+        private LocalDateTime bucketStart;
+
+        public RollupKey() {}
+
+        public RollupKey(String jobName, String jobGroup, LocalDateTime bucketStart) {
+            this.jobName = jobName;
+            this.jobGroup = jobGroup;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey that = (RollupKey) o;
+            return Objects.equals(jobName, that.jobName) && Objects.equals(jobGroup, that.jobGroup)
+                    && Objects.equals(bucketStart, that.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobName, jobGroup, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.docwf.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbound notification queue.
+ *
+ * Schedulers only insert rows here; the notification dispatcher claims due
+ * rows in batches, delivers them by mail and records the outcome. The dedup
+ * key is unique, so the same reminder or escalation for a task is queued at
+ * most once per dedup window no matter how often the scheduler runs.
+ */
+@Entity
+@Table(name = "WORKFLOW_NOTIFICATION")
+public class WorkflowNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_NOTIFICATION")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_NOTIFICATION", sequenceName = "SEQ_WORKFLOW_NOTIFICATION", allocationSize = 50)
+    @Column(name = "NOTIFICATION_ID")
+    private Long notificationId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "NOTIFICATION_TYPE", length = 20, nullable = false)
+    private NotificationType notificationType;
+
+    @NotNull
+    @Column(name = "DEDUP_KEY", length = 200, nullable = false, unique = true)
+    private String dedupKey;
+
+    @Column(name = "INSTANCE_ID")
+    private Long instanceId;
+
+    @Column(name = "INSTANCE_TASK_ID")
+    private Long instanceTaskId;
+
+    @Column(name = "RECIPIENT_ID")
+    private Long recipientId;
+
+    @NotNull
+    @Column(name = "RECIPIENT_EMAIL", length = 255, nullable = false)
+    private String recipientEmail;
+
+    @NotNull
+    @Column(name = "SUBJECT", length = 200, nullable = false)
+    private String subject;
+
+    @Column(name = "BODY", length = 2000)
+    private String body;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 20, nullable = false)
+    private DeliveryStatus status = DeliveryStatus.PENDING;
+
+    @NotNull
+    @Column(name = "ATTEMPTS", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "LAST_ERROR", length = 500)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "CREATED_ON", nullable = false, updatable = false)
+    private LocalDateTime createdOn;
+
+    // When PENDING, the earliest time to try again; when SENDING, the end of the claim lease
+    @NotNull
+    @Column(name = "NEXT_ATTEMPT_ON", nullable = false)
+    private LocalDateTime nextAttemptOn;
+
+    @Column(name = "SENT_ON")
+    private LocalDateTime sentOn;
+
+    public enum NotificationType {
+        REMINDER, ESCALATION, OVERDUE, ATTENTION
+    }
+
+    public enum DeliveryStatus {
+        PENDING, SENDING, SENT, FAILED, CANCELLED
+    }
+
+    // Constructors
+    public WorkflowNotification() {}
+
+    // Dedup key and recipient email are filled in by NotificationQueueService
+    public WorkflowNotification(NotificationType notificationType, Long instanceId, Long instanceTaskId,
+                                Long recipientId, String subject, String body) {
+        this.notificationType = notificationType;
+        this.instanceId = instanceId;
+        this.instanceTaskId = instanceTaskId;
+        this.recipientId = recipientId;
+        this.subject = subject;
+        this.body = body;
+        this.createdOn = LocalDateTime.now();
+        this.nextAttemptOn = this.createdOn;
+    }
+
+    // Getters and Setters
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public NotificationType getNotificationType() {
+        return notificationType;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public void setDedupKey(String dedupKey) {
+        this.dedupKey = dedupKey;
+    }
+
+    public Long getInstanceId() {
+        return instanceId;
+    }
+
+    public Long getInstanceTaskId() {
+        return instanceTaskId;
+    }
+
+    public Long getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public DeliveryStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DeliveryStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public LocalDateTime getNextAttemptOn() {
+        return nextAttemptOn;
+    }
+
+    public void setNextAttemptOn(LocalDateTime nextAttemptOn) {
+        this.nextAttemptOn = nextAttemptOn;
+    }
+
+    public LocalDateTime getSentOn() {
+        return sentOn;
+    }
+
+    public void setSentOn(LocalDateTime sentOn) {
+        this.sentOn = sentOn;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowNotification{" +
+                "notificationId=" + notificationId +
+                ", notificationType=" + notificationType +
+                ", dedupKey='" + dedupKey + '\'' +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
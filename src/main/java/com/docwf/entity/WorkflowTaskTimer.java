@@ -0,0 +1,104 @@
+package com.docwf.entity;
+
+import com.docwf.entity.WorkflowNotification.NotificationType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder, escalation, overdue or attention deadline for one instance task.
+ *
+ * Deadlines are computed once, when the task is activated or started, and
+ * fired by the due-timer worker at that instant instead of being rediscovered
+ * by periodic scans. A timer whose task has moved on by the time it fires is
+ * cancelled rather than acted on.
+ */
+@Entity
+@Table(name = "WORKFLOW_TASK_TIMER")
+public class WorkflowTaskTimer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SEQ_WORKFLOW_TASK_TIMER")
+    @SequenceGenerator(name = "SEQ_WORKFLOW_TASK_TIMER", sequenceName = "SEQ_WORKFLOW_TASK_TIMER", allocationSize = 50)
+    @Column(name = "TIMER_ID")
+    private Long timerId;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "INSTANCE_TASK_ID", nullable = false, updatable = false)
+    private WorkflowInstanceTask instanceTask;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TIMER_TYPE", length = 20, nullable = false, updatable = false)
+    private NotificationType timerType;
+
+    @NotNull
+    @Column(name = "DUE_ON", nullable = false, updatable = false)
+    private LocalDateTime dueOn;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", length = 20, nullable = false)
+    private TimerStatus status = TimerStatus.SCHEDULED;
+
+    @Column(name = "FIRED_ON")
+    private LocalDateTime firedOn;
+
+    public enum TimerStatus {
+        SCHEDULED, FIRED, CANCELLED
+    }
+
+    // Constructors
+    public WorkflowTaskTimer() {}
+
+    public WorkflowTaskTimer(WorkflowInstanceTask instanceTask, NotificationType timerType, LocalDateTime dueOn) {
+        this.instanceTask = instanceTask;
+        this.timerType = timerType;
+        this.dueOn = dueOn;
+    }
+
+    // Getters and Setters
+    public Long getTimerId() {
+        return timerId;
+    }
+
+    public WorkflowInstanceTask getInstanceTask() {
+        return instanceTask;
+    }
+
+    public NotificationType getTimerType() {
+        return timerType;
+    }
+
+    public LocalDateTime getDueOn() {
+        return dueOn;
+    }
+
+    public TimerStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TimerStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getFiredOn() {
+        return firedOn;
+    }
+
+    public void setFiredOn(LocalDateTime firedOn) {
+        this.firedOn = firedOn;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkflowTaskTimer{" +
+                "timerId=" + timerId +
+                ", timerType=" + timerType +
+                ", dueOn=" + dueOn +
+                ", status=" + status +
+                '}';
+    }
+}
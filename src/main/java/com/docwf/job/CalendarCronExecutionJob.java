@@ -1,8 +1,10 @@
 package com.docwf.job;
 
+import com.docwf.dto.BulkWorkflowStartResultDto;
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.service.WorkflowCalendarService;
 import com.docwf.service.WorkflowExecutionService;
+import com.docwf.service.metrics.SchedulerMetrics;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -30,6 +32,9 @@ public class CalendarCronExecutionJob implements Job {
     @Autowired
     private WorkflowExecutionService executionService;
     
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+    
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         logger.info("Starting CalendarCronExecutionJob execution");
@@ -61,7 +66,7 @@ public class CalendarCronExecutionJob implements Job {
             logger.info("Base date: {}, Effective date after offset: {}", baseDate, effectiveDate);
             
             // Check if the effective date is valid for execution
-            if (!calendar.canExecuteWorkflow(effectiveDate)) {
+            if (!calendarService.canExecuteWorkflow(calendarId, effectiveDate)) {
                 logger.info("Effective date {} is not valid for calendar {} execution", effectiveDate, calendarId);
                 return;
             }
@@ -99,24 +104,21 @@ public class CalendarCronExecutionJob implements Job {
                 return;
             }
             
-            // Execute each workflow
-            for (Long workflowId : workflowIds) {
-                try {
-                    logger.info("Executing workflow {} for calendar {}", workflowId, calendar.getCalendarId());
-                    
-                    // Start workflow with calendar validation
-                    // Convert LocalDate to Long (assuming we want to use a system user ID)
-                    Long systemUserId = 1L; // System user ID for automated execution
-                    executionService.startWorkflowWithCalendar(workflowId, systemUserId, calendar.getCalendarId());
-                    
-                    logger.info("Successfully executed workflow {} for calendar {}", workflowId, calendar.getCalendarId());
-                    
-                } catch (Exception e) {
-                    logger.error("Failed to execute workflow {} for calendar {}", workflowId, calendar.getCalendarId(), e);
-                    // Continue with other workflows even if one fails
+            // Start all workflows in one bulk call so calendar, user and config tasks are resolved once
+            BulkWorkflowStartResultDto result = executionService.startWorkflowsBulk(
+                calendar.getCalendarId(), workflowIds, executionDate);
+            schedulerMetrics.recordWorkflowsStarted(calendar.getCalendarId(), result);
+            
+            for (BulkWorkflowStartResultDto.ItemResultDto item : result.getItems()) {
+                if (BulkWorkflowStartResultDto.ItemResultDto.FAILED.equals(item.getStatus())) {
+                    logger.error("Failed to execute workflow {} for calendar {}: {}", 
+                        item.getWorkflowId(), calendar.getCalendarId(), item.getErrorMessage());
                 }
             }
             
+            logger.info("Executed {} of {} workflows for calendar {} in {} ms", 
+                result.getStartedCount(), result.getRequestedCount(), calendar.getCalendarId(), result.getDurationMs());
+            
         } catch (Exception e) {
             logger.error("Error executing workflows for calendar {}", calendar.getCalendarId(), e);
         }
@@ -1,10 +1,13 @@
 package com.docwf.job;
 
+import com.docwf.dto.BulkWorkflowStartResultDto;
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.entity.WorkflowConfig;
 import com.docwf.service.WorkflowExecutionService;
 import com.docwf.service.WorkflowCalendarService;
 import com.docwf.service.WorkflowConfigService;
+import com.docwf.service.cluster.CalendarJobPartitioner;
+import com.docwf.service.metrics.SchedulerMetrics;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -15,8 +18,9 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Job that executes workflows based on calendar schedules
@@ -36,6 +40,12 @@ public class CalendarWorkflowExecutionJob implements Job {
     @Autowired
     private WorkflowConfigService workflowConfigService;
     
+    @Autowired
+    private CalendarJobPartitioner calendarJobPartitioner;
+    
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+    
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         logger.info("Starting Calendar Workflow Execution Job at {}", LocalDateTime.now());
@@ -47,8 +57,20 @@ public class CalendarWorkflowExecutionJob implements Job {
             
             logger.info("Executing workflows for calendar: {} (ID: {})", calendarName, calendarId);
             
-            // Check if today is a valid execution day for this calendar
-            LocalDate today = LocalDate.now();
+            // A pause made on another node reaches the owning node on its next rebalance
+            if (calendarJobPartitioner.isEnabled() && calendarJobPartitioner.isPaused(calendarId)) {
+                logger.info("Schedule of calendar: {} is paused", calendarName);
+                return;
+            }
+            
+            WorkflowCalendar calendar = workflowCalendarService.getCalendarEntityById(calendarId);
+            if (calendar == null) {
+                logger.warn("Calendar: {} (ID: {}) no longer exists", calendarName, calendarId);
+                return;
+            }
+            
+            // Check if today is a valid execution day for this calendar, in the zone its cron fired in
+            LocalDate today = LocalDate.now(calendar.getEffectiveTimeZone().toZoneId());
             if (!workflowCalendarService.isDateValid(calendarId, today)) {
                 logger.info("Today ({}) is not a valid execution day for calendar: {}", today, calendarName);
                 return;
@@ -62,32 +84,52 @@ public class CalendarWorkflowExecutionJob implements Job {
                 return;
             }
             
-            int executedCount = 0;
+            // One ledger lookup for the whole fan-out, so a misfire or retrigger skips what already ran today
+            Set<Long> alreadyStarted = workflowExecutionService.getStartedWorkflowIds(calendarId, today);
+            
+            List<Long> workflowIds = new ArrayList<>();
             int skippedCount = 0;
             
             for (WorkflowConfig workflow : workflows) {
-                try {
-                    // Check if workflow should be executed based on its trigger type and schedule
-                    if (shouldExecuteWorkflow(workflow, today)) {
-                        // Create workflow instance
-                        Long instanceId = workflowExecutionService.startWorkflowWithCalendar(
-                            workflow.getWorkflowId(), 
-                            1L, // System user ID - you might want to make this configurable
-                            calendarId
-                        ).getInstanceId();
-                        
-                        logger.info("Created workflow instance {} for workflow: {} (ID: {})", 
-                            instanceId, workflow.getName(), workflow.getWorkflowId());
-                        executedCount++;
+                // Check if workflow should be executed based on its trigger type and schedule
+                if (shouldExecuteWorkflow(workflow, alreadyStarted)) {
+                    workflowIds.add(workflow.getWorkflowId());
+                } else {
+                    logger.debug("Skipping workflow: {} - not scheduled for execution", workflow.getName());
+                    skippedCount++;
+                }
+            }
+            
+            // Across a partitioned cluster, large fan-outs are sliced so every node shares the work
+            if (calendarJobPartitioner.isEnabled() && workflowIds.size() > calendarJobPartitioner.getPartitionSize()) {
+                int partitions = calendarJobPartitioner.submitPartitions(calendarId, today, workflowIds);
+                logger.info("Calendar Workflow Execution Job submitted {} workflow(s) in {} partition(s). Skipped: {}",
+                    workflowIds.size(), partitions, skippedCount);
+                return;
+            }
+            
+            int executedCount = 0;
+            if (!workflowIds.isEmpty()) {
+                // Create all workflow instances in one bulk call
+                BulkWorkflowStartResultDto result = workflowExecutionService.startWorkflowsBulk(calendarId, workflowIds, today);
+                
+                for (BulkWorkflowStartResultDto.ItemResultDto item : result.getItems()) {
+                    if (BulkWorkflowStartResultDto.ItemResultDto.STARTED.equals(item.getStatus())) {
+                        logger.info("Created workflow instance {} for workflow ID: {}", item.getInstanceId(), item.getWorkflowId());
+                    } else if (BulkWorkflowStartResultDto.ItemResultDto.SKIPPED.equals(item.getStatus())) {
+                        logger.info("Skipping workflow ID: {} - {}", item.getWorkflowId(), item.getErrorMessage());
                     } else {
-                        logger.debug("Skipping workflow: {} - not scheduled for execution", workflow.getName());
-                        skippedCount++;
+                        logger.error("Error executing workflow ID: {} - {}", item.getWorkflowId(), item.getErrorMessage());
                     }
-                } catch (Exception e) {
-                    logger.error("Error executing workflow: {} (ID: {})", workflow.getName(), workflow.getWorkflowId(), e);
                 }
+                executedCount = result.getStartedCount();
+                skippedCount += result.getSkippedCount();
+                schedulerMetrics.recordWorkflowsStarted(calendarId, result);
             }
             
+            // Recorded as instances created by the job history listener
+            context.setResult(executedCount);
+            
             logger.info("Calendar Workflow Execution Job completed. Executed: {}, Skipped: {}", executedCount, skippedCount);
             
         } catch (Exception e) {
@@ -99,7 +141,7 @@ public class CalendarWorkflowExecutionJob implements Job {
     /**
      * Determines if a workflow should be executed based on its configuration and current date
      */
-    private boolean shouldExecuteWorkflow(WorkflowConfig workflow, LocalDate today) {
+    private boolean shouldExecuteWorkflow(WorkflowConfig workflow, Set<Long> alreadyStarted) {
         // Check if workflow is active
         if (!"Y".equals(workflow.getIsActive())) {
             return false;
@@ -109,14 +151,8 @@ public class CalendarWorkflowExecutionJob implements Job {
         // You can add more sophisticated logic here based on workflow parameters
         // For example, check if the workflow has specific execution criteria
         
-        // Check if workflow has been executed recently (within the same day)
-        // This prevents duplicate executions
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
-        
-        // You could add a check here to see if the workflow was already executed today
-        // For now, we'll allow execution
-        
-        return true;
+        // Skip workflows this calendar has already started today; startWorkflowsBulk
+        // enforces the same through the ledger's unique key if two jobs race
+        return !alreadyStarted.contains(workflow.getWorkflowId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.docwf.job;
+
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import com.docwf.service.WorkflowExecutionService;
+import com.docwf.service.metrics.SchedulerMetrics;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One slice of a calendar's workflow fan-out.
+ *
+ * When calendar jobs are partitioned across the cluster, the owning node splits
+ * the workflows due on a date into slices and schedules each as a one-shot job
+ * in the clustered scheduler, so any node with a free thread starts it. Job
+ * keys are derived from calendar, date and slice number, so submitting the same
+ * fan-out twice while the first is still pending adds nothing, and a slice
+ * recovered from a failed node skips the workflows the run ledger shows it
+ * already started.
+ */
+@Component
+public class CalendarWorkflowPartitionJob implements Job {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarWorkflowPartitionJob.class);
+
+    public static final String JOB_GROUP = "calendarPartitions";
+
+    @Autowired
+    private WorkflowExecutionService workflowExecutionService;
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        JobDataMap data = context.getMergedJobDataMap();
+        Long calendarId = data.getLongValue("calendarId");
+        LocalDate executionDate = LocalDate.parse(data.getString("executionDate"));
+        List<Long> workflowIds = workflowIdsOf(data);
+
+        try {
+            BulkWorkflowStartResultDto result = workflowExecutionService.startWorkflowsBulk(calendarId, workflowIds, executionDate);
+            for (BulkWorkflowStartResultDto.ItemResultDto item : result.getItems()) {
+                if (BulkWorkflowStartResultDto.ItemResultDto.FAILED.equals(item.getStatus())) {
+                    logger.error("Error executing workflow ID: {} - {}", item.getWorkflowId(), item.getErrorMessage());
+                }
+            }
+            context.setResult(result.getStartedCount());
+            schedulerMetrics.recordWorkflowsStarted(calendarId, result);
+            logger.info("Calendar {} partition {} started {} of {} workflow(s) for {}",
+                calendarId, context.getJobDetail().getKey().getName(), result.getStartedCount(), workflowIds.size(), executionDate);
+        } catch (Exception e) {
+            logger.error("Error in calendar workflow partition {}", context.getJobDetail().getKey(), e);
+            throw new JobExecutionException("Failed to execute calendar workflow partition", e);
+        }
+    }
+
+    /**
+     * Split workflows into slices of at most partitionSize and schedule each to
+     * run now. Returns the number of slices newly scheduled.
+     */
+    public static int submit(Scheduler scheduler, Long calendarId, LocalDate executionDate,
+                             List<Long> workflowIds, int partitionSize) throws SchedulerException {
+        int submitted = 0;
+        for (int from = 0, index = 0; from < workflowIds.size(); from += partitionSize, index++) {
+            List<Long> slice = workflowIds.subList(from, Math.min(from + partitionSize, workflowIds.size()));
+            JobDetail jobDetail = JobBuilder.newJob(CalendarWorkflowPartitionJob.class)
+                    .withIdentity("calendarPartition_" + calendarId + "_" + executionDate + "_" + index, JOB_GROUP)
+                    .withDescription("Workflows " + (from + 1) + "-" + (from + slice.size()) + " for calendar " + calendarId)
+                    .usingJobData("calendarId", calendarId)
+                    .usingJobData("executionDate", executionDate.toString())
+                    .usingJobData("workflowIds", slice.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .requestRecovery()
+                    .build();
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity(jobDetail.getKey().getName(), JOB_GROUP)
+                    .forJob(jobDetail)
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                    .startNow()
+                    .build();
+            try {
+                scheduler.scheduleJob(jobDetail, trigger);
+                submitted++;
+            } catch (ObjectAlreadyExistsException e) {
+                logger.info("Partition {} is already pending, not resubmitted", jobDetail.getKey());
+            }
+        }
+        return submitted;
+    }
+
+    public static List<Long> workflowIdsOf(JobDataMap data) {
+        String value = data.getString("workflowIds");
+        List<Long> workflowIds = new ArrayList<>();
+        if (value != null && !value.isEmpty()) {
+            for (String workflowId : value.split(",")) {
+                workflowIds.add(Long.valueOf(workflowId));
+            }
+        }
+        return workflowIds;
+    }
+}
@@ -0,0 +1,152 @@
+package com.docwf.job;
+
+import com.docwf.entity.WorkflowJobExecution;
+import com.docwf.service.JobExecutionHistoryService;
+import jakarta.annotation.PostConstruct;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.matchers.EverythingMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Records every Quartz job execution in the job history.
+ *
+ * A row is written as RUNNING when the job is handed a thread and completed
+ * with its duration, outcome and, for jobs that report it through
+ * {@link JobExecutionContext#setResult}, the number of workflow instances it
+ * created. Registered on the application scheduler here and on the
+ * partitioner's node-local scheduler when that is created. Recording failures
+ * are logged and never affect the job.
+ */
+@Component
+public class JobExecutionHistoryListener implements JobListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobExecutionHistoryListener.class);
+
+    public static final String NAME = "jobExecutionHistory";
+
+    /**
+     * Context key carrying the history row from jobToBeExecuted to jobWasExecuted
+     */
+    private static final String EXECUTION_ID_KEY = JobExecutionHistoryListener.class.getName() + ".executionId";
+
+    @Autowired
+    private JobExecutionHistoryService historyService;
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Value("${app.workflow.job-history.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void register() throws SchedulerException {
+        register(scheduler);
+    }
+
+    /**
+     * Record executions of every job on the given scheduler
+     */
+    public void register(Scheduler target) throws SchedulerException {
+        if (enabled) {
+            // The List overload, as the Matcher varargs one is an unchecked generic array
+            target.getListenerManager().addJobListener(this, List.of(EverythingMatcher.allJobs()));
+            logger.info("Recording job execution history for scheduler {}", target.getSchedulerName());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        try {
+            Long executionId = historyService.recordStarted(executionOf(context));
+            context.put(EXECUTION_ID_KEY, executionId);
+        } catch (Exception e) {
+            logger.warn("Could not record start of job {}: {}", context.getJobDetail().getKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+        try {
+            historyService.recordVetoed(executionOf(context));
+        } catch (Exception e) {
+            logger.warn("Could not record vetoed job {}: {}", context.getJobDetail().getKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        Object executionId = context.get(EXECUTION_ID_KEY);
+        if (!(executionId instanceof Long)) {
+            return;
+        }
+        try {
+            Object result = context.getResult();
+            Integer instancesCreated = result instanceof Number ? ((Number) result).intValue() : null;
+            String errorMessage = jobException != null ? errorMessageOf(jobException) : null;
+            historyService.recordCompleted((Long) executionId, Math.max(0, context.getJobRunTime()), instancesCreated, errorMessage);
+        } catch (Exception e) {
+            logger.warn("Could not record completion of job {}: {}", context.getJobDetail().getKey(), e.getMessage());
+        }
+    }
+
+    private static WorkflowJobExecution executionOf(JobExecutionContext context) throws SchedulerException {
+        JobKey jobKey = context.getJobDetail().getKey();
+        WorkflowJobExecution execution = new WorkflowJobExecution(jobKey.getName(), jobKey.getGroup(),
+            toLocalDateTime(context.getScheduledFireTime()), toLocalDateTime(context.getFireTime()));
+        execution.setCalendarId(calendarIdOf(context.getMergedJobDataMap()));
+        execution.setSchedulerInstance(context.getScheduler().getSchedulerInstanceId());
+        execution.setRecovering(context.isRecovering());
+        return execution;
+    }
+
+    private static Long calendarIdOf(JobDataMap data) {
+        Object calendarId = data.get("calendarId");
+        if (calendarId instanceof Number) {
+            return ((Number) calendarId).longValue();
+        }
+        if (calendarId instanceof String) {
+            try {
+                return Long.valueOf((String) calendarId);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The root cause is what explains a failure; the JobExecutionException wrapping it rarely does
+     */
+    private static String errorMessageOf(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+        return cause == error ? message : error.getMessage() + ": " + message;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+}
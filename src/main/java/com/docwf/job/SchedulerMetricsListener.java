@@ -0,0 +1,95 @@
+package com.docwf.job;
+
+import com.docwf.service.metrics.SchedulerMetrics;
+import jakarta.annotation.PostConstruct;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerListener;
+import org.quartz.impl.matchers.EverythingMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds trigger lag, job duration and misfires of every job into
+ * {@link SchedulerMetrics}.
+ *
+ * Misfires are only reported to trigger listeners, and measuring lag and
+ * duration here covers every job the same way without each job timing itself.
+ * Registered on the application scheduler here and on the partitioner's
+ * node-local scheduler when that is created.
+ */
+@Component
+public class SchedulerMetricsListener implements JobListener, TriggerListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerMetricsListener.class);
+
+    public static final String NAME = "schedulerMetrics";
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @PostConstruct
+    public void register() throws SchedulerException {
+        register(scheduler);
+    }
+
+    /**
+     * Measure every job and trigger on the given scheduler and bind its thread gauges
+     */
+    public void register(Scheduler target) throws SchedulerException {
+        // The List overloads, as the Matcher varargs ones are unchecked generic arrays
+        target.getListenerManager().addJobListener(this, List.of(EverythingMatcher.allJobs()));
+        target.getListenerManager().addTriggerListener(this, List.of(EverythingMatcher.allTriggers()));
+        schedulerMetrics.bindScheduler(target);
+        logger.info("Publishing scheduler metrics for scheduler {}", target.getSchedulerName());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        schedulerMetrics.recordTriggerLag(context);
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        schedulerMetrics.recordJobDuration(context, jobException != null);
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        schedulerMetrics.recordMisfire(trigger);
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context, CompletedExecutionInstruction triggerInstructionCode) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.docwf.job;
+
+import com.docwf.service.concurrency.ConcurrencyLimiter;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quartz thread pool that starts a fresh thread for every job instead of
+ * handing jobs to a fixed set of workers.
+ *
+ * On a Java 21+ runtime the threads are virtual, so a calendar fan-out blocked
+ * on JDBC does not hold a platform thread; on older runtimes they are
+ * short-lived platform threads. How many jobs run at once is capped by
+ * {@code threadCount}, and optionally by a limiter shared with every other
+ * pool naming the same {@code dataSource}, sized to its connection pool, so
+ * raising one scheduler's concurrency cannot starve the others of connections.
+ * The scheduler only acquires triggers while both have room.
+ *
+ * Configured through the usual Quartz properties:
+ * <pre>
+ *   org.quartz.threadPool.class: com.docwf.job.ThreadPerJobPool
+ *   org.quartz.threadPool.threadCount: 200
+ *   org.quartz.threadPool.dataSource: quartzDataSource
+ *   org.quartz.threadPool.dataSourceConcurrency: 20
+ * </pre>
+ */
+public class ThreadPerJobPool implements ThreadPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadPerJobPool.class);
+
+    /**
+     * How long blockForAvailableThreads waits between shutdown checks
+     */
+    private static final long AVAILABILITY_POLL_MS = 500;
+
+    private int threadCount = 10;
+    private String dataSource;
+    private int dataSourceConcurrency;
+    private boolean virtualThreads = true;
+    private int threadPriority = Thread.NORM_PRIORITY;
+    private boolean threadsInheritContextClassLoaderOfInitializingThread;
+    private String threadNamePrefix;
+    private String instanceName = "QuartzScheduler";
+
+    private ConcurrencyLimiter jobLimiter;
+    private ConcurrencyLimiter dataSourceLimiter;
+    private ThreadFactory threadFactory;
+    private ClassLoader contextClassLoader;
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        if (threadCount < 1) {
+            throw new SchedulerConfigException("Thread count must be at least 1: " + threadCount);
+        }
+        jobLimiter = new ConcurrencyLimiter(instanceName + " jobs", threadCount);
+        if (dataSource != null && !dataSource.trim().isEmpty()) {
+            if (dataSourceConcurrency < 1) {
+                throw new SchedulerConfigException("dataSourceConcurrency must be set when dataSource is: " + dataSource);
+            }
+            dataSourceLimiter = ConcurrencyLimiter.forDataSource(dataSource, dataSourceConcurrency);
+            if (dataSourceLimiter.getLimit() != dataSourceConcurrency) {
+                logger.warn("Datasource {} is already limited to {} concurrent jobs by another scheduler; ignoring {}",
+                    dataSource, dataSourceLimiter.getLimit(), dataSourceConcurrency);
+            }
+        }
+
+        String prefix = threadNamePrefix != null ? threadNamePrefix : instanceName + "_Worker-";
+        threadFactory = virtualThreads ? virtualThreadFactory(prefix) : null;
+        if (threadFactory == null) {
+            threadFactory = platformThreadFactory(prefix);
+        }
+        if (threadsInheritContextClassLoaderOfInitializingThread) {
+            contextClassLoader = Thread.currentThread().getContextClassLoader();
+        }
+
+        logger.info("Initialized {} for {}: up to {} concurrent jobs on {} threads{}", getClass().getSimpleName(), instanceName,
+            threadCount, virtualThreads && !(threadFactory instanceof PlatformThreadFactory) ? "virtual" : "platform",
+            dataSourceLimiter != null ? ", sharing " + dataSourceLimiter.getLimit() + " with datasource " + dataSource : "");
+    }
+
+    /**
+     * Start the job on its own thread once both limits have room; blocks until
+     * then. Quartz only calls this after blockForAvailableThreads, so the wait
+     * is short unless another scheduler took the datasource's last slot.
+     */
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null) {
+            return false;
+        }
+        try {
+            jobLimiter.acquire();
+            try {
+                if (dataSourceLimiter != null) {
+                    dataSourceLimiter.acquire();
+                }
+            } catch (InterruptedException e) {
+                jobLimiter.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting to run a job in {}", instanceName);
+            return false;
+        }
+
+        Thread worker = threadFactory.newThread(() -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                logger.error("Error while executing a job in {}", instanceName, e);
+            } finally {
+                if (dataSourceLimiter != null) {
+                    dataSourceLimiter.release();
+                }
+                jobLimiter.release();
+                workers.remove(Thread.currentThread());
+            }
+        });
+        if (contextClassLoader != null) {
+            worker.setContextClassLoader(contextClassLoader);
+        }
+        workers.add(worker);
+        worker.start();
+        return true;
+    }
+
+    @Override
+    public int blockForAvailableThreads() {
+        try {
+            while (!shutdown) {
+                int available = jobLimiter.awaitAvailable(AVAILABILITY_POLL_MS, TimeUnit.MILLISECONDS);
+                if (available > 0 && dataSourceLimiter != null) {
+                    available = Math.min(available,
+                        dataSourceLimiter.awaitAvailable(AVAILABILITY_POLL_MS, TimeUnit.MILLISECONDS));
+                }
+                if (available > 0) {
+                    return available;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        shutdown = true;
+        if (!waitForJobsToComplete) {
+            return;
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        logger.debug("All jobs in {} completed", instanceName);
+    }
+
+    @Override
+    public int getPoolSize() {
+        return threadCount;
+    }
+
+    /**
+     * Jobs currently running on this pool's threads
+     */
+    public int getActiveCount() {
+        return jobLimiter != null ? jobLimiter.getInUse() : 0;
+    }
+
+    @Override
+    public void setInstanceId(String instanceId) {
+    }
+
+    @Override
+    public void setInstanceName(String instanceName) {
+        this.instanceName = instanceName;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public void setDataSource(String dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public int getDataSourceConcurrency() {
+        return dataSourceConcurrency;
+    }
+
+    public void setDataSourceConcurrency(int dataSourceConcurrency) {
+        this.dataSourceConcurrency = dataSourceConcurrency;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Applies to platform threads only; accepted so SimpleThreadPool settings carry over
+     */
+    public void setThreadPriority(int threadPriority) {
+        this.threadPriority = threadPriority;
+    }
+
+    public void setThreadsInheritContextClassLoaderOfInitializingThread(boolean inherit) {
+        this.threadsInheritContextClassLoaderOfInitializingThread = inherit;
+    }
+
+    public void setThreadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    /**
+     * Thread.ofVirtual() looked up reflectively, since the build targets Java 17;
+     * null when the runtime has no virtual threads
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Virtual threads unavailable on this runtime, using platform threads: {}", e.toString());
+            return null;
+        }
+    }
+
+    private ThreadFactory platformThreadFactory(String prefix) {
+        return new PlatformThreadFactory(prefix, threadPriority);
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final int priority;
+        private final AtomicLong sequence = new AtomicLong();
+
+        PlatformThreadFactory(String prefix, int priority) {
+            this.prefix = prefix;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        }
+    }
+}
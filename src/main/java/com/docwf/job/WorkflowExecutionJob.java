@@ -9,6 +9,7 @@ import com.docwf.entity.WorkflowInstanceTaskFile;
 import com.docwf.entity.WorkflowUser;
 import com.docwf.service.WorkflowExecutionService;
 import com.docwf.service.WorkflowConfigService;
+import com.docwf.service.metrics.SchedulerMetrics;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -35,6 +36,9 @@ public class WorkflowExecutionJob implements Job {
     @Autowired
     private WorkflowConfigService workflowConfigService;
     
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+    
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         try {
@@ -46,8 +50,10 @@ public class WorkflowExecutionJob implements Job {
             for (WorkflowConfig workflowConfig : activeWorkflows) {
                 try {
                     executeWorkflow(workflowConfig);
+                    schedulerMetrics.recordWorkflowsStarted(workflowConfig.getCalendarId(), "started", 1);
                 } catch (Exception e) {
                     logger.error("Failed to execute workflow: {}", workflowConfig.getName(), e);
+                    schedulerMetrics.recordWorkflowsStarted(workflowConfig.getCalendarId(), "failed", 1);
                 }
             }
             
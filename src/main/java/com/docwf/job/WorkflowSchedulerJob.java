@@ -1,124 +1,55 @@
 package com.docwf.job;
 
-import com.docwf.service.WorkflowExecutionService;
-import com.docwf.service.WorkflowConfigService;
+import com.docwf.service.TaskTimerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import com.docwf.dto.WorkflowInstanceTaskDto;
 
+/**
+ * Reminders, escalations, overdue and attention checks are task timers fired
+ * by DueTimerWorker when they fall due. This job only keeps the worker's
+ * in-memory horizon topped up from WORKFLOW_TASK_TIMER and purges timers
+ * that have fired or been cancelled.
+ */
 @Component
 public class WorkflowSchedulerJob {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(WorkflowSchedulerJob.class);
-    
-    @Autowired
-    private WorkflowExecutionService executionService;
-    
+
     @Autowired
-    private WorkflowConfigService configService;
-    
-    /**
-     * Trigger workflow reminders every 5 minutes
-     */
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    public void triggerWorkflowReminders() {
-        try {
-            logger.info("Starting workflow reminder job");
-            executionService.triggerWorkflowReminders();
-            logger.info("Completed workflow reminder job");
-        } catch (Exception e) {
-            logger.error("Error in workflow reminder job", e);
-        }
-    }
-    
-    /**
-     * Trigger workflow escalations every 10 minutes
-     */
-    @Scheduled(fixedRate = 600000) // 10 minutes
-    public void triggerWorkflowEscalations() {
-        try {
-            logger.info("Starting workflow escalation job");
-            executionService.triggerWorkflowEscalations();
-            logger.info("Completed workflow escalation job");
-        } catch (Exception e) {
-            logger.error("Error in workflow escalation job", e);
-        }
-    }
-    
-    /**
-     * Check for overdue tasks every 15 minutes
-     */
-    @Scheduled(fixedRate = 900000) // 15 minutes
-    public void checkOverdueTasks() {
-        try {
-            logger.info("Starting overdue task check job");
-            var overdueTasks = executionService.getOverdueTasks();
-            if (!overdueTasks.isEmpty()) {
-                logger.info("Found {} overdue tasks", overdueTasks.size());
-                // Send notifications for overdue tasks
-                for (var task : overdueTasks) {
-                    sendOverdueTaskNotification(task);
-                }
-            }
-            logger.info("Completed overdue task check job");
-        } catch (Exception e) {
-            logger.error("Error in overdue task check job", e);
-        }
-    }
-    
+    private TaskTimerService taskTimerService;
+
+    @Value("${app.workflow.timers.enabled:true}")
+    private boolean timersEnabled;
+
     /**
-     * Check for tasks needing attention every 30 minutes
+     * Load timers falling due within the horizon, every 5 minutes by default
      */
-    @Scheduled(fixedRate = 1800000) // 30 minutes
-    public void checkTasksNeedingAttention() {
-        try {
-            logger.info("Starting tasks needing attention check job");
-            var attentionTasks = executionService.getTasksNeedingAttention();
-            if (!attentionTasks.isEmpty()) {
-                logger.info("Found {} tasks needing attention", attentionTasks.size());
-                // Send notifications for tasks needing attention
-                for (var task : attentionTasks) {
-                    sendAttentionTaskNotification(task);
-                }
-            }
-            logger.info("Completed tasks needing attention check job");
-        } catch (Exception e) {
-            logger.error("Error in tasks needing attention check job", e);
+    @Scheduled(fixedDelayString = "${app.workflow.timers.refresh-ms:300000}")
+    public void loadUpcomingTimers() {
+        if (!timersEnabled) {
+            return;
         }
-    }
-    
-    /**
-     * Send notification for overdue task
-     */
-    private void sendOverdueTaskNotification(WorkflowInstanceTaskDto task) {
         try {
-            logger.info("Sending overdue notification for task {} (instance: {})", 
-                task.getTaskName(), task.getInstanceId());
-            
-            // TODO: Integrate with actual notification service
-            // notificationService.sendOverdueTaskNotification(task);
-            
+            int loaded = taskTimerService.loadUpcomingTimers();
+            logger.debug("Loaded {} upcoming task timer(s)", loaded);
         } catch (Exception e) {
-            logger.error("Error sending overdue task notification for task {}", task.getTaskId(), e);
+            logger.error("Error loading upcoming task timers", e);
         }
     }
-    
+
     /**
-     * Send notification for task needing attention
+     * Delete fired and cancelled timers past retention, daily at 03:45 by default
      */
-    private void sendAttentionTaskNotification(WorkflowInstanceTaskDto task) {
+    @Scheduled(cron = "${app.workflow.timers.purge-cron:0 45 3 * * ?}")
+    public void purgeFinishedTimers() {
         try {
-            logger.info("Sending attention notification for task {} (instance: {})", 
-                task.getTaskName(), task.getInstanceId());
-            
-            // TODO: Integrate with actual notification service
-            // notificationService.sendAttentionTaskNotification(task);
-            
+            taskTimerService.purgeFinishedTimers();
         } catch (Exception e) {
-            logger.error("Error sending attention task notification for task {}", task.getTaskId(), e);
+            logger.error("Error purging finished task timers", e);
         }
     }
 }
@@ -0,0 +1,27 @@
+package com.docwf.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the values bound to an IN list into chunks one query can take, as
+ * Oracle rejects IN lists longer than 1000 expressions.
+ */
+public final class InLists {
+
+    public static final int MAX_SIZE = 1000;
+
+    private InLists() {
+    }
+
+    /**
+     * Consecutive views of the given values, each at most {@link #MAX_SIZE} long
+     */
+    public static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += MAX_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + MAX_SIZE, values.size())));
+        }
+        return chunks;
+    }
+}
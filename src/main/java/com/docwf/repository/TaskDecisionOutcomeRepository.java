@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -51,4 +52,10 @@ public interface TaskDecisionOutcomeRepository extends JpaRepository<TaskDecisio
      */
     @Query("SELECT o FROM TaskDecisionOutcome o WHERE o.revisionTaskIds LIKE %:taskId%")
     List<TaskDecisionOutcome> findByRevisionTaskIdsContaining(@Param("taskId") String taskId);
+    
+    /**
+     * Find decision outcomes for all tasks of several workflows
+     */
+    @Query("SELECT o FROM TaskDecisionOutcome o WHERE o.task.workflow.workflowId IN :workflowIds")
+    List<TaskDecisionOutcome> findByWorkflowIds(@Param("workflowIds") Collection<Long> workflowIds);
 }
@@ -23,6 +23,12 @@ public interface WorkflowCalendarDayRepository extends JpaRepository<WorkflowCal
     @Query("SELECT c FROM WorkflowCalendarDay c WHERE c.calendar.calendarId = :calendarId AND c.dayDate BETWEEN :startDate AND :endDate")
     List<WorkflowCalendarDay> findByCalendarAndDateRange(@Param("calendarId") Long calendarId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    /**
+     * Date and type of every day of a calendar, used to compile its bitmap
+     */
+    @Query("SELECT c.dayDate, c.dayType FROM WorkflowCalendarDay c WHERE c.calendar.calendarId = :calendarId")
+    List<Object[]> findDatesAndTypesByCalendarId(@Param("calendarId") Long calendarId);
+    
     @Query("SELECT c FROM WorkflowCalendarDay c WHERE c.dayDate BETWEEN :startDate AND :endDate AND c.dayType = :dayType")
     List<WorkflowCalendarDay> findByDateRangeAndType(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("dayType") String dayType);
 }
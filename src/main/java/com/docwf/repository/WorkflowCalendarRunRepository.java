@@ -0,0 +1,24 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowCalendarRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkflowCalendarRunRepository extends JpaRepository<WorkflowCalendarRun, Long> {
+
+    /**
+     * Workflows already started by a calendar for an effective date; a range
+     * scan of the unique (calendar, date, workflow) index
+     */
+    @Query("SELECT r.workflowId FROM WorkflowCalendarRun r WHERE r.calendarId = :calendarId AND r.effectiveDate = :effectiveDate")
+    List<Long> findWorkflowIdsByCalendarIdAndEffectiveDate(@Param("calendarId") Long calendarId,
+                                                           @Param("effectiveDate") LocalDate effectiveDate);
+
+    boolean existsByCalendarIdAndEffectiveDateAndWorkflowId(Long calendarId, LocalDate effectiveDate, Long workflowId);
+}
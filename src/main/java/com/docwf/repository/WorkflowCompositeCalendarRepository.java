@@ -0,0 +1,15 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowCompositeCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WorkflowCompositeCalendarRepository extends JpaRepository<WorkflowCompositeCalendar, Long> {
+    
+    Optional<WorkflowCompositeCalendar> findByCompositeName(String compositeName);
+    
+    boolean existsByCompositeName(String compositeName);
+}
@@ -29,6 +29,12 @@ public interface WorkflowConfigRepository extends JpaRepository<WorkflowConfig,
      */
     List<WorkflowConfig> findByCalendarIdAndIsActive(Long calendarId, String isActive);
     
+    /**
+     * Find IDs of active workflows assigned to a calendar
+     */
+    @Query("SELECT w.workflowId FROM WorkflowConfig w WHERE w.calendarId = :calendarId AND w.isActive = 'Y' ORDER BY w.workflowId")
+    List<Long> findActiveWorkflowIdsByCalendarId(@Param("calendarId") Long calendarId);
+    
     /**
      * Find workflows by description containing text
      */
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -81,4 +82,11 @@ public interface WorkflowConfigTaskRepository extends JpaRepository<WorkflowConf
      * Find tasks by workflow ID ordered by sequence order
      */
     List<WorkflowConfigTask> findByWorkflowWorkflowIdOrderBySequenceOrder(Long workflowId);
+    
+    /**
+     * Find tasks with their roles for several workflows ordered by workflow and sequence order
+     */
+    @Query("SELECT t FROM WorkflowConfigTask t LEFT JOIN FETCH t.role WHERE t.workflow.workflowId IN :workflowIds " +
+           "ORDER BY t.workflow.workflowId ASC, t.sequenceOrder ASC")
+    List<WorkflowConfigTask> findWithRoleByWorkflowIds(@Param("workflowIds") Collection<Long> workflowIds);
 }
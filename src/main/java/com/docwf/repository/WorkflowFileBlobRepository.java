@@ -0,0 +1,30 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowFileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkflowFileBlobRepository extends JpaRepository<WorkflowFileBlob, String> {
+
+    /**
+     * Lock a blob's row so reference changes and collection of it are serialised
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM WorkflowFileBlob b WHERE b.checksum = :checksum")
+    Optional<WorkflowFileBlob> lockByChecksum(@Param("checksum") String checksum);
+
+    /**
+     * Blobs nothing has referred to since before the cutoff
+     */
+    @Query("SELECT b FROM WorkflowFileBlob b WHERE b.refCount <= 0 AND b.unreferencedOn < :cutoff")
+    List<WorkflowFileBlob> findUnreferencedSince(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,36 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowFileUpload;
+import com.docwf.entity.WorkflowFileUpload.UploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WorkflowFileUploadRepository extends JpaRepository<WorkflowFileUpload, Long> {
+
+    /**
+     * Uploads in a status that have not received a chunk since the given instant
+     */
+    List<WorkflowFileUpload> findByStatusAndUpdatedOnLessThan(UploadStatus status, LocalDateTime updatedBefore);
+
+    /**
+     * Move an upload's durable offset forward, only if it is still in the given
+     * status and at the offset the chunk was written from; returns 0 when
+     * another writer or an abort got there first
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkflowFileUpload u SET u.bytesReceived = :bytesReceived, u.updatedOn = :updatedOn " +
+           "WHERE u.uploadId = :uploadId AND u.bytesReceived = :offset " +
+           "AND u.status = :status")
+    int advanceBytesReceived(@Param("uploadId") Long uploadId, @Param("status") UploadStatus status,
+                             @Param("offset") Long offset, @Param("bytesReceived") Long bytesReceived,
+                             @Param("updatedOn") LocalDateTime updatedOn);
+}
@@ -2,7 +2,11 @@ package com.docwf.repository;
 
 import com.docwf.entity.WorkflowInstanceTaskFile;
 import com.docwf.entity.WorkflowInstanceTaskFileId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,7 +15,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface WorkflowInstanceTaskFileRepository extends JpaRepository<WorkflowInstanceTaskFile, WorkflowInstanceTaskFileId> {
+public interface WorkflowInstanceTaskFileRepository extends JpaRepository<WorkflowInstanceTaskFile, WorkflowInstanceTaskFileId>,
+        JpaSpecificationExecutor<WorkflowInstanceTaskFile> {
     
     /**
      * Find all versions of a specific file by instance file ID
@@ -64,4 +69,29 @@ public interface WorkflowInstanceTaskFileRepository extends JpaRepository<Workfl
      * Find files created by a specific user
      */
     List<WorkflowInstanceTaskFile> findByCreatedBy(String createdBy);
+    
+    /**
+     * Count file versions whose stored bytes, whole content or delta, have the given SHA-256
+     */
+    @Query("SELECT COUNT(f) FROM WorkflowInstanceTaskFile f " +
+           "WHERE (f.deltaChecksum IS NULL AND f.checksum = :checksum) OR f.deltaChecksum = :checksum")
+    long countBlobReferences(@Param("checksum") String checksum);
+    
+    /**
+     * Lock a file version so re-encoding and deleting it are serialised
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM WorkflowInstanceTaskFile f WHERE f.instanceFileId = :instanceFileId AND f.version = :version")
+    Optional<WorkflowInstanceTaskFile> lockVersion(@Param("instanceFileId") Long instanceFileId, @Param("version") Integer version);
+    
+    /**
+     * Find the versions before the given one, newest first
+     */
+    List<WorkflowInstanceTaskFile> findByInstanceFileIdAndVersionLessThanOrderByVersionDesc(Long instanceFileId, Integer version,
+                                                                                           Pageable pageable);
+    
+    /**
+     * Find the versions stored as deltas against the given version
+     */
+    List<WorkflowInstanceTaskFile> findByInstanceFileIdAndDeltaBaseVersion(Long instanceFileId, Integer deltaBaseVersion);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -257,4 +258,34 @@ public interface WorkflowInstanceTaskRepository extends JpaRepository<WorkflowIn
     List<WorkflowInstanceTask> findConflictingTasks(@Param("userId") Long userId, 
                                                    @Param("startTime") LocalDateTime startTime, 
                                                    @Param("endTime") LocalDateTime endTime);
+    
+    /**
+     * Count open tasks per assignee and task priority, used to rebuild the workload index
+     */
+    @Query("SELECT wit.assignedTo.userId, t.taskPriority, COUNT(wit) FROM WorkflowInstanceTask wit JOIN wit.task t " +
+           "WHERE wit.assignedTo IS NOT NULL AND wit.status IN :statuses " +
+           "GROUP BY wit.assignedTo.userId, t.taskPriority")
+    List<Object[]> countOpenTasksByAssigneeAndPriority(@Param("statuses") Collection<TaskInstanceStatus> statuses);
+    
+    /**
+     * Find assigned tasks in the given statuses across several instances
+     */
+    @Query("SELECT wit FROM WorkflowInstanceTask wit WHERE wit.workflowInstance.instanceId IN :instanceIds " +
+           "AND wit.assignedTo IS NOT NULL AND wit.status IN :statuses")
+    List<WorkflowInstanceTask> findAssignedTasksByInstanceIdsAndStatusIn(@Param("instanceIds") Collection<Long> instanceIds,
+                                                                       @Param("statuses") Collection<TaskInstanceStatus> statuses);
+    
+    /**
+     * Count an instance's tasks per status, used to backfill its progress counters
+     */
+    @Query("SELECT wit.status, COUNT(wit) FROM WorkflowInstanceTask wit " +
+           "WHERE wit.workflowInstance.instanceId = :instanceId GROUP BY wit.status")
+    List<Object[]> countTasksByStatusForInstance(@Param("instanceId") Long instanceId);
+    
+    /**
+     * Config task ID and status of each task in an instance, without loading the entities
+     */
+    @Query("SELECT wit.task.taskId, wit.status FROM WorkflowInstanceTask wit " +
+           "WHERE wit.workflowInstance.instanceId = :instanceId")
+    List<Object[]> findTaskStatusesByInstanceId(@Param("instanceId") Long instanceId);
 }
@@ -0,0 +1,27 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowInstanceTaskTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WorkflowInstanceTaskTransitionRepository extends JpaRepository<WorkflowInstanceTaskTransition, Long> {
+    
+    /**
+     * Find the transitions of one instance task in the order they were recorded
+     */
+    @Query("SELECT t FROM WorkflowInstanceTaskTransition t WHERE t.instanceTask.instanceTaskId = :instanceTaskId " +
+           "ORDER BY t.transitionId")
+    List<WorkflowInstanceTaskTransition> findByInstanceTaskId(@Param("instanceTaskId") Long instanceTaskId);
+    
+    /**
+     * Find the transitions of all tasks in a workflow instance in the order they were recorded
+     */
+    @Query("SELECT t FROM WorkflowInstanceTaskTransition t WHERE t.workflowInstance.instanceId = :instanceId " +
+           "ORDER BY t.transitionId")
+    List<WorkflowInstanceTaskTransition> findByInstanceId(@Param("instanceId") Long instanceId);
+}
@@ -0,0 +1,48 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowJobExecution;
+import com.docwf.entity.WorkflowJobExecution.ExecutionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WorkflowJobExecutionRepository extends JpaRepository<WorkflowJobExecution, Long> {
+
+    /**
+     * Latest executions of a job, newest first; served by the (job, fired) index
+     */
+    List<WorkflowJobExecution> findByJobNameOrderByFiredOnDesc(String jobName, Pageable pageable);
+
+    /**
+     * Executions in a status that fired within a window, newest first; served by the (status, fired) index
+     */
+    List<WorkflowJobExecution> findByStatusAndFiredOnGreaterThanEqualOrderByFiredOnDesc(ExecutionStatus status,
+                                                                                       LocalDateTime firedFrom);
+
+    /**
+     * Executions in a status that fired before an instant, oldest first, e.g. jobs still running after a threshold
+     */
+    List<WorkflowJobExecution> findByStatusAndFiredOnLessThanOrderByFiredOn(ExecutionStatus status, LocalDateTime firedBefore);
+
+    long countByStatus(ExecutionStatus status);
+
+    long countByStatusAndFiredOnLessThan(ExecutionStatus status, LocalDateTime firedBefore);
+
+    @Query("SELECT COUNT(DISTINCT CONCAT(e.jobGroup, '.', e.jobName)) FROM WorkflowJobExecution e " +
+           "WHERE e.status = :status AND e.firedOn >= :firedFrom")
+    long countJobsByStatusSince(@Param("status") ExecutionStatus status, @Param("firedFrom") LocalDateTime firedFrom);
+
+    /**
+     * Drop history older than the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM WorkflowJobExecution e WHERE e.firedOn < :firedBefore")
+    int deleteFiredBefore(@Param("firedBefore") LocalDateTime firedBefore);
+}
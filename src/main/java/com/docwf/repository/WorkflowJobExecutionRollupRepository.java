@@ -0,0 +1,41 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowJobExecutionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WorkflowJobExecutionRollupRepository
+        extends JpaRepository<WorkflowJobExecutionRollup, WorkflowJobExecutionRollup.RollupKey> {
+
+    /**
+     * Count one completed execution into an existing bucket in place, so
+     * concurrent completions do not overwrite each other; 0 if the bucket does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE WorkflowJobExecutionRollup r SET r.executions = r.executions + 1, " +
+           "r.failures = r.failures + :failures, " +
+           "r.totalDurationMs = r.totalDurationMs + :durationMs, " +
+           "r.maxDurationMs = CASE WHEN r.maxDurationMs < :durationMs THEN :durationMs ELSE r.maxDurationMs END, " +
+           "r.totalStartDelayMs = r.totalStartDelayMs + :startDelayMs, " +
+           "r.instancesCreated = r.instancesCreated + :instancesCreated " +
+           "WHERE r.jobName = :jobName AND r.jobGroup = :jobGroup AND r.bucketStart = :bucketStart")
+    int addExecution(@Param("jobName") String jobName, @Param("jobGroup") String jobGroup,
+                     @Param("bucketStart") LocalDateTime bucketStart, @Param("failures") long failures,
+                     @Param("durationMs") long durationMs, @Param("startDelayMs") long startDelayMs,
+                     @Param("instancesCreated") long instancesCreated);
+
+    List<WorkflowJobExecutionRollup> findByJobNameAndBucketStartGreaterThanEqual(String jobName, LocalDateTime bucketFrom);
+
+    List<WorkflowJobExecutionRollup> findByBucketStartGreaterThanEqual(LocalDateTime bucketFrom);
+
+    @Modifying
+    @Query("DELETE FROM WorkflowJobExecutionRollup r WHERE r.bucketStart < :bucketBefore")
+    int deleteBucketsBefore(@Param("bucketBefore") LocalDateTime bucketBefore);
+}
@@ -0,0 +1,64 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowNotification;
+import com.docwf.entity.WorkflowNotification.DeliveryStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkflowNotificationRepository extends JpaRepository<WorkflowNotification, Long> {
+
+    /**
+     * Dedup keys that are already queued, out of the given candidates
+     */
+    @Query("SELECT wn.dedupKey FROM WorkflowNotification wn WHERE wn.dedupKey IN :dedupKeys")
+    List<String> findExistingDedupKeys(@Param("dedupKeys") Collection<String> dedupKeys);
+
+    /**
+     * IDs of the oldest due notifications. Pending rows are due once their retry
+     * time has passed, SENDING rows once their claim lease has expired.
+     */
+    @Query("SELECT wn.notificationId FROM WorkflowNotification wn WHERE wn.status IN :statuses AND wn.nextAttemptOn <= :now " +
+           "ORDER BY wn.nextAttemptOn, wn.notificationId")
+    List<Long> findDueIds(@Param("statuses") Collection<DeliveryStatus> statuses,
+                          @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Lock the given notifications if they are still due, skipping rows another
+     * dispatcher holds where the database supports it. Kept separate from the
+     * paged ID query because Oracle rejects FOR UPDATE with row limiting.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT wn FROM WorkflowNotification wn WHERE wn.notificationId IN :ids " +
+           "AND wn.status IN :statuses AND wn.nextAttemptOn <= :now")
+    List<WorkflowNotification> lockDue(@Param("ids") Collection<Long> ids,
+                                       @Param("statuses") Collection<DeliveryStatus> statuses,
+                                       @Param("now") LocalDateTime now);
+
+    /**
+     * Find notifications by delivery status
+     */
+    List<WorkflowNotification> findByStatus(DeliveryStatus status);
+
+    /**
+     * Find notifications queued for a task
+     */
+    List<WorkflowNotification> findByInstanceTaskIdOrderByNotificationId(Long instanceTaskId);
+
+    /**
+     * Count notifications by delivery status
+     */
+    long countByStatus(DeliveryStatus status);
+}
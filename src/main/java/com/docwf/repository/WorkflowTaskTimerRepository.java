@@ -0,0 +1,69 @@
+package com.docwf.repository;
+
+import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowNotification.NotificationType;
+import com.docwf.entity.WorkflowTaskTimer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WorkflowTaskTimerRepository extends JpaRepository<WorkflowTaskTimer, Long> {
+
+    /**
+     * ID and due time of every scheduled timer due before the given instant
+     */
+    @Query("SELECT t.timerId, t.dueOn FROM WorkflowTaskTimer t WHERE t.status = 'SCHEDULED' AND t.dueOn <= :dueBefore")
+    List<Object[]> findScheduledDueBefore(@Param("dueBefore") LocalDateTime dueBefore);
+
+    /**
+     * IDs of scheduled timers of one type that are already due
+     */
+    @Query("SELECT t.timerId FROM WorkflowTaskTimer t WHERE t.status = 'SCHEDULED' AND t.timerType = :timerType " +
+           "AND t.dueOn <= :now ORDER BY t.dueOn")
+    List<Long> findDueIdsByType(@Param("timerType") NotificationType timerType, @Param("now") LocalDateTime now);
+
+    /**
+     * Load timers with their task, instance and assignee for firing
+     */
+    @Query("SELECT t FROM WorkflowTaskTimer t JOIN FETCH t.instanceTask wit JOIN FETCH wit.workflowInstance " +
+           "LEFT JOIN FETCH wit.assignedTo WHERE t.timerId IN :timerIds")
+    List<WorkflowTaskTimer> findWithTaskByIds(@Param("timerIds") Collection<Long> timerIds);
+
+    /**
+     * Find timers for an instance task
+     */
+    List<WorkflowTaskTimer> findByInstanceTaskInstanceTaskIdOrderByTimerId(Long instanceTaskId);
+
+    /**
+     * Cancel a task's scheduled timers, e.g. when it is reopened and its deadlines start over
+     */
+    @Modifying
+    @Query("UPDATE WorkflowTaskTimer t SET t.status = 'CANCELLED' " +
+           "WHERE t.instanceTask.instanceTaskId = :instanceTaskId AND t.status = 'SCHEDULED'")
+    int cancelScheduled(@Param("instanceTaskId") Long instanceTaskId);
+
+    /**
+     * Drop fired and cancelled timers that fell due before the retention cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM WorkflowTaskTimer t WHERE t.status IN ('FIRED', 'CANCELLED') AND t.dueOn < :dueBefore")
+    int deleteFinishedDueBefore(@Param("dueBefore") LocalDateTime dueBefore);
+
+    /**
+     * Open tasks with no timers at all, in ID order after the given ID, used to
+     * backfill tasks that were started before timers existed
+     */
+    @Query("SELECT wit FROM WorkflowInstanceTask wit WHERE wit.status IN :statuses AND wit.instanceTaskId > :afterId " +
+           "AND NOT EXISTS (SELECT t FROM WorkflowTaskTimer t WHERE t.instanceTask = wit) ORDER BY wit.instanceTaskId")
+    List<WorkflowInstanceTask> findOpenTasksWithoutTimers(@Param("statuses") Collection<TaskInstanceStatus> statuses,
+                                                          @Param("afterId") Long afterId, Pageable pageable);
+}
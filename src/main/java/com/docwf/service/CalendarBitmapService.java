@@ -0,0 +1,25 @@
+package com.docwf.service;
+
+import com.docwf.service.calendar.CalendarBitmap;
+
+import java.util.Optional;
+
+/**
+ * Cache of compiled calendar bitmaps used for date validity checks.
+ *
+ * Bitmaps are compiled on first use and kept until the calendar or one of its
+ * days is changed through {@link WorkflowCalendarService}, which evicts them.
+ */
+public interface CalendarBitmapService {
+
+    /**
+     * Get the compiled bitmap for a calendar, compiling it on a cache miss.
+     * Empty if the calendar does not exist.
+     */
+    Optional<CalendarBitmap> getBitmap(Long calendarId);
+
+    /**
+     * Evict a calendar's bitmap now and again once the current transaction completes
+     */
+    void evict(Long calendarId);
+}
@@ -0,0 +1,50 @@
+package com.docwf.service;
+
+import com.docwf.dto.CompositeCalendarDto;
+import com.docwf.service.calendar.CalendarBitmap;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Composite calendars: set expressions over workflow calendars such as
+ * {@code intersect(1, 2)} for days open in both calendar 1 and calendar 2,
+ * evaluated over the cached calendar bitmaps.
+ *
+ * The evaluated bitmap is cached per composite and rebuilt when the composite
+ * or any calendar it references changes, so a cross-region check is a single
+ * bit lookup. A composite whose calendars no longer all exist fails closed:
+ * no date is valid or executable.
+ */
+public interface CompositeCalendarService {
+    
+    CompositeCalendarDto createComposite(CompositeCalendarDto compositeDto);
+    
+    Optional<CompositeCalendarDto> getCompositeById(Long compositeId);
+    
+    List<CompositeCalendarDto> getAllComposites();
+    
+    CompositeCalendarDto updateComposite(Long compositeId, CompositeCalendarDto compositeDto);
+    
+    void deleteComposite(Long compositeId);
+    
+    /**
+     * Evaluated bitmap for a composite, empty if the composite or one of its
+     * calendars does not exist
+     */
+    Optional<CalendarBitmap> getBitmap(Long compositeId);
+    
+    // Composite Validation
+    boolean isDateValid(Long compositeId, LocalDate date);
+    
+    boolean canExecuteWorkflow(Long compositeId, LocalDate date);
+    
+    List<LocalDate> getValidDatesInRange(Long compositeId, LocalDate startDate, LocalDate endDate);
+    
+    LocalDate getNextValidDate(Long compositeId, LocalDate fromDate);
+    
+    LocalDate getPreviousValidDate(Long compositeId, LocalDate fromDate);
+    
+    int countBusinessDaysBetween(Long compositeId, LocalDate startDate, LocalDate endDate);
+}
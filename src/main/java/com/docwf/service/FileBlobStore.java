@@ -0,0 +1,46 @@
+package com.docwf.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Content-addressed storage for task file contents.
+ *
+ * Each distinct payload is stored once, as a blob named by its SHA-256 in a
+ * sharded directory tree, and reference counted by the task file rows that use
+ * it. Storing the same workbook on several tasks, or re-uploading it as a new
+ * version, adds a reference instead of another copy; blobs nothing refers to
+ * any more are reclaimed by garbage collection.
+ */
+public interface FileBlobStore {
+
+    /**
+     * Add a reference to the blob for the content's checksum, storing the content
+     * first if it is new, and return the blob's path. The content file is linked
+     * or copied, never consumed; the caller deletes it once the row referring to
+     * the blob is committed, and releases the reference if that row is not written.
+     */
+    Path addReference(Path content, String checksum) throws IOException;
+
+    /**
+     * Drop a reference; returns false when the checksum has no blob, as for files
+     * stored before the blob store
+     */
+    boolean releaseReference(String checksum);
+
+    /**
+     * References the checksum's blob holds, or 0 when it has no blob
+     */
+    int referenceCount(String checksum);
+
+    /**
+     * Whether the path is a blob of this store rather than a file stored elsewhere
+     */
+    boolean isBlob(Path path);
+
+    /**
+     * Delete blobs that have been unreferenced for the grace period, and files in
+     * the store with no blob row; returns the number of files removed
+     */
+    int collectGarbage();
+}
@@ -0,0 +1,42 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Consolidates task files into a single output, streamed straight from the
+ * stored files either to a caller's stream, such as an HTTP response, or into
+ * a new CONSOLIDATE task file.
+ */
+public interface FileConsolidationService {
+
+    /**
+     * How the sources are combined
+     */
+    enum ConsolidationFormat {
+        ZIP,    // one entry per file, compressed
+        CONCAT  // the files' bytes back to back, for text extracts and logs
+    }
+
+    /**
+     * Latest version of each file, in the order given; fails before anything is
+     * written if a file is unknown or missing from disk
+     */
+    List<WorkflowInstanceTaskFileDto> resolveSources(List<Long> instanceFileIds);
+
+    /**
+     * Write the consolidated output of resolved sources to the stream, which is left open
+     */
+    void writeConsolidated(List<WorkflowInstanceTaskFileDto> sources, ConsolidationFormat format, OutputStream out)
+        throws IOException;
+
+    /**
+     * Consolidate the latest versions of the files and record the result as a
+     * new CONSOLIDATE file of the task
+     */
+    WorkflowInstanceTaskFileDto consolidate(Long instanceTaskId, List<Long> instanceFileIds, ConsolidationFormat format,
+                                            String createdBy) throws IOException;
+}
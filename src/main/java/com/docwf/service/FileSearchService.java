@@ -0,0 +1,24 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Search over the recorded metadata of task files, so listing files never
+ * walks the upload directories.
+ */
+public interface FileSearchService {
+
+    /**
+     * Search the recorded metadata of task files; null criteria match everything.
+     * Dates are ISO local date-times and an unparseable one gives an empty page.
+     * Only the latest version of each file is matched unless allVersions is set.
+     * Unsorted pages are ordered newest first.
+     */
+    Page<WorkflowInstanceTaskFileDto> searchFiles(String fileName, String extension, Long minSize, Long maxSize,
+                                                  String createdAfter, String createdBefore, Long instanceTaskId,
+                                                  Long instanceId, String createdBy, ActionType actionType,
+                                                  boolean allVersions, Pageable pageable);
+}
@@ -0,0 +1,82 @@
+package com.docwf.service;
+
+import com.docwf.dto.FileUploadSessionDto;
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Chunked, resumable uploads of task files.
+ *
+ * A client initiates an upload with its total size, appends chunks in order at
+ * the offset the upload reports, and completes it once every byte has arrived.
+ * Chunks are streamed straight from the request body to a part file while a
+ * SHA-256 checksum is computed, so nothing is buffered to a temporary file and
+ * copied, and an interrupted upload resumes from the last byte forced to disk
+ * instead of from zero. Completed content is kept in the {@link FileBlobStore},
+ * once however many files and versions share it.
+ */
+public interface FileUploadService {
+
+    /**
+     * Start an upload of a new file, or of a new version of instanceFileId when it is given
+     */
+    FileUploadSessionDto initUpload(Long instanceTaskId, Long instanceFileId, String fileName, long totalSize,
+                                    ActionType actionType, String createdBy);
+
+    /**
+     * Append a chunk read from the stream at the given offset, which must equal
+     * the bytes received so far. A chunk interrupted part way keeps the bytes
+     * that arrived, so the client resumes from the offset reported afterwards.
+     */
+    FileUploadSessionDto appendChunk(Long uploadId, long offset, InputStream chunk) throws IOException;
+
+    Optional<FileUploadSessionDto> getUpload(Long uploadId);
+
+    /**
+     * Store the fully received file and record it as a task file.
+     * When expectedChecksum is given it must match the SHA-256 computed while receiving.
+     */
+    WorkflowInstanceTaskFileDto completeUpload(Long uploadId, String expectedChecksum) throws IOException;
+
+    /**
+     * Discard an unfinished upload and its part file
+     */
+    void abortUpload(Long uploadId);
+
+    /**
+     * Discard uploads that have not received a chunk within the expiry period
+     */
+    void expireStaleUploads();
+
+    /**
+     * Record content the server writes itself, such as a consolidation or a
+     * multipart upload, as a new task file, or as a new version of
+     * instanceFileId when it is given (instanceTaskId may then be null to keep
+     * the file on its task). The writer streams into a part file as an upload's
+     * chunks would, and the result is checksummed and stored the same way; if
+     * the writer fails the part file is discarded.
+     */
+    WorkflowInstanceTaskFileDto storeFile(Long instanceTaskId, Long instanceFileId, String fileName, ActionType actionType,
+                                          String createdBy, ContentWriter writer) throws IOException;
+
+    Optional<WorkflowInstanceTaskFileDto> getFile(Long instanceFileId, Integer version);
+
+    /**
+     * Delete one version of a file and release its stored content; versions
+     * stored as deltas against it are stored whole again first
+     */
+    void deleteFileVersion(Long instanceFileId, Integer version) throws IOException;
+
+    /**
+     * Produces the content of a file the server stores
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,51 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.service.file.VersionContent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Version history of task files.
+ *
+ * The latest version of a file is always stored whole. When a new version
+ * arrives the one before it is re-encoded as a binary delta against it, if the
+ * delta is small enough to be worth it, so a frequently revised spreadsheet
+ * keeps one whole copy plus the rows that changed between versions. Older
+ * versions are rebuilt on demand by applying deltas down from the nearest whole
+ * or cached version, and the result is cached.
+ */
+public interface FileVersionService {
+
+    /**
+     * All versions of a file, newest first
+     */
+    List<WorkflowInstanceTaskFileDto> getVersions(Long instanceFileId);
+
+    Optional<WorkflowInstanceTaskFileDto> getLatestVersion(Long instanceFileId);
+
+    /**
+     * The latest version of each file of a task
+     */
+    List<WorkflowInstanceTaskFileDto> getLatestVersions(Long instanceTaskId);
+
+    /**
+     * A version's whole content, rebuilding it if it is stored as a delta; a
+     * rebuilt copy is kept until the content is closed
+     */
+    VersionContent openVersion(Long instanceFileId, Integer version) throws IOException;
+
+    /**
+     * Re-encode the version before the given one as a delta against it; returns
+     * false when it stays whole because the delta would not save enough, its
+     * content is shared with other files, or the delta chain is at its limit
+     */
+    boolean compactPreviousVersion(Long instanceFileId, Integer version) throws IOException;
+
+    /**
+     * Store the versions encoded against the given version whole again, so it can be deleted
+     */
+    void expandDependents(Long instanceFileId, Integer version) throws IOException;
+}
@@ -0,0 +1,69 @@
+package com.docwf.service;
+
+import com.docwf.dto.JobExecutionStatisticsDto;
+import com.docwf.entity.WorkflowJobExecution;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Durable record of Quartz job executions.
+ *
+ * {@link com.docwf.job.JobExecutionHistoryListener} records each execution as
+ * it starts and completes; job monitoring reads history, stuck and failed jobs
+ * and statistics from here with indexed queries instead of walking the
+ * scheduler's jobs and triggers.
+ */
+public interface JobExecutionHistoryService {
+
+    /**
+     * Record an execution that has just been handed a thread; returns its ID for {@link #recordCompleted}
+     */
+    Long recordStarted(WorkflowJobExecution execution);
+
+    /**
+     * Complete a started execution and add it to its job's hourly rollup.
+     * A null error message means it succeeded.
+     */
+    void recordCompleted(Long executionId, long durationMs, Integer instancesCreated, String errorMessage);
+
+    /**
+     * Record an execution a trigger listener vetoed
+     */
+    void recordVetoed(WorkflowJobExecution execution);
+
+    /**
+     * Latest executions of a job, newest first
+     */
+    List<WorkflowJobExecution> getHistory(String jobName, int limit);
+
+    /**
+     * Executions still running that fired before the given instant, oldest first
+     */
+    List<WorkflowJobExecution> getRunningStartedBefore(LocalDateTime firedBefore);
+
+    /**
+     * Failed executions that fired at or after the given instant, newest first
+     */
+    List<WorkflowJobExecution> getFailedSince(LocalDateTime firedFrom);
+
+    /**
+     * Totals for one job, or every job when jobName is null, over the hourly
+     * buckets from the one containing since onwards
+     */
+    JobExecutionStatisticsDto getStatistics(String jobName, LocalDateTime since);
+
+    long countRunning();
+
+    long countRunningStartedBefore(LocalDateTime firedBefore);
+
+    /**
+     * Number of distinct jobs with a failed execution since the given instant
+     */
+    long countFailedJobsSince(LocalDateTime firedFrom);
+
+    /**
+     * Drop history and rollups past their retention periods
+     */
+    void pruneHistory();
+}
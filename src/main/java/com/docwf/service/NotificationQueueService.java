@@ -0,0 +1,46 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowNotification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable outbound notification queue.
+ *
+ * Schedulers enqueue and return immediately; {@link com.docwf.service.notification.NotificationDispatcher}
+ * claims due rows, delivers them on its worker pool and records the outcome here.
+ */
+public interface NotificationQueueService {
+
+    /**
+     * Queue notifications in their own transaction. Each one is deduplicated per
+     * type, task (or instance) and dedup window, and dropped if its recipient has
+     * no email address. Returns the number actually queued.
+     */
+    int enqueue(List<WorkflowNotification> notifications);
+
+    /**
+     * Claim up to limit due notifications for delivery, marking them SENDING
+     * under a lease so a crashed dispatcher's claims are picked up again
+     */
+    List<WorkflowNotification> claimDue(int limit);
+
+    /**
+     * Record successful delivery
+     */
+    void markSent(Collection<Long> notificationIds);
+
+    /**
+     * Record failed delivery attempts. Notifications are retried with backoff
+     * until they run out of attempts, then left FAILED.
+     */
+    void markFailed(Map<Long, String> errorsByNotificationId);
+
+    /**
+     * Drop a notification that no longer applies, e.g. an escalation for a task
+     * that was completed in the meantime
+     */
+    void markCancelled(Long notificationId, String reason);
+}
@@ -0,0 +1,23 @@
+package com.docwf.service;
+
+import com.docwf.service.plan.WorkflowPlan;
+
+/**
+ * Chooses assignees for tasks as they become active.
+ *
+ * The strategy is configured through app.workflow.assignment.strategy
+ * (round-robin, least-loaded or priority-weighted). Role membership is cached
+ * and must be evicted whenever users or role assignments change.
+ */
+public interface TaskAssignmentService {
+
+    /**
+     * Select the user ID to assign a task to, or null if nobody holds the task's role
+     */
+    Long selectAssignee(WorkflowPlan.TaskNode task);
+
+    /**
+     * Evict cached role membership now and again once the current transaction completes
+     */
+    void evictCandidates();
+}
@@ -0,0 +1,50 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowInstanceTaskTransition.TransitionEvent;
+import com.docwf.entity.WorkflowNotification.NotificationType;
+
+import java.util.Collection;
+
+/**
+ * Reminder, escalation, overdue and attention deadlines for instance tasks.
+ *
+ * Deadlines are persisted as WORKFLOW_TASK_TIMER rows when a task is created,
+ * activated or started and fired by {@link com.docwf.service.timer.DueTimerWorker} when
+ * they fall due, which queues the matching notification.
+ */
+public interface TaskTimerService {
+
+    /**
+     * Schedule the deadlines a transition starts, or cancel those it resets.
+     * Runs inside the transition's transaction, after the task has been saved.
+     */
+    void onTransition(WorkflowInstanceTask instanceTask, TransitionEvent event);
+
+    /**
+     * Fire the given timers that are still scheduled and due, cancelling those
+     * whose task has moved on. Returns the number of notifications queued.
+     */
+    int fireTimers(Collection<Long> timerIds);
+
+    /**
+     * Fire every scheduled timer of one type that is already due
+     */
+    int fireDueTimers(NotificationType timerType);
+
+    /**
+     * Hand timers due within the in-memory horizon to the due-timer queue
+     */
+    int loadUpcomingTimers();
+
+    /**
+     * Create timers for open tasks that were started before timers existed
+     */
+    int backfillTimers();
+
+    /**
+     * Delete fired and cancelled timers that fell due longer ago than the
+     * retention period. Returns the number of timers deleted.
+     */
+    int purgeFinishedTimers();
+}
@@ -3,10 +3,14 @@ package com.docwf.service;
 import com.docwf.dto.WorkflowCalendarDto;
 import com.docwf.dto.WorkflowCalendarDayDto;
 import com.docwf.dto.CreateCalendarWithDaysDto;
+import com.docwf.dto.CalendarDayImportResultDto;
+import com.docwf.service.calendar.CalendarDayImportReader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +50,14 @@ public interface WorkflowCalendarService {
     // Add batch method
     List<WorkflowCalendarDayDto> addCalendarDaysBatch(Long calendarId, List<WorkflowCalendarDayDto> daysDto);
     
+    /**
+     * Stream days from a JSON, CSV or iCalendar upload into a calendar with
+     * batched inserts. Days already on the calendar or repeated in the upload
+     * are skipped and invalid rows are reported instead of failing the import.
+     */
+    CalendarDayImportResultDto importCalendarDays(Long calendarId, InputStream content,
+                                                  CalendarDayImportReader.Format format, String defaultDayType);
+    
     List<WorkflowCalendarDayDto> getCalendarDays(Long calendarId);
     
     List<WorkflowCalendarDayDto> getCalendarDaysByType(Long calendarId, String dayType);
@@ -79,6 +91,17 @@ public interface WorkflowCalendarService {
     
     LocalDate getPreviousValidDate(Long calendarId, LocalDate fromDate);
     
+    /**
+     * The Nth business (valid) day of a month, counting from the end when n is
+     * negative; null when the month has fewer business days
+     */
+    LocalDate getNthBusinessDayOfMonth(Long calendarId, YearMonth month, int n);
+    
+    /**
+     * Number of business (valid) days between two dates inclusive
+     */
+    int countBusinessDaysBetween(Long calendarId, LocalDate startDate, LocalDate endDate);
+    
     // Cron and Region Management
     List<WorkflowCalendarDto> getCalendarsByRegion(String region);
     
@@ -3,6 +3,7 @@ package com.docwf.service;
 import com.docwf.dto.WorkflowInstanceDto;
 import com.docwf.dto.WorkflowInstanceTaskDto;
 import com.docwf.dto.TaskInstanceDecisionOutcomeDto;
+import com.docwf.dto.TaskTransitionDto;
 import com.docwf.dto.WorkflowProgressDto;
 import com.docwf.dto.WorkflowInstanceStatsDto;
 import com.docwf.dto.UserWorkloadDto;
@@ -24,8 +25,11 @@ import com.docwf.dto.AdminDashboardDto;
 import com.docwf.dto.WorkflowUserDto;
 import com.docwf.dto.ProcessOwnerWorkloadDto;
 import com.docwf.dto.ProcessOwnerPerformanceDto;
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -46,6 +50,21 @@ public interface WorkflowExecutionService {
      */
     WorkflowInstanceDto startWorkflowWithCalendar(CreateWorkflowInstanceDto createInstanceDto);
     
+    /**
+     * Start one instance of each workflow for a calendar execution date.
+     * Calendar, starting user and config tasks are resolved once and instances are
+     * written in chunked transactions; failures are reported per workflow.
+     * Each start is recorded in the calendar run ledger, and workflows already
+     * started for the calendar and date are skipped.
+     */
+    BulkWorkflowStartResultDto startWorkflowsBulk(Long calendarId, List<Long> workflowIds, LocalDate executionDate);
+    
+    /**
+     * Workflows a calendar has already started for an execution date, from the
+     * run ledger in one indexed query
+     */
+    Set<Long> getStartedWorkflowIds(Long calendarId, LocalDate executionDate);
+    
     /**
      * Get workflow instance by ID
      */
@@ -143,6 +162,22 @@ public interface WorkflowExecutionService {
      */
     List<TaskInstanceDecisionOutcomeDto> getTaskDecisionOutcomes(Long instanceTaskId);
     
+    /**
+     * Get the recorded state transitions of an instance task, oldest first
+     */
+    List<TaskTransitionDto> getTaskTransitions(Long instanceTaskId);
+    
+    /**
+     * Get the recorded state transitions of every task in an instance, oldest first
+     */
+    List<TaskTransitionDto> getInstanceTransitions(Long instanceId);
+    
+    /**
+     * Rebuild task status and assignee by replaying the instance's transition log,
+     * correcting any task row that disagrees with it. Returns the corrected tasks.
+     */
+    List<WorkflowInstanceTaskDto> replayInstanceTransitions(Long instanceId);
+    
     /**
      * Process decision outcome and move to next task
      */
@@ -154,6 +189,12 @@ public interface WorkflowExecutionService {
      */
     WorkflowInstanceTaskDto executeNextTask(Long instanceId);
     
+    /**
+     * Activate every pending task whose dependencies are complete, so independent
+     * branches run in parallel. Returns the newly activated tasks.
+     */
+    List<WorkflowInstanceTaskDto> activateReadyTasks(Long instanceId);
+    
     /**
      * Check workflow completion
      */
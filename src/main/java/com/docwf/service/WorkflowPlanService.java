@@ -0,0 +1,40 @@
+package com.docwf.service;
+
+import com.docwf.service.plan.WorkflowPlan;
+import com.docwf.service.plan.WorkflowPlanSet;
+
+import java.util.Collection;
+
+/**
+ * Cache of compiled workflow plans used by the execution engine.
+ *
+ * Plans are compiled on first use and kept until the workflow definition is
+ * changed through {@link WorkflowConfigService}, which evicts them after commit.
+ */
+public interface WorkflowPlanService {
+
+    /**
+     * Get the compiled plan for a workflow, compiling it on a cache miss.
+     * Throws WorkflowException if the workflow does not exist or cannot be
+     * compiled, e.g. because its task dependencies form a cycle.
+     */
+    WorkflowPlan getPlan(Long workflowId);
+
+    /**
+     * Get compiled plans for several workflows, loading all misses together.
+     * Each workflow is compiled on its own, so one that cannot be compiled is
+     * reported as a failure without affecting the others. Workflows that do
+     * not exist are absent from the result.
+     */
+    WorkflowPlanSet getPlans(Collection<Long> workflowIds);
+
+    /**
+     * Evict a workflow's plan now and again once the current transaction completes
+     */
+    void evict(Long workflowId);
+
+    /**
+     * Evict every cached plan, e.g. after a change to shared role definitions
+     */
+    void evictAll();
+}
@@ -0,0 +1,34 @@
+package com.docwf.service.assignment;
+
+import com.docwf.service.plan.WorkflowPlan;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Assigns to the user with the fewest open tasks, lowest user ID on ties
+ */
+@Component
+public class LeastLoadedAssignmentStrategy implements TaskAssignmentStrategy {
+
+    public static final String NAME = "least-loaded";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Long selectAssignee(List<Long> candidateUserIds, WorkflowPlan.TaskNode task, UserWorkloadIndex workloadIndex) {
+        Long selected = candidateUserIds.get(0);
+        int selectedLoad = workloadIndex.getOpenTaskCount(selected);
+        for (Long candidate : candidateUserIds) {
+            int load = workloadIndex.getOpenTaskCount(candidate);
+            if (load < selectedLoad) {
+                selected = candidate;
+                selectedLoad = load;
+            }
+        }
+        return selected;
+    }
+}
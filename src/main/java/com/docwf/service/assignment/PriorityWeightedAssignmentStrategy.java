@@ -0,0 +1,38 @@
+package com.docwf.service.assignment;
+
+import com.docwf.service.plan.WorkflowPlan;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Assigns to the user with the lowest priority-weighted load, so one CRITICAL
+ * task counts as much as four LOW ones. Ties go to the fewest open tasks.
+ */
+@Component
+public class PriorityWeightedAssignmentStrategy implements TaskAssignmentStrategy {
+
+    public static final String NAME = "priority-weighted";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Long selectAssignee(List<Long> candidateUserIds, WorkflowPlan.TaskNode task, UserWorkloadIndex workloadIndex) {
+        Long selected = null;
+        int selectedLoad = Integer.MAX_VALUE;
+        int selectedCount = Integer.MAX_VALUE;
+        for (Long candidate : candidateUserIds) {
+            int load = workloadIndex.getWeightedLoad(candidate);
+            int count = workloadIndex.getOpenTaskCount(candidate);
+            if (load < selectedLoad || (load == selectedLoad && count < selectedCount)) {
+                selected = candidate;
+                selectedLoad = load;
+                selectedCount = count;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,30 @@
+package com.docwf.service.assignment;
+
+import com.docwf.service.plan.WorkflowPlan;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rotates through the users of a role, one cursor per role
+ */
+@Component
+public class RoundRobinAssignmentStrategy implements TaskAssignmentStrategy {
+
+    public static final String NAME = "round-robin";
+
+    private final ConcurrentHashMap<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Long selectAssignee(List<Long> candidateUserIds, WorkflowPlan.TaskNode task, UserWorkloadIndex workloadIndex) {
+        AtomicInteger cursor = cursors.computeIfAbsent(task.getRoleName(), roleName -> new AtomicInteger());
+        return candidateUserIds.get(Math.floorMod(cursor.getAndIncrement(), candidateUserIds.size()));
+    }
+}
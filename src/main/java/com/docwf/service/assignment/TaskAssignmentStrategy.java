@@ -0,0 +1,25 @@
+package com.docwf.service.assignment;
+
+import com.docwf.service.plan.WorkflowPlan;
+
+import java.util.List;
+
+/**
+ * Picks the user a newly activated task is assigned to.
+ *
+ * Implementations are Spring beans selected by name through
+ * app.workflow.assignment.strategy. They must be thread-safe and must not
+ * query the database; current load is available from the workload index.
+ */
+public interface TaskAssignmentStrategy {
+
+    /**
+     * Name used to select this strategy in configuration
+     */
+    String getName();
+
+    /**
+     * Select one of the candidate user IDs, which are never empty and in ascending order
+     */
+    Long selectAssignee(List<Long> candidateUserIds, WorkflowPlan.TaskNode task, UserWorkloadIndex workloadIndex);
+}
@@ -0,0 +1,195 @@
+package com.docwf.service.assignment;
+
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.repository.WorkflowInstanceTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory count of open tasks per user, used by the assignment strategies.
+ *
+ * Every status or assignee change made by the execution service is recorded
+ * here as a transition, so lookups never touch the database. A transition is
+ * applied immediately, so later assignments in the same transaction see it,
+ * and reverted if that transaction rolls back. The index is rebuilt from
+ * WORKFLOW_INSTANCE_TASK at startup and periodically afterwards, which also
+ * corrects drift from writes made by other nodes.
+ */
+@Component
+public class UserWorkloadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserWorkloadIndex.class);
+
+    /**
+     * Task statuses that count towards a user's workload
+     */
+    public static final Set<TaskInstanceStatus> OPEN_STATUSES =
+            EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS, TaskInstanceStatus.ESCALATED);
+
+    @Autowired
+    private WorkflowInstanceTaskRepository instanceTaskRepository;
+
+    private final ConcurrentHashMap<Long, Workload> workloads = new ConcurrentHashMap<>();
+
+    /**
+     * Number of open tasks assigned to a user
+     */
+    public int getOpenTaskCount(Long userId) {
+        Workload workload = workloads.get(userId);
+        return workload != null ? workload.openTasks.get() : 0;
+    }
+
+    /**
+     * Open tasks assigned to a user, each weighted by its task priority
+     */
+    public int getWeightedLoad(Long userId) {
+        Workload workload = workloads.get(userId);
+        return workload != null ? workload.weightedLoad.get() : 0;
+    }
+
+    /**
+     * Record a change of a task's assignee and/or status
+     */
+    public void recordTransition(Long fromUserId, TaskInstanceStatus fromStatus,
+                                 Long toUserId, TaskInstanceStatus toStatus, String taskPriority) {
+        boolean wasOpen = fromUserId != null && OPEN_STATUSES.contains(fromStatus);
+        boolean isOpen = toUserId != null && OPEN_STATUSES.contains(toStatus);
+        if (wasOpen && isOpen && fromUserId.equals(toUserId)) {
+            return;
+        }
+
+        int weight = priorityWeight(taskPriority);
+        boolean uncommitted = (wasOpen || isOpen) && TransactionSynchronizationManager.isSynchronizationActive();
+        if (wasOpen) {
+            adjust(fromUserId, -1, -weight, uncommitted);
+        }
+        if (isOpen) {
+            adjust(toUserId, 1, weight, uncommitted);
+        }
+
+        if (uncommitted) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    boolean committed = status == STATUS_COMMITTED;
+                    if (isOpen) {
+                        settle(toUserId, -1, -weight, committed);
+                    }
+                    if (wasOpen) {
+                        settle(fromUserId, 1, weight, committed);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuild all counters from the database.
+     *
+     * Counters are corrected in place by the difference between the database
+     * and the committed part of what the index held before the query, so
+     * transitions recorded while the query runs, and those of transactions
+     * still in flight, are kept and can still be reverted on rollback. A
+     * transaction committing between the snapshot and the query is counted
+     * twice until the next rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.workflow.assignment.workload-refresh-ms:300000}",
+               fixedDelayString = "${app.workflow.assignment.workload-refresh-ms:300000}")
+    public synchronized void rebuild() {
+        // Committed counts held before the query
+        Map<Long, int[]> before = new HashMap<>();
+        workloads.forEach((userId, workload) -> before.put(userId, new int[] {
+                workload.openTasks.get() - workload.uncommittedTasks.get(),
+                workload.weightedLoad.get() - workload.uncommittedLoad.get()}));
+
+        Map<Long, int[]> counted = new HashMap<>();
+        for (Object[] row : instanceTaskRepository.countOpenTasksByAssigneeAndPriority(OPEN_STATUSES)) {
+            Long userId = (Long) row[0];
+            int count = ((Number) row[2]).intValue();
+            int[] totals = counted.computeIfAbsent(userId, id -> new int[2]);
+            totals[0] += count;
+            totals[1] += count * priorityWeight((String) row[1]);
+        }
+
+        Set<Long> userIds = new HashSet<>(before.keySet());
+        userIds.addAll(counted.keySet());
+        for (Long userId : userIds) {
+            int[] held = before.getOrDefault(userId, new int[2]);
+            int[] actual = counted.getOrDefault(userId, new int[2]);
+            if (held[0] != actual[0] || held[1] != actual[1]) {
+                adjust(userId, actual[0] - held[0], actual[1] - held[1], false);
+            }
+        }
+        logger.debug("Rebuilt workload index for {} users", counted.size());
+    }
+
+    /**
+     * Weight of a task priority: LOW=1, MEDIUM=2, HIGH=3, CRITICAL=4
+     */
+    public static int priorityWeight(String taskPriority) {
+        if (taskPriority == null) {
+            return 2;
+        }
+        switch (taskPriority) {
+            case "LOW":
+                return 1;
+            case "HIGH":
+                return 3;
+            case "CRITICAL":
+                return 4;
+            default:
+                return 2;
+        }
+    }
+
+    private void adjust(Long userId, int openTasks, int weightedLoad, boolean uncommitted) {
+        Workload workload = workloads.computeIfAbsent(userId, id -> new Workload());
+        workload.openTasks.addAndGet(openTasks);
+        workload.weightedLoad.addAndGet(weightedLoad);
+        if (uncommitted) {
+            workload.uncommittedTasks.addAndGet(openTasks);
+            workload.uncommittedLoad.addAndGet(weightedLoad);
+        }
+    }
+
+    /**
+     * Undo an uncommitted adjustment once its transaction completes; on commit
+     * only its uncommitted mark is removed
+     */
+    private void settle(Long userId, int openTasks, int weightedLoad, boolean committed) {
+        Workload workload = workloads.computeIfAbsent(userId, id -> new Workload());
+        workload.uncommittedTasks.addAndGet(openTasks);
+        workload.uncommittedLoad.addAndGet(weightedLoad);
+        if (!committed) {
+            workload.openTasks.addAndGet(openTasks);
+            workload.weightedLoad.addAndGet(weightedLoad);
+        }
+    }
+
+    /**
+     * Inner class for one user's counters; the uncommitted ones are the part
+     * of the totals made by transactions that have not completed yet
+     */
+    private static class Workload {
+        private final AtomicInteger openTasks = new AtomicInteger();
+        private final AtomicInteger weightedLoad = new AtomicInteger();
+        private final AtomicInteger uncommittedTasks = new AtomicInteger();
+        private final AtomicInteger uncommittedLoad = new AtomicInteger();
+    }
+}
@@ -0,0 +1,326 @@
+package com.docwf.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable, compiled view of a workflow calendar.
+ *
+ * Built once from WORKFLOW_CALENDAR and WORKFLOW_CALENDAR_DAY and shared
+ * between threads by the calendar cache. Every day between the start and end
+ * date is one bit, so a validity check is an array lookup instead of a scan of
+ * the calendar days, and range queries walk whole 64-day words at a time.
+ *
+ * Valid days are also indexed by rank: validRank[i] counts the valid days
+ * before bit i and validIndexes lists the valid bits in order. Next and
+ * previous valid date, Nth business day of a month and business days between
+ * two dates are then one or two array reads each.
+ *
+ * Two rule sets are compiled side by side, matching the entity methods:
+ * <ul>
+ *   <li>valid ({@code WorkflowCalendar.isDateValid}): holidays are off, run
+ *       days are on, and other days follow the recurrence (DAILY runs every
+ *       day, anything else skips weekends)</li>
+ *   <li>executable ({@code WorkflowCalendar.canExecuteWorkflow}): holidays are
+ *       off, and once any run day exists only run days are on, otherwise
+ *       weekdays are</li>
+ * </ul>
+ */
+public final class CalendarBitmap {
+
+    private final Long calendarId;
+    private final long version;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long startEpochDay;
+    private final int dayCount;
+    private final BitSet holidays;
+    private final BitSet runDays;
+    private final BitSet validDays;
+    private final BitSet executableDays;
+    private final int[] validRank;
+    private final int[] validIndexes;
+
+    // Constructors
+    public CalendarBitmap(Long calendarId, long version, LocalDate startDate, LocalDate endDate, String recurrence,
+                          Collection<LocalDate> holidayDates, Collection<LocalDate> runDayDates) {
+        this.calendarId = calendarId;
+        this.version = version;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startEpochDay = startDate.toEpochDay();
+        this.dayCount = endDate.isBefore(startDate) ? 0 : (int) (endDate.toEpochDay() - startEpochDay + 1);
+
+        this.holidays = toBits(holidayDates);
+        this.runDays = toBits(runDayDates);
+
+        BitSet weekdays = new BitSet(dayCount);
+        for (int index = 0; index < dayCount; index++) {
+            DayOfWeek dayOfWeek = startDate.plusDays(index).getDayOfWeek();
+            if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY) {
+                weekdays.set(index);
+            }
+        }
+
+        BitSet valid = new BitSet(dayCount);
+        if ("DAILY".equals(recurrence)) {
+            valid.set(0, dayCount);
+        } else {
+            valid.or(weekdays);
+        }
+        valid.or(runDays);
+        valid.andNot(holidays);
+        this.validDays = valid;
+        this.validRank = rankOf(valid, dayCount);
+        this.validIndexes = valid.stream().toArray();
+
+        // Any run day switches the calendar to run days only, even one outside the range
+        BitSet executable = (BitSet) (runDayDates.isEmpty() ? weekdays : runDays).clone();
+        executable.andNot(holidays);
+        this.executableDays = executable;
+    }
+
+    /**
+     * Composite bitmap over already aligned day sets, see {@link #union}
+     */
+    private CalendarBitmap(LocalDate startDate, LocalDate endDate, BitSet holidays, BitSet runDays,
+                           BitSet validDays, BitSet executableDays) {
+        this.calendarId = null;
+        this.version = 0L;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.startEpochDay = startDate.toEpochDay();
+        this.dayCount = endDate.isBefore(startDate) ? 0 : (int) (endDate.toEpochDay() - startEpochDay + 1);
+        this.holidays = holidays;
+        this.runDays = runDays;
+        this.validDays = validDays;
+        this.executableDays = executableDays;
+        this.validRank = rankOf(validDays, dayCount);
+        this.validIndexes = validDays.stream().toArray();
+    }
+
+    // Calendar algebra. Results are composites without a calendar ID, covering
+    // the range noted on each operation; a date outside it is never valid or
+    // executable. Holidays and run days are kept from every operand.
+
+    /**
+     * Days valid or executable in either calendar, over the span of both ranges
+     */
+    public CalendarBitmap union(CalendarBitmap other) {
+        LocalDate start = startDate.isBefore(other.startDate) ? startDate : other.startDate;
+        LocalDate end = endDate.isAfter(other.endDate) ? endDate : other.endDate;
+        return combine(other, start, end, BitSet::or);
+    }
+
+    /**
+     * Days valid or executable in both calendars, over the overlap of their ranges
+     */
+    public CalendarBitmap intersect(CalendarBitmap other) {
+        LocalDate start = startDate.isAfter(other.startDate) ? startDate : other.startDate;
+        LocalDate end = endDate.isBefore(other.endDate) ? endDate : other.endDate;
+        return combine(other, start, end, BitSet::and);
+    }
+
+    /**
+     * Days valid or executable in this calendar but not in the other, over this range
+     */
+    public CalendarBitmap minus(CalendarBitmap other) {
+        return combine(other, startDate, endDate, BitSet::andNot);
+    }
+
+    /**
+     * The same calendar moved by a number of days, so a date is valid when the
+     * date that many days earlier is valid here (negative days move it back)
+     */
+    public CalendarBitmap shift(int days) {
+        // Day sets are never modified once built, so the shifted copy can share them
+        return new CalendarBitmap(startDate.plusDays(days), endDate.plusDays(days),
+                holidays, runDays, validDays, executableDays);
+    }
+
+    private CalendarBitmap combine(CalendarBitmap other, LocalDate start, LocalDate end,
+                                   BiConsumer<BitSet, BitSet> operation) {
+        long targetStart = start.toEpochDay();
+        int targetCount = end.isBefore(start) ? 0 : (int) (end.toEpochDay() - targetStart + 1);
+
+        BitSet valid = align(validDays, targetStart, targetCount);
+        operation.accept(valid, other.align(other.validDays, targetStart, targetCount));
+        BitSet executable = align(executableDays, targetStart, targetCount);
+        operation.accept(executable, other.align(other.executableDays, targetStart, targetCount));
+
+        BitSet combinedHolidays = align(holidays, targetStart, targetCount);
+        combinedHolidays.or(other.align(other.holidays, targetStart, targetCount));
+        BitSet combinedRunDays = align(runDays, targetStart, targetCount);
+        combinedRunDays.or(other.align(other.runDays, targetStart, targetCount));
+
+        return new CalendarBitmap(start, end, combinedHolidays, combinedRunDays, valid, executable);
+    }
+
+    /**
+     * Copy of one of this bitmap's day sets re-indexed onto another range,
+     * dropping days that fall outside it
+     */
+    private BitSet align(BitSet bits, long targetStartEpochDay, int targetDayCount) {
+        long offset = startEpochDay - targetStartEpochDay;
+        if (offset <= 0) {
+            // Target starts on or after this range: a plain word-level slice
+            int from = (int) Math.min(dayCount, -offset);
+            int to = (int) Math.min(dayCount, -offset + targetDayCount);
+            return bits.get(from, to);
+        }
+
+        BitSet aligned = new BitSet(targetDayCount);
+        for (int index = bits.nextSetBit(0); index >= 0 && index + offset < targetDayCount;
+             index = bits.nextSetBit(index + 1)) {
+            aligned.set((int) (index + offset));
+        }
+        return aligned;
+    }
+
+    /**
+     * Whether the date passes {@code WorkflowCalendar.isDateValid}
+     */
+    public boolean isValid(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && validDays.get(index);
+    }
+
+    /**
+     * Whether the date passes {@code WorkflowCalendar.canExecuteWorkflow}
+     */
+    public boolean canExecute(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && executableDays.get(index);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && holidays.get(index);
+    }
+
+    public boolean isRunDay(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 && runDays.get(index);
+    }
+
+    /**
+     * Valid dates between from and to inclusive, clipped to the calendar range
+     */
+    public List<LocalDate> getValidDates(LocalDate from, LocalDate to) {
+        int fromRank = validRank[boundaryOf(from)];
+        int toRank = validRank[boundaryOf(to.plusDays(1))];
+
+        List<LocalDate> dates = new ArrayList<>(Math.max(0, toRank - fromRank));
+        for (int rank = fromRank; rank < toRank; rank++) {
+            dates.add(dateAt(validIndexes[rank]));
+        }
+        return dates;
+    }
+
+    /**
+     * First valid date strictly after the given date, or null if there is none
+     * before the end of the calendar
+     */
+    public LocalDate getNextValidDate(LocalDate date) {
+        int rank = validRank[boundaryOf(date.plusDays(1))];
+        return rank < validIndexes.length ? dateAt(validIndexes[rank]) : null;
+    }
+
+    /**
+     * Last valid date strictly before the given date, or null if there is none
+     * after the start of the calendar
+     */
+    public LocalDate getPreviousValidDate(LocalDate date) {
+        int rank = validRank[boundaryOf(date)];
+        return rank > 0 ? dateAt(validIndexes[rank - 1]) : null;
+    }
+
+    /**
+     * The Nth valid date of a month, counting from 1, or from the end of the
+     * month when n is negative (-1 is the last business day). Null when the
+     * month has fewer valid dates or n is 0.
+     */
+    public LocalDate getNthValidDateOfMonth(YearMonth month, int n) {
+        int firstRank = validRank[boundaryOf(month.atDay(1))];
+        int endRank = validRank[boundaryOf(month.atEndOfMonth().plusDays(1))];
+        int rank = n > 0 ? firstRank + n - 1 : endRank + n;
+        return n != 0 && rank >= firstRank && rank < endRank ? dateAt(validIndexes[rank]) : null;
+    }
+
+    /**
+     * Number of valid dates between from and to inclusive, 0 when from is after to
+     */
+    public int countValidDates(LocalDate from, LocalDate to) {
+        return Math.max(0, validRank[boundaryOf(to.plusDays(1))] - validRank[boundaryOf(from)]);
+    }
+
+    /**
+     * Position of the boundary just before a date, clamped to 0..dayCount so
+     * dates outside the range map to the nearest end of the rank index
+     */
+    private int boundaryOf(LocalDate date) {
+        long index = date.toEpochDay() - startEpochDay;
+        return (int) Math.max(0, Math.min(dayCount, index));
+    }
+
+    /**
+     * Bit index of a date, or -1 when it falls outside the calendar range
+     */
+    private int indexOf(LocalDate date) {
+        long index = date.toEpochDay() - startEpochDay;
+        return index >= 0 && index < dayCount ? (int) index : -1;
+    }
+
+    private LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(startEpochDay + index);
+    }
+
+    /**
+     * Number of set bits before each boundary 0..dayCount, so the valid dates
+     * in any range are a difference of two entries
+     */
+    private static int[] rankOf(BitSet valid, int dayCount) {
+        int[] rank = new int[dayCount + 1];
+        for (int index = 0; index < dayCount; index++) {
+            rank[index + 1] = rank[index] + (valid.get(index) ? 1 : 0);
+        }
+        return rank;
+    }
+
+    private BitSet toBits(Collection<LocalDate> dates) {
+        BitSet bits = new BitSet(dayCount);
+        for (LocalDate date : dates) {
+            int index = indexOf(date);
+            if (index >= 0) {
+                bits.set(index);
+            }
+        }
+        return bits;
+    }
+
+    // Getters
+    /**
+     * Source calendar, null for a composite built with the calendar algebra
+     */
+    public Long getCalendarId() {
+        return calendarId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+}
@@ -0,0 +1,342 @@
+package com.docwf.service.calendar;
+
+import com.docwf.exception.WorkflowException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader for calendar-day uploads.
+ *
+ * Days are handed to a {@link DayHandler} one at a time as they are parsed, so
+ * an upload is never held in memory as a whole. Three formats are read:
+ * <ul>
+ *   <li>JSON: an array of {@code {"dayDate": "2024-12-25", "dayType": "HOLIDAY", "note": "..."}}</li>
+ *   <li>CSV: {@code date,type,note} per line, with an optional header line and
+ *       double-quoted fields where the note contains commas</li>
+ *   <li>iCalendar: one day per VEVENT date, multi-day events expanded up to
+ *       their exclusive DTEND, with the SUMMARY as the note</li>
+ * </ul>
+ * A missing day type falls back to the default given by the caller. Rows that
+ * cannot be parsed are passed to {@link DayHandler#reject} and reading goes on;
+ * only a structurally broken file fails the whole read.
+ */
+public final class CalendarDayImportReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final DateTimeFormatter ICAL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * Longest multi-day iCalendar event expanded, guarding against open-ended ranges
+     */
+    private static final int MAX_EVENT_DAYS = 366;
+
+    public enum Format {
+        JSON, CSV, ICAL;
+
+        /**
+         * Format from an explicit name, or else from the upload's file extension
+         */
+        public static Format resolve(String format, String fileName) {
+            String name = format != null && !format.isBlank() ? format
+                    : fileName != null && fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.') + 1) : "";
+            switch (name.trim().toUpperCase(Locale.ROOT)) {
+                case "JSON":
+                    return JSON;
+                case "CSV":
+                    return CSV;
+                case "ICS":
+                case "ICAL":
+                case "ICALENDAR":
+                    return ICAL;
+                default:
+                    throw new WorkflowException("Unsupported calendar day import format: '" + name
+                            + "' (expected json, csv or ics)");
+            }
+        }
+    }
+
+    public interface DayHandler {
+
+        /**
+         * A parsed day; the type is null when neither the row nor the default gives one
+         */
+        void accept(int row, LocalDate dayDate, String dayType, String note);
+
+        void reject(int row, String reason);
+    }
+
+    private CalendarDayImportReader() {}
+
+    /**
+     * Read every day in the content. Rows are numbered from 1: array items for
+     * JSON and lines for CSV and iCalendar.
+     */
+    public static void read(InputStream content, Format format, String defaultDayType, DayHandler handler) {
+        try {
+            switch (format) {
+                case JSON:
+                    readJson(content, defaultDayType, handler);
+                    break;
+                case CSV:
+                    readCsv(content, defaultDayType, handler);
+                    break;
+                case ICAL:
+                    readIcal(content, defaultDayType, handler);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown format " + format);
+            }
+        } catch (JsonProcessingException e) {
+            throw new WorkflowException("Malformed JSON calendar day import: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new WorkflowException("Failed to read calendar day import", e);
+        }
+    }
+
+    private static void readJson(InputStream content, String defaultDayType, DayHandler handler) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new WorkflowException("JSON calendar day import must be an array of days");
+            }
+
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    handler.reject(row, "Expected an object");
+                    continue;
+                }
+
+                String dayDate = null;
+                String dayType = null;
+                String note = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    String text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    switch (field) {
+                        case "dayDate":
+                            dayDate = text;
+                            break;
+                        case "dayType":
+                            dayType = text;
+                            break;
+                        case "note":
+                            note = text;
+                            break;
+                        default:
+                            // calendarDayId, calendarId and the like are ignored on import
+                            break;
+                    }
+                }
+                accept(handler, row, dayDate, dayType, note, defaultDayType);
+            }
+        }
+    }
+
+    private static void readCsv(InputStream content, String defaultDayType, DayHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        String line;
+        int row = 0;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (firstLine && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            List<String> fields = splitCsv(line);
+            boolean header = firstLine && fields.get(0).trim().toLowerCase(Locale.ROOT).contains("date");
+            firstLine = false;
+            if (header) {
+                continue;
+            }
+            accept(handler, row, fields.get(0),
+                    fields.size() > 1 ? fields.get(1) : null,
+                    fields.size() > 2 ? fields.get(2) : null,
+                    defaultDayType);
+        }
+    }
+
+    private static void readIcal(InputStream content, String defaultDayType, DayHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        String physical;
+        String logical = null;
+        int lineNumber = 0;
+        int logicalLine = 0;
+        IcalEvent event = null;
+
+        // Long properties are folded onto continuation lines starting with a
+        // space or tab, so a property is only complete once the next one starts
+        while (true) {
+            physical = reader.readLine();
+            lineNumber++;
+            if (physical != null && logical != null && (physical.startsWith(" ") || physical.startsWith("\t"))) {
+                logical += physical.substring(1);
+                continue;
+            }
+
+            if (logical != null) {
+                event = icalProperty(logical, logicalLine, event, defaultDayType, handler);
+            }
+            if (physical == null) {
+                break;
+            }
+            logical = physical;
+            logicalLine = lineNumber;
+        }
+    }
+
+    private static final class IcalEvent {
+        private final int row;
+        private String start;
+        private String end;
+        private String summary;
+
+        IcalEvent(int row) {
+            this.row = row;
+        }
+    }
+
+    private static IcalEvent icalProperty(String line, int row, IcalEvent event, String defaultDayType, DayHandler handler) {
+        int colon = line.indexOf(':');
+        if (colon < 0) {
+            return event;
+        }
+        String name = line.substring(0, colon);
+        int semicolon = name.indexOf(';');
+        if (semicolon >= 0) {
+            name = name.substring(0, semicolon);
+        }
+        name = name.toUpperCase(Locale.ROOT);
+        String value = line.substring(colon + 1).trim();
+
+        if (name.equals("BEGIN") && value.equalsIgnoreCase("VEVENT")) {
+            return new IcalEvent(row);
+        }
+        if (event == null) {
+            return null;
+        }
+        switch (name) {
+            case "DTSTART":
+                event.start = value;
+                break;
+            case "DTEND":
+                event.end = value;
+                break;
+            case "SUMMARY":
+                event.summary = value.replace("\\n", " ").replace("\\N", " ")
+                        .replace("\\,", ",").replace("\\;", ";").replace("\\\\", "\\");
+                break;
+            case "END":
+                if (value.equalsIgnoreCase("VEVENT")) {
+                    acceptEvent(event, defaultDayType, handler);
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+        return event;
+    }
+
+    private static void acceptEvent(IcalEvent event, String defaultDayType, DayHandler handler) {
+        LocalDate start = icalDate(event.start);
+        if (start == null) {
+            handler.reject(event.row, "Event has no valid DTSTART: " + event.start);
+            return;
+        }
+        LocalDate end = icalDate(event.end);
+        int days = end == null || !end.isAfter(start) ? 1 : (int) Math.min(MAX_EVENT_DAYS, end.toEpochDay() - start.toEpochDay());
+
+        String note = blankToNull(event.summary);
+        for (int i = 0; i < days; i++) {
+            handler.accept(event.row, start.plusDays(i), defaultDayType, note);
+        }
+    }
+
+    /**
+     * Date part of an iCalendar DATE or DATE-TIME value, e.g. 20241225 or 20241225T000000Z
+     */
+    private static LocalDate icalDate(String value) {
+        if (value == null || value.length() < 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.substring(0, 8), ICAL_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void accept(DayHandler handler, int row, String dayDate, String dayType, String note,
+                               String defaultDayType) {
+        if (dayDate == null || dayDate.isBlank()) {
+            handler.reject(row, "Missing day date");
+            return;
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dayDate.trim());
+        } catch (DateTimeParseException e) {
+            handler.reject(row, "Invalid day date '" + dayDate.trim() + "'");
+            return;
+        }
+        String type = dayType == null || dayType.isBlank() ? defaultDayType : dayType.trim();
+        handler.accept(row, date, type, blankToNull(note));
+    }
+
+    private static String blankToNull(String note) {
+        return note == null || note.isBlank() ? null : note.trim();
+    }
+
+    /**
+     * Split a CSV line on commas outside double quotes, with "" as an escaped quote
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
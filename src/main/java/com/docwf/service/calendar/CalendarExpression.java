@@ -0,0 +1,210 @@
+package com.docwf.service.calendar;
+
+import com.docwf.exception.WorkflowException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Parsed composite calendar expression.
+ *
+ * Grammar, with calendars referenced by ID:
+ * <pre>
+ * expr := calendarId
+ *       | union(expr, expr, ...)       valid in any operand
+ *       | intersect(expr, expr, ...)   valid in every operand
+ *       | minus(expr, expr, ...)       valid in the first operand and none of the others
+ *       | shift(expr, days)            every day moved by a signed number of days
+ * </pre>
+ * e.g. {@code shift(intersect(1, 2), -1)} is the day before each date that is
+ * a business day in both calendar 1 and calendar 2.
+ */
+public final class CalendarExpression {
+
+    private static final int MAX_LENGTH = 1000;
+
+    private final String text;
+    private final Set<Long> calendarIds;
+    private final Node root;
+
+    private CalendarExpression(String text, Set<Long> calendarIds, Node root) {
+        this.text = text;
+        this.calendarIds = Collections.unmodifiableSet(calendarIds);
+        this.root = root;
+    }
+
+    /**
+     * Parse an expression, failing with a WorkflowException that points at the
+     * offending position when it is malformed
+     */
+    public static CalendarExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new WorkflowException("Calendar expression is required");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new WorkflowException("Calendar expression is longer than " + MAX_LENGTH + " characters");
+        }
+
+        Parser parser = new Parser(text);
+        Node root = parser.expression();
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected '" + text.charAt(parser.position) + "'");
+        }
+        return new CalendarExpression(text.trim(), parser.calendarIds, root);
+    }
+
+    /**
+     * Evaluate over compiled calendar bitmaps. The lookup must return a bitmap
+     * for every ID in {@link #getCalendarIds()}.
+     */
+    public CalendarBitmap evaluate(Function<Long, CalendarBitmap> bitmaps) {
+        return root.evaluate(bitmaps);
+    }
+
+    /**
+     * Calendars the expression references, in order of first appearance
+     */
+    public Set<Long> getCalendarIds() {
+        return calendarIds;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private interface Node {
+        CalendarBitmap evaluate(Function<Long, CalendarBitmap> bitmaps);
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private final Set<Long> calendarIds = new LinkedHashSet<>();
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node expression() {
+            skipWhitespace();
+            if (position < text.length() && Character.isDigit(text.charAt(position))) {
+                Long calendarId = number();
+                calendarIds.add(calendarId);
+                return bitmaps -> bitmaps.apply(calendarId);
+            }
+
+            int operatorStart = position;
+            String operator = word();
+            expect('(');
+            Node result;
+            switch (operator) {
+                case "union":
+                    result = fold(operands(), CalendarBitmap::union);
+                    break;
+                case "intersect":
+                    result = fold(operands(), CalendarBitmap::intersect);
+                    break;
+                case "minus":
+                    result = fold(operands(), CalendarBitmap::minus);
+                    break;
+                case "shift":
+                    Node operand = expression();
+                    expect(',');
+                    skipWhitespace();
+                    int days = signedNumber();
+                    result = bitmaps -> operand.evaluate(bitmaps).shift(days);
+                    break;
+                default:
+                    position = operatorStart;
+                    throw error(operator.isEmpty() ? "Expected a calendar ID or operator" : "Unknown operator '" + operator + "'");
+            }
+            expect(')');
+            return result;
+        }
+
+        /**
+         * Two or more comma-separated operands, up to but not including the closing parenthesis
+         */
+        private List<Node> operands() {
+            List<Node> operands = new ArrayList<>();
+            operands.add(expression());
+            do {
+                expect(',');
+                operands.add(expression());
+                skipWhitespace();
+            } while (position < text.length() && text.charAt(position) == ',');
+            return operands;
+        }
+
+        private static Node fold(List<Node> operands, BinaryOperator<CalendarBitmap> operation) {
+            return bitmaps -> {
+                CalendarBitmap result = operands.get(0).evaluate(bitmaps);
+                for (int i = 1; i < operands.size(); i++) {
+                    result = operation.apply(result, operands.get(i).evaluate(bitmaps));
+                }
+                return result;
+            };
+        }
+
+        private String word() {
+            int start = position;
+            while (position < text.length() && Character.isLetter(text.charAt(position))) {
+                position++;
+            }
+            return text.substring(start, position).toLowerCase();
+        }
+
+        private Long number() {
+            int start = position;
+            while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            try {
+                return Long.valueOf(text.substring(start, position));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Expected a number");
+            }
+        }
+
+        private int signedNumber() {
+            int start = position;
+            boolean negative = position < text.length() && text.charAt(position) == '-';
+            if (negative || (position < text.length() && text.charAt(position) == '+')) {
+                position++;
+            }
+            Long value = number();
+            if (value > 36500) {
+                position = start;
+                throw error("Shift of more than 36500 days");
+            }
+            return negative ? -value.intValue() : value.intValue();
+        }
+
+        private void expect(char expected) {
+            skipWhitespace();
+            if (position >= text.length() || text.charAt(position) != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        WorkflowException error(String message) {
+            return new WorkflowException("Invalid calendar expression '" + text + "' at position " + position + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.docwf.service.cluster;
+
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.job.CalendarWorkflowExecutionJob;
+import com.docwf.job.CalendarWorkflowPartitionJob;
+import com.docwf.job.JobExecutionHistoryListener;
+import com.docwf.job.SchedulerMetricsListener;
+import com.docwf.repository.WorkflowCalendarRepository;
+import jakarta.annotation.PreDestroy;
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.simpl.SimpleThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.quartz.SpringBeanJobFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TimeZone;
+import java.util.TreeSet;
+
+/**
+ * Spreads calendar jobs over the nodes of the Quartz cluster.
+ *
+ * A clustered JDBC job store lets any node acquire any trigger, so it cannot
+ * keep a calendar on one node. Instead each calendar is assigned to a live
+ * scheduler instance by a {@link ConsistentHashRing} over its ID, and the
+ * owning node fires the calendar's cron trigger from a small node-local
+ * scheduler. When the calendar fires, its workflow fan-out is split into
+ * {@link CalendarWorkflowPartitionJob} slices in the clustered scheduler, so
+ * the instance creation itself runs on whichever nodes have free threads and
+ * is recovered by Quartz if a node dies mid-slice.
+ *
+ * Ownership is recomputed every rebalance interval from the cluster's
+ * check-in table; a node joining or leaving only moves the calendars on the
+ * ring arcs it gains or loses. Owned triggers live in memory, so a cron time
+ * that falls while the owner is down and not yet declared dead is caught up
+ * by the node that takes the calendar over, see {@link #rebalance()}.
+ *
+ * A paused schedule is stored on the calendar rather than in a trigger, so
+ * it survives ownership moving between nodes.
+ */
+@Component
+public class CalendarJobPartitioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarJobPartitioner.class);
+
+    private static final String JOB_GROUP = "ownedCalendars";
+
+    /**
+     * Group the clustered calendar jobs were stored under before partitioning
+     */
+    private static final String CLUSTERED_CALENDAR_GROUP = "calendarWorkflows";
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WorkflowCalendarRepository calendarRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JobExecutionHistoryListener historyListener;
+
+    @Autowired
+    private SchedulerMetricsListener metricsListener;
+
+    @Value("${app.workflow.cluster.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.workflow.cluster.partitioning.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${app.workflow.cluster.partitioning.partition-size:100}")
+    private int partitionSize;
+
+    @Value("${app.workflow.cluster.partitioning.owner-threads:2}")
+    private int ownerThreads;
+
+    @Value("${spring.quartz.properties.org.quartz.jobStore.tablePrefix:QRTZ_}")
+    private String tablePrefix;
+
+    private volatile Scheduler ownerScheduler;
+    private volatile QuartzClusterMembership membership;
+    private volatile ConsistentHashRing ring;
+    private String instanceId;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            instanceId = scheduler.getSchedulerInstanceId();
+            if (scheduler.getMetaData().isJobStoreClustered()) {
+                membership = new QuartzClusterMembership(dataSource, scheduler.getSchedulerName(), tablePrefix);
+            }
+            retireClusteredCalendarJobs();
+
+            SpringBeanJobFactory jobFactory = new SpringBeanJobFactory();
+            jobFactory.setApplicationContext(applicationContext);
+            Scheduler local = new StdSchedulerFactory(ownerSchedulerProperties()).getScheduler();
+            local.setJobFactory(jobFactory);
+            historyListener.register(local);
+            metricsListener.register(local);
+            local.start();
+            ownerScheduler = local;
+        } catch (SchedulerException e) {
+            logger.error("Failed to start calendar job partitioning; calendar jobs will not run on this node", e);
+            return;
+        }
+        logger.info("Started calendar job partitioning on instance {}", instanceId);
+        rebalance();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Recompute ownership from the live cluster members and bring the owned
+     * calendars' triggers in line with their current definitions.
+     *
+     * When membership has changed, a calendar this node takes over whose cron
+     * time already fell today is run once straight away: its previous owner
+     * may have been down at that time. The job only starts workflows the run
+     * ledger has no entry for today, so a fire the previous owner did make is
+     * not repeated. Cron times on earlier days are not caught up.
+     */
+    @Scheduled(fixedDelayString = "${app.workflow.cluster.partitioning.rebalance-ms:15000}")
+    public synchronized void rebalance() {
+        if (ownerScheduler == null) {
+            return;
+        }
+        try {
+            ConsistentHashRing current = new ConsistentHashRing(liveMembers(), virtualNodes);
+            boolean membershipChanged = ring == null || !ring.getMembers().equals(current.getMembers());
+            if (membershipChanged) {
+                logger.info("Calendar jobs partitioned over {} node(s): {}", current.getMembers().size(), current.getMembers());
+            }
+            ring = current;
+
+            Set<Long> owned = new TreeSet<>();
+            for (WorkflowCalendar calendar : calendarRepository.findActiveCalendarsWithCronExpression()) {
+                if (!calendar.isSchedulePaused() && instanceId.equals(current.ownerOf(calendar.getCalendarId()))) {
+                    owned.add(calendar.getCalendarId());
+                    if (scheduleOwned(calendar) && membershipChanged) {
+                        catchUpMissedFire(calendar);
+                    }
+                }
+            }
+            for (JobKey jobKey : ownerScheduler.getJobKeys(jobGroup(JOB_GROUP))) {
+                if (!owned.contains(calendarIdOf(jobKey))) {
+                    ownerScheduler.deleteJob(jobKey);
+                    logger.info("Released calendar job {} to another node", jobKey.getName());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error rebalancing calendar jobs", e);
+        }
+    }
+
+    /**
+     * Pick up a created, changed, paused, resumed, deactivated or deleted
+     * calendar. Only the owning node schedules it; the others drop any stale
+     * trigger on their next rebalance.
+     */
+    public synchronized void refreshCalendar(Long calendarId) {
+        if (ownerScheduler == null || ring == null) {
+            return;
+        }
+        try {
+            WorkflowCalendar calendar = calendarRepository.findById(calendarId).orElse(null);
+            if (calendar != null && isSchedulable(calendar) && !calendar.isSchedulePaused()
+                    && instanceId.equals(ring.ownerOf(calendarId))) {
+                scheduleOwned(calendar);
+            } else {
+                ownerScheduler.deleteJob(jobKeyOf(calendarId));
+            }
+        } catch (Exception e) {
+            logger.error("Error refreshing calendar job for calendar ID: {}", calendarId, e);
+        }
+    }
+
+    /**
+     * Pause or resume a calendar's schedule on whichever node owns it. The
+     * flag is stored on the calendar, so this node applies it at once if it
+     * is the owner, any other owner on its next rebalance, and a node taking
+     * the calendar over later honours it too. The job also checks the flag
+     * when it fires, in case the owner has not rebalanced yet. Returns false
+     * for a calendar that is not scheduled.
+     */
+    public boolean setPaused(Long calendarId, boolean paused) {
+        WorkflowCalendar calendar = calendarRepository.findById(calendarId).orElse(null);
+        if (calendar == null || !isSchedulable(calendar)) {
+            return false;
+        }
+        if (calendar.isSchedulePaused() != paused) {
+            calendar.setSchedulePaused(paused ? "Y" : "N");
+            calendarRepository.save(calendar);
+        }
+        refreshCalendar(calendarId);
+        logger.info("{} schedule of calendar: {} (ID: {}), owned by {}", paused ? "Paused" : "Resumed",
+            calendar.getCalendarName(), calendarId, getOwner(calendarId));
+        return true;
+    }
+
+    /**
+     * Whether a calendar's schedule is paused
+     */
+    public boolean isPaused(Long calendarId) {
+        return calendarRepository.findById(calendarId).map(WorkflowCalendar::isSchedulePaused).orElse(false);
+    }
+
+    /**
+     * Instance ID of the node firing a calendar, or null before the first rebalance
+     */
+    public String getOwner(Long calendarId) {
+        ConsistentHashRing current = ring;
+        return current != null ? current.ownerOf(calendarId) : null;
+    }
+
+    /**
+     * Whether a calendar is fired by some node, i.e. is active with a cron expression
+     */
+    public boolean isScheduled(Long calendarId) {
+        return calendarRepository.findById(calendarId).map(CalendarJobPartitioner::isSchedulable).orElse(false);
+    }
+
+    /**
+     * Next fire time from the calendar's cron expression, wherever it is owned
+     */
+    public Date getNextFireTime(Long calendarId) {
+        WorkflowCalendar calendar = calendarRepository.findById(calendarId).orElse(null);
+        if (calendar == null || !isSchedulable(calendar) || calendar.isSchedulePaused()) {
+            return null;
+        }
+        try {
+            CronExpression cron = new CronExpression(calendar.getCronExpression());
+            cron.setTimeZone(calendar.getEffectiveTimeZone());
+            return cron.getNextValidTimeAfter(new Date());
+        } catch (Exception e) {
+            logger.error("Invalid cron expression for calendar ID: {}", calendarId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Schedule a calendar's workflow fan-out as slices in the clustered
+     * scheduler. Returns the number of slices scheduled.
+     */
+    public int submitPartitions(Long calendarId, LocalDate executionDate, List<Long> workflowIds) throws SchedulerException {
+        return CalendarWorkflowPartitionJob.submit(scheduler, calendarId, executionDate, workflowIds, partitionSize);
+    }
+
+    public int getPartitionSize() {
+        return partitionSize;
+    }
+
+    private SortedSet<String> liveMembers() {
+        SortedSet<String> members = membership != null ? membership.liveInstances() : new TreeSet<>();
+        // This node owns its share even before its first check-in is visible
+        members.add(instanceId);
+        return members;
+    }
+
+    /**
+     * Bring the owned trigger in line with the calendar. Returns true if this
+     * node had no trigger for it before, i.e. it has just taken it over.
+     */
+    private boolean scheduleOwned(WorkflowCalendar calendar) throws SchedulerException {
+        JobKey jobKey = jobKeyOf(calendar.getCalendarId());
+        TriggerKey triggerKey = TriggerKey.triggerKey(jobKey.getName(), JOB_GROUP);
+        String cronExpression = calendar.getCronExpression().trim();
+        TimeZone timeZone = calendar.getEffectiveTimeZone();
+
+        Trigger existing = ownerScheduler.getTrigger(triggerKey);
+        if (existing instanceof CronTrigger
+                && cronExpression.equals(((CronTrigger) existing).getCronExpression())
+                && timeZone.getID().equals(((CronTrigger) existing).getTimeZone().getID())) {
+            return false;
+        }
+
+        JobDetail jobDetail = JobBuilder.newJob(CalendarWorkflowExecutionJob.class)
+                .withIdentity(jobKey)
+                .withDescription("Owned calendar job for: " + calendar.getCalendarName())
+                .usingJobData("calendarId", calendar.getCalendarId())
+                .usingJobData("calendarName", calendar.getCalendarName())
+                .storeDurably()
+                .build();
+        Trigger trigger;
+        try {
+            trigger = TriggerBuilder.newTrigger()
+                    .withIdentity(triggerKey)
+                    .forJob(jobDetail)
+                    .withDescription("Trigger for calendar: " + calendar.getCalendarName())
+                    .withSchedule(CronScheduleBuilder.cronSchedule(cronExpression).inTimeZone(timeZone))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Invalid cron expression for calendar: {} (ID: {}): {}",
+                calendar.getCalendarName(), calendar.getCalendarId(), cronExpression, e);
+            ownerScheduler.deleteJob(jobKey);
+            return false;
+        }
+
+        ownerScheduler.deleteJob(jobKey);
+        ownerScheduler.scheduleJob(jobDetail, trigger);
+        if (existing != null) {
+            logger.info("Rescheduled calendar: {} (ID: {}) with cron: {}",
+                calendar.getCalendarName(), calendar.getCalendarId(), cronExpression);
+            return false;
+        }
+        logger.info("Took ownership of calendar: {} (ID: {}) with cron: {}",
+            calendar.getCalendarName(), calendar.getCalendarId(), cronExpression);
+        return true;
+    }
+
+    /**
+     * Run a newly owned calendar now if its cron time already fell today,
+     * the execution date its job starts workflows for
+     */
+    private void catchUpMissedFire(WorkflowCalendar calendar) throws SchedulerException {
+        Date now = new Date();
+        TimeZone timeZone = calendar.getEffectiveTimeZone();
+        ZoneId zone = timeZone.toZoneId();
+        Date startOfToday = Date.from(LocalDate.now(zone).atStartOfDay(zone).toInstant());
+        Date firstFireToday;
+        try {
+            CronExpression cron = new CronExpression(calendar.getCronExpression().trim());
+            cron.setTimeZone(timeZone);
+            firstFireToday = cron.getNextValidTimeAfter(new Date(startOfToday.getTime() - 1000));
+        } catch (ParseException e) {
+            return;
+        }
+        if (firstFireToday != null && !firstFireToday.after(now)) {
+            ownerScheduler.triggerJob(jobKeyOf(calendar.getCalendarId()));
+            logger.info("Catching up calendar: {} (ID: {}), due at {} before this node owned it",
+                calendar.getCalendarName(), calendar.getCalendarId(), firstFireToday);
+        }
+    }
+
+    /**
+     * Drop calendar triggers left in the clustered store by the unpartitioned
+     * scheduling paths, which would otherwise fire alongside the owned ones.
+     * A paused trigger's state is carried over to the calendar's paused flag.
+     */
+    private void retireClusteredCalendarJobs() throws SchedulerException {
+        int retired = 0;
+        for (JobKey jobKey : scheduler.getJobKeys(jobGroup(CLUSTERED_CALENDAR_GROUP))) {
+            JobDetail jobDetail = scheduler.getJobDetail(jobKey);
+            if (jobDetail == null || !CalendarWorkflowExecutionJob.class.equals(jobDetail.getJobClass())) {
+                continue;
+            }
+            for (Trigger trigger : scheduler.getTriggersOfJob(jobKey)) {
+                if (scheduler.getTriggerState(trigger.getKey()) == TriggerState.PAUSED) {
+                    calendarRepository.findById(jobDetail.getJobDataMap().getLongValue("calendarId")).ifPresent(calendar -> {
+                        calendar.setSchedulePaused("Y");
+                        calendarRepository.save(calendar);
+                    });
+                }
+            }
+            if (scheduler.deleteJob(jobKey)) {
+                retired++;
+            }
+        }
+        if (retired > 0) {
+            logger.info("Removed {} clustered calendar job(s) now fired by their owning node", retired);
+        }
+    }
+
+    private Properties ownerSchedulerProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "CalendarOwnerScheduler");
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_ID, instanceId);
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_SKIP_UPDATE_CHECK, "true");
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, SimpleThreadPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(ownerThreads));
+        return properties;
+    }
+
+    private static JobKey jobKeyOf(Long calendarId) {
+        return JobKey.jobKey("ownedCalendar_" + calendarId, JOB_GROUP);
+    }
+
+    private static Long calendarIdOf(JobKey jobKey) {
+        return Long.valueOf(jobKey.getName().substring("ownedCalendar_".length()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GroupMatcher<JobKey> jobGroup(String group) {
+        return GroupMatcher.groupEquals(group);
+    }
+
+    private static boolean isSchedulable(WorkflowCalendar calendar) {
+        return calendar.isActive() && calendar.getCronExpression() != null && !calendar.getCronExpression().trim().isEmpty();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Scheduler local = ownerScheduler;
+        ownerScheduler = null;
+        if (local != null) {
+            try {
+                local.shutdown(true);
+            } catch (SchedulerException e) {
+                logger.warn("Error shutting down calendar owner scheduler", e);
+            }
+        }
+    }
+}
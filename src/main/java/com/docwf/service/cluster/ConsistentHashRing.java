@@ -0,0 +1,68 @@
+package com.docwf.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Consistent hash ring mapping keys onto a set of members.
+ *
+ * Each member is placed on the ring at a number of virtual points so that
+ * ownership stays balanced, and a key belongs to the first point at or after
+ * its own hash. Adding or removing one member only moves the keys on the arcs
+ * it gains or loses. Hashes are MD5 based, so every JVM that sees the same
+ * members computes the same owner for a key.
+ */
+public final class ConsistentHashRing {
+
+    private final SortedSet<String> members;
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        }
+        this.members = Collections.unmodifiableSortedSet(new TreeSet<>(members));
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // A rare collision goes to the lower member name, on every JVM alike
+                points.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * Member owning a key, or null when the ring is empty
+     */
+    public String ownerOf(long key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(Long.toString(key)));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public SortedSet<String> getMembers() {
+        return members;
+    }
+
+    private static long hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,69 @@
+package com.docwf.service.cluster;
+
+import com.docwf.exception.WorkflowException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Live members of a clustered Quartz scheduler.
+ *
+ * Every node of a JDBC job store cluster checks in to the SCHEDULER_STATE
+ * table at its clusterCheckinInterval. A node counts as live while its last
+ * check-in is no older than its interval plus a grace period; Quartz itself
+ * waits the same interval plus 7.5 seconds before it recovers a silent node's
+ * jobs, which is the default grace used here.
+ */
+public class QuartzClusterMembership {
+
+    public static final long DEFAULT_GRACE_MS = 7500;
+
+    private final DataSource dataSource;
+    private final String schedulerName;
+    private final String selectSql;
+    private final long graceMs;
+
+    public QuartzClusterMembership(DataSource dataSource, String schedulerName, String tablePrefix) {
+        this(dataSource, schedulerName, tablePrefix, DEFAULT_GRACE_MS);
+    }
+
+    public QuartzClusterMembership(DataSource dataSource, String schedulerName, String tablePrefix, long graceMs) {
+        this.dataSource = dataSource;
+        this.schedulerName = schedulerName;
+        this.selectSql = "SELECT INSTANCE_NAME, LAST_CHECKIN_TIME, CHECKIN_INTERVAL FROM " + tablePrefix
+                + "SCHEDULER_STATE WHERE SCHED_NAME = ?";
+        this.graceMs = graceMs;
+    }
+
+    /**
+     * Instance IDs of the nodes that have checked in recently enough, sorted
+     */
+    public SortedSet<String> liveInstances() {
+        return liveInstances(System.currentTimeMillis());
+    }
+
+    public SortedSet<String> liveInstances(long nowMs) {
+        SortedSet<String> live = new TreeSet<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            statement.setString(1, schedulerName);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    long lastCheckin = rows.getLong("LAST_CHECKIN_TIME");
+                    long checkinInterval = rows.getLong("CHECKIN_INTERVAL");
+                    if (lastCheckin + checkinInterval + graceMs >= nowMs) {
+                        live.add(rows.getString("INSTANCE_NAME"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new WorkflowException("Failed to read Quartz cluster members for scheduler " + schedulerName, e);
+        }
+        return live;
+    }
+}
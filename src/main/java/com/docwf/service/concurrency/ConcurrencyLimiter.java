@@ -0,0 +1,115 @@
+package com.docwf.service.concurrency;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counting limit on work running at once, with a way to wait for free
+ * capacity without taking it.
+ *
+ * Limiters for a datasource are shared JVM-wide through
+ * {@link #forDataSource}, so every scheduler whose jobs use the same
+ * connection pool draws from one budget sized to that pool, instead of each
+ * starting jobs that then queue for a connection.
+ */
+public final class ConcurrencyLimiter {
+
+    private static final ConcurrentMap<String, ConcurrencyLimiter> DATA_SOURCE_LIMITERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int limit;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private int inUse;
+
+    public ConcurrencyLimiter(String name, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Concurrency limit for " + name + " must be at least 1: " + limit);
+        }
+        this.name = name;
+        this.limit = limit;
+    }
+
+    /**
+     * The limiter shared by everything running against a datasource; the first
+     * caller for a name fixes its limit
+     */
+    public static ConcurrencyLimiter forDataSource(String dataSourceName, int limit) {
+        return DATA_SOURCE_LIMITERS.computeIfAbsent(dataSourceName, key -> new ConcurrencyLimiter("dataSource " + key, limit));
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inUse >= limit) {
+                released.await();
+            }
+            inUse++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            if (inUse > 0) {
+                inUse--;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait up to the timeout for at least one free slot and return how many are
+     * free, without acquiring any; 0 if none freed up in time
+     */
+    public int awaitAvailable(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (inUse >= limit && remainingNanos > 0) {
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+            return limit - inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getAvailable() {
+        lock.lock();
+        try {
+            return limit - inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" + name + ", limit=" + limit + '}';
+    }
+}
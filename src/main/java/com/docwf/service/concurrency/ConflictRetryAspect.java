@@ -0,0 +1,62 @@
+package com.docwf.service.concurrency;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies {@link RetryOnConflict}. Ordered ahead of the transaction interceptor
+ * so each attempt runs in a fresh transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    @Value("${app.workflow.concurrency.max-attempts:20}")
+    private int maxAttempts;
+
+    @Value("${app.workflow.concurrency.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    @Value("${app.workflow.concurrency.max-backoff-ms:500}")
+    private long maxBackoffMs;
+
+    @Around("@annotation(com.docwf.service.concurrency.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("{} still conflicting after {} attempts", joinPoint.getSignature().toShortString(), attempt);
+                    throw e;
+                }
+                logger.debug("{} conflicted on attempt {}, retrying: {}",
+                    joinPoint.getSignature().toShortString(), attempt, e.getMessage());
+
+                // Full jitter keeps colliding callers from retrying in lockstep
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs + 1));
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+}
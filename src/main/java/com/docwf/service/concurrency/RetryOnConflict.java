@@ -0,0 +1,22 @@
+package com.docwf.service.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry a transactional service method when it loses an optimistic or
+ * pessimistic locking race, with exponential backoff between attempts.
+ *
+ * The whole transaction is re-run, so annotated methods must be safe to
+ * repeat from scratch. Calls that join an outer transaction are not retried,
+ * since only the outermost transaction can be rolled back and re-run.
+ * Attempts and backoff come from app.workflow.concurrency.*.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
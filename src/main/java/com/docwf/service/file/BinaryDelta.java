@@ -0,0 +1,271 @@
+package com.docwf.service.file;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary deltas between file versions.
+ *
+ * A delta rebuilds a target from a base as a sequence of COPY (a range of the
+ * base) and ADD (literal bytes) instructions, deflated. Encoding indexes the
+ * base in fixed blocks and slides a rolling hash over the target, extending
+ * every verified block match in both directions, so inserted or removed rows
+ * only cost their own bytes. Applying reads the base by position and streams
+ * the target out, so neither side is held in memory. Encoding takes buffers,
+ * so files can be mapped rather than read onto the heap.
+ */
+public final class BinaryDelta {
+
+    private static final int MAGIC = 0x44574431;  // "DWD1"
+
+    private static final int OP_END = 0;
+    private static final int OP_COPY = 1;
+    private static final int OP_ADD = 2;
+
+    private static final int HASH_MULTIPLIER = 0x01000193;
+
+    private static final int BUFFER_BYTES = 65536;
+
+    private BinaryDelta() {}
+
+    /**
+     * Write the delta that rebuilds target from base
+     */
+    public static void encode(byte[] base, byte[] target, int blockSize, OutputStream out) throws IOException {
+        encode(ByteBuffer.wrap(base), ByteBuffer.wrap(target), blockSize, out);
+    }
+
+    /**
+     * Write the delta that rebuilds target from base, reading both by absolute
+     * position, such as files mapped with {@link FileChannel#map}
+     */
+    public static void encode(ByteBuffer base, ByteBuffer target, int blockSize, OutputStream out) throws IOException {
+        if (blockSize < 4) {
+            throw new IllegalArgumentException("Block size must be at least 4 bytes: " + blockSize);
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, BUFFER_BYTES);
+            DataOutputStream data = new DataOutputStream(compressed);
+            data.writeInt(MAGIC);
+            writeVarLong(data, target.limit());
+            new Encoder(base, target, blockSize, data).run();
+            data.write(OP_END);
+            data.flush();
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Rebuild the target of a delta from its base
+     */
+    public static void apply(FileChannel base, InputStream delta, OutputStream out) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            DataInputStream data = new DataInputStream(new InflaterInputStream(delta, inflater, BUFFER_BYTES));
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a file delta");
+            }
+            long length = readVarLong(data);
+            long baseSize = base.size();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            long written = 0;
+            while (true) {
+                int op = data.read();
+                if (op == OP_END) {
+                    break;
+                }
+                long count;
+                if (op == OP_COPY) {
+                    long offset = readVarLong(data);
+                    count = readVarLong(data);
+                    if (offset + count > baseSize) {
+                        throw new IOException("Delta copies past the end of its " + baseSize + " byte base");
+                    }
+                    for (long copied = 0; copied < count; ) {
+                        buffer.clear().limit((int) Math.min(buffer.capacity(), count - copied));
+                        int read = base.read(buffer, offset + copied);
+                        if (read < 0) {
+                            throw new EOFException("Base ended during a delta copy");
+                        }
+                        out.write(buffer.array(), 0, read);
+                        copied += read;
+                    }
+                } else if (op == OP_ADD) {
+                    count = readVarLong(data);
+                    for (long added = 0; added < count; ) {
+                        int read = data.read(buffer.array(), 0, (int) Math.min(buffer.capacity(), count - added));
+                        if (read < 0) {
+                            throw new EOFException("Delta ended inside literal bytes");
+                        }
+                        out.write(buffer.array(), 0, read);
+                        added += read;
+                    }
+                } else {
+                    throw new IOException(op < 0 ? "Delta ended without its end marker" : "Unknown delta instruction " + op);
+                }
+                written += count;
+            }
+            if (written != length) {
+                throw new IOException("Delta rebuilt " + written + " of " + length + " bytes");
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Finds the target's block matches in the base and writes the instructions
+     */
+    private static final class Encoder {
+        private final ByteBuffer base;
+        private final ByteBuffer target;
+        private final int baseLength;
+        private final int targetLength;
+        private final int blockSize;
+        private final DataOutputStream out;
+        private final int[] blocks;
+        private final int hashBits;
+        private final int outgoingFactor;
+        private final byte[] literals = new byte[BUFFER_BYTES];
+
+        private Encoder(ByteBuffer base, ByteBuffer target, int blockSize, DataOutputStream out) {
+            this.base = base;
+            this.target = target;
+            this.baseLength = base.limit();
+            this.targetLength = target.limit();
+            this.blockSize = blockSize;
+            this.out = out;
+            int blockCount = baseLength / blockSize;
+            // At least twice as many slots as blocks keeps collisions rare; slots hold block index + 1
+            this.hashBits = Math.max(4, 33 - Integer.numberOfLeadingZeros(Math.max(1, blockCount)));
+            this.blocks = new int[1 << hashBits];
+            for (int block = 0; block < blockCount; block++) {
+                int slot = slot(hash(base, block * blockSize));
+                // The first occurrence wins, so repeated content copies from the start of the base
+                if (blocks[slot] == 0) {
+                    blocks[slot] = block + 1;
+                }
+            }
+            int factor = 1;
+            for (int i = 1; i < blockSize; i++) {
+                factor *= HASH_MULTIPLIER;
+            }
+            this.outgoingFactor = factor;
+        }
+
+        private void run() throws IOException {
+            int literalStart = 0;
+            int position = 0;
+            int hash = targetLength >= blockSize ? hash(target, 0) : 0;
+            while (position + blockSize <= targetLength) {
+                int block = blocks[slot(hash)] - 1;
+                int baseStart = block * blockSize;
+                if (block >= 0 && matches(baseStart, position, blockSize)) {
+                    // Grow the match back into pending literals, then forward as far as it holds
+                    int back = 0;
+                    while (position - back > literalStart && baseStart - back > 0
+                            && base.get(baseStart - back - 1) == target.get(position - back - 1)) {
+                        back++;
+                    }
+                    int start = position - back;
+                    int from = baseStart - back;
+                    int length = blockSize + back;
+                    while (start + length < targetLength && from + length < baseLength
+                            && base.get(from + length) == target.get(start + length)) {
+                        length++;
+                    }
+                    add(literalStart, start);
+                    copy(from, length);
+                    position = start + length;
+                    literalStart = position;
+                    if (position + blockSize <= targetLength) {
+                        hash = hash(target, position);
+                    }
+                } else {
+                    if (position + blockSize < targetLength) {
+                        hash = (hash - (target.get(position) & 0xff) * outgoingFactor) * HASH_MULTIPLIER
+                                + (target.get(position + blockSize) & 0xff);
+                    }
+                    position++;
+                }
+            }
+            add(literalStart, targetLength);
+        }
+
+        private boolean matches(int baseStart, int targetStart, int length) {
+            for (int i = 0; i < length; i++) {
+                if (base.get(baseStart + i) != target.get(targetStart + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(int from, int to) throws IOException {
+            if (to > from) {
+                out.write(OP_ADD);
+                writeVarLong(out, to - from);
+                for (int written = from; written < to; ) {
+                    int count = Math.min(literals.length, to - written);
+                    target.get(written, literals, 0, count);
+                    out.write(literals, 0, count);
+                    written += count;
+                }
+            }
+        }
+
+        private void copy(int from, int length) throws IOException {
+            out.write(OP_COPY);
+            writeVarLong(out, from);
+            writeVarLong(out, length);
+        }
+
+        private int hash(ByteBuffer bytes, int start) {
+            int hash = 0;
+            for (int i = start; i < start + blockSize; i++) {
+                hash = hash * HASH_MULTIPLIER + (bytes.get(i) & 0xff);
+            }
+            return hash;
+        }
+
+        private int slot(int hash) {
+            return (hash * 0x9E3779B9) >>> (32 - hashBits);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Delta ended inside a number");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in delta");
+    }
+}
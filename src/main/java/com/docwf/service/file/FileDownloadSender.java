@@ -0,0 +1,284 @@
+package com.docwf.service.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a stored file to an HTTP response with byte-range, multi-range and
+ * conditional request support.
+ *
+ * Responses carry Content-Length, a detected Content-Type, an ETag built from
+ * the file's size and modification time, and Last-Modified, so a client that
+ * already has the file gets 304 and an interrupted download resumes with a
+ * Range request. Whole files and single ranges are handed to the container's
+ * sendfile when it offers it (Tomcat's NIO connector does), so the kernel
+ * copies the bytes straight from the page cache to the socket; otherwise, and
+ * for multipart/byteranges, the body is written with FileChannel.transferTo.
+ */
+@Component
+public class FileDownloadSender {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this the container's send buffer is cheaper than a sendfile handoff
+    @Value("${app.workflow.file.download.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    /**
+     * Send the file in answer to a GET or HEAD request; as an attachment for
+     * downloads, inline for viewing in the browser
+     */
+    public void send(Path file, boolean attachment, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(file, file.getFileName().toString(), attachment, request, response);
+    }
+
+    /**
+     * Send a file stored under another name, such as a content-addressed blob,
+     * typed and offered to the client by its original file name
+     */
+    public void send(Path file, String fileName, boolean attachment, HttpServletRequest request,
+                     HttpServletResponse response) throws IOException {
+        send(file, fileName, attachment, true, request, response);
+    }
+
+    /**
+     * Send a file that may be deleted as soon as this returns, such as a pinned
+     * cached copy, without sendfile: the connector would only open it by name
+     * after the handler is done
+     */
+    public void send(VersionContent content, String fileName, boolean attachment, HttpServletRequest request,
+                     HttpServletResponse response) throws IOException {
+        send(content.getPath(), fileName, attachment, !content.isCached(), request, response);
+    }
+
+    private void send(Path file, String fileName, boolean attachment, boolean sendfile, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (!attributes.isRegularFile() || !Files.isReadable(file)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(length, lastModified);
+
+        // Answers If-None-Match / If-Modified-Since with 304 and If-Match /
+        // If-Unmodified-Since with 412, and sets ETag and Last-Modified
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = contentType(file, fileName);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(fileName, StandardCharsets.UTF_8).build().toString());
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestedRanges(request, etag, lastModified);
+        } catch (IllegalArgumentException e) {
+            rangeNotSatisfiable(response, length);
+            return;
+        }
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            if (!head) {
+                transfer(file, 0, length, sendfile, request, response);
+            }
+            return;
+        }
+
+        long[][] regions = new long[ranges.size()][];
+        long total = 0;
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                long start = ranges.get(i).getRangeStart(length);
+                long end = ranges.get(i).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    throw new IllegalArgumentException("Range starts past the end of the file");
+                }
+                regions[i] = new long[] {start, end};
+                total += end - start + 1;
+            }
+        } catch (IllegalArgumentException e) {
+            rangeNotSatisfiable(response, length);
+            return;
+        }
+        // Many small or overlapping ranges must not add up to more than the file
+        if (total > length) {
+            rangeNotSatisfiable(response, length);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (regions.length == 1) {
+            long start = regions[0][0];
+            long end = regions[0][1];
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            if (!head) {
+                transfer(file, start, end - start + 1, sendfile, request, response);
+            }
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        byte[][] partHeaders = new byte[regions.length][];
+        long contentLength = total;
+        for (int i = 0; i < regions.length; i++) {
+            partHeaders[i] = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(regions[i][0], regions[i][1], length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length;
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < regions.length; i++) {
+                out.write(partHeaders[i]);
+                transferTo(channel, regions[i][0], regions[i][1] - regions[i][0] + 1, target);
+            }
+        }
+        out.write(closing);
+        out.flush();
+    }
+
+    /**
+     * Strong validator from size and modification time, so it costs one stat and
+     * changes whenever a file is replaced in place
+     */
+    static String etag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    static MediaType contentType(Path file, String fileName) {
+        MediaType byName = MediaTypeFactory.getMediaType(fileName).orElse(null);
+        if (byName != null) {
+            return byName;
+        }
+        try {
+            String probed = Files.probeContentType(file);
+            if (probed != null) {
+                return MediaType.parseMediaType(probed);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Fall through to the generic type
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * Ranges to serve, or none for the whole file. An If-Range validator that no
+     * longer matches means the client's partial copy is stale, so it gets the
+     * whole file.
+     */
+    private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) {
+            return List.of();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(etag)) {
+                    return List.of();
+                }
+            } else {
+                long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (since == -1 || lastModified / 1000 != since / 1000) {
+                    return List.of();
+                }
+            }
+        }
+        return new ArrayList<>(HttpRange.parseRanges(range));
+    }
+
+    private void transfer(Path file, long position, long count, boolean sendfile, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (sendfile && count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the region itself after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transferTo(channel, position, count, Channels.newChannel(out));
+        }
+        out.flush();
+    }
+
+    private static void transferTo(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long sent = channel.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                throw new EOFException("File shrank while it was being sent");
+            }
+            position += sent;
+        }
+    }
+
+    private static String contentRange(long start, long end, long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    private static void rangeNotSatisfiable(HttpServletResponse response, long length) {
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setContentLengthLong(0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.docwf.service.file;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Whole copies of file versions rebuilt from deltas, kept on disk by content
+ * checksum so repeated downloads of an old version, and the versions between it
+ * and the latest, are not rebuilt every time. Least recently used copies are
+ * deleted once the cache passes its size budget; the index is in memory, so
+ * anything left from a previous run is cleared at startup.
+ *
+ * Copies are handed out pinned and only evicted once every reader has closed
+ * its {@link VersionContent}, so a download or a rebuild reading one never
+ * loses it; while pinned copies fill the budget the cache runs over it.
+ */
+@Component
+public class ReconstructedFileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconstructedFileCache.class);
+
+    @Value("${app.workflow.file.versions.cache-dir:${app.file.upload-dir:/data/uploads}/version-cache}")
+    private String cacheDir;
+
+    @Value("${app.workflow.file.versions.cache-max-bytes:268435456}")
+    private long maxBytes;
+
+    // Sizes by checksum, in access order
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Open readers by checksum
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    private long totalBytes;
+
+    @PostConstruct
+    public void clear() {
+        Path root = Paths.get(cacheDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(Files::isRegularFile).forEach(ReconstructedFileCache::delete);
+        } catch (IOException e) {
+            logger.warn("Could not clear version cache {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * The cached copy with the given checksum, pinned until the returned content is closed
+     */
+    public synchronized Optional<VersionContent> open(String checksum) {
+        if (entries.get(checksum) == null) {
+            return Optional.empty();
+        }
+        Path file = Paths.get(cacheDir).resolve(checksum);
+        if (!Files.exists(file)) {
+            totalBytes -= entries.remove(checksum);
+            return Optional.empty();
+        }
+        return Optional.of(pin(checksum, file));
+    }
+
+    /**
+     * A file in the cache directory to rebuild a version into before {@link #put}
+     */
+    public Path newTempFile() throws IOException {
+        Path root = Files.createDirectories(Paths.get(cacheDir));
+        return Files.createTempFile(root, "rebuild_", ".part");
+    }
+
+    /**
+     * Move a rebuilt version into the cache under its checksum, pinned until
+     * the returned content is closed
+     */
+    public VersionContent put(String checksum, Path rebuilt) throws IOException {
+        long size = Files.size(rebuilt);
+        Path file = Paths.get(cacheDir).resolve(checksum);
+        synchronized (this) {
+            // A pinned copy is being read, and has the same content anyway
+            if (pins.containsKey(checksum) && Files.exists(file)) {
+                Files.delete(rebuilt);
+                return pin(checksum, file);
+            }
+            Files.move(rebuilt, file, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = entries.put(checksum, size);
+            totalBytes += size - (previous != null ? previous : 0L);
+            VersionContent content = pin(checksum, file);
+            evict();
+            return content;
+        }
+    }
+
+    /**
+     * Number of readers holding the copy with the given checksum
+     */
+    public synchronized int pinCount(String checksum) {
+        return pins.getOrDefault(checksum, 0);
+    }
+
+    private VersionContent pin(String checksum, Path file) {
+        pins.merge(checksum, 1, Integer::sum);
+        return new VersionContent(file, () -> release(checksum));
+    }
+
+    private synchronized void release(String checksum) {
+        pins.computeIfPresent(checksum, (key, count) -> count > 1 ? count - 1 : null);
+        evict();
+    }
+
+    /**
+     * Delete least recently used copies no one is reading until the cache is within budget
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (!pins.containsKey(entry.getKey())) {
+                totalBytes -= entry.getValue();
+                eldest.remove();
+                delete(Paths.get(cacheDir).resolve(entry.getKey()));
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached version {}: {}", file, e.getMessage());
+        }
+    }
+}
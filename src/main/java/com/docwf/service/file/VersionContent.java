@@ -0,0 +1,48 @@
+package com.docwf.service.file;
+
+import java.nio.file.Path;
+
+/**
+ * The whole content of a file version, readable until closed. A copy rebuilt
+ * from deltas stays pinned in the {@link ReconstructedFileCache} until then, so
+ * the cache cannot evict it while it is being read or sent.
+ */
+public final class VersionContent implements AutoCloseable {
+
+    private final Path path;
+
+    private final Runnable release;
+
+    private boolean closed;
+
+    VersionContent(Path path, Runnable release) {
+        this.path = path;
+        this.release = release;
+    }
+
+    /**
+     * A version stored whole, which needs no pin
+     */
+    public static VersionContent whole(Path path) {
+        return new VersionContent(path, null);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Whether the content is a cached copy that may be deleted once closed
+     */
+    public boolean isCached() {
+        return release != null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed && release != null) {
+            release.run();
+        }
+        closed = true;
+    }
+}
@@ -0,0 +1,117 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.repository.WorkflowCalendarDayRepository;
+import com.docwf.repository.WorkflowCalendarRepository;
+import com.docwf.service.CalendarBitmapService;
+import com.docwf.service.calendar.CalendarBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class CalendarBitmapServiceImpl implements CalendarBitmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarBitmapServiceImpl.class);
+
+    @Autowired
+    private WorkflowCalendarRepository calendarRepository;
+
+    @Autowired
+    private WorkflowCalendarDayRepository calendarDayRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, CalendarBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    /**
+     * Per-calendar version, bumped on every eviction. A bitmap is only served
+     * or installed while its version matches, so a compile that raced with a
+     * calendar write can never be cached.
+     */
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Not transactional: a cache hit is a map read, and only a miss opens a
+     * read-only transaction to compile from the calendar tables
+     */
+    @Override
+    public Optional<CalendarBitmap> getBitmap(Long calendarId) {
+        long version = currentVersion(calendarId);
+        CalendarBitmap bitmap = bitmaps.get(calendarId);
+        if (bitmap != null && bitmap.getVersion() == version) {
+            return Optional.of(bitmap);
+        }
+
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        Optional<CalendarBitmap> compiled = readTransaction.execute(status -> compile(calendarId, version));
+        compiled.ifPresent(this::install);
+        return compiled;
+    }
+
+    @Override
+    public void evict(Long calendarId) {
+        invalidate(calendarId);
+
+        // A concurrent reader may recompile from pre-commit data until this
+        // transaction completes, so drop the bitmap again once it has
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(calendarId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long calendarId) {
+        versions.merge(calendarId, 1L, Long::sum);
+        bitmaps.remove(calendarId);
+    }
+
+    private long currentVersion(Long calendarId) {
+        return versions.getOrDefault(calendarId, 0L);
+    }
+
+    private void install(CalendarBitmap bitmap) {
+        bitmaps.compute(bitmap.getCalendarId(), (calendarId, current) ->
+                currentVersion(calendarId) == bitmap.getVersion() ? bitmap : current);
+    }
+
+    private Optional<CalendarBitmap> compile(Long calendarId, long version) {
+        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
+        if (calendarOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<LocalDate> holidayDates = new ArrayList<>();
+        List<LocalDate> runDayDates = new ArrayList<>();
+        for (Object[] row : calendarDayRepository.findDatesAndTypesByCalendarId(calendarId)) {
+            if ("HOLIDAY".equals(row[1])) {
+                holidayDates.add((LocalDate) row[0]);
+            } else if ("RUNDAY".equals(row[1])) {
+                runDayDates.add((LocalDate) row[0]);
+            }
+        }
+
+        WorkflowCalendar calendar = calendarOpt.get();
+        logger.debug("Compiling bitmap for calendar {} from {} holiday(s) and {} run day(s)",
+                calendarId, holidayDates.size(), runDayDates.size());
+        return Optional.of(new CalendarBitmap(calendarId, version, calendar.getStartDate(), calendar.getEndDate(),
+                calendar.getRecurrence(), holidayDates, runDayDates));
+    }
+}
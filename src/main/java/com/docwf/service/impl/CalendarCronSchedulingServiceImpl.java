@@ -140,7 +140,10 @@ public class CalendarCronSchedulingServiceImpl implements CalendarCronScheduling
     public List<Long> getScheduledCalendarIds() throws SchedulerException {
         List<Long> scheduledIds = new ArrayList<>();
         
-        Set<JobKey> jobKeys = scheduler.getJobKeys(GroupMatcher.groupEquals(JOB_GROUP));
+        // Quartz 2.0 returns the group matchers raw
+        @SuppressWarnings("unchecked")
+        GroupMatcher<JobKey> calendarJobs = GroupMatcher.groupEquals(JOB_GROUP);
+        Set<JobKey> jobKeys = scheduler.getJobKeys(calendarJobs);
         
         for (JobKey jobKey : jobKeys) {
             String jobName = jobKey.getName();
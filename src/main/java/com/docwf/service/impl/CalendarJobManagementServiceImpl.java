@@ -1,12 +1,27 @@
 package com.docwf.service.impl;
 
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import com.docwf.dto.JobExecutionStatisticsDto;
 import com.docwf.dto.QuartzJobStatusDto;
 import com.docwf.entity.WorkflowCalendar;
+import com.docwf.entity.WorkflowJobExecution;
+import com.docwf.exception.WorkflowException;
 import com.docwf.service.CalendarJobManagementService;
+import com.docwf.service.JobExecutionHistoryService;
+import com.docwf.service.WorkflowCalendarService;
+import com.docwf.service.WorkflowExecutionService;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of CalendarJobManagementService for managing Quartz jobs
@@ -14,6 +29,26 @@ import java.util.*;
 @Service
 public class CalendarJobManagementServiceImpl implements CalendarJobManagementService {
 
+    private static final Pattern STATISTICS_PERIOD = Pattern.compile("(\\d+)([hdw])");
+
+    @Autowired
+    private WorkflowExecutionService workflowExecutionService;
+
+    @Autowired
+    private JobExecutionHistoryService jobExecutionHistoryService;
+
+    @Autowired
+    private WorkflowCalendarService workflowCalendarService;
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Value("${app.workflow.job-history.stuck-after-mins:60}")
+    private long stuckAfterMins;
+
+    @Value("${app.workflow.job-history.failed-window-hours:24}")
+    private long failedWindowHours;
+
     // ===== EXISTING CALENDAR JOB METHODS =====
 
     @Override
@@ -164,17 +199,19 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
     @Override
     public List<QuartzJobStatusDto> getStuckJobs() {
         try {
+            // Executions still marked running well past the threshold, from the execution history
+            LocalDateTime now = LocalDateTime.now();
             List<QuartzJobStatusDto> stuckJobs = new ArrayList<>();
-            
-            // Return placeholder data for now
-            QuartzJobStatusDto stuckJob = new QuartzJobStatusDto("StuckJob", "WORKFLOW", "STUCK");
-            stuckJob.setDescription("A job that appears to be stuck");
-            stuckJob.setStatus("STUCK");
-            stuckJob.setIsStuck(true);
-            stuckJob.setStuckReason("Job running longer than expected");
-            stuckJob.setStartTime(LocalDateTime.now().minusHours(2));
-            stuckJobs.add(stuckJob);
-            
+            for (WorkflowJobExecution execution : jobExecutionHistoryService.getRunningStartedBefore(now.minusMinutes(stuckAfterMins))) {
+                QuartzJobStatusDto stuckJob = new QuartzJobStatusDto(execution.getJobName(), execution.getJobGroup(), "STUCK");
+                stuckJob.setIsStuck(true);
+                stuckJob.setStuckReason("Running for " + Duration.between(execution.getFiredOn(), now).toMinutes()
+                    + " minutes on " + execution.getSchedulerInstance());
+                stuckJob.setStartTime(execution.getFiredOn());
+                stuckJob.setLastRunTime(execution.getFiredOn());
+                stuckJob.setCalendarId(execution.getCalendarId());
+                stuckJobs.add(stuckJob);
+            }
             return stuckJobs;
         } catch (Exception e) {
             throw new RuntimeException("Failed to get stuck jobs", e);
@@ -184,17 +221,25 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
     @Override
     public List<QuartzJobStatusDto> getFailedJobs() {
         try {
-            List<QuartzJobStatusDto> failedJobs = new ArrayList<>();
-            
-            // Return placeholder data for now
-            QuartzJobStatusDto failedJob = new QuartzJobStatusDto("FailedJob", "WORKFLOW", "FAILED");
-            failedJob.setDescription("A job that has failed");
-            failedJob.setStatus("FAILED");
-            failedJob.setLastError("Exception occurred during execution");
-            failedJob.setLastErrorTime(LocalDateTime.now().minusMinutes(30));
-            failedJobs.add(failedJob);
-            
-            return failedJobs;
+            // Latest failure per job within the window; retryCount is how often it failed there
+            Map<String, QuartzJobStatusDto> failedJobs = new LinkedHashMap<>();
+            for (WorkflowJobExecution execution : jobExecutionHistoryService.getFailedSince(
+                    LocalDateTime.now().minusHours(failedWindowHours))) {
+                QuartzJobStatusDto failedJob = failedJobs.computeIfAbsent(execution.getJobGroup() + "." + execution.getJobName(), key -> {
+                    QuartzJobStatusDto latest = new QuartzJobStatusDto(execution.getJobName(), execution.getJobGroup(), "FAILED");
+                    latest.setLastError(execution.getErrorMessage());
+                    latest.setLastErrorTime(execution.getCompletedOn());
+                    latest.setLastRunTime(execution.getFiredOn());
+                    latest.setStartTime(execution.getFiredOn());
+                    latest.setEndTime(execution.getCompletedOn());
+                    latest.setExecutionTime(execution.getDurationMs());
+                    latest.setCalendarId(execution.getCalendarId());
+                    latest.setRetryCount(0);
+                    return latest;
+                });
+                failedJob.setRetryCount(failedJob.getRetryCount() + 1);
+            }
+            return new ArrayList<>(failedJobs.values());
         } catch (Exception e) {
             throw new RuntimeException("Failed to get failed jobs", e);
         }
@@ -340,14 +385,25 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
     public List<Map<String, Object>> getJobExecutionHistory(String jobName, Integer limit) {
         try {
             List<Map<String, Object>> history = new ArrayList<>();
-            // This would typically query a job execution history table
-            // For now, return placeholder data
-            Map<String, Object> entry = new HashMap<>();
-            entry.put("jobName", jobName);
-            entry.put("executionTime", LocalDateTime.now());
-            entry.put("status", "COMPLETED");
-            entry.put("duration", "5000ms");
-            history.add(entry);
+            for (WorkflowJobExecution execution : jobExecutionHistoryService.getHistory(jobName, limit != null ? limit : 10)) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("executionId", execution.getExecutionId());
+                entry.put("jobName", execution.getJobName());
+                entry.put("jobGroup", execution.getJobGroup());
+                entry.put("calendarId", execution.getCalendarId());
+                entry.put("schedulerInstance", execution.getSchedulerInstance());
+                entry.put("scheduledFireTime", execution.getScheduledFireTime());
+                entry.put("executionTime", execution.getFiredOn());
+                entry.put("completedTime", execution.getCompletedOn());
+                entry.put("status", execution.getStatus().name());
+                entry.put("durationMs", execution.getDurationMs());
+                entry.put("duration", execution.getDurationMs() != null ? execution.getDurationMs() + "ms" : null);
+                entry.put("startDelayMs", execution.getStartDelayMs());
+                entry.put("instancesCreated", execution.getInstancesCreated());
+                entry.put("recovering", execution.getRecovering());
+                entry.put("errorMessage", execution.getErrorMessage());
+                history.add(entry);
+            }
             return history;
         } catch (Exception e) {
             throw new RuntimeException("Failed to get job execution history", e);
@@ -356,15 +412,25 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
 
     @Override
     public Map<String, Object> getJobStatistics(String jobName, String period) {
+        LocalDateTime since = LocalDateTime.now().minus(parseStatisticsPeriod(period));
         try {
+            JobExecutionStatisticsDto statistics = jobExecutionHistoryService.getStatistics(jobName, since);
+            List<WorkflowJobExecution> latest = jobExecutionHistoryService.getHistory(jobName, 1);
+            
             Map<String, Object> stats = new HashMap<>();
             stats.put("jobName", jobName);
             stats.put("period", period);
-            stats.put("totalExecutions", 100);
-            stats.put("successfulExecutions", 95);
-            stats.put("failedExecutions", 5);
-            stats.put("averageExecutionTime", "5000ms");
-            stats.put("lastExecution", LocalDateTime.now());
+            stats.put("since", statistics.getSince());
+            stats.put("totalExecutions", statistics.getTotalExecutions());
+            stats.put("successfulExecutions", statistics.getSuccessfulExecutions());
+            stats.put("failedExecutions", statistics.getFailedExecutions());
+            stats.put("successRate", statistics.getSuccessRate());
+            stats.put("averageExecutionTime", statistics.getAverageDurationMs() + "ms");
+            stats.put("maxExecutionTime", statistics.getMaxDurationMs() + "ms");
+            stats.put("averageStartDelay", statistics.getAverageStartDelayMs() + "ms");
+            stats.put("instancesCreated", statistics.getInstancesCreated());
+            stats.put("lastExecution", latest.isEmpty() ? null : latest.get(0).getFiredOn());
+            stats.put("lastStatus", latest.isEmpty() ? null : latest.get(0).getStatus().name());
             return stats;
         } catch (Exception e) {
             throw new RuntimeException("Failed to get job statistics", e);
@@ -396,13 +462,29 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
     @Override
     public Map<String, Object> retriggerWorkflowExecution(Long calendarId, Long workflowId) {
         try {
+            WorkflowCalendar calendar = workflowCalendarService.getCalendarEntityById(calendarId);
+            if (calendar == null) {
+                throw new WorkflowException("Calendar not found with ID: " + calendarId);
+            }
+            // Goes through the run ledger, so a workflow already started today is not started again;
+            // today is taken in the calendar's zone, as the scheduled job takes it
+            LocalDate executionDate = LocalDate.now(calendar.getEffectiveTimeZone().toZoneId());
+            BulkWorkflowStartResultDto started = workflowExecutionService.startWorkflowsBulk(
+                calendarId, List.of(workflowId), executionDate);
+            BulkWorkflowStartResultDto.ItemResultDto item = started.getItems().get(0);
+            
             Map<String, Object> result = new HashMap<>();
-            result.put("message", "Workflow execution retriggered");
+            result.put("message", BulkWorkflowStartResultDto.ItemResultDto.STARTED.equals(item.getStatus())
+                ? "Workflow execution retriggered" : item.getErrorMessage());
+            result.put("status", item.getStatus());
             result.put("calendarId", calendarId);
             result.put("workflowId", workflowId);
+            result.put("executionDate", executionDate);
+            result.put("instanceId", item.getInstanceId());
             result.put("timestamp", LocalDateTime.now());
-            // Implementation would retrigger the specific workflow execution job
             return result;
+        } catch (WorkflowException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to retrigger workflow execution", e);
         }
@@ -442,17 +524,58 @@ public class CalendarJobManagementServiceImpl implements CalendarJobManagementSe
     @Override
     public Map<String, Object> getJobHealthStatus() {
         try {
+            // Counts come from the execution history and its rollups, not from walking every trigger
+            LocalDateTime now = LocalDateTime.now();
+            JobExecutionStatisticsDto window = jobExecutionHistoryService.getStatistics(null, now.minusHours(failedWindowHours));
+            long stuckJobs = jobExecutionHistoryService.countRunningStartedBefore(now.minusMinutes(stuckAfterMins));
+            long failedJobs = jobExecutionHistoryService.countFailedJobsSince(now.minusHours(failedWindowHours));
+            String schedulerStatus = schedulerStatusOf(scheduler);
+            
             Map<String, Object> healthStatus = new HashMap<>();
-            healthStatus.put("timestamp", LocalDateTime.now());
-            healthStatus.put("schedulerStatus", "RUNNING");
-            healthStatus.put("totalJobs", 2);
-            healthStatus.put("activeJobs", 2);
-            healthStatus.put("failedJobs", 0);
-            healthStatus.put("stuckJobs", 0);
-            healthStatus.put("overallHealth", "HEALTHY");
+            healthStatus.put("timestamp", now);
+            healthStatus.put("schedulerStatus", schedulerStatus);
+            healthStatus.put("totalJobs", window.getJobCount());
+            healthStatus.put("activeJobs", jobExecutionHistoryService.countRunning());
+            healthStatus.put("failedJobs", failedJobs);
+            healthStatus.put("stuckJobs", stuckJobs);
+            healthStatus.put("executions", window.getTotalExecutions());
+            healthStatus.put("failedExecutions", window.getFailedExecutions());
+            healthStatus.put("successRate", window.getSuccessRate());
+            healthStatus.put("windowHours", failedWindowHours);
+            healthStatus.put("overallHealth", !"RUNNING".equals(schedulerStatus) ? "UNHEALTHY"
+                : stuckJobs > 0 || failedJobs > 0 ? "DEGRADED" : "HEALTHY");
             return healthStatus;
         } catch (Exception e) {
             throw new RuntimeException("Failed to get job health status", e);
         }
     }
+
+    /**
+     * Statistics period such as 12h, 1d or 2w
+     */
+    private static Duration parseStatisticsPeriod(String period) {
+        Matcher matcher = STATISTICS_PERIOD.matcher(period != null ? period.trim().toLowerCase() : "");
+        if (!matcher.matches()) {
+            throw new WorkflowException("Invalid statistics period: " + period + " (expected e.g. 12h, 1d or 2w)");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        switch (matcher.group(2)) {
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                return Duration.ofDays(7 * amount);
+        }
+    }
+
+    private static String schedulerStatusOf(Scheduler scheduler) throws SchedulerException {
+        if (scheduler.isShutdown()) {
+            return "SHUTDOWN";
+        }
+        if (scheduler.isInStandbyMode() || !scheduler.isStarted()) {
+            return "STANDBY";
+        }
+        return "RUNNING";
+    }
 }
@@ -3,6 +3,7 @@ package com.docwf.service.impl;
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.job.CalendarWorkflowExecutionJob;
 import com.docwf.service.CalendarSchedulerService;
+import com.docwf.service.cluster.CalendarJobPartitioner;
 import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,11 +25,19 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     @Autowired
     private Scheduler scheduler;
     
+    @Autowired
+    private CalendarJobPartitioner calendarJobPartitioner;
+    
     private static final String JOB_GROUP = "calendarWorkflows";
     private static final String TRIGGER_GROUP = "calendarTriggers";
     
     @Override
     public boolean scheduleCalendarWorkflow(WorkflowCalendar calendar) {
+        // Partitioned calendars are fired by their owning node, not the clustered store
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendar.getCalendarId());
+            return true;
+        }
         try {
             String jobName = "calendarWorkflow_" + calendar.getCalendarId();
             String triggerName = "calendarTrigger_" + calendar.getCalendarId();
@@ -68,6 +77,10 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public boolean updateCalendarWorkflowSchedule(WorkflowCalendar calendar) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendar.getCalendarId());
+            return true;
+        }
         try {
             String jobName = "calendarWorkflow_" + calendar.getCalendarId();
             String triggerName = "calendarTrigger_" + calendar.getCalendarId();
@@ -107,6 +120,10 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public boolean unscheduleCalendarWorkflow(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            calendarJobPartitioner.refreshCalendar(calendarId);
+            return true;
+        }
         try {
             String jobName = "calendarWorkflow_" + calendarId;
             String triggerName = "calendarTrigger_" + calendarId;
@@ -134,6 +151,9 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public boolean isCalendarScheduled(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.isScheduled(calendarId);
+        }
         try {
             String jobName = "calendarWorkflow_" + calendarId;
             JobKey jobKey = JobKey.jobKey(jobName, JOB_GROUP);
@@ -146,6 +166,9 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public Date getNextExecutionTime(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.getNextFireTime(calendarId);
+        }
         try {
             String triggerName = "calendarTrigger_" + calendarId;
             TriggerKey triggerKey = TriggerKey.triggerKey(triggerName, TRIGGER_GROUP);
@@ -164,6 +187,10 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public boolean pauseCalendarSchedule(Long calendarId) {
+        // Partitioned calendars have no clustered trigger; the owning node honours a stored flag
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.setPaused(calendarId, true);
+        }
         try {
             String triggerName = "calendarTrigger_" + calendarId;
             TriggerKey triggerKey = TriggerKey.triggerKey(triggerName, TRIGGER_GROUP);
@@ -183,6 +210,9 @@ public class CalendarSchedulerServiceImpl implements CalendarSchedulerService {
     
     @Override
     public boolean resumeCalendarSchedule(Long calendarId) {
+        if (calendarJobPartitioner.isEnabled()) {
+            return calendarJobPartitioner.setPaused(calendarId, false);
+        }
         try {
             String triggerName = "calendarTrigger_" + calendarId;
             TriggerKey triggerKey = TriggerKey.triggerKey(triggerName, TRIGGER_GROUP);
@@ -2,20 +2,53 @@ package com.docwf.service.impl;
 
 import com.docwf.dto.WorkflowInstanceTaskDto;
 import com.docwf.dto.TaskInstanceDecisionOutcomeDto;
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowConfigTask;
 import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.repository.WorkflowInstanceTaskRepository;
 import com.docwf.service.ComplexWorkflowExecutionService;
+import com.docwf.service.FileConsolidationService;
+import com.docwf.service.FileConsolidationService.ConsolidationFormat;
+import com.docwf.service.WorkflowExecutionService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Basic implementation of ComplexWorkflowExecutionService
- * This is a placeholder implementation that will be enhanced with actual business logic
+ * File consolidation runs on FileConsolidationService; the remaining operations are
+ * placeholders that will be enhanced with actual business logic
  */
 @Service
 public class ComplexWorkflowExecutionServiceImpl implements ComplexWorkflowExecutionService {
 
+    @Autowired
+    private WorkflowInstanceTaskRepository instanceTaskRepository;
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Autowired
+    private FileConsolidationService fileConsolidationService;
+
+    @Autowired
+    private WorkflowExecutionService workflowExecutionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Override
     public WorkflowInstanceTaskDto executeTaskStep(Long instanceTaskId, String action, String comments) {
         // TODO: Implement actual task execution logic
@@ -32,10 +65,21 @@ public class ComplexWorkflowExecutionServiceImpl implements ComplexWorkflowExecu
 
     @Override
     public WorkflowInstanceTaskDto consolidateFiles(Long instanceTaskId, List<Long> selectedFileIds, String consolidationNotes) {
-        // TODO: Implement file consolidation logic
-        WorkflowInstanceTaskDto dto = new WorkflowInstanceTaskDto();
-        dto.setStatus(WorkflowInstanceTask.TaskInstanceStatus.COMPLETED);
-        return dto;
+        String createdBy = new TransactionTemplate(transactionManager).execute(status -> {
+            WorkflowInstanceTask instanceTask = findConsolidationTask(instanceTaskId, "MANUAL");
+            WorkflowConfigTask config = instanceTask.getTask();
+            int selected = selectedFileIds == null ? 0 : selectedFileIds.size();
+            if (config.getMinFileSelections() != null && selected < config.getMinFileSelections()) {
+                throw new WorkflowException("Task " + instanceTaskId + " needs at least " + config.getMinFileSelections()
+                    + " files to consolidate but " + selected + " were selected");
+            }
+            if (config.getMaxFileSelections() != null && selected > config.getMaxFileSelections()) {
+                throw new WorkflowException("Task " + instanceTaskId + " consolidates at most " + config.getMaxFileSelections()
+                    + " files but " + selected + " were selected");
+            }
+            return consolidator(instanceTask);
+        });
+        return consolidateAndComplete(instanceTaskId, selectedFileIds, consolidationNotes, createdBy);
     }
 
     @Override
@@ -76,10 +120,16 @@ public class ComplexWorkflowExecutionServiceImpl implements ComplexWorkflowExecu
 
     @Override
     public WorkflowInstanceTaskDto executeAutoConsolidation(Long instanceTaskId) {
-        // TODO: Implement auto-consolidation logic
-        WorkflowInstanceTaskDto dto = new WorkflowInstanceTaskDto();
-        dto.setStatus(WorkflowInstanceTask.TaskInstanceStatus.COMPLETED);
-        return dto;
+        List<Long> sourceFileIds = new ArrayList<>();
+        String createdBy = new TransactionTemplate(transactionManager).execute(status -> {
+            WorkflowInstanceTask instanceTask = findConsolidationTask(instanceTaskId, "AUTO");
+            sourceFileIds.addAll(sourceFileIds(instanceTask));
+            return consolidator(instanceTask);
+        });
+        if (sourceFileIds.isEmpty()) {
+            throw new WorkflowException("No source files to consolidate for task " + instanceTaskId);
+        }
+        return consolidateAndComplete(instanceTaskId, sourceFileIds, "Auto-consolidated", createdBy);
     }
 
     @Override
@@ -99,4 +149,76 @@ public class ComplexWorkflowExecutionServiceImpl implements ComplexWorkflowExecu
         // TODO: Implement revision history retrieval
         return new ArrayList<>();
     }
+
+    /**
+     * Stream the files into a new CONSOLIDATE file of the task and complete it;
+     * runs outside a transaction so no connection is held while files are read
+     */
+    private WorkflowInstanceTaskDto consolidateAndComplete(Long instanceTaskId, List<Long> fileIds, String notes, String createdBy) {
+        WorkflowInstanceTaskFileDto consolidated;
+        try {
+            consolidated = fileConsolidationService.consolidate(instanceTaskId, fileIds, ConsolidationFormat.ZIP, createdBy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not consolidate files for task " + instanceTaskId, e);
+        }
+        if (notes != null) {
+            fileRepository.findByInstanceFileIdAndVersion(consolidated.getInstanceFileId(), consolidated.getFileVersion())
+                .ifPresent(file -> {
+                    file.setFileCommentary(notes);
+                    fileRepository.save(file);
+                });
+        }
+        return workflowExecutionService.completeTask(instanceTaskId, null);
+    }
+
+    /**
+     * The task, if it is a consolidation task that allows the given mode; HYBRID allows both
+     */
+    private WorkflowInstanceTask findConsolidationTask(Long instanceTaskId, String mode) {
+        WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
+            .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
+        WorkflowConfigTask config = instanceTask.getTask();
+        if (config.getTaskType() != WorkflowConfigTask.TaskType.CONSOLIDATE_FILE) {
+            throw new WorkflowException("Task " + instanceTaskId + " is not a consolidation task");
+        }
+        String configuredMode = config.getConsolidationMode() == null ? "MANUAL" : config.getConsolidationMode();
+        if (!configuredMode.equals(mode) && !configuredMode.equals("HYBRID")) {
+            throw new WorkflowException("Task " + instanceTaskId + " does not allow " + mode + " consolidation");
+        }
+        return instanceTask;
+    }
+
+    /**
+     * Latest files of the configured source tasks, or of every other task of the
+     * instance when none are configured; earlier consolidations are only included
+     * when their task is named as a source
+     */
+    private List<Long> sourceFileIds(WorkflowInstanceTask instanceTask) {
+        String configured = instanceTask.getTask().getFileSourceTaskIds();
+        Set<Long> sourceTaskIds = configured == null || configured.isBlank() ? Set.of()
+            : Arrays.stream(configured.split(",")).map(String::trim).filter(id -> !id.isEmpty())
+                .map(Long::valueOf).collect(Collectors.toSet());
+
+        List<Long> fileIds = new ArrayList<>();
+        for (WorkflowInstanceTask task : instanceTaskRepository.findByWorkflowInstanceInstanceId(
+                instanceTask.getWorkflowInstance().getInstanceId())) {
+            if (task.getInstanceTaskId().equals(instanceTask.getInstanceTaskId())) {
+                continue;
+            }
+            boolean named = sourceTaskIds.contains(task.getTask().getTaskId());
+            if (!sourceTaskIds.isEmpty() && !named) {
+                continue;
+            }
+            for (WorkflowInstanceTaskFile file : fileRepository.findLatestVersionsByInstanceTaskId(task.getInstanceTaskId())) {
+                if (named || file.getActionType() != WorkflowInstanceTaskFile.ActionType.CONSOLIDATE) {
+                    fileIds.add(file.getInstanceFileId());
+                }
+            }
+        }
+        return fileIds;
+    }
+
+    private static String consolidator(WorkflowInstanceTask instanceTask) {
+        return instanceTask.getAssignedTo() != null ? instanceTask.getAssignedTo().getUsername() : "system";
+    }
 }
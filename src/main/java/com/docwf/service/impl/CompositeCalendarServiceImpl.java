@@ -0,0 +1,265 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.CompositeCalendarDto;
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.entity.WorkflowCompositeCalendar;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowCalendarRepository;
+import com.docwf.repository.WorkflowCompositeCalendarRepository;
+import com.docwf.service.CalendarBitmapService;
+import com.docwf.service.CompositeCalendarService;
+import com.docwf.service.calendar.CalendarBitmap;
+import com.docwf.service.calendar.CalendarExpression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class CompositeCalendarServiceImpl implements CompositeCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompositeCalendarServiceImpl.class);
+
+    @Autowired
+    private WorkflowCompositeCalendarRepository compositeRepository;
+
+    @Autowired
+    private WorkflowCalendarRepository calendarRepository;
+
+    @Autowired
+    private CalendarBitmapService calendarBitmapService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, CompiledComposite> composites = new ConcurrentHashMap<>();
+
+    /**
+     * Per-composite version, bumped when the composite is updated or deleted,
+     * as in {@link CalendarBitmapServiceImpl}
+     */
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * An evaluated composite and the calendar bitmaps it was evaluated from.
+     * Calendar bitmaps are replaced, never modified, when a calendar changes,
+     * so an identity check against the calendar cache tells whether the
+     * composite is still current.
+     */
+    private static final class CompiledComposite {
+
+        private final long version;
+        private final Map<Long, CalendarBitmap> sources;
+        private final CalendarBitmap bitmap;
+
+        CompiledComposite(long version, Map<Long, CalendarBitmap> sources, CalendarBitmap bitmap) {
+            this.version = version;
+            this.sources = sources;
+            this.bitmap = bitmap;
+        }
+    }
+
+    @Override
+    @Transactional
+    public CompositeCalendarDto createComposite(CompositeCalendarDto compositeDto) {
+        if (compositeRepository.existsByCompositeName(compositeDto.getCompositeName())) {
+            throw new WorkflowException("Composite calendar already exists with name: " + compositeDto.getCompositeName());
+        }
+        CalendarExpression expression = validateExpression(compositeDto.getExpression());
+
+        WorkflowCompositeCalendar composite = new WorkflowCompositeCalendar(
+            compositeDto.getCompositeName(),
+            compositeDto.getDescription(),
+            expression.toString(),
+            compositeDto.getCreatedBy()
+        );
+        return convertToDto(compositeRepository.save(composite));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CompositeCalendarDto> getCompositeById(Long compositeId) {
+        return compositeRepository.findById(compositeId).map(this::convertToDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CompositeCalendarDto> getAllComposites() {
+        return compositeRepository.findAll().stream()
+            .map(this::convertToDto)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public CompositeCalendarDto updateComposite(Long compositeId, CompositeCalendarDto compositeDto) {
+        WorkflowCompositeCalendar composite = compositeRepository.findById(compositeId)
+            .orElseThrow(() -> new WorkflowException("Composite calendar not found with ID: " + compositeId));
+        CalendarExpression expression = validateExpression(compositeDto.getExpression());
+
+        composite.setCompositeName(compositeDto.getCompositeName());
+        composite.setDescription(compositeDto.getDescription());
+        composite.setExpression(expression.toString());
+        composite.setUpdatedBy(compositeDto.getUpdatedBy());
+
+        WorkflowCompositeCalendar updatedComposite = compositeRepository.save(composite);
+        evict(compositeId);
+        return convertToDto(updatedComposite);
+    }
+
+    @Override
+    @Transactional
+    public void deleteComposite(Long compositeId) {
+        if (!compositeRepository.existsById(compositeId)) {
+            throw new WorkflowException("Composite calendar not found with ID: " + compositeId);
+        }
+        compositeRepository.deleteById(compositeId);
+        evict(compositeId);
+    }
+
+    /**
+     * Not transactional: a hit costs one calendar cache read per referenced
+     * calendar, and only a miss reads the composite definition
+     */
+    @Override
+    public Optional<CalendarBitmap> getBitmap(Long compositeId) {
+        long version = currentVersion(compositeId);
+        CompiledComposite compiled = composites.get(compositeId);
+        if (compiled != null && compiled.version == version && isCurrent(compiled)) {
+            return Optional.of(compiled.bitmap);
+        }
+
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        Optional<String> expressionText = readTransaction.execute(status ->
+                compositeRepository.findById(compositeId).map(WorkflowCompositeCalendar::getExpression));
+        if (expressionText.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CalendarExpression expression = CalendarExpression.parse(expressionText.get());
+        Map<Long, CalendarBitmap> sources = new HashMap<>();
+        for (Long calendarId : expression.getCalendarIds()) {
+            Optional<CalendarBitmap> source = calendarBitmapService.getBitmap(calendarId);
+            if (source.isEmpty()) {
+                logger.debug("Composite calendar {} references missing calendar {}", compositeId, calendarId);
+                return Optional.empty();
+            }
+            sources.put(calendarId, source.get());
+        }
+
+        CompiledComposite evaluated = new CompiledComposite(version, sources, expression.evaluate(sources::get));
+        composites.compute(compositeId, (id, current) -> currentVersion(id) == version ? evaluated : current);
+        return Optional.of(evaluated.bitmap);
+    }
+
+    @Override
+    public boolean isDateValid(Long compositeId, LocalDate date) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.isValid(date)).orElse(false);
+    }
+
+    @Override
+    public boolean canExecuteWorkflow(Long compositeId, LocalDate date) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.canExecute(date)).orElse(false);
+    }
+
+    @Override
+    public List<LocalDate> getValidDatesInRange(Long compositeId, LocalDate startDate, LocalDate endDate) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.getValidDates(startDate, endDate)).orElse(List.of());
+    }
+
+    @Override
+    public LocalDate getNextValidDate(Long compositeId, LocalDate fromDate) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.getNextValidDate(fromDate)).orElse(null);
+    }
+
+    @Override
+    public LocalDate getPreviousValidDate(Long compositeId, LocalDate fromDate) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.getPreviousValidDate(fromDate)).orElse(null);
+    }
+
+    @Override
+    public int countBusinessDaysBetween(Long compositeId, LocalDate startDate, LocalDate endDate) {
+        return getBitmap(compositeId).map(bitmap -> bitmap.countValidDates(startDate, endDate)).orElse(0);
+    }
+
+    /**
+     * Parse an expression and check every calendar it references exists
+     */
+    private CalendarExpression validateExpression(String expressionText) {
+        CalendarExpression expression = CalendarExpression.parse(expressionText);
+        List<Long> missing = new ArrayList<>(expression.getCalendarIds());
+        missing.removeAll(calendarRepository.findAllById(expression.getCalendarIds()).stream()
+            .map(WorkflowCalendar::getCalendarId)
+            .collect(Collectors.toList()));
+        if (!missing.isEmpty()) {
+            throw new WorkflowException("Calendar expression references unknown calendar(s): " + missing);
+        }
+        return expression;
+    }
+
+    private boolean isCurrent(CompiledComposite compiled) {
+        for (Map.Entry<Long, CalendarBitmap> source : compiled.sources.entrySet()) {
+            Optional<CalendarBitmap> latest = calendarBitmapService.getBitmap(source.getKey());
+            if (latest.isEmpty() || latest.get() != source.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void evict(Long compositeId) {
+        invalidate(compositeId);
+
+        // Drop it again once the change is visible to other transactions
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(compositeId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long compositeId) {
+        versions.merge(compositeId, 1L, Long::sum);
+        composites.remove(compositeId);
+    }
+
+    private long currentVersion(Long compositeId) {
+        return versions.getOrDefault(compositeId, 0L);
+    }
+
+    private CompositeCalendarDto convertToDto(WorkflowCompositeCalendar composite) {
+        CompositeCalendarDto dto = new CompositeCalendarDto();
+        dto.setCompositeId(composite.getCompositeId());
+        dto.setCompositeName(composite.getCompositeName());
+        dto.setDescription(composite.getDescription());
+        dto.setExpression(composite.getExpression());
+        dto.setCalendarIds(new ArrayList<>(CalendarExpression.parse(composite.getExpression()).getCalendarIds()));
+        getBitmap(composite.getCompositeId()).ifPresent(bitmap -> {
+            dto.setStartDate(bitmap.getStartDate());
+            dto.setEndDate(bitmap.getEndDate());
+        });
+        dto.setCreatedBy(composite.getCreatedBy());
+        dto.setCreatedAt(composite.getCreatedAt());
+        dto.setUpdatedBy(composite.getUpdatedBy());
+        dto.setUpdatedAt(composite.getUpdatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,252 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.WorkflowFileBlob;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowFileBlobRepository;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.service.FileBlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Blobs live at {@code <dir>/ab/cd/<sha256>}, two levels of 256 shards so no
+ * directory grows past a few thousand entries.
+ *
+ * Content is hard-linked into the store, so storing a fully received upload
+ * costs no copy and the upload's part file stays valid until its row commits;
+ * where links are not supported it is copied to a temporary name and renamed
+ * into place, so a blob path only ever holds complete content. Reference
+ * changes each take a short transaction of their own with the blob's row
+ * locked. Collection confirms a blob is unused by counting task file rows, so a
+ * count left high by a crash only delays reclaiming space, and one left low
+ * cannot delete content still in use.
+ */
+@Service
+public class FileBlobStoreImpl implements FileBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileBlobStoreImpl.class);
+
+    private static final Pattern CHECKSUM = Pattern.compile("[0-9a-f]{64}");
+
+    @Autowired
+    private WorkflowFileBlobRepository blobRepository;
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.workflow.file.blob-store.dir:${app.file.upload-dir:/data/uploads}/blobs}")
+    private String blobDir;
+
+    @Value("${app.workflow.file.blob-store.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Override
+    public Path addReference(Path content, String checksum) throws IOException {
+        String key = checksum.toLowerCase();
+        if (!CHECKSUM.matcher(key).matches()) {
+            throw new WorkflowException("Not a SHA-256 checksum: " + checksum);
+        }
+        TransactionTemplate transaction = newTransaction();
+        try {
+            return reference(transaction, content, key);
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content created the blob's row first
+            return reference(transaction, content, key);
+        }
+    }
+
+    @Override
+    public boolean releaseReference(String checksum) {
+        String key = checksum.toLowerCase();
+        Boolean released = newTransaction().execute(status -> {
+            WorkflowFileBlob blob = blobRepository.lockByChecksum(key).orElse(null);
+            if (blob == null) {
+                return false;
+            }
+            blob.setRefCount(blob.getRefCount() - 1);
+            if (blob.getRefCount() <= 0) {
+                blob.setUnreferencedOn(LocalDateTime.now());
+            }
+            blobRepository.save(blob);
+            return true;
+        });
+        return Boolean.TRUE.equals(released);
+    }
+
+    @Override
+    public int referenceCount(String checksum) {
+        return blobRepository.findById(checksum.toLowerCase()).map(WorkflowFileBlob::getRefCount).orElse(0);
+    }
+
+    @Override
+    public boolean isBlob(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(root());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.workflow.file.blob-store.gc-interval-ms:3600000}")
+    public int collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+        TransactionTemplate transaction = newTransaction();
+        int collected = 0;
+        for (WorkflowFileBlob candidate : blobRepository.findUnreferencedSince(cutoff)) {
+            if (Boolean.TRUE.equals(transaction.execute(status -> collect(candidate.getChecksum(), cutoff)))) {
+                collected++;
+            }
+        }
+        collected += sweepOrphans(cutoff);
+        if (collected > 0) {
+            logger.info("Blob store garbage collection removed {} file(s)", collected);
+        }
+        return collected;
+    }
+
+    private Path reference(TransactionTemplate transaction, Path content, String key) {
+        return transaction.execute(status -> {
+            WorkflowFileBlob blob = blobRepository.lockByChecksum(key).orElse(null);
+            Path path = blob != null ? Paths.get(blob.getBlobPath()) : blobPath(key);
+            try {
+                if (blob == null) {
+                    blob = new WorkflowFileBlob(key, Files.size(content), path.toString());
+                    // Flushed before the file is linked so a concurrent insert fails here, not after
+                    blob = blobRepository.saveAndFlush(blob);
+                    link(content, path);
+                } else if (!Files.exists(path)) {
+                    logger.warn("Blob {} was missing from {}; restoring it", key, path);
+                    link(content, path);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store blob " + key, e);
+            }
+            blob.setRefCount(blob.getRefCount() + 1);
+            blob.setUnreferencedOn(null);
+            blobRepository.save(blob);
+            return path;
+        });
+    }
+
+    /**
+     * Remove one unreferenced blob, its file first and then its row, while the row is locked
+     */
+    private boolean collect(String checksum, LocalDateTime cutoff) {
+        WorkflowFileBlob blob = blobRepository.lockByChecksum(checksum).orElse(null);
+        if (blob == null || blob.getRefCount() > 0 || blob.getUnreferencedOn() == null
+                || !blob.getUnreferencedOn().isBefore(cutoff)) {
+            return false;
+        }
+        long references = fileRepository.countBlobReferences(checksum);
+        if (references > 0) {
+            logger.warn("Blob {} is used by {} file row(s) but counted none; keeping it", checksum, references);
+            blob.setRefCount((int) references);
+            blob.setUnreferencedOn(null);
+            blobRepository.save(blob);
+            return false;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(blob.getBlobPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete blob " + checksum, e);
+        }
+        blobRepository.delete(blob);
+        return true;
+    }
+
+    /**
+     * Files in the store with no row, left by a crash between linking and committing
+     */
+    private int sweepOrphans(LocalDateTime cutoff) {
+        Path root = root();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        Instant olderThan = cutoff.atZone(ZoneId.systemDefault()).toInstant();
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(Files::isRegularFile).forEach(candidates::add);
+        } catch (IOException e) {
+            logger.warn("Could not scan blob store {}: {}", root, e.getMessage());
+            return 0;
+        }
+        int removed = 0;
+        for (Path file : candidates) {
+            try {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(olderThan)
+                        && !blobRepository.existsById(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not remove orphaned blob file {}: {}", file, e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Put the content at the blob path, as a hard link where the file system allows it
+     */
+    private static void link(Path content, Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try {
+            Files.createLink(path, content);
+        } catch (FileAlreadyExistsException e) {
+            // Left by an earlier attempt that did not commit; blob paths only hold complete content
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            Path temp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            Files.copy(content, temp);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException moveFailed) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        // A link shares the upload's modification time; the orphan sweep goes by when it was stored
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+    }
+
+    private Path blobPath(String key) {
+        return root().resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Path root() {
+        return Paths.get(blobDir).toAbsolutePath().normalize();
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
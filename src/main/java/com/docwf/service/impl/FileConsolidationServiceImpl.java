@@ -0,0 +1,345 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.service.FileConsolidationService;
+import com.docwf.service.FileUploadService;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Streams consolidations without staging them.
+ *
+ * ZIP entries are deflated in parallel: while the caller's thread writes one
+ * entry, the next few small files are compressed by the worker pool into
+ * memory, within a per-consolidation byte budget, and copied into the archive
+ * already compressed. Files too large for the budget are deflated inline as
+ * they are written, so memory stays bounded whatever the input sizes, and
+ * entries always appear in the order requested.
+ */
+@Service
+public class FileConsolidationServiceImpl implements FileConsolidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileConsolidationServiceImpl.class);
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Value("${app.workflow.file.consolidation.parallel-entry-max-bytes:8388608}")
+    private long parallelEntryMaxBytes;
+
+    @Value("${app.workflow.file.consolidation.max-buffered-bytes:33554432}")
+    private long maxBufferedBytes;
+
+    @Value("${app.workflow.file.consolidation.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    @Value("${app.workflow.file.consolidation.compression-level:6}")
+    private int compressionLevel;
+
+    private final int compressionThreads;
+
+    private final ExecutorService compressors;
+
+    public FileConsolidationServiceImpl(@Value("${app.workflow.file.consolidation.compression-threads:4}") int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.compressors = Executors.newFixedThreadPool(compressionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "consolidation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<WorkflowInstanceTaskFileDto> resolveSources(List<Long> instanceFileIds) {
+        if (instanceFileIds == null || instanceFileIds.isEmpty()) {
+            throw new WorkflowException("No files selected for consolidation");
+        }
+        List<WorkflowInstanceTaskFileDto> sources = new ArrayList<>(instanceFileIds.size());
+        for (Long instanceFileId : instanceFileIds) {
+            WorkflowInstanceTaskFile file = fileRepository.findLatestVersionByInstanceFileId(instanceFileId)
+                .orElseThrow(() -> new WorkflowException("File not found with ID: " + instanceFileId));
+            if (file.getFilePath() == null || !Files.isRegularFile(Paths.get(file.getFilePath()))) {
+                throw new WorkflowException("Content of file " + instanceFileId + " version " + file.getVersion()
+                    + " is missing from " + file.getFilePath());
+            }
+            sources.add(WorkflowInstanceTaskFileDto.from(file));
+        }
+        return sources;
+    }
+
+    @Override
+    public void writeConsolidated(List<WorkflowInstanceTaskFileDto> sources, ConsolidationFormat format, OutputStream out)
+            throws IOException {
+        long started = System.nanoTime();
+        if (format == ConsolidationFormat.CONCAT) {
+            writeConcatenated(sources, out);
+        } else {
+            writeZip(sources, out);
+        }
+        logger.info("Consolidated {} file(s) as {} in {} ms", sources.size(), format,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Override
+    public WorkflowInstanceTaskFileDto consolidate(Long instanceTaskId, List<Long> instanceFileIds, ConsolidationFormat format,
+                                                   String createdBy) throws IOException {
+        List<WorkflowInstanceTaskFileDto> sources = resolveSources(instanceFileIds);
+        String fileName = "consolidated_" + instanceTaskId + (format == ConsolidationFormat.CONCAT ? ".txt" : ".zip");
+        return fileUploadService.storeFile(instanceTaskId, null, fileName, ActionType.CONSOLIDATE, createdBy,
+            out -> writeConsolidated(sources, format, out));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        compressors.shutdownNow();
+        compressors.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void writeConcatenated(List<WorkflowInstanceTaskFileDto> sources, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        for (WorkflowInstanceTaskFileDto source : sources) {
+            try (FileChannel channel = FileChannel.open(Paths.get(source.getFilePath()), StandardOpenOption.READ)) {
+                long position = 0;
+                long size = channel.size();
+                while (position < size) {
+                    long sent = channel.transferTo(position, size - position, target);
+                    if (sent <= 0) {
+                        throw new EOFException("File " + source.getInstanceFileId() + " shrank while it was being consolidated");
+                    }
+                    position += sent;
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private void writeZip(List<WorkflowInstanceTaskFileDto> sources, OutputStream out) throws IOException {
+        int count = sources.size();
+        List<String> entryNames = entryNames(sources);
+        long[] sizes = new long[count];
+        for (int i = 0; i < count; i++) {
+            sizes[i] = Files.size(Paths.get(sources.get(i).getFilePath()));
+        }
+
+        List<Future<DeflatedEntry>> deflating = new ArrayList<>(count);
+        int window = compressionThreads * 2;
+        int submitted = 0;
+        long buffered = 0;
+        // Closing the archive must not close the caller's stream
+        ZipArchiveOutputStream zip = new ZipArchiveOutputStream(new NonClosingOutputStream(out));
+        boolean finished = false;
+        try {
+            zip.setUseZip64(Zip64Mode.AsNeeded);
+            zip.setLevel(compressionLevel);
+            for (int i = 0; i < count; i++) {
+                // Keep the pool busy with the small files that come next, within the budget
+                while (submitted < count && submitted - i < window && sizes[submitted] <= parallelEntryMaxBytes
+                        && buffered + sizes[submitted] <= maxBufferedBytes) {
+                    Path path = Paths.get(sources.get(submitted).getFilePath());
+                    deflating.add(compressors.submit(() -> deflate(path)));
+                    buffered += sizes[submitted];
+                    submitted++;
+                }
+
+                ZipArchiveEntry entry = new ZipArchiveEntry(entryNames.get(i));
+                entry.setMethod(ZipEntry.DEFLATED);
+                if (sources.get(i).getCreatedAt() != null) {
+                    entry.setTime(sources.get(i).getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                }
+                if (i < submitted) {
+                    DeflatedEntry deflated = await(deflating.get(i));
+                    deflating.set(i, null);
+                    entry.setSize(deflated.size);
+                    entry.setCrc(deflated.crc);
+                    entry.setCompressedSize(deflated.compressed.size());
+                    zip.addRawArchiveEntry(entry, deflated.compressed.asInputStream());
+                    buffered -= sizes[i];
+                } else {
+                    // Too large to buffer, or the budget is taken: deflate while writing
+                    submitted++;
+                    deflating.add(null);
+                    entry.setSize(sizes[i]);
+                    zip.putArchiveEntry(entry);
+                    try (InputStream in = Files.newInputStream(Paths.get(sources.get(i).getFilePath()))) {
+                        in.transferTo(zip);
+                    }
+                    zip.closeArchiveEntry();
+                }
+            }
+            zip.finish();
+            finished = true;
+        } finally {
+            for (Future<DeflatedEntry> pending : deflating) {
+                if (pending != null) {
+                    pending.cancel(true);
+                }
+            }
+            if (finished) {
+                zip.close();
+            } else {
+                closeAbandoned(zip);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Raw deflate of a whole file into memory, with the CRC and size the entry header needs
+     */
+    private DeflatedEntry deflate(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        Deflater deflater = new Deflater(compressionLevel, true);
+        EntryBuffer compressed = new EntryBuffer((int) Math.min(Files.size(path) / 2 + 64, bufferBytes * 16L));
+        try (InputStream in = Files.newInputStream(path);
+             DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater, bufferBytes)) {
+            byte[] buffer = new byte[bufferBytes];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Consolidation cancelled");
+                }
+                crc.update(buffer, 0, read);
+                deflating.write(buffer, 0, read);
+                size += read;
+            }
+        } finally {
+            deflater.end();
+        }
+        return new DeflatedEntry(compressed, crc.getValue(), size);
+    }
+
+    /**
+     * Release an archive's deflater after a failure; its half-written entry cannot be finished
+     */
+    private static void closeAbandoned(ZipArchiveOutputStream zip) {
+        try {
+            zip.close();
+        } catch (IOException e) {
+            logger.debug("Abandoned unfinished consolidation archive: {}", e.getMessage());
+        }
+    }
+
+    private static DeflatedEntry await(Future<DeflatedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a compressed entry");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException("Could not compress entry", e.getCause());
+        }
+    }
+
+    /**
+     * Entry names from the files' own names, without directories and made unique
+     */
+    private static List<String> entryNames(List<WorkflowInstanceTaskFileDto> sources) {
+        List<String> names = new ArrayList<>(sources.size());
+        Set<String> used = new HashSet<>();
+        for (WorkflowInstanceTaskFileDto source : sources) {
+            String original = source.getFileName() != null ? source.getFileName()
+                : Paths.get(source.getFilePath()).getFileName().toString();
+            original = original.substring(Math.max(original.lastIndexOf('/'), original.lastIndexOf('\\')) + 1);
+            if (original.isBlank()) {
+                original = "file_" + source.getInstanceFileId();
+            }
+            int dot = original.lastIndexOf('.');
+            String base = dot > 0 ? original.substring(0, dot) : original;
+            String extension = dot > 0 ? original.substring(dot) : "";
+            String name = original;
+            for (int copy = 2; !used.add(name.toLowerCase()); copy++) {
+                name = base + " (" + copy + ")" + extension;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    private record DeflatedEntry(EntryBuffer compressed, long crc, long size) {
+    }
+
+    /**
+     * Compressed bytes read back in place rather than copied out
+     */
+    private static final class EntryBuffer extends ByteArrayOutputStream {
+        private EntryBuffer(int initialSize) {
+            super(initialSize);
+        }
+
+        private InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    /**
+     * Lets the archive be finished and closed without closing the caller's stream
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.service.FileSearchService;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds each search from only the criteria given, so the database plans the
+ * query for the predicates actually present and can use the index that fits
+ * them, instead of one catch-all statement with a null check per criterion.
+ *
+ * The latest version of a file is the one with no newer version, an anti-join
+ * on the (INSTANCE_FILE_ID, VERSION) key that stops at the first newer row
+ * rather than aggregating every version of the file for each candidate.
+ */
+@Service
+public class FileSearchServiceImpl implements FileSearchService {
+
+    // Properties a file search can be sorted by
+    private static final Set<String> SORTABLE = Set.of("fileName", "fileExtension", "fileSize", "createdAt",
+        "createdBy", "actionType", "instanceFileId", "version");
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "instanceFileId", "version");
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<WorkflowInstanceTaskFileDto> searchFiles(String fileName, String extension, Long minSize, Long maxSize,
+                                                         String createdAfter, String createdBefore, Long instanceTaskId,
+                                                         Long instanceId, String createdBy, ActionType actionType,
+                                                         boolean allVersions, Pageable pageable) {
+        LocalDateTime afterDate = null;
+        LocalDateTime beforeDate = null;
+        try {
+            if (createdAfter != null) {
+                afterDate = LocalDateTime.parse(createdAfter);
+            }
+            if (createdBefore != null) {
+                beforeDate = LocalDateTime.parse(createdBefore);
+            }
+        } catch (Exception e) {
+            // If date parsing fails, return empty results
+            return Page.empty(pageable);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new WorkflowException("Files cannot be sorted by " + order.getProperty());
+            }
+        }
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_SORT);
+        }
+
+        List<Specification<WorkflowInstanceTaskFile>> criteria = new ArrayList<>();
+        if (!isBlank(fileName)) {
+            criteria.add(nameContains(fileName));
+        }
+        if (!isBlank(extension)) {
+            String normalized = extension.startsWith(".") ? extension.substring(1) : extension;
+            criteria.add(equal("fileExtension", normalized.toLowerCase(Locale.ROOT)));
+        }
+        if (minSize != null) {
+            criteria.add((file, query, cb) -> cb.greaterThanOrEqualTo(file.get("fileSize"), minSize));
+        }
+        if (maxSize != null) {
+            criteria.add((file, query, cb) -> cb.lessThanOrEqualTo(file.get("fileSize"), maxSize));
+        }
+        if (afterDate != null) {
+            LocalDateTime after = afterDate;
+            criteria.add((file, query, cb) -> cb.greaterThanOrEqualTo(file.get("createdAt"), after));
+        }
+        if (beforeDate != null) {
+            LocalDateTime before = beforeDate;
+            criteria.add((file, query, cb) -> cb.lessThanOrEqualTo(file.get("createdAt"), before));
+        }
+        if (instanceTaskId != null) {
+            criteria.add((file, query, cb) -> cb.equal(file.get("instanceTask").get("instanceTaskId"), instanceTaskId));
+        }
+        if (instanceId != null) {
+            criteria.add((file, query, cb) ->
+                cb.equal(file.get("instanceTask").get("workflowInstance").get("instanceId"), instanceId));
+        }
+        if (!isBlank(createdBy)) {
+            criteria.add(equal("createdBy", createdBy));
+        }
+        if (actionType != null) {
+            criteria.add(equal("actionType", actionType));
+        }
+        if (!allVersions) {
+            criteria.add(latestVersion());
+        }
+
+        return fileRepository.findAll(Specification.allOf(criteria), pageable)
+            .map(WorkflowInstanceTaskFileDto::from);
+    }
+
+    private static Specification<WorkflowInstanceTaskFile> equal(String property, Object value) {
+        return (file, query, cb) -> cb.equal(file.get(property), value);
+    }
+
+    /**
+     * Case-insensitive substring match on the file name, with LOCATE rather than
+     * LIKE so '%' and '_' in it are taken literally
+     */
+    private static Specification<WorkflowInstanceTaskFile> nameContains(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return (file, query, cb) -> cb.greaterThan(cb.locate(cb.lower(file.get("fileName")), lower), 0);
+    }
+
+    /**
+     * No newer version of the same file exists
+     */
+    private static Specification<WorkflowInstanceTaskFile> latestVersion() {
+        return (file, query, cb) -> {
+            Subquery<Integer> newer = query.subquery(Integer.class);
+            Root<WorkflowInstanceTaskFile> other = newer.from(WorkflowInstanceTaskFile.class);
+            newer.select(other.get("version")).where(
+                cb.equal(other.get("instanceFileId"), file.get("instanceFileId")),
+                cb.greaterThan(other.get("version"), file.<Integer>get("version")));
+            return cb.not(cb.exists(newer));
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,517 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.FileUploadSessionDto;
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowFileUpload;
+import com.docwf.entity.WorkflowFileUpload.UploadStatus;
+import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowFileUploadRepository;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.repository.WorkflowInstanceTaskRepository;
+import com.docwf.service.FileBlobStore;
+import com.docwf.service.FileUploadService;
+import com.docwf.service.FileVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class FileUploadServiceImpl implements FileUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileUploadServiceImpl.class);
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    @Autowired
+    private WorkflowFileUploadRepository uploadRepository;
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Autowired
+    private WorkflowInstanceTaskRepository instanceTaskRepository;
+
+    @Autowired
+    private FileBlobStore blobStore;
+
+    @Autowired
+    private FileVersionService versionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.file.upload-dir:/data/uploads}")
+    private String uploadDir;
+
+    @Value("${app.file.consolidated-dir:/data/consolidated}")
+    private String consolidatedDir;
+
+    @Value("${app.workflow.file.chunked-upload.max-chunk-bytes:67108864}")
+    private long maxChunkBytes;
+
+    @Value("${app.workflow.file.chunked-upload.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    @Value("${app.workflow.file.chunked-upload.expiry-hours:24}")
+    private long expiryHours;
+
+    /**
+     * Running checksums of the uploads this node is receiving, by upload ID.
+     * Chunks of one upload are appended under its entry's lock; an entry that
+     * is missing or behind, after a restart or a chunk sent to another node,
+     * is rebuilt from the part file.
+     */
+    private final Map<Long, ReceivingUpload> receiving = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional
+    public FileUploadSessionDto initUpload(Long instanceTaskId, Long instanceFileId, String fileName, long totalSize,
+                                           ActionType actionType, String createdBy) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new WorkflowException("File name is required");
+        }
+        if (totalSize < 0) {
+            throw new WorkflowException("Invalid file size: " + totalSize);
+        }
+        if (!instanceTaskRepository.existsById(instanceTaskId)) {
+            throw new WorkflowException("Workflow instance task not found with ID: " + instanceTaskId);
+        }
+        if (instanceFileId != null && fileRepository.findMaxVersionByInstanceFileId(instanceFileId).isEmpty()) {
+            throw new WorkflowException("File not found with ID: " + instanceFileId);
+        }
+        if (actionType == null) {
+            actionType = instanceFileId == null ? ActionType.UPLOAD : ActionType.UPDATE;
+        }
+
+        WorkflowFileUpload upload = uploadRepository.save(
+            new WorkflowFileUpload(instanceTaskId, instanceFileId, fileName, actionType, totalSize, createdBy));
+        // On the blob store's file system, so completing links the part file in rather than copying it
+        upload.setPartPath(Paths.get(uploadDir).resolve("upload_" + upload.getUploadId() + ".part").toString());
+        logger.info("Started upload {} of {} ({} bytes) for task {}", upload.getUploadId(), fileName, totalSize, instanceTaskId);
+        return toDto(upload);
+    }
+
+    @Override
+    public FileUploadSessionDto appendChunk(Long uploadId, long offset, InputStream chunk) throws IOException {
+        ReceivingUpload state = receiving.computeIfAbsent(uploadId, id -> new ReceivingUpload());
+        synchronized (state) {
+            WorkflowFileUpload upload = findActive(uploadId, state);
+            if (offset != upload.getBytesReceived()) {
+                throw new WorkflowException("Chunk offset " + offset + " does not match the "
+                    + upload.getBytesReceived() + " bytes received for upload " + uploadId);
+            }
+            Path part = Paths.get(upload.getPartPath());
+            Files.createDirectories(part.getParent());
+            long limit = Math.min(upload.getTotalSize() - offset, maxChunkBytes);
+
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                // Anything past the durable offset is from a chunk that failed before it was recorded
+                channel.truncate(offset);
+                catchUpChecksum(state, channel, offset);
+                channel.position(offset);
+
+                ReadableByteChannel source = Channels.newChannel(chunk);
+                ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+                try {
+                    while (written < limit) {
+                        buffer.clear().limit((int) Math.min(buffer.capacity(), limit - written));
+                        int read = source.read(buffer);
+                        if (read < 0) {
+                            break;
+                        }
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        buffer.flip();
+                        state.digest.update(buffer);
+                        written += read;
+                        state.digestedBytes += read;
+                    }
+                    if (written == limit && source.read(ByteBuffer.allocate(1)) > 0) {
+                        state.reset();
+                        throw new WorkflowException("Chunk for upload " + uploadId + " is larger than the "
+                            + limit + " bytes it may add (" + upload.getTotalSize() + " byte file, "
+                            + maxChunkBytes + " byte chunk limit)");
+                    }
+                } catch (IOException e) {
+                    // Keep what arrived before the client went away, so it resumes from there
+                    if (written > 0) {
+                        recordReceived(state, channel, upload, offset, written);
+                    }
+                    throw e;
+                }
+                recordReceived(state, channel, upload, offset, written);
+            }
+            logger.debug("Upload {} received {} bytes at offset {}", uploadId, written, offset);
+            return toDto(upload);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<FileUploadSessionDto> getUpload(Long uploadId) {
+        return uploadRepository.findById(uploadId).map(this::toDto);
+    }
+
+    @Override
+    public WorkflowInstanceTaskFileDto completeUpload(Long uploadId, String expectedChecksum) throws IOException {
+        ReceivingUpload state = receiving.computeIfAbsent(uploadId, id -> new ReceivingUpload());
+        synchronized (state) {
+            WorkflowFileUpload upload = findActive(uploadId, state);
+            if (!upload.isFullyReceived()) {
+                throw new WorkflowException("Upload " + uploadId + " has received " + upload.getBytesReceived()
+                    + " of " + upload.getTotalSize() + " bytes");
+            }
+            Path part = Paths.get(upload.getPartPath());
+            Files.createDirectories(part.getParent());
+            String checksum;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                catchUpChecksum(state, channel, upload.getTotalSize());
+                checksum = HexFormat.of().formatHex(state.digest.digest());
+            } finally {
+                state.reset();
+            }
+            if (expectedChecksum != null && !expectedChecksum.equalsIgnoreCase(checksum)) {
+                throw new WorkflowException("Checksum mismatch for upload " + uploadId + ": expected "
+                    + expectedChecksum + " but received " + checksum);
+            }
+
+            WorkflowInstanceTaskFile file = storeContent(upload, part, checksum);
+            receiving.remove(uploadId);
+            logger.info("Completed upload {} as file {} version {} ({} bytes, sha256 {})", uploadId,
+                file.getInstanceFileId(), file.getVersion(), file.getFileSize(), checksum);
+            return WorkflowInstanceTaskFileDto.from(file);
+        }
+    }
+
+    @Override
+    public void abortUpload(Long uploadId) {
+        ReceivingUpload state = receiving.computeIfAbsent(uploadId, id -> new ReceivingUpload());
+        synchronized (state) {
+            discard(findActive(uploadId, state), UploadStatus.ABORTED);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.workflow.file.chunked-upload.expiry-sweep-ms:3600000}")
+    public void expireStaleUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expiryHours);
+        for (WorkflowFileUpload upload : uploadRepository.findByStatusAndUpdatedOnLessThan(UploadStatus.ACTIVE, cutoff)) {
+            ReceivingUpload state = receiving.computeIfAbsent(upload.getUploadId(), id -> new ReceivingUpload());
+            synchronized (state) {
+                discard(upload, UploadStatus.EXPIRED);
+            }
+        }
+    }
+
+    @Override
+    public WorkflowInstanceTaskFileDto storeFile(Long instanceTaskId, Long instanceFileId, String fileName, ActionType actionType,
+                                                 String createdBy, ContentWriter writer) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new WorkflowException("File name is required");
+        }
+        if (instanceFileId != null) {
+            WorkflowInstanceTaskFile latest = fileRepository.findLatestVersionByInstanceFileId(instanceFileId)
+                .orElseThrow(() -> new WorkflowException("File not found with ID: " + instanceFileId));
+            if (instanceTaskId == null) {
+                instanceTaskId = latest.getInstanceTask().getInstanceTaskId();
+            }
+        }
+        if (instanceTaskId == null || !instanceTaskRepository.existsById(instanceTaskId)) {
+            throw new WorkflowException("Workflow instance task not found with ID: " + instanceTaskId);
+        }
+        // Tracked as an upload so it takes a file ID from the same sequence and a crash
+        // part way through leaves a row the expiry sweep cleans up
+        WorkflowFileUpload upload = uploadRepository.save(
+            new WorkflowFileUpload(instanceTaskId, instanceFileId, fileName, actionType, 0L, createdBy));
+        String directory = actionType == ActionType.CONSOLIDATE ? consolidatedDir : uploadDir;
+        Path part = Paths.get(directory).resolve("upload_" + upload.getUploadId() + ".part");
+        upload.setPartPath(part.toString());
+        uploadRepository.save(upload);
+
+        try {
+            Files.createDirectories(part.getParent());
+            MessageDigest digest = newDigest();
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                OutputStream out = new DigestOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), bufferBytes), digest);
+                writer.writeTo(out);
+                out.flush();
+                channel.force(false);
+                upload.setTotalSize(channel.size());
+                upload.setBytesReceived(channel.size());
+            }
+            String checksum = HexFormat.of().formatHex(digest.digest());
+
+            WorkflowInstanceTaskFile file = storeContent(upload, part, checksum);
+            logger.info("Stored {} as file {} version {} ({} bytes, sha256 {})", fileName,
+                file.getInstanceFileId(), file.getVersion(), file.getFileSize(), checksum);
+            return WorkflowInstanceTaskFileDto.from(file);
+        } catch (IOException | RuntimeException e) {
+            discard(upload, UploadStatus.ABORTED);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<WorkflowInstanceTaskFileDto> getFile(Long instanceFileId, Integer version) {
+        return fileRepository.findByInstanceFileIdAndVersion(instanceFileId, version)
+            .map(WorkflowInstanceTaskFileDto::from);
+    }
+
+    @Override
+    public void deleteFileVersion(Long instanceFileId, Integer version) throws IOException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        WorkflowInstanceTaskFile file = null;
+        for (int attempt = 0; file == null; attempt++) {
+            if (attempt == 3) {
+                throw new WorkflowException("File " + instanceFileId + " version " + version
+                    + " is still having versions encoded against it");
+            }
+            // Versions stored as deltas against this one are stored whole again first
+            versionService.expandDependents(instanceFileId, version);
+            file = transaction.execute(status -> {
+                WorkflowInstanceTaskFile locked = fileRepository.lockVersion(instanceFileId, version)
+                    .orElseThrow(() -> new WorkflowException("File " + instanceFileId + " has no version " + version));
+                if (!fileRepository.findByInstanceFileIdAndDeltaBaseVersion(instanceFileId, version).isEmpty()) {
+                    return null;
+                }
+                fileRepository.delete(locked);
+                return locked;
+            });
+        }
+
+        // The row goes first: a reference left behind if releasing fails only delays collection
+        String stored = file.isDeltaEncoded() ? file.getDeltaChecksum() : file.getChecksum();
+        boolean released = stored != null && blobStore.releaseReference(stored);
+        if (!released && file.getFilePath() != null && !blobStore.isBlob(Paths.get(file.getFilePath()))) {
+            // Stored before the blob store, so the file is this version's alone
+            try {
+                Files.deleteIfExists(Paths.get(file.getFilePath()));
+            } catch (IOException e) {
+                logger.warn("Could not delete {} of file {} version {}: {}", file.getFilePath(), instanceFileId,
+                    version, e.getMessage());
+            }
+        }
+        logger.info("Deleted file {} version {}", instanceFileId, version);
+    }
+
+    /**
+     * Add the part file's content to the blob store and record it; the reference
+     * is released if the rows cannot be written, and the part file removed once
+     * they are. A new version then has the version before it delta-encoded against it.
+     */
+    private WorkflowInstanceTaskFile storeContent(WorkflowFileUpload upload, Path part, String checksum) throws IOException {
+        Path blob = blobStore.addReference(part, checksum);
+        WorkflowInstanceTaskFile file;
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            file = transaction.execute(status -> recordFile(upload, blob, checksum));
+        } catch (RuntimeException e) {
+            blobStore.releaseReference(checksum);
+            throw e;
+        }
+        try {
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            logger.warn("Could not delete part file {} of upload {}: {}", part, upload.getUploadId(), e.getMessage());
+        }
+        if (file.getVersion() > 1) {
+            try {
+                versionService.compactPreviousVersion(file.getInstanceFileId(), file.getVersion());
+            } catch (IOException | RuntimeException e) {
+                // The previous version simply stays whole
+                logger.warn("Could not delta-encode the version before {} of file {}: {}", file.getVersion(),
+                    file.getInstanceFileId(), e.getMessage());
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Record the stored content as the next version of the upload's file
+     */
+    private WorkflowInstanceTaskFile recordFile(WorkflowFileUpload upload, Path blob, String checksum) {
+        WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(upload.getInstanceTaskId())
+            .orElseThrow(() -> new WorkflowException("Workflow instance task not found with ID: " + upload.getInstanceTaskId()));
+        Optional<Integer> latestVersion;
+        Long instanceFileId;
+        if (upload.getInstanceFileId() != null) {
+            instanceFileId = upload.getInstanceFileId();
+            latestVersion = fileRepository.findMaxVersionByInstanceFileId(instanceFileId);
+        } else {
+            // A new file is identified by the upload that created it
+            instanceFileId = upload.getUploadId();
+            latestVersion = fileRepository.findMaxVersionByInstanceFileId(instanceFileId);
+            if (latestVersion.isPresent()) {
+                throw new WorkflowException("File ID " + instanceFileId + " is already in use");
+            }
+        }
+        int version = latestVersion.map(latest -> latest + 1).orElse(1);
+
+        WorkflowInstanceTaskFile file = new WorkflowInstanceTaskFile(upload.getFileName(), blob.toString(),
+            upload.getActionType(), upload.getCreatedBy());
+        file.setInstanceFileId(instanceFileId);
+        file.setVersion(version);
+        file.setInstanceTask(instanceTask);
+        file.setFileLocation(blob.getParent().toString());
+        file.setFileSize(upload.getTotalSize());
+        file.setChecksum(checksum);
+        file = fileRepository.saveAndFlush(file);
+
+        upload.setStatus(UploadStatus.COMPLETED);
+        upload.setChecksum(checksum);
+        upload.setFileVersion(version);
+        upload.setPartPath(null);
+        upload.setUpdatedOn(LocalDateTime.now());
+        uploadRepository.saveAndFlush(upload);
+        return file;
+    }
+
+    /**
+     * Make the chunk's bytes durable, then move the upload's offset past them
+     */
+    private void recordReceived(ReceivingUpload state, FileChannel channel, WorkflowFileUpload upload,
+                                long offset, long written) throws IOException {
+        channel.force(false);
+        LocalDateTime now = LocalDateTime.now();
+        if (uploadRepository.advanceBytesReceived(upload.getUploadId(), UploadStatus.ACTIVE, offset, offset + written, now) == 0) {
+            state.reset();
+            throw new WorkflowException("Upload " + upload.getUploadId() + " was changed while receiving a chunk");
+        }
+        upload.setBytesReceived(offset + written);
+        upload.setUpdatedOn(now);
+    }
+
+    /**
+     * Bring the running checksum up to the given offset, reading the part file if it is missing or behind
+     */
+    private void catchUpChecksum(ReceivingUpload state, FileChannel channel, long offset) throws IOException {
+        if (state.digest != null && state.digestedBytes == offset) {
+            return;
+        }
+        state.digest = newDigest();
+        state.digestedBytes = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+        while (state.digestedBytes < offset) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), offset - state.digestedBytes));
+            int read = channel.read(buffer, state.digestedBytes);
+            if (read < 0) {
+                throw new WorkflowException("Part file for upload is shorter than its " + offset + " received bytes");
+            }
+            buffer.flip();
+            state.digest.update(buffer);
+            state.digestedBytes += read;
+        }
+        if (offset > 0) {
+            logger.debug("Rebuilt upload checksum from {} bytes on disk", offset);
+        }
+    }
+
+    private void discard(WorkflowFileUpload upload, UploadStatus status) {
+        try {
+            if (upload.getPartPath() != null) {
+                Files.deleteIfExists(Paths.get(upload.getPartPath()));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not delete part file {} of upload {}: {}", upload.getPartPath(), upload.getUploadId(), e.getMessage());
+        }
+        upload.setStatus(status);
+        upload.setPartPath(null);
+        upload.setUpdatedOn(LocalDateTime.now());
+        uploadRepository.save(upload);
+        receiving.remove(upload.getUploadId());
+        logger.info("Upload {} of {} {} after {} of {} bytes", upload.getUploadId(), upload.getFileName(),
+            status.name().toLowerCase(), upload.getBytesReceived(), upload.getTotalSize());
+    }
+
+    /**
+     * The upload, if it can still receive; otherwise its lock entry is dropped and the request refused
+     */
+    private WorkflowFileUpload findActive(Long uploadId, ReceivingUpload state) {
+        Optional<WorkflowFileUpload> upload = uploadRepository.findById(uploadId);
+        if (upload.isEmpty() || upload.get().getStatus() != UploadStatus.ACTIVE) {
+            receiving.remove(uploadId, state);
+            throw new WorkflowException(upload.isEmpty() ? "File upload not found with ID: " + uploadId
+                : "File upload " + uploadId + " is " + upload.get().getStatus());
+        }
+        return upload.get();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FileUploadSessionDto toDto(WorkflowFileUpload upload) {
+        FileUploadSessionDto dto = new FileUploadSessionDto();
+        dto.setUploadId(upload.getUploadId());
+        dto.setInstanceTaskId(upload.getInstanceTaskId());
+        dto.setInstanceFileId(upload.getInstanceFileId());
+        dto.setFileName(upload.getFileName());
+        dto.setActionType(upload.getActionType());
+        dto.setTotalSize(upload.getTotalSize());
+        dto.setBytesReceived(upload.getBytesReceived());
+        dto.setMaxChunkBytes(maxChunkBytes);
+        dto.setStatus(upload.getStatus().name());
+        dto.setChecksum(upload.getChecksum());
+        dto.setFileVersion(upload.getFileVersion());
+        dto.setCreatedOn(upload.getCreatedOn());
+        dto.setUpdatedOn(upload.getUpdatedOn());
+        return dto;
+    }
+
+    /**
+     * Checksum of the bytes of one upload received so far
+     */
+    private static final class ReceivingUpload {
+        private MessageDigest digest;
+        private long digestedBytes;
+
+        /**
+         * Forget the checksum after a failed write or a conflict; the next chunk rebuilds it from disk
+         */
+        private void reset() {
+            digest = null;
+            digestedBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import com.docwf.service.FileBlobStore;
+import com.docwf.service.FileVersionService;
+import com.docwf.service.file.BinaryDelta;
+import com.docwf.service.file.ReconstructedFileCache;
+import com.docwf.service.file.VersionContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Deltas are reverse deltas: a version is encoded against the version after
+ * it, so the latest stays whole and adding a version never touches more than
+ * the one before it. Each delta is a blob of its own in the {@link FileBlobStore},
+ * referenced through DELTA_CHECKSUM, while CHECKSUM stays the checksum of the
+ * whole content so every rebuild is verified.
+ *
+ * Rows are re-encoded with the newer version locked before the older one, the
+ * order deleting takes, and only if neither changed since the delta was
+ * computed; the new blob reference is taken first and the old one released
+ * after commit, as for uploads.
+ */
+@Service
+public class FileVersionServiceImpl implements FileVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileVersionServiceImpl.class);
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    @Autowired
+    private WorkflowInstanceTaskFileRepository fileRepository;
+
+    @Autowired
+    private FileBlobStore blobStore;
+
+    @Autowired
+    private ReconstructedFileCache cache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.file.upload-dir:/data/uploads}")
+    private String uploadDir;
+
+    @Value("${app.workflow.file.versions.delta-enabled:true}")
+    private boolean deltaEnabled;
+
+    @Value("${app.workflow.file.versions.delta-block-bytes:64}")
+    private int deltaBlockBytes;
+
+    @Value("${app.workflow.file.versions.max-delta-ratio:0.5}")
+    private double maxDeltaRatio;
+
+    @Value("${app.workflow.file.versions.max-delta-chain:16}")
+    private int maxDeltaChain;
+
+    @Value("${app.workflow.file.versions.max-delta-file-bytes:67108864}")
+    private long maxDeltaFileBytes;
+
+    @Value("${app.workflow.file.chunked-upload.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowInstanceTaskFileDto> getVersions(Long instanceFileId) {
+        return fileRepository.findAllVersionsByInstanceFileId(instanceFileId).stream()
+            .map(WorkflowInstanceTaskFileDto::from)
+            .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<WorkflowInstanceTaskFileDto> getLatestVersion(Long instanceFileId) {
+        return fileRepository.findLatestVersionByInstanceFileId(instanceFileId).map(WorkflowInstanceTaskFileDto::from);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowInstanceTaskFileDto> getLatestVersions(Long instanceTaskId) {
+        return fileRepository.findLatestVersionsByInstanceTaskId(instanceTaskId).stream()
+            .map(WorkflowInstanceTaskFileDto::from)
+            .toList();
+    }
+
+    @Override
+    public VersionContent openVersion(Long instanceFileId, Integer version) throws IOException {
+        WorkflowInstanceTaskFile file = findVersion(instanceFileId, version);
+        if (!file.isDeltaEncoded()) {
+            return VersionContent.whole(Paths.get(file.getFilePath()));
+        }
+        Optional<VersionContent> cached = cache.open(file.getChecksum());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Walk towards the latest version until one is whole or cached, then apply the deltas back down
+        Deque<WorkflowInstanceTaskFile> deltas = new ArrayDeque<>();
+        Set<Integer> visited = new HashSet<>();
+        WorkflowInstanceTaskFile current = file;
+        VersionContent base = null;
+        while (base == null) {
+            if (!visited.add(current.getVersion())) {
+                throw new WorkflowException("Delta chain of file " + instanceFileId + " loops at version " + current.getVersion());
+            }
+            deltas.push(current);
+            WorkflowInstanceTaskFile next = findVersion(instanceFileId, current.getDeltaBaseVersion());
+            if (!next.isDeltaEncoded()) {
+                base = VersionContent.whole(Paths.get(next.getFilePath()));
+            } else {
+                base = cache.open(next.getChecksum()).orElse(null);
+                current = next;
+            }
+        }
+        // Each copy stays pinned until the next one down is rebuilt from it
+        while (!deltas.isEmpty()) {
+            try (VersionContent used = base) {
+                base = rebuild(used.getPath(), deltas.pop());
+            }
+        }
+        return base;
+    }
+
+    @Override
+    public boolean compactPreviousVersion(Long instanceFileId, Integer version) throws IOException {
+        if (!deltaEnabled) {
+            return false;
+        }
+        WorkflowInstanceTaskFile newer = findVersion(instanceFileId, version);
+        WorkflowInstanceTaskFile older = fileRepository
+            .findByInstanceFileIdAndVersionLessThanOrderByVersionDesc(instanceFileId, version, PageRequest.of(0, 1))
+            .stream().findFirst().orElse(null);
+        if (older == null || older.isDeltaEncoded() || newer.isDeltaEncoded()
+                || older.getChecksum() == null || newer.getChecksum() == null
+                || !fitsDeltaLimit(older) || !fitsDeltaLimit(newer)) {
+            return false;
+        }
+        // A delta only frees space if nothing else holds the older content whole
+        if (blobStore.referenceCount(older.getChecksum()) != 1 || !withinChainLimit(older)) {
+            return false;
+        }
+
+        Path dir = Files.createDirectories(Paths.get(uploadDir));
+        Path temp = Files.createTempFile(dir, "delta_", ".part");
+        try {
+            // Both versions are mapped rather than read onto the heap, and the delta goes straight to disk
+            MessageDigest digest = newDigest();
+            long targetSize;
+            try (FileChannel targetChannel = FileChannel.open(Paths.get(older.getFilePath()), StandardOpenOption.READ);
+                 FileChannel baseChannel = FileChannel.open(Paths.get(newer.getFilePath()), StandardOpenOption.READ);
+                 OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), bufferBytes), digest)) {
+                targetSize = targetChannel.size();
+                BinaryDelta.encode(baseChannel.map(FileChannel.MapMode.READ_ONLY, 0, baseChannel.size()),
+                    targetChannel.map(FileChannel.MapMode.READ_ONLY, 0, targetSize), deltaBlockBytes, out);
+            }
+            long deltaSize = Files.size(temp);
+            if (deltaSize > targetSize * maxDeltaRatio) {
+                logger.debug("Keeping version {} of file {} whole: a {} byte delta saves too little on {} bytes",
+                    older.getVersion(), instanceFileId, deltaSize, targetSize);
+                return false;
+            }
+            String deltaChecksum = HexFormat.of().formatHex(digest.digest());
+
+            Path blob = blobStore.addReference(temp, deltaChecksum);
+            boolean encodedRow;
+            try {
+                encodedRow = Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+                    WorkflowInstanceTaskFile lockedNewer = fileRepository.lockVersion(instanceFileId, newer.getVersion()).orElse(null);
+                    WorkflowInstanceTaskFile lockedOlder = fileRepository.lockVersion(instanceFileId, older.getVersion()).orElse(null);
+                    if (!unchanged(lockedNewer, newer) || !unchanged(lockedOlder, older)) {
+                        return false;
+                    }
+                    lockedOlder.setDeltaBaseVersion(newer.getVersion());
+                    lockedOlder.setDeltaChecksum(deltaChecksum);
+                    lockedOlder.setFilePath(blob.toString());
+                    lockedOlder.setFileLocation(blob.getParent().toString());
+                    fileRepository.save(lockedOlder);
+                    return true;
+                }));
+            } catch (RuntimeException e) {
+                blobStore.releaseReference(deltaChecksum);
+                throw e;
+            }
+            if (!encodedRow) {
+                blobStore.releaseReference(deltaChecksum);
+                return false;
+            }
+            blobStore.releaseReference(older.getChecksum());
+            logger.info("Stored version {} of file {} as a {} byte delta against version {} ({} bytes whole)",
+                older.getVersion(), instanceFileId, deltaSize, newer.getVersion(), targetSize);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void expandDependents(Long instanceFileId, Integer version) throws IOException {
+        for (WorkflowInstanceTaskFile dependent : fileRepository.findByInstanceFileIdAndDeltaBaseVersion(instanceFileId, version)) {
+            Path blob;
+            try (VersionContent whole = openVersion(instanceFileId, dependent.getVersion())) {
+                blob = blobStore.addReference(whole.getPath(), dependent.getChecksum());
+            }
+            boolean expanded;
+            try {
+                expanded = Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+                    WorkflowInstanceTaskFile locked = fileRepository.lockVersion(instanceFileId, dependent.getVersion()).orElse(null);
+                    if (!unchanged(locked, dependent)) {
+                        return false;
+                    }
+                    locked.setDeltaBaseVersion(null);
+                    locked.setDeltaChecksum(null);
+                    locked.setFilePath(blob.toString());
+                    locked.setFileLocation(blob.getParent().toString());
+                    fileRepository.save(locked);
+                    return true;
+                }));
+            } catch (RuntimeException e) {
+                blobStore.releaseReference(dependent.getChecksum());
+                throw e;
+            }
+            blobStore.releaseReference(expanded ? dependent.getDeltaChecksum() : dependent.getChecksum());
+            if (expanded) {
+                logger.info("Stored version {} of file {} whole again before version {} is removed",
+                    dependent.getVersion(), instanceFileId, version);
+            }
+        }
+    }
+
+    /**
+     * Apply a version's delta to the whole content of the version it is encoded against
+     */
+    private VersionContent rebuild(Path base, WorkflowInstanceTaskFile version) throws IOException {
+        Path rebuilt = cache.newTempFile();
+        MessageDigest digest = newDigest();
+        try {
+            try (FileChannel baseChannel = FileChannel.open(base, StandardOpenOption.READ);
+                 InputStream delta = new BufferedInputStream(Files.newInputStream(Paths.get(version.getFilePath())), bufferBytes);
+                 OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(rebuilt), bufferBytes), digest)) {
+                BinaryDelta.apply(baseChannel, delta, out);
+            }
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            if (!checksum.equalsIgnoreCase(version.getChecksum())) {
+                throw new WorkflowException("Version " + version.getVersion() + " of file " + version.getInstanceFileId()
+                    + " rebuilt with checksum " + checksum + " instead of " + version.getChecksum());
+            }
+            return cache.put(version.getChecksum(), rebuilt);
+        } finally {
+            Files.deleteIfExists(rebuilt);
+        }
+    }
+
+    /**
+     * Whether encoding the version would leave no version more than the chain limit of deltas from a whole one
+     */
+    private boolean withinChainLimit(WorkflowInstanceTaskFile older) {
+        List<WorkflowInstanceTaskFile> below = fileRepository.findByInstanceFileIdAndVersionLessThanOrderByVersionDesc(
+            older.getInstanceFileId(), older.getVersion(), PageRequest.of(0, maxDeltaChain));
+        int run = 0;
+        for (WorkflowInstanceTaskFile file : below) {
+            if (!file.isDeltaEncoded()) {
+                break;
+            }
+            run++;
+        }
+        return run < maxDeltaChain;
+    }
+
+    private boolean fitsDeltaLimit(WorkflowInstanceTaskFile file) {
+        return file.getFileSize() != null && file.getFileSize() <= maxDeltaFileBytes;
+    }
+
+    /**
+     * Whether a locked row still has the storage it was read with
+     */
+    private static boolean unchanged(WorkflowInstanceTaskFile locked, WorkflowInstanceTaskFile read) {
+        return locked != null
+            && Objects.equals(locked.getFilePath(), read.getFilePath())
+            && Objects.equals(locked.getDeltaChecksum(), read.getDeltaChecksum());
+    }
+
+    private WorkflowInstanceTaskFile findVersion(Long instanceFileId, Integer version) {
+        return fileRepository.findByInstanceFileIdAndVersion(instanceFileId, version)
+            .orElseThrow(() -> new WorkflowException("File " + instanceFileId + " has no version " + version));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.docwf.service.impl;
+
+import com.docwf.dto.JobExecutionStatisticsDto;
+import com.docwf.entity.WorkflowJobExecution;
+import com.docwf.entity.WorkflowJobExecution.ExecutionStatus;
+import com.docwf.entity.WorkflowJobExecutionRollup;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowJobExecutionRepository;
+import com.docwf.repository.WorkflowJobExecutionRollupRepository;
+import com.docwf.service.JobExecutionHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class JobExecutionHistoryServiceImpl implements JobExecutionHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobExecutionHistoryServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * A rollup insert can lose the race to another node's; the update then wins
+     */
+    private static final int ROLLUP_ATTEMPTS = 3;
+
+    @Autowired
+    private WorkflowJobExecutionRepository executionRepository;
+
+    @Autowired
+    private WorkflowJobExecutionRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.workflow.job-history.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.workflow.job-history.rollup-retention-days:400}")
+    private int rollupRetentionDays;
+
+    @Override
+    @Transactional
+    public Long recordStarted(WorkflowJobExecution execution) {
+        execution.setStatus(ExecutionStatus.RUNNING);
+        return executionRepository.save(execution).getExecutionId();
+    }
+
+    @Override
+    public void recordCompleted(Long executionId, long durationMs, Integer instancesCreated, String errorMessage) {
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        WorkflowJobExecution execution = writeTransaction.execute(status -> {
+            WorkflowJobExecution running = executionRepository.findById(executionId)
+                    .orElseThrow(() -> new WorkflowException("Job execution not found with ID: " + executionId));
+            running.setStatus(errorMessage == null ? ExecutionStatus.SUCCEEDED : ExecutionStatus.FAILED);
+            running.setCompletedOn(running.getFiredOn().plus(durationMs, ChronoUnit.MILLIS));
+            running.setDurationMs(durationMs);
+            running.setInstancesCreated(instancesCreated);
+            running.setErrorMessage(truncate(errorMessage));
+            return executionRepository.save(running);
+        });
+
+        // The rollup is added to in its own transaction, so losing an insert race
+        // to a concurrent completion does not roll back the execution itself
+        addToRollup(writeTransaction, execution);
+    }
+
+    @Override
+    @Transactional
+    public void recordVetoed(WorkflowJobExecution execution) {
+        execution.setStatus(ExecutionStatus.VETOED);
+        execution.setCompletedOn(execution.getFiredOn());
+        executionRepository.save(execution);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowJobExecution> getHistory(String jobName, int limit) {
+        return executionRepository.findByJobNameOrderByFiredOnDesc(jobName, PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowJobExecution> getRunningStartedBefore(LocalDateTime firedBefore) {
+        return executionRepository.findByStatusAndFiredOnLessThanOrderByFiredOn(ExecutionStatus.RUNNING, firedBefore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowJobExecution> getFailedSince(LocalDateTime firedFrom) {
+        return executionRepository.findByStatusAndFiredOnGreaterThanEqualOrderByFiredOnDesc(ExecutionStatus.FAILED, firedFrom);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobExecutionStatisticsDto getStatistics(String jobName, LocalDateTime since) {
+        LocalDateTime bucketFrom = since.truncatedTo(ChronoUnit.HOURS);
+        List<WorkflowJobExecutionRollup> rollups = jobName != null
+            ? rollupRepository.findByJobNameAndBucketStartGreaterThanEqual(jobName, bucketFrom)
+            : rollupRepository.findByBucketStartGreaterThanEqual(bucketFrom);
+
+        JobExecutionStatisticsDto statistics = new JobExecutionStatisticsDto(jobName, bucketFrom);
+        Set<String> jobs = new HashSet<>();
+        for (WorkflowJobExecutionRollup rollup : rollups) {
+            statistics.setTotalExecutions(statistics.getTotalExecutions() + rollup.getExecutions());
+            statistics.setFailedExecutions(statistics.getFailedExecutions() + rollup.getFailures());
+            statistics.setTotalDurationMs(statistics.getTotalDurationMs() + rollup.getTotalDurationMs());
+            statistics.setMaxDurationMs(Math.max(statistics.getMaxDurationMs(), rollup.getMaxDurationMs()));
+            statistics.setTotalStartDelayMs(statistics.getTotalStartDelayMs() + rollup.getTotalStartDelayMs());
+            statistics.setInstancesCreated(statistics.getInstancesCreated() + rollup.getInstancesCreated());
+            jobs.add(rollup.getJobGroup() + "." + rollup.getJobName());
+        }
+        statistics.setJobCount(jobs.size());
+        return statistics;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countRunning() {
+        return executionRepository.countByStatus(ExecutionStatus.RUNNING);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countRunningStartedBefore(LocalDateTime firedBefore) {
+        return executionRepository.countByStatusAndFiredOnLessThan(ExecutionStatus.RUNNING, firedBefore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countFailedJobsSince(LocalDateTime firedFrom) {
+        return executionRepository.countJobsByStatusSince(ExecutionStatus.FAILED, firedFrom);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.workflow.job-history.prune-cron:0 15 3 * * ?}")
+    @Transactional
+    public void pruneHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        int executions = executionRepository.deleteFiredBefore(now.minusDays(retentionDays));
+        int rollups = rollupRepository.deleteBucketsBefore(now.minusDays(rollupRetentionDays).truncatedTo(ChronoUnit.HOURS));
+        if (executions > 0 || rollups > 0) {
+            logger.info("Pruned {} job execution(s) and {} hourly rollup(s) past retention", executions, rollups);
+        }
+    }
+
+    private void addToRollup(TransactionTemplate writeTransaction, WorkflowJobExecution execution) {
+        LocalDateTime bucketStart = execution.getFiredOn().truncatedTo(ChronoUnit.HOURS);
+        boolean failed = execution.getStatus() == ExecutionStatus.FAILED;
+        long durationMs = execution.getDurationMs();
+        long startDelayMs = execution.getStartDelayMs() != null ? Math.max(0, execution.getStartDelayMs()) : 0;
+        int instancesCreated = execution.getInstancesCreated() != null ? execution.getInstancesCreated() : 0;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTransaction.executeWithoutResult(status -> {
+                    int updated = rollupRepository.addExecution(execution.getJobName(), execution.getJobGroup(), bucketStart,
+                        failed ? 1 : 0, durationMs, startDelayMs, instancesCreated);
+                    if (updated == 0) {
+                        WorkflowJobExecutionRollup rollup = new WorkflowJobExecutionRollup(
+                            execution.getJobName(), execution.getJobGroup(), bucketStart);
+                        rollup.add(failed, durationMs, startDelayMs, instancesCreated);
+                        rollupRepository.saveAndFlush(rollup);
+                    }
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= ROLLUP_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Rollup for {} at {} was created concurrently, adding to it", execution.getJobName(), bucketStart);
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
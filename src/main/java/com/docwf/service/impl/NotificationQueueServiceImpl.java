@@ -0,0 +1,183 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.WorkflowNotification;
+import com.docwf.entity.WorkflowNotification.DeliveryStatus;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.repository.InLists;
+import com.docwf.repository.WorkflowNotificationRepository;
+import com.docwf.repository.WorkflowUserRepository;
+import com.docwf.service.NotificationQueueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationQueueServiceImpl implements NotificationQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationQueueServiceImpl.class);
+
+    private static final Set<DeliveryStatus> CLAIMABLE_STATUSES = EnumSet.of(DeliveryStatus.PENDING, DeliveryStatus.SENDING);
+
+    @Autowired
+    private WorkflowNotificationRepository notificationRepository;
+
+    @Autowired
+    private WorkflowUserRepository userRepository;
+
+    @Value("${app.workflow.notification.dedup-window-mins:60}")
+    private long dedupWindowMins;
+
+    @Value("${app.workflow.notification.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    @Value("${app.workflow.notification.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.workflow.notification.retry-backoff-ms:60000}")
+    private long retryBackoffMs;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int enqueue(List<WorkflowNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> emailByUserId = new LinkedHashMap<>();
+        List<Long> recipientIds = notifications.stream()
+                .map(WorkflowNotification::getRecipientId)
+                .distinct()
+                .collect(Collectors.toList());
+        for (List<Long> idChunk : InLists.chunks(recipientIds)) {
+            for (WorkflowUser user : userRepository.findAllById(idChunk)) {
+                if (user.getEmail() != null && !user.getEmail().isBlank()) {
+                    emailByUserId.put(user.getUserId(), user.getEmail());
+                }
+            }
+        }
+
+        // Later duplicates within the same call collapse onto the first
+        long window = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) / 60 / Math.max(1, dedupWindowMins);
+        Map<String, WorkflowNotification> byDedupKey = new LinkedHashMap<>();
+        for (WorkflowNotification notification : notifications) {
+            String email = emailByUserId.get(notification.getRecipientId());
+            if (email == null) {
+                logger.warn("Not queueing {} notification for user {} without an email address",
+                        notification.getNotificationType(), notification.getRecipientId());
+                continue;
+            }
+            notification.setRecipientEmail(email);
+            notification.setDedupKey(dedupKey(notification, window));
+            byDedupKey.putIfAbsent(notification.getDedupKey(), notification);
+        }
+
+        List<String> dedupKeys = new ArrayList<>(byDedupKey.keySet());
+        Set<String> existing = new HashSet<>();
+        for (List<String> keyChunk : InLists.chunks(dedupKeys)) {
+            existing.addAll(notificationRepository.findExistingDedupKeys(keyChunk));
+        }
+
+        List<WorkflowNotification> queued = byDedupKey.values().stream()
+                .filter(notification -> !existing.contains(notification.getDedupKey()))
+                .collect(Collectors.toList());
+        notificationRepository.saveAll(queued);
+
+        logger.debug("Queued {} of {} notification(s), {} already queued in this window",
+                queued.size(), notifications.size(), existing.size());
+        return queued.size();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<WorkflowNotification> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = notificationRepository.findDueIds(CLAIMABLE_STATUSES, now, PageRequest.of(0, limit));
+        if (dueIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<WorkflowNotification> claimed = notificationRepository.lockDue(dueIds, CLAIMABLE_STATUSES, now);
+        LocalDateTime leaseExpiry = now.plus(Duration.ofMillis(claimLeaseMs));
+        for (WorkflowNotification notification : claimed) {
+            if (notification.getStatus() == DeliveryStatus.SENDING) {
+                logger.warn("Reclaiming notification {} after its delivery lease expired", notification.getNotificationId());
+            }
+            notification.setStatus(DeliveryStatus.SENDING);
+            notification.setAttempts(notification.getAttempts() + 1);
+            notification.setNextAttemptOn(leaseExpiry);
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSent(Collection<Long> notificationIds) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WorkflowNotification notification : notificationRepository.findAllById(notificationIds)) {
+            notification.setStatus(DeliveryStatus.SENT);
+            notification.setSentOn(now);
+            notification.setLastError(null);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(Map<Long, String> errorsByNotificationId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WorkflowNotification notification : notificationRepository.findAllById(errorsByNotificationId.keySet())) {
+            notification.setLastError(truncate(errorsByNotificationId.get(notification.getNotificationId())));
+            if (notification.getAttempts() >= maxAttempts) {
+                logger.error("Giving up on notification {} after {} attempts: {}",
+                        notification.getNotificationId(), notification.getAttempts(), notification.getLastError());
+                notification.setStatus(DeliveryStatus.FAILED);
+            } else {
+                // Double the delay per attempt, capped at one hour
+                long delayMs = Math.min(retryBackoffMs << Math.min(notification.getAttempts() - 1, 20),
+                        Duration.ofHours(1).toMillis());
+                notification.setStatus(DeliveryStatus.PENDING);
+                notification.setNextAttemptOn(now.plus(Duration.ofMillis(delayMs)));
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markCancelled(Long notificationId, String reason) {
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            notification.setStatus(DeliveryStatus.CANCELLED);
+            notification.setLastError(truncate(reason));
+        });
+    }
+
+    /**
+     * Task notifications are deduplicated per task, instance-level ones per instance
+     */
+    private static String dedupKey(WorkflowNotification notification, long window) {
+        String subject = notification.getInstanceTaskId() != null
+                ? "T" + notification.getInstanceTaskId()
+                : "I" + notification.getInstanceId();
+        return notification.getNotificationType() + ":" + subject + ":U" + notification.getRecipientId() + ":" + window;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
@@ -8,6 +8,8 @@ import com.docwf.repository.WorkflowRoleRepository;
 import com.docwf.repository.WorkflowUserRepository;
 import com.docwf.repository.WorkflowConfigRoleRepository;
 import com.docwf.service.RoleService;
+import com.docwf.service.WorkflowPlanService;
+import com.docwf.service.TaskAssignmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +34,12 @@ public class RoleServiceImpl implements RoleService {
     @Autowired
     private WorkflowConfigRoleRepository configRoleRepository;
     
+    @Autowired
+    private WorkflowPlanService planService;
+    
+    @Autowired
+    private TaskAssignmentService assignmentService;
+    
     @Override
     public WorkflowRoleDto createRole(WorkflowRoleDto roleDto) {
         WorkflowRole role = new WorkflowRole();
@@ -122,6 +130,9 @@ public class RoleServiceImpl implements RoleService {
         existingRole.setUpdatedOn(LocalDateTime.now());
         
         WorkflowRole updatedRole = roleRepository.save(existingRole);
+        // Compiled workflow plans and assignment candidates are keyed by role name
+        planService.evictAll();
+        assignmentService.evictCandidates();
         return convertToDto(updatedRole);
     }
     
@@ -131,6 +142,7 @@ public class RoleServiceImpl implements RoleService {
             throw new RuntimeException("Role not found with ID: " + roleId);
         }
         roleRepository.deleteById(roleId);
+        assignmentService.evictCandidates();
     }
     
     @Override
@@ -208,6 +220,7 @@ public class RoleServiceImpl implements RoleService {
         
         if (existingAssignment != null) {
             configRoleRepository.delete(existingAssignment);
+            assignmentService.evictCandidates();
         } else {
             throw new RuntimeException("User does not have this role assigned");
         }
@@ -0,0 +1,106 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.WorkflowUser;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowUserRepository;
+import com.docwf.service.TaskAssignmentService;
+import com.docwf.service.assignment.TaskAssignmentStrategy;
+import com.docwf.service.assignment.UserWorkloadIndex;
+import com.docwf.service.plan.WorkflowPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class TaskAssignmentServiceImpl implements TaskAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskAssignmentServiceImpl.class);
+
+    @Autowired
+    private WorkflowUserRepository userRepository;
+
+    @Autowired
+    private UserWorkloadIndex workloadIndex;
+
+    private final TaskAssignmentStrategy strategy;
+
+    /**
+     * Active user IDs per role name, in ascending order
+     */
+    private final ConcurrentHashMap<String, List<Long>> candidatesByRole = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    @Autowired
+    public TaskAssignmentServiceImpl(List<TaskAssignmentStrategy> strategies,
+                                     @Value("${app.workflow.assignment.strategy:least-loaded}") String strategyName) {
+        this.strategy = strategies.stream()
+                .filter(candidate -> candidate.getName().equals(strategyName))
+                .findFirst()
+                .orElseThrow(() -> new WorkflowException("Unknown task assignment strategy: " + strategyName));
+        logger.info("Using '{}' task assignment strategy", strategyName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long selectAssignee(WorkflowPlan.TaskNode task) {
+        if (task.getRoleName() == null) {
+            return null;
+        }
+
+        List<Long> candidates = getCandidates(task.getRoleName());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return strategy.selectAssignee(candidates, task, workloadIndex);
+    }
+
+    @Override
+    public void evictCandidates() {
+        invalidate();
+
+        // A concurrent reader may reload pre-commit membership until this
+        // transaction completes, so drop the cache again once it has
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate();
+                }
+            });
+        }
+    }
+
+    private void invalidate() {
+        evictionCount.incrementAndGet();
+        candidatesByRole.clear();
+    }
+
+    private List<Long> getCandidates(String roleName) {
+        List<Long> cached = candidatesByRole.get(roleName);
+        if (cached != null) {
+            return cached;
+        }
+
+        long evictionSnapshot = evictionCount.get();
+        List<Long> loaded = userRepository.findUsersByRoleName(roleName).stream()
+                .filter(user -> "Y".equals(user.getIsActive()))
+                .map(WorkflowUser::getUserId)
+                .sorted()
+                .toList();
+
+        // Skip caching if membership was evicted while loading
+        candidatesByRole.compute(roleName, (name, current) ->
+                evictionCount.get() == evictionSnapshot ? loaded : current);
+        return loaded;
+    }
+}
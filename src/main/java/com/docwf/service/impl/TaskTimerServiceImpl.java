@@ -0,0 +1,280 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.WorkflowInstance;
+import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowInstanceTaskTransition.TransitionEvent;
+import com.docwf.entity.WorkflowNotification;
+import com.docwf.entity.WorkflowNotification.NotificationType;
+import com.docwf.entity.WorkflowTaskTimer;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.repository.InLists;
+import com.docwf.repository.WorkflowTaskTimerRepository;
+import com.docwf.service.NotificationQueueService;
+import com.docwf.service.TaskTimerService;
+import com.docwf.service.WorkflowPlanService;
+import com.docwf.service.assignment.UserWorkloadIndex;
+import com.docwf.service.plan.WorkflowPlan;
+import com.docwf.service.timer.DueTimerQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class TaskTimerServiceImpl implements TaskTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTimerServiceImpl.class);
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    // A queued timer may fire a moment before its sub-millisecond due time
+    private static final long FIRE_TOLERANCE_SECONDS = 1;
+
+    private static final Set<TaskInstanceStatus> WAITING_STATUSES =
+            EnumSet.of(TaskInstanceStatus.PENDING, TaskInstanceStatus.IN_PROGRESS);
+
+    @Autowired
+    private WorkflowTaskTimerRepository timerRepository;
+
+    @Autowired
+    private WorkflowPlanService planService;
+
+    @Autowired
+    private NotificationQueueService notificationQueueService;
+
+    @Autowired
+    private DueTimerQueue dueTimerQueue;
+
+    @Value("${app.workflow.timers.overdue-after-mins:60}")
+    private long overdueAfterMins;
+
+    @Value("${app.workflow.timers.attention-after-mins:120}")
+    private long attentionAfterMins;
+
+    @Value("${app.workflow.timers.retention-days:30}")
+    private long retentionDays;
+
+    @Override
+    public void onTransition(WorkflowInstanceTask instanceTask, TransitionEvent event) {
+        switch (event) {
+            case CREATE:
+                // Only a task assigned on creation is waiting on anybody yet
+                if (instanceTask.getAssignedTo() != null) {
+                    scheduleActivationTimers(instanceTask, planFor(instanceTask), LocalDateTime.now());
+                }
+                break;
+            case ACTIVATE:
+                // Reactivating an assigned task starts its waiting deadlines over
+                timerRepository.cancelScheduled(instanceTask.getInstanceTaskId());
+                scheduleActivationTimers(instanceTask, planFor(instanceTask), LocalDateTime.now());
+                break;
+            case START:
+                scheduleStartTimers(instanceTask, planFor(instanceTask), LocalDateTime.now());
+                break;
+            case REOPEN:
+                // The task's deadlines start over when it is activated again
+                timerRepository.cancelScheduled(instanceTask.getInstanceTaskId());
+                break;
+            default:
+                // Timers for finished tasks are cancelled when they fire
+                break;
+        }
+    }
+
+    @Override
+    public int fireTimers(Collection<Long> timerIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueBy = now.plusSeconds(FIRE_TOLERANCE_SECONDS);
+        List<Long> ids = new ArrayList<>(timerIds);
+        List<WorkflowNotification> notifications = new ArrayList<>();
+        int cancelled = 0;
+
+        for (List<Long> idChunk : InLists.chunks(ids)) {
+            for (WorkflowTaskTimer timer : timerRepository.findWithTaskByIds(idChunk)) {
+                // Already handled elsewhere, or offered ahead of time
+                if (timer.getStatus() != WorkflowTaskTimer.TimerStatus.SCHEDULED || timer.getDueOn().isAfter(dueBy)) {
+                    continue;
+                }
+
+                WorkflowNotification notification = toNotification(timer);
+                if (notification != null) {
+                    timer.setStatus(WorkflowTaskTimer.TimerStatus.FIRED);
+                    timer.setFiredOn(now);
+                    notifications.add(notification);
+                } else {
+                    timer.setStatus(WorkflowTaskTimer.TimerStatus.CANCELLED);
+                    cancelled++;
+                }
+            }
+        }
+
+        int queued = notificationQueueService.enqueue(notifications);
+        logger.debug("Fired {} timer(s), cancelled {}, queued {} notification(s)",
+                notifications.size(), cancelled, queued);
+        return queued;
+    }
+
+    @Override
+    public int fireDueTimers(NotificationType timerType) {
+        return fireTimers(timerRepository.findDueIdsByType(timerType, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int loadUpcomingTimers() {
+        List<Object[]> upcoming = timerRepository.findScheduledDueBefore(dueTimerQueue.getHorizonEnd());
+        for (Object[] row : upcoming) {
+            dueTimerQueue.offer((Long) row[0], (LocalDateTime) row[1]);
+        }
+        logger.debug("Loaded {} upcoming timer(s), {} queued in memory", upcoming.size(), dueTimerQueue.size());
+        return upcoming.size();
+    }
+
+    @Override
+    public int backfillTimers() {
+        int backfilled = 0;
+        Long afterId = 0L;
+        List<WorkflowInstanceTask> tasks;
+        do {
+            tasks = timerRepository.findOpenTasksWithoutTimers(UserWorkloadIndex.OPEN_STATUSES, afterId,
+                    PageRequest.of(0, BACKFILL_PAGE_SIZE));
+            for (WorkflowInstanceTask task : tasks) {
+                WorkflowPlan plan = planFor(task);
+                LocalDateTime startedOn = task.getStartedOn() != null ? task.getStartedOn() : LocalDateTime.now();
+                backfilled += scheduleActivationTimers(task, plan, startedOn);
+                if (task.getStatus() == TaskInstanceStatus.IN_PROGRESS) {
+                    backfilled += scheduleStartTimers(task, plan, startedOn);
+                }
+                afterId = task.getInstanceTaskId();
+            }
+        } while (tasks.size() == BACKFILL_PAGE_SIZE);
+
+        if (backfilled > 0) {
+            logger.info("Backfilled {} timer(s) for tasks started before timers existed", backfilled);
+        }
+        return backfilled;
+    }
+
+    @Override
+    public int purgeFinishedTimers() {
+        // DUE_ON is set on every timer and indexed with STATUS; cancelled timers have no FIRED_ON
+        int purged = timerRepository.deleteFinishedDueBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} fired or cancelled timer(s) past retention", purged);
+        }
+        return purged;
+    }
+
+    private int scheduleActivationTimers(WorkflowInstanceTask task, WorkflowPlan plan, LocalDateTime activatedOn) {
+        int scheduled = 0;
+        if (plan.getDueInMins() != null && plan.getReminderBeforeDueMins() != null) {
+            // Reminders count down to the instance's due time, not the task's
+            WorkflowInstance instance = task.getWorkflowInstance();
+            LocalDateTime instanceStartedOn = instance.getStartedOn() != null ? instance.getStartedOn() : activatedOn;
+            scheduled += schedule(task, NotificationType.REMINDER,
+                    instanceStartedOn.plusMinutes(plan.getDueInMins() - plan.getReminderBeforeDueMins()));
+        }
+        if (attentionAfterMins > 0) {
+            scheduled += schedule(task, NotificationType.ATTENTION, activatedOn.plusMinutes(attentionAfterMins));
+        }
+        return scheduled;
+    }
+
+    private int scheduleStartTimers(WorkflowInstanceTask task, WorkflowPlan plan, LocalDateTime startedOn) {
+        int scheduled = 0;
+        if (plan.getEscalationAfterMins() != null) {
+            scheduled += schedule(task, NotificationType.ESCALATION, startedOn.plusMinutes(plan.getEscalationAfterMins()));
+        }
+        if (overdueAfterMins > 0) {
+            scheduled += schedule(task, NotificationType.OVERDUE, startedOn.plusMinutes(overdueAfterMins));
+        }
+        return scheduled;
+    }
+
+    private int schedule(WorkflowInstanceTask task, NotificationType timerType, LocalDateTime dueOn) {
+        WorkflowTaskTimer timer = timerRepository.save(new WorkflowTaskTimer(task, timerType, dueOn));
+        dueTimerQueue.offerAfterCommit(timer.getTimerId(), dueOn);
+        return 1;
+    }
+
+    /**
+     * Build the notification a timer stands for, or null if its task no longer
+     * needs it or there is nobody to notify
+     */
+    private WorkflowNotification toNotification(WorkflowTaskTimer timer) {
+        WorkflowInstanceTask task = timer.getInstanceTask();
+        WorkflowInstance instance = task.getWorkflowInstance();
+        WorkflowUser assignee = task.getAssignedTo();
+        WorkflowPlan plan = planFor(task);
+        String taskName = taskName(task, plan);
+        String where = "Task '" + taskName + "' in workflow '" + plan.getName() + "' (instance " + instance.getInstanceId() + ")";
+
+        switch (timer.getTimerType()) {
+            case REMINDER:
+                if (assignee == null || !UserWorkloadIndex.OPEN_STATUSES.contains(task.getStatus())) {
+                    return null;
+                }
+                return notification(timer, assignee, "Reminder: " + taskName + " is due soon",
+                        where + " is assigned to you and the workflow is due within " +
+                                plan.getReminderBeforeDueMins() + " minutes.");
+            case ATTENTION:
+                if (assignee == null || !WAITING_STATUSES.contains(task.getStatus())) {
+                    return null;
+                }
+                return notification(timer, assignee, "Needs attention: " + taskName,
+                        where + " has been waiting for more than " + attentionAfterMins + " minutes.");
+            case OVERDUE:
+                if (assignee == null || task.getStatus() != TaskInstanceStatus.IN_PROGRESS) {
+                    return null;
+                }
+                return notification(timer, assignee, "Overdue: " + taskName,
+                        where + " has been in progress for more than " + overdueAfterMins + " minutes.");
+            case ESCALATION:
+                if (task.getStatus() != TaskInstanceStatus.IN_PROGRESS) {
+                    return null;
+                }
+                // Escalation goes to the assignee's escalation contact, falling back to the instance's
+                WorkflowUser target = assignee != null ? assignee.getEscalationTo() : null;
+                if (target == null) {
+                    target = instance.getEscalatedTo();
+                }
+                if (target == null) {
+                    logger.warn("Task {} is overdue but has no escalation target", taskName);
+                    return null;
+                }
+                return notification(timer, target, "Escalated: " + taskName,
+                        where + " has been in progress for more than " + plan.getEscalationAfterMins() +
+                                " minutes and has been escalated to you.");
+            default:
+                return null;
+        }
+    }
+
+    private static WorkflowNotification notification(WorkflowTaskTimer timer, WorkflowUser recipient,
+                                                     String subject, String body) {
+        WorkflowInstanceTask task = timer.getInstanceTask();
+        return new WorkflowNotification(timer.getTimerType(), task.getWorkflowInstance().getInstanceId(),
+                task.getInstanceTaskId(), recipient.getUserId(), subject, body);
+    }
+
+    private WorkflowPlan planFor(WorkflowInstanceTask task) {
+        return planService.getPlan(task.getWorkflowInstance().getWorkflow().getWorkflowId());
+    }
+
+    private static String taskName(WorkflowInstanceTask task, WorkflowPlan plan) {
+        WorkflowPlan.TaskNode node = plan.getTask(task.getTask().getTaskId());
+        return node != null ? node.getName() : String.valueOf(task.getTask().getTaskId());
+    }
+}
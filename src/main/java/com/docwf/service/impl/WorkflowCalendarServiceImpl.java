@@ -3,42 +3,76 @@ package com.docwf.service.impl;
 import com.docwf.dto.WorkflowCalendarDto;
 import com.docwf.dto.WorkflowCalendarDayDto;
 import com.docwf.dto.CreateCalendarWithDaysDto;
+import com.docwf.dto.CalendarDayImportResultDto;
 import com.docwf.entity.WorkflowCalendar;
 import com.docwf.entity.WorkflowCalendarDay;
 import com.docwf.exception.WorkflowException;
 import com.docwf.repository.WorkflowCalendarRepository;
 import com.docwf.repository.WorkflowCalendarDayRepository;
+import com.docwf.repository.WorkflowConfigRepository;
 import com.docwf.service.WorkflowCalendarService;
+import com.docwf.service.CalendarBitmapService;
 import com.docwf.service.CalendarSchedulerService;
+import com.docwf.service.calendar.CalendarBitmap;
+import com.docwf.service.calendar.CalendarDayImportReader;
 import com.docwf.config.CalendarSchedulerConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
     
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowCalendarServiceImpl.class);
+    
+    private static final int MAX_NOTE_LENGTH = 255;
+    
+    private static final int MAX_IMPORT_ERRORS = 100;
+    
     @Autowired
     private WorkflowCalendarRepository calendarRepository;
     
     @Autowired
     private WorkflowCalendarDayRepository calendarDayRepository;
     
+    @Autowired
+    private WorkflowConfigRepository workflowConfigRepository;
+    
     @Autowired
     private CalendarSchedulerConfig calendarSchedulerConfig;
     
     @Autowired
     private CalendarSchedulerService calendarSchedulerService;
     
+    @Autowired
+    private CalendarBitmapService calendarBitmapService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.workflow.calendar.import-chunk-size:1000}")
+    private int importChunkSize;
+    
     @Override
     public WorkflowCalendarDto createCalendar(WorkflowCalendarDto calendarDto) {
         WorkflowCalendar calendar = new WorkflowCalendar(
@@ -198,6 +232,7 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
         calendar.setUpdatedBy(calendarDto.getUpdatedBy());
         
         WorkflowCalendar updatedCalendar = calendarRepository.save(calendar);
+        calendarBitmapService.evict(calendarId);
         
         // Update the schedule
         updateCalendarSchedule(updatedCalendar);
@@ -215,6 +250,7 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
         unscheduleCalendarWorkflow(calendarId);
         
         calendarRepository.deleteById(calendarId);
+        calendarBitmapService.evict(calendarId);
     }
     
     @Override
@@ -230,6 +266,7 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
         );
         
         WorkflowCalendarDay savedDay = calendarDayRepository.save(calendarDay);
+        calendarBitmapService.evict(calendarId);
         return convertToDayDto(savedDay);
     }
     
@@ -248,6 +285,7 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
             .collect(Collectors.toList());
         
         List<WorkflowCalendarDay> savedDays = calendarDayRepository.saveAll(calendarDays);
+        calendarBitmapService.evict(calendarId);
         return savedDays.stream()
             .map(this::convertToDayDto)
             .collect(Collectors.toList());
@@ -279,41 +317,32 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
         calendarDay.setNote(dayDto.getNote());
         
         WorkflowCalendarDay updatedDay = calendarDayRepository.save(calendarDay);
+        calendarBitmapService.evict(updatedDay.getCalendar().getCalendarId());
         return convertToDayDto(updatedDay);
     }
     
     @Override
     public void deleteCalendarDay(Long dayId) {
-        if (!calendarDayRepository.existsById(dayId)) {
-            throw new WorkflowException("Calendar day not found with ID: " + dayId);
-        }
-        calendarDayRepository.deleteById(dayId);
+        WorkflowCalendarDay calendarDay = calendarDayRepository.findById(dayId)
+            .orElseThrow(() -> new WorkflowException("Calendar day not found with ID: " + dayId));
+        calendarDayRepository.delete(calendarDay);
+        calendarBitmapService.evict(calendarDay.getCalendar().getCalendarId());
     }
     
     @Override
     @Transactional(readOnly = true)
     public boolean isDateValid(Long calendarId, LocalDate date) {
-        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
-        if (calendarOpt.isEmpty()) {
-            return false;
-        }
-        
-        WorkflowCalendar calendar = calendarOpt.get();
-        return calendar.isDateValid(date);
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.isValid(date))
+            .orElse(false);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<LocalDate> getValidDates(Long calendarId, LocalDate startDate, LocalDate endDate) {
-        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
-        if (calendarOpt.isEmpty()) {
-            return List.of();
-        }
-        
-        WorkflowCalendar calendar = calendarOpt.get();
-        return startDate.datesUntil(endDate.plusDays(1))
-            .filter(calendar::isDateValid)
-            .collect(Collectors.toList());
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.getValidDates(startDate, endDate))
+            .orElse(List.of());
     }
     
     @Override
@@ -337,63 +366,120 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
     @Override
     @Transactional(readOnly = true)
     public boolean canExecuteWorkflow(Long calendarId, LocalDate date) {
-        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
-        if (calendarOpt.isEmpty()) {
-            return false;
-        }
-        
-        WorkflowCalendar calendar = calendarOpt.get();
-        return calendar.canExecuteWorkflow(date);
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.canExecute(date))
+            .orElse(false);
     }
     
     @Override
     @Transactional(readOnly = true)
     public LocalDate getNextValidDate(Long calendarId, LocalDate fromDate) {
-        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
-        if (calendarOpt.isEmpty()) {
-            return null;
-        }
-        
-        WorkflowCalendar calendar = calendarOpt.get();
-        LocalDate currentDate = fromDate.plusDays(1);
-        
-        while (currentDate.isBefore(calendar.getEndDate().plusDays(1))) {
-            if (calendar.isDateValid(currentDate)) {
-                return currentDate;
-            }
-            currentDate = currentDate.plusDays(1);
-        }
-        
-        return null;
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.getNextValidDate(fromDate))
+            .orElse(null);
     }
     
     @Override
     @Transactional(readOnly = true)
     public LocalDate getPreviousValidDate(Long calendarId, LocalDate fromDate) {
-        Optional<WorkflowCalendar> calendarOpt = calendarRepository.findById(calendarId);
-        if (calendarOpt.isEmpty()) {
-            return null;
-        }
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.getPreviousValidDate(fromDate))
+            .orElse(null);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDate getNthBusinessDayOfMonth(Long calendarId, YearMonth month, int n) {
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.getNthValidDateOfMonth(month, n))
+            .orElse(null);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public int countBusinessDaysBetween(Long calendarId, LocalDate startDate, LocalDate endDate) {
+        return calendarBitmapService.getBitmap(calendarId)
+            .map(bitmap -> bitmap.countValidDates(startDate, endDate))
+            .orElse(0);
+    }
+    
+    @Override
+    public List<WorkflowCalendarDayDto> addCalendarDaysBatch(Long calendarId, List<WorkflowCalendarDayDto> daysDto) {
+        // One calendar lookup and one batched saveAll, not a round trip per day
+        return addCalendarDays(calendarId, daysDto);
+    }
+    
+    @Override
+    public CalendarDayImportResultDto importCalendarDays(Long calendarId, InputStream content,
+                                                         CalendarDayImportReader.Format format, String defaultDayType) {
+        WorkflowCalendar calendar = calendarRepository.findById(calendarId)
+            .orElseThrow(() -> new WorkflowException("Calendar not found with ID: " + calendarId));
         
-        WorkflowCalendar calendar = calendarOpt.get();
-        LocalDate currentDate = fromDate.minusDays(1);
+        // Date and type of every day already on the calendar, packed as epochDay * 2 + type
+        Set<Long> seen = new HashSet<>();
+        for (Object[] row : calendarDayRepository.findDatesAndTypesByCalendarId(calendarId)) {
+            seen.add(dayKey((LocalDate) row[0], (String) row[1]));
+        }
         
-        while (currentDate.isAfter(calendar.getStartDate().minusDays(1))) {
-            if (calendar.isDateValid(currentDate)) {
-                return currentDate;
+        CalendarDayImportResultDto result = new CalendarDayImportResultDto(calendarId, format.name());
+        List<WorkflowCalendarDay> pending = new ArrayList<>(importChunkSize);
+        CalendarDayImportReader.read(content, format, defaultDayType, new CalendarDayImportReader.DayHandler() {
+            @Override
+            public void accept(int row, LocalDate dayDate, String dayType, String note) {
+                String type = dayType == null ? null : dayType.toUpperCase(Locale.ROOT);
+                if (!"HOLIDAY".equals(type) && !"RUNDAY".equals(type)) {
+                    reject(row, "Day type must be HOLIDAY or RUNDAY, was '" + dayType + "'");
+                    return;
+                }
+                if (note != null && note.length() > MAX_NOTE_LENGTH) {
+                    reject(row, "Note is longer than " + MAX_NOTE_LENGTH + " characters");
+                    return;
+                }
+                if (!seen.add(dayKey(dayDate, type))) {
+                    result.setDuplicates(result.getDuplicates() + 1);
+                    return;
+                }
+                
+                pending.add(new WorkflowCalendarDay(calendar, dayDate, type, note));
+                if (pending.size() >= importChunkSize) {
+                    flushImportedDays(pending, result);
+                }
+            }
+            
+            @Override
+            public void reject(int row, String reason) {
+                if (result.getErrors().size() < MAX_IMPORT_ERRORS) {
+                    result.getErrors().add("Row " + row + ": " + reason);
+                }
+                result.setRejected(result.getRejected() + 1);
             }
-            currentDate = currentDate.minusDays(1);
+        });
+        flushImportedDays(pending, result);
+        result.setReceived(result.getImported() + result.getDuplicates() + result.getRejected());
+        
+        calendarBitmapService.evict(calendarId);
+        logger.info("Imported {} day(s) into calendar {} from {}: {} duplicate(s), {} rejected",
+            result.getImported(), calendarId, format, result.getDuplicates(), result.getRejected());
+        return result;
+    }
+    
+    /**
+     * Insert a chunk of imported days as JDBC batches and detach them, so a
+     * large upload does not grow the persistence context
+     */
+    private void flushImportedDays(List<WorkflowCalendarDay> pending, CalendarDayImportResultDto result) {
+        if (pending.isEmpty()) {
+            return;
         }
-        
-        return null;
+        calendarDayRepository.saveAll(pending);
+        entityManager.flush();
+        entityManager.clear();
+        result.setImported(result.getImported() + pending.size());
+        pending.clear();
     }
     
-    @Override
-    public List<WorkflowCalendarDayDto> addCalendarDaysBatch(Long calendarId, List<WorkflowCalendarDayDto> daysDto) {
-        return daysDto.stream()
-            .map(dayDto -> addCalendarDays(calendarId, List.of(dayDto)))
-            .flatMap(List::stream)
-            .collect(Collectors.toList());
+    private static long dayKey(LocalDate dayDate, String dayType) {
+        return dayDate.toEpochDay() * 2 + ("RUNDAY".equals(dayType) ? 1 : 0);
     }
     
     @Override
@@ -498,10 +584,9 @@ public class WorkflowCalendarServiceImpl implements WorkflowCalendarService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Long> getWorkflowIdsForCalendar(Long calendarId) {
-        // This would need to be implemented based on your workflow-calendar relationship
-        // For now, returning empty list - you'll need to implement this based on your data model
-        return List.of();
+        return workflowConfigRepository.findActiveWorkflowIdsByCalendarId(calendarId);
     }
     
     @Override
@@ -13,6 +13,8 @@ import com.docwf.exception.WorkflowException;
 import com.docwf.repository.*;
 import com.docwf.service.WorkflowConfigService;
 import com.docwf.service.WorkflowConfigTaskFileDependencyService;
+import com.docwf.service.WorkflowPlanService;
+import com.docwf.service.TaskAssignmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -63,6 +65,12 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
     @Autowired
     private TaskDecisionOutcomeRepository taskDecisionOutcomeRepository;
     
+    @Autowired
+    private WorkflowPlanService planService;
+    
+    @Autowired
+    private TaskAssignmentService assignmentService;
+    
     @Override
     public WorkflowConfigDto createWorkflow(WorkflowConfigDto workflowDto) {
         // Validate unique name
@@ -191,6 +199,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         workflow.setUpdatedOn(LocalDateTime.now());
         
         WorkflowConfig savedWorkflow = workflowRepository.save(workflow);
+        planService.evict(workflowId);
         return convertToDto(savedWorkflow);
     }
     
@@ -210,6 +219,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         }
         
         workflowRepository.delete(workflow);
+        planService.evict(workflowId);
     }
     
     @Override
@@ -296,6 +306,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         workflow.setUpdatedOn(LocalDateTime.now());
         
         WorkflowConfig savedWorkflow = workflowRepository.save(workflow);
+        planService.evict(workflowId);
         return convertToDto(savedWorkflow);
     }
     
@@ -318,6 +329,8 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         configRole.setIsActive(roleDto.getIsActive() != null ? roleDto.getIsActive() : "Y");
         
         WorkflowConfigRole savedConfigRole = configRoleRepository.save(configRole);
+        // Role membership feeds task assignment
+        assignmentService.evictCandidates();
         return convertToRoleDto(savedConfigRole);
     }
     
@@ -340,6 +353,8 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         }
         
         WorkflowConfigRole savedConfigRole = configRoleRepository.save(configRole);
+        // Role membership feeds task assignment
+        assignmentService.evictCandidates();
         return convertToRoleDto(savedConfigRole);
     }
     
@@ -349,6 +364,8 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
                 .orElseThrow(() -> new WorkflowException("Workflow config role not found with ID: " + configRoleId));
         
         configRoleRepository.delete(configRole);
+        // Role membership feeds task assignment
+        assignmentService.evictCandidates();
     }
     
     // Workflow Task Management
@@ -364,6 +381,11 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         task.setSequenceOrder(taskDto.getSequenceOrder());
         task.setExpectedCompletion(taskDto.getExpectedCompletion());
         task.setEscalationRules(taskDto.getEscalationRules());
+        task.setParentTaskIds(taskDto.getParentTaskIds());
+        task.setParallelTaskIds(taskDto.getParallelTaskIds());
+        if (taskDto.getCanRunInParallel() != null) {
+            task.setCanRunInParallel(taskDto.getCanRunInParallel());
+        }
         
         if (taskDto.getRoleId() != null) {
             WorkflowRole role = roleRepository.findById(taskDto.getRoleId())
@@ -372,6 +394,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         }
         
         WorkflowConfigTask savedTask = configTaskRepository.save(task);
+        planService.evict(workflowId);
         return convertToTaskDto(savedTask);
     }
     
@@ -404,6 +427,15 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         if (taskDto.getEscalationRules() != null) {
             task.setEscalationRules(taskDto.getEscalationRules());
         }
+        if (taskDto.getParentTaskIds() != null) {
+            task.setParentTaskIds(taskDto.getParentTaskIds());
+        }
+        if (taskDto.getParallelTaskIds() != null) {
+            task.setParallelTaskIds(taskDto.getParallelTaskIds());
+        }
+        if (taskDto.getCanRunInParallel() != null) {
+            task.setCanRunInParallel(taskDto.getCanRunInParallel());
+        }
         
         if (taskDto.getRoleId() != null) {
             WorkflowRole role = roleRepository.findById(taskDto.getRoleId())
@@ -412,6 +444,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         }
         
         WorkflowConfigTask savedTask = configTaskRepository.save(task);
+        planService.evict(savedTask.getWorkflow().getWorkflowId());
         return convertToTaskDto(savedTask);
     }
     
@@ -421,6 +454,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
                 .orElseThrow(() -> new WorkflowException("Task not found with ID: " + taskId));
         
         configTaskRepository.delete(task);
+        planService.evict(task.getWorkflow().getWorkflowId());
     }
     
     @Override
@@ -442,6 +476,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
             task.setSequenceOrder(i + 1);
             configTaskRepository.save(task);
         }
+        planService.evict(workflowId);
         
         return getWorkflowTasks(workflowId);
     }
@@ -541,6 +576,9 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         dto.setSequenceOrder(task.getSequenceOrder());
         dto.setExpectedCompletion(task.getExpectedCompletion());
         dto.setEscalationRules(task.getEscalationRules());
+        dto.setParentTaskIds(task.getParentTaskIds());
+        dto.setParallelTaskIds(task.getParallelTaskIds());
+        dto.setCanRunInParallel(task.getCanRunInParallel());
         
         if (task.getRole() != null) {
             dto.setRoleId(task.getRole().getRoleId());
@@ -821,6 +859,7 @@ public class WorkflowConfigServiceImpl implements WorkflowConfigService {
         
         WorkflowConfig savedWorkflow = workflowRepository.save(workflow);
         WorkflowConfigDto createdWorkflow = convertToDto(savedWorkflow);
+        planService.evict(savedWorkflow.getWorkflowId());
         
         // Create roles with sequence mapping
         Map<Integer, Long> roleSequenceToIdMap = new HashMap<>();
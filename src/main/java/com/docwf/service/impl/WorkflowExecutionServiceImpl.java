@@ -3,6 +3,7 @@ package com.docwf.service.impl;
 import com.docwf.dto.WorkflowInstanceDto;
 import com.docwf.dto.WorkflowInstanceTaskDto;
 import com.docwf.dto.TaskInstanceDecisionOutcomeDto;
+import com.docwf.dto.TaskTransitionDto;
 import com.docwf.dto.WorkflowProgressDto;
 import com.docwf.dto.WorkflowInstanceStatsDto;
 import com.docwf.dto.UserWorkloadDto;
@@ -24,18 +25,43 @@ import com.docwf.dto.AdminDashboardDto;
 import com.docwf.dto.WorkflowUserDto;
 import com.docwf.dto.ProcessOwnerWorkloadDto;
 import com.docwf.dto.ProcessOwnerPerformanceDto;
+import com.docwf.dto.BulkWorkflowStartResultDto;
 import com.docwf.entity.*;
 import com.docwf.exception.WorkflowException;
 import com.docwf.repository.*;
+import com.docwf.service.TaskTimerService;
 import com.docwf.service.WorkflowExecutionService;
 import com.docwf.service.WorkflowCalendarService;
+import com.docwf.service.WorkflowPlanService;
+import com.docwf.service.TaskAssignmentService;
+import com.docwf.service.assignment.UserWorkloadIndex;
+import com.docwf.service.concurrency.RetryOnConflict;
+import com.docwf.service.plan.WorkflowPlan;
+import com.docwf.service.plan.WorkflowPlanSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import org.slf4j.Logger;
@@ -49,7 +75,7 @@ import java.time.LocalDate;
 public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     
     private static final Logger logger = LoggerFactory.getLogger(WorkflowExecutionServiceImpl.class);
-
+    
     @Autowired
     private WorkflowInstanceRepository instanceRepository;
     
@@ -71,13 +97,45 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     @Autowired
     private WorkflowCalendarService calendarService;
     
+    @Autowired
+    private WorkflowCalendarRepository calendarRepository;
+    
+    @Autowired
+    private WorkflowCalendarRunRepository calendarRunRepository;
+    
+    @Autowired
+    private WorkflowPlanService planService;
+    
+    @Autowired
+    private TaskAssignmentService assignmentService;
+    
+    @Autowired
+    private UserWorkloadIndex workloadIndex;
+    
+    @Autowired
+    private WorkflowInstanceTaskTransitionRepository transitionRepository;
+    
+    @Autowired
+    private TaskTimerService taskTimerService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${app.workflow.system-user-id:1}")
+    private Long systemUserId;
+    
+    @Value("${app.workflow.bulk-start.chunk-size:200}")
+    private int bulkStartChunkSize;
+    
     @Override
     public WorkflowInstanceDto startWorkflow(Long workflowId, Long startedByUserId) {
         // Validate workflow exists and is active
-        WorkflowConfig workflow = workflowRepository.findById(workflowId)
-                .orElseThrow(() -> new WorkflowException("Workflow not found with ID: " + workflowId));
+        WorkflowPlan plan = planService.getPlan(workflowId);
         
-        if (!"Y".equals(workflow.getIsActive())) {
+        if (!plan.isActive()) {
             throw new WorkflowException("Workflow is not active: " + workflowId);
         }
         
@@ -87,7 +145,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         
         // Create workflow instance
         WorkflowInstance instance = new WorkflowInstance();
-        instance.setWorkflow(workflow);
+        instance.setWorkflow(workflowRepository.getReferenceById(workflowId));
         instance.setStatus(WorkflowInstance.InstanceStatus.PENDING);
         instance.setStartedBy(startedByUser);
         instance.setStartedOn(LocalDateTime.now());
@@ -95,23 +153,9 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         WorkflowInstance savedInstance = instanceRepository.save(instance);
         
         // Create instance tasks for all workflow tasks
-        List<WorkflowConfigTask> configTasks = configTaskRepository.findByWorkflowWorkflowIdOrderBySequenceOrder(workflowId);
-        for (WorkflowConfigTask configTask : configTasks) {
-            WorkflowInstanceTask instanceTask = new WorkflowInstanceTask();
-            instanceTask.setWorkflowInstance(savedInstance);
-            instanceTask.setTask(configTask);
-            instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
-            instanceTask.setStartedOn(LocalDateTime.now());
-            
-            // Assign first task to the user who started the workflow
-            if (configTask.getSequenceOrder() == 1) {
-                instanceTask.setAssignedTo(startedByUser);
-            }
-            
-            instanceTaskRepository.save(instanceTask);
-        }
+        createInstanceTasks(savedInstance, plan, startedByUser);
         
-        return convertToInstanceDto(savedInstance);
+        return convertToInstanceDto(savedInstance, plan);
     }
     
     @Override
@@ -139,6 +183,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceDto updateInstanceStatus(Long instanceId, String status) {
         WorkflowInstance instance = instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
@@ -154,19 +199,20 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceDto completeWorkflowInstance(Long instanceId) {
         WorkflowInstance instance = instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
         
         // Check if all tasks are completed
-        List<WorkflowInstanceTask> tasks = instanceTaskRepository.findByWorkflowInstanceInstanceId(instanceId);
-        boolean allCompleted = tasks.stream()
-                .allMatch(task -> WorkflowInstanceTask.TaskInstanceStatus.COMPLETED.equals(task.getStatus()));
-        
-        if (!allCompleted) {
+        ensureTaskCounts(instance);
+        if (!instance.getCompletedTasks().equals(instance.getTotalTasks())) {
             throw new WorkflowException("Cannot complete workflow. Not all tasks are completed.");
         }
         
+        // Fails at commit if any task changed after the counters were read above
+        lockInstance(instance);
+        
         instance.setStatus(WorkflowInstance.InstanceStatus.COMPLETED);
         instance.setCompletedOn(LocalDateTime.now());
         
@@ -175,6 +221,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceDto cancelWorkflowInstance(Long instanceId) {
         WorkflowInstance instance = instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
@@ -186,6 +233,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceDto escalateWorkflowInstance(Long instanceId, Long escalatedToUserId) {
         WorkflowInstance instance = instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
@@ -216,6 +264,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto assignTask(Long instanceTaskId, Long userId) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
@@ -223,13 +272,14 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         WorkflowUser user = userRepository.findById(userId)
                 .orElseThrow(() -> new WorkflowException("User not found with ID: " + userId));
         
-        instanceTask.setAssignedTo(user);
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.ASSIGN, user, instanceTask.getTask().getTaskPriority(), null);
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(instanceTask);
         return convertToInstanceTaskDto(savedTask);
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto startTask(Long instanceTaskId) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
@@ -238,7 +288,8 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
             throw new WorkflowException("Task must be assigned before starting");
         }
         
-        instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.IN_PROGRESS);
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.START, instanceTask.getAssignedTo(),
+                instanceTask.getTask().getTaskPriority(), null);
         instanceTask.setStartedOn(LocalDateTime.now());
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(instanceTask);
@@ -246,19 +297,24 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto completeTask(Long instanceTaskId, String decisionOutcome) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
         
-        instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.COMPLETED);
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.COMPLETE, instanceTask.getAssignedTo(),
+                instanceTask.getTask().getTaskPriority(), decisionOutcome);
         instanceTask.setCompletedOn(LocalDateTime.now());
         instanceTask.setDecisionOutcome(decisionOutcome);
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(instanceTask);
         
-        // Try to move to next task
+        // Activate every task this completion unblocks
         try {
-            executeNextTask(instanceTask.getWorkflowInstance().getInstanceId());
+            activateReadyTasks(instanceTask.getWorkflowInstance().getInstanceId());
+        } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+            // Let the caller retry the whole completion
+            throw e;
         } catch (Exception e) {
             // Log error but don't fail the task completion
             // Add proper logging
@@ -270,11 +326,13 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto failTask(Long instanceTaskId, String reason) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
         
-        instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.FAILED);
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.FAIL, instanceTask.getAssignedTo(),
+                instanceTask.getTask().getTaskPriority(), reason);
         instanceTask.setDecisionOutcome("FAILED: " + reason);
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(instanceTask);
@@ -282,6 +340,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto escalateTask(Long instanceTaskId, Long escalatedToUserId) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
@@ -289,8 +348,8 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         WorkflowUser escalatedToUser = userRepository.findById(escalatedToUserId)
                 .orElseThrow(() -> new WorkflowException("User not found with ID: " + escalatedToUserId));
         
-        instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.ESCALATED);
-        instanceTask.setAssignedTo(escalatedToUser);
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.ESCALATE, escalatedToUser,
+                instanceTask.getTask().getTaskPriority(), null);
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(instanceTask);
         return convertToInstanceTaskDto(savedTask);
@@ -323,18 +382,22 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     
     // Task Decision Management
     @Override
+    @RetryOnConflict
     public TaskInstanceDecisionOutcomeDto recordDecisionOutcome(Long instanceTaskId, String outcomeName, String createdBy) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
         
+        return convertToDecisionOutcomeDto(saveDecisionOutcome(instanceTask, outcomeName, createdBy));
+    }
+    
+    private TaskInstanceDecisionOutcome saveDecisionOutcome(WorkflowInstanceTask instanceTask, String outcomeName, String createdBy) {
         TaskInstanceDecisionOutcome outcome = new TaskInstanceDecisionOutcome();
         outcome.setInstanceTask(instanceTask);
         outcome.setOutcomeName(outcomeName);
         outcome.setCreatedBy(createdBy);
         outcome.setCreatedAt(LocalDateTime.now());
         
-        TaskInstanceDecisionOutcome savedOutcome = decisionOutcomeRepository.save(outcome);
-        return convertToDecisionOutcomeDto(savedOutcome);
+        return decisionOutcomeRepository.save(outcome);
     }
     
     @Override
@@ -347,98 +410,351 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
-    public WorkflowInstanceTaskDto processDecisionOutcome(Long instanceTaskId, String outcomeName) {
-        // Record the decision outcome
-        recordDecisionOutcome(instanceTaskId, outcomeName, "system");
+    @Transactional(readOnly = true)
+    public List<TaskTransitionDto> getTaskTransitions(Long instanceTaskId) {
+        return transitionRepository.findByInstanceTaskId(instanceTaskId)
+                .stream()
+                .map(this::convertToTransitionDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskTransitionDto> getInstanceTransitions(Long instanceId) {
+        return transitionRepository.findByInstanceId(instanceId)
+                .stream()
+                .map(this::convertToTransitionDto)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    @RetryOnConflict
+    public List<WorkflowInstanceTaskDto> replayInstanceTransitions(Long instanceId) {
+        WorkflowInstance instance = instanceRepository.findById(instanceId)
+                .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
+        WorkflowPlan plan = planService.getPlan(instance.getWorkflow().getWorkflowId());
+        
+        // Fold the log into the latest status and assignee of each task
+        Map<Long, WorkflowInstanceTask.TaskInstanceStatus> replayedStatus = new HashMap<>();
+        Map<Long, Long> replayedAssignee = new HashMap<>();
+        for (WorkflowInstanceTaskTransition transition : transitionRepository.findByInstanceId(instanceId)) {
+            Long instanceTaskId = transition.getInstanceTask().getInstanceTaskId();
+            WorkflowInstanceTask.TaskInstanceStatus current = replayedStatus.get(instanceTaskId);
+            if (!transition.getEvent().isAllowedFrom(current)) {
+                logger.warn("Transition {} applies {} to instance task {} in status {}",
+                    transition.getTransitionId(), transition.getEvent(), instanceTaskId, current);
+            }
+            replayedStatus.put(instanceTaskId, transition.getEvent().resultingStatus(current));
+            replayedAssignee.put(instanceTaskId, transition.getAssignedTo());
+        }
         
-        // Process the decision and move to next task
+        List<WorkflowInstanceTaskDto> corrected = new ArrayList<>();
+        for (WorkflowInstanceTask task : instanceTaskRepository.findByWorkflowInstanceInstanceId(instanceId)) {
+            Long instanceTaskId = task.getInstanceTaskId();
+            if (!replayedStatus.containsKey(instanceTaskId)) {
+                // Created before the transition log existed
+                continue;
+            }
+            
+            WorkflowInstanceTask.TaskInstanceStatus status = replayedStatus.get(instanceTaskId);
+            Long assigneeId = replayedAssignee.get(instanceTaskId);
+            Long currentAssigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getUserId() : null;
+            if (status == task.getStatus() && Objects.equals(assigneeId, currentAssigneeId)) {
+                continue;
+            }
+            
+            logger.warn("Instance task {} was {}/{} but its transition log replays to {}/{}",
+                instanceTaskId, task.getStatus(), currentAssigneeId, status, assigneeId);
+            WorkflowPlan.TaskNode node = plan.getTask(task.getTask().getTaskId());
+            workloadIndex.recordTransition(currentAssigneeId, task.getStatus(), assigneeId, status,
+                    node != null ? node.getTaskPriority() : null);
+            if (status != task.getStatus()) {
+                ensureTaskCounts(instance);
+                instance.countTaskTransition(task.getStatus(), status);
+            }
+            task.setStatus(status);
+            task.setAssignedTo(assigneeId != null ? userRepository.getReferenceById(assigneeId) : null);
+            corrected.add(convertToInstanceTaskDto(task, plan));
+        }
+        return corrected;
+    }
+    
+    @Override
+    @RetryOnConflict
+    public WorkflowInstanceTaskDto processDecisionOutcome(Long instanceTaskId, String outcomeName) {
         WorkflowInstanceTask instanceTask = instanceTaskRepository.findById(instanceTaskId)
                 .orElseThrow(() -> new WorkflowException("Instance task not found with ID: " + instanceTaskId));
         
-        Long instanceId = instanceTask.getWorkflowInstance().getInstanceId();
-        return executeNextTask(instanceId);
+        // Record the decision outcome
+        TaskInstanceDecisionOutcome outcome = saveDecisionOutcome(instanceTask, outcomeName, "system");
+        
+        WorkflowInstance instance = instanceTask.getWorkflowInstance();
+        WorkflowPlan plan = planService.getPlan(instance.getWorkflow().getWorkflowId());
+        WorkflowPlan.TaskNode decisionNode = plan.getTask(instanceTask.getTask().getTaskId());
+        WorkflowPlan.DecisionRoute route = decisionNode != null ? decisionNode.getDecisionRoute(outcomeName) : null;
+        
+        if (route == null) {
+            // No routing configured for this outcome, continue in sequence order
+            return executeNextTask(instance.getInstanceId());
+        }
+        
+        Map<Long, WorkflowInstanceTask> instanceTasksByTaskId = instanceTaskRepository
+                .findByWorkflowInstanceInstanceId(instance.getInstanceId())
+                .stream()
+                .collect(Collectors.toMap(task -> task.getTask().getTaskId(), task -> task, (first, second) -> first));
+        
+        // Reopen the tasks this outcome sends back for revision
+        for (Long revisionTaskId : route.getRevisionTaskIds()) {
+            WorkflowInstanceTask revisionTask = instanceTasksByTaskId.get(revisionTaskId);
+            if (revisionTask != null) {
+                reopenTask(revisionTask, plan);
+            }
+        }
+        
+        WorkflowInstanceTask targetTask = route.getTargetTaskId() != null
+                ? instanceTasksByTaskId.get(route.getTargetTaskId()) : null;
+        if (targetTask == null) {
+            return executeNextTask(instance.getInstanceId());
+        }
+        
+        outcome.setNextInstanceTask(targetTask);
+        reopenTask(targetTask, plan);
+        return activateTask(targetTask, plan);
     }
     
     // Workflow Execution Logic
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto executeNextTask(Long instanceId) {
-        // Find the next pending task
-        Optional<WorkflowInstanceTask> nextTaskOpt = instanceTaskRepository.findFirstPendingTask(instanceId);
-        if (nextTaskOpt.isEmpty()) {
-            // Check if workflow is complete
-            if (isWorkflowComplete(instanceId)) {
-                updateInstanceStatus(instanceId, "COMPLETED");
-            }
+        WorkflowInstance instance = instanceRepository.findById(instanceId)
+                .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
+        WorkflowPlan plan = planService.getPlan(instance.getWorkflow().getWorkflowId());
+        
+        List<WorkflowInstanceTaskDto> activated = activateReadyTasks(instance, plan, true);
+        if (activated.isEmpty()) {
             throw new WorkflowException("No pending tasks found for instance: " + instanceId);
         }
+        return activated.get(0);
+    }
+    
+    @Override
+    @RetryOnConflict
+    public List<WorkflowInstanceTaskDto> activateReadyTasks(Long instanceId) {
+        WorkflowInstance instance = instanceRepository.findById(instanceId)
+                .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
+        WorkflowPlan plan = planService.getPlan(instance.getWorkflow().getWorkflowId());
         
-        WorkflowInstanceTask nextTask = nextTaskOpt.get();
+        return activateReadyTasks(instance, plan, false);
+    }
+    
+    /**
+     * Activate all ready tasks in sequence order and complete the instance once
+     * nothing is left to run. Already assigned tasks are only reassigned when
+     * reassign is set, which keeps repeated activation idempotent.
+     */
+    private List<WorkflowInstanceTaskDto> activateReadyTasks(WorkflowInstance instance, WorkflowPlan plan, boolean reassign) {
+        ensureTaskCounts(instance);
+        
+        // Only pending tasks can become ready, so skip loading the tasks when there are none
+        List<WorkflowInstanceTask> readyTasks = instance.getPendingTasks() > 0
+                ? findReadyTasks(instanceTaskRepository.findByWorkflowInstanceInstanceId(instance.getInstanceId()), plan)
+                : new ArrayList<>();
         
-        if (nextTask != null) {
-            // Assign the next task to a user based on role
-            if (nextTask.getTask().getRole() != null) {
-                // Find users with this role in the workflow
-                // Implement role-based assignment logic
-                List<WorkflowUser> usersWithRole = userRepository.findUsersByRoleName(nextTask.getTask().getRole().getRoleName());
+        if (readyTasks.isEmpty()) {
+            if (allTasksFinished(instance) && instance.getStatus() != WorkflowInstance.InstanceStatus.COMPLETED) {
+                instance.setStatus(WorkflowInstance.InstanceStatus.COMPLETED);
+                instance.setCompletedOn(LocalDateTime.now());
+            }
+            return new ArrayList<>();
+        }
+        
+        List<WorkflowInstanceTaskDto> activated = new ArrayList<>();
+        for (WorkflowInstanceTask readyTask : readyTasks) {
+            if (reassign || readyTask.getAssignedTo() == null) {
+                activated.add(activateTask(readyTask, plan));
+            }
+        }
+        if (activated.size() > 1) {
+            logger.info("Activated {} parallel tasks for instance {}", activated.size(), instance.getInstanceId());
+        }
+        return activated;
+    }
+    
+    /**
+     * Pending tasks whose plan dependencies have all completed, in sequence order.
+     * Dependencies are resolved through the compiled plan rather than a join
+     * against WORKFLOW_CONFIG_TASK.
+     */
+    private List<WorkflowInstanceTask> findReadyTasks(List<WorkflowInstanceTask> tasks, WorkflowPlan plan) {
+        Map<Long, WorkflowInstanceTask.TaskInstanceStatus> statusByTaskId = new HashMap<>();
+        for (WorkflowInstanceTask task : tasks) {
+            statusByTaskId.put(task.getTask().getTaskId(), task.getStatus());
+        }
+        
+        return tasks.stream()
+                .filter(task -> WorkflowInstanceTask.TaskInstanceStatus.PENDING.equals(task.getStatus()))
+                .filter(task -> dependenciesCompleted(task.getTask().getTaskId(), statusByTaskId, plan))
+                .sorted(Comparator.<WorkflowInstanceTask>comparingInt(task -> {
+                            WorkflowPlan.TaskNode node = plan.getTask(task.getTask().getTaskId());
+                            return node != null ? node.getSequenceOrder() : Integer.MAX_VALUE;
+                        })
+                        .thenComparing(WorkflowInstanceTask::getInstanceTaskId))
+                .collect(Collectors.toList());
+    }
+    
+    private static boolean dependenciesCompleted(Long taskId, Map<Long, WorkflowInstanceTask.TaskInstanceStatus> statusByTaskId,
+                                                 WorkflowPlan plan) {
+        return plan.getDependencyTaskIds(taskId).stream()
+                .allMatch(parentId -> !statusByTaskId.containsKey(parentId) ||
+                        WorkflowInstanceTask.TaskInstanceStatus.COMPLETED.equals(statusByTaskId.get(parentId)));
+    }
+    
+    private WorkflowInstanceTaskDto activateTask(WorkflowInstanceTask nextTask, WorkflowPlan plan) {
+        WorkflowPlan.TaskNode node = plan.getTask(nextTask.getTask().getTaskId());
+        String taskName = node != null ? node.getName() : String.valueOf(nextTask.getTask().getTaskId());
+        String roleName = node != null ? node.getRoleName() : null;
+        String taskPriority = node != null ? node.getTaskPriority() : null;
+        
+        // Assign the next task to a user based on role
+        if (roleName != null) {
+            // Pick one of the role's users with the configured assignment strategy
+            Long assignedUserId = assignmentService.selectAssignee(node);
+            
+            if (assignedUserId != null) {
+                transitionTask(nextTask, WorkflowInstanceTaskTransition.TransitionEvent.ACTIVATE,
+                        userRepository.getReferenceById(assignedUserId), taskPriority, null);
+                nextTask.setStartedOn(LocalDateTime.now());
                 
-                if (!usersWithRole.isEmpty()) {
-                    // Simple round-robin assignment - in production, you might want more sophisticated logic
-                    WorkflowUser assignedUser = usersWithRole.get(0);
-                    nextTask.setAssignedTo(assignedUser);
-                    nextTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
-                    nextTask.setStartedOn(LocalDateTime.now());
-                    
-                    logger.info("Assigned task {} to user {} based on role {}", 
-                        nextTask.getTask().getName(), assignedUser.getUsername(), 
-                        nextTask.getTask().getRole().getRoleName());
-                } else {
-                    logger.warn("No users found with role {} for task {}", 
-                        nextTask.getTask().getRole().getRoleName(), nextTask.getTask().getName());
-                    nextTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
-                }
+                logger.info("Assigned task {} to user {} based on role {}", 
+                    taskName, assignedUserId, roleName);
             } else {
-                // No role specified, leave unassigned
-                nextTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
-                logger.info("Task {} has no role specified, leaving unassigned", nextTask.getTask().getName());
+                logger.warn("No users found with role {} for task {}", roleName, taskName);
+                transitionTask(nextTask, WorkflowInstanceTaskTransition.TransitionEvent.ACTIVATE, nextTask.getAssignedTo(), taskPriority, null);
             }
+        } else {
+            // No role specified, leave unassigned
+            transitionTask(nextTask, WorkflowInstanceTaskTransition.TransitionEvent.ACTIVATE, nextTask.getAssignedTo(), taskPriority, null);
+            logger.info("Task {} has no role specified, leaving unassigned", taskName);
         }
         
-        return convertToInstanceTaskDto(nextTask);
+        return convertToInstanceTaskDto(nextTask, plan);
+    }
+    
+    private void reopenTask(WorkflowInstanceTask instanceTask, WorkflowPlan plan) {
+        WorkflowPlan.TaskNode node = plan.getTask(instanceTask.getTask().getTaskId());
+        transitionTask(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.REOPEN, instanceTask.getAssignedTo(),
+                node != null ? node.getTaskPriority() : null, null);
+        instanceTask.setCompletedOn(null);
+    }
+    
+    /**
+     * Single write path for an instance task's status and assignee. The event is
+     * checked against the task state machine, appended to the transition log and
+     * mirrored into the workload index, so assignment never has to count open
+     * tasks in the database.
+     */
+    private void transitionTask(WorkflowInstanceTask instanceTask, WorkflowInstanceTaskTransition.TransitionEvent event,
+                                WorkflowUser assignee, String taskPriority, String detail) {
+        transitionRepository.save(applyTransition(instanceTask, event, assignee, taskPriority, detail));
+    }
+    
+    /**
+     * Bump the instance version at commit. Task transitions on one instance read
+     * sibling task state to decide what runs next, so any two of them running
+     * concurrently must conflict even when they touch different task rows.
+     */
+    private void lockInstance(WorkflowInstance instance) {
+        entityManager.lock(instance, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+    
+    /**
+     * Apply a transition to the task and return its unsaved log row. Used directly
+     * where the task itself is not persisted yet, since a log row cannot be
+     * saved before the task it references.
+     */
+    private WorkflowInstanceTaskTransition applyTransition(WorkflowInstanceTask instanceTask,
+                                                           WorkflowInstanceTaskTransition.TransitionEvent event,
+                                                           WorkflowUser assignee, String taskPriority, String detail) {
+        Long fromUserId = instanceTask.getAssignedTo() != null ? instanceTask.getAssignedTo().getUserId() : null;
+        WorkflowInstanceTask.TaskInstanceStatus fromStatus =
+                event == WorkflowInstanceTaskTransition.TransitionEvent.CREATE ? null : instanceTask.getStatus();
+        if (!event.isAllowedFrom(fromStatus)) {
+            throw new WorkflowException("Cannot apply " + event + " to task " + instanceTask.getInstanceTaskId() +
+                    " in status " + fromStatus);
+        }
+        
+        WorkflowInstanceTask.TaskInstanceStatus toStatus = event.resultingStatus(fromStatus);
+        Long toUserId = assignee != null ? assignee.getUserId() : null;
+        
+        // A counter change dirties the instance row, which bumps its version
+        // just like the explicit lock does for same-status transitions
+        WorkflowInstance instance = instanceTask.getWorkflowInstance();
+        if (fromStatus != null) {
+            ensureTaskCounts(instance);
+        }
+        if (toStatus != fromStatus) {
+            instance.countTaskTransition(fromStatus, toStatus);
+        } else {
+            lockInstance(instance);
+        }
+        
+        instanceTask.setStatus(toStatus);
+        instanceTask.setAssignedTo(assignee);
+        // Created tasks get their timers once saved, see createInstanceTasks
+        if (event != WorkflowInstanceTaskTransition.TransitionEvent.CREATE) {
+            taskTimerService.onTransition(instanceTask, event);
+        }
+        
+        workloadIndex.recordTransition(fromUserId, fromStatus, toUserId, toStatus, taskPriority);
+        return new WorkflowInstanceTaskTransition(instanceTask, event, fromStatus, toStatus,
+                toUserId, truncate(detail, 500), LocalDateTime.now());
+    }
+    
+    /**
+     * Backfill the progress counters of an instance created before they existed.
+     * Instances started since then always count at least their created tasks.
+     */
+    private void ensureTaskCounts(WorkflowInstance instance) {
+        if (instance.getTotalTasks() > 0 || instance.getInstanceId() == null) {
+            return;
+        }
+        
+        Map<WorkflowInstanceTask.TaskInstanceStatus, Integer> countsByStatus = new HashMap<>();
+        for (Object[] row : instanceTaskRepository.countTasksByStatusForInstance(instance.getInstanceId())) {
+            countsByStatus.put((WorkflowInstanceTask.TaskInstanceStatus) row[0], ((Number) row[1]).intValue());
+        }
+        if (!countsByStatus.isEmpty()) {
+            logger.info("Backfilling task counters for instance {}: {}", instance.getInstanceId(), countsByStatus);
+            instance.resetTaskCounts(countsByStatus);
+        }
+    }
+    
+    private static boolean allTasksFinished(WorkflowInstance instance) {
+        return instance.getCompletedTasks() + instance.getFailedTasks() == instance.getTotalTasks();
+    }
+    
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
     }
     
     @Override
     @Transactional(readOnly = true)
     public boolean isWorkflowComplete(Long instanceId) {
-        List<WorkflowInstanceTask> tasks = instanceTaskRepository.findByWorkflowInstanceInstanceId(instanceId);
-        return tasks.stream()
-                .allMatch(task -> WorkflowInstanceTask.TaskInstanceStatus.COMPLETED.equals(task.getStatus()) ||
-                        WorkflowInstanceTask.TaskInstanceStatus.FAILED.equals(task.getStatus()));
+        WorkflowInstance instance = instanceRepository.findById(instanceId)
+                .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
+        ensureTaskCounts(instance);
+        return allTasksFinished(instance);
     }
     
     @Override
     public void triggerWorkflowReminders() {
-        // Implement reminder logic
-        // This would involve checking workflows that need reminders and sending notifications
+        // Reminders are timers set when a task is activated; DueTimerWorker fires them
+        // on time, so this only sweeps up any that are already due
         logger.info("Starting workflow reminder trigger");
         
         try {
-            // Get workflows that need reminders
-            List<WorkflowConfig> workflowsNeedingReminders = workflowRepository.findWorkflowsNeedingReminders();
-            
-            for (WorkflowConfig workflow : workflowsNeedingReminders) {
-                // Get active instances for this workflow
-                List<WorkflowInstance> activeInstances = instanceRepository.findByWorkflowWorkflowIdAndStatus(
-                    workflow.getWorkflowId(), WorkflowInstance.InstanceStatus.IN_PROGRESS);
-                
-                for (WorkflowInstance instance : activeInstances) {
-                    // Check if reminder is due
-                    if (shouldSendReminder(instance, workflow)) {
-                        sendReminderNotification(instance, workflow);
-                    }
-                }
-            }
-            
-            logger.info("Completed workflow reminder trigger for {} workflows", workflowsNeedingReminders.size());
+            int queued = taskTimerService.fireDueTimers(WorkflowNotification.NotificationType.REMINDER);
+            logger.info("Completed workflow reminder trigger, queued {} reminder(s)", queued);
         } catch (Exception e) {
             logger.error("Error in workflow reminder trigger", e);
         }
@@ -446,67 +762,18 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     
     @Override
     public void triggerWorkflowEscalations() {
-        // Implement escalation logic
-        // This would involve checking overdue tasks and escalating them
+        // Escalations are timers set when a task is started; NotificationDispatcher
+        // escalates the tasks and notifies the targets
         logger.info("Starting workflow escalation trigger");
         
         try {
-            // Get overdue tasks directly from repository
-            List<WorkflowInstanceTask> overdueTasks = instanceTaskRepository.findOverdueTasks(LocalDateTime.now().minusHours(1));
-            
-            for (WorkflowInstanceTask task : overdueTasks) {
-                if (shouldEscalateTask(task)) {
-                    escalateTask(task);
-                }
-            }
-            
-            logger.info("Completed workflow escalation trigger for {} overdue tasks", overdueTasks.size());
+            int queued = taskTimerService.fireDueTimers(WorkflowNotification.NotificationType.ESCALATION);
+            logger.info("Completed workflow escalation trigger, queued {} escalation(s)", queued);
         } catch (Exception e) {
             logger.error("Error in workflow escalation trigger", e);
         }
     }
     
-    private boolean shouldSendReminder(WorkflowInstance instance, WorkflowConfig workflow) {
-        if (workflow.getReminderBeforeDueMins() == null) {
-            return false;
-        }
-        
-        // Check if reminder is due based on workflow configuration
-        LocalDateTime reminderTime = instance.getStartedOn().plusMinutes(workflow.getDueInMins() - workflow.getReminderBeforeDueMins());
-        return LocalDateTime.now().isAfter(reminderTime);
-    }
-    
-    private void sendReminderNotification(WorkflowInstance instance, WorkflowConfig workflow) {
-        // This would integrate with your notification system
-        // For now, just log the reminder
-        logger.info("Sending reminder for workflow instance {} (workflow: {})", 
-            instance.getInstanceId(), workflow.getName());
-        
-        // TODO: Integrate with actual notification service
-        // notificationService.sendReminder(instance, workflow);
-    }
-    
-    private boolean shouldEscalateTask(WorkflowInstanceTask task) {
-        // Check if task has exceeded escalation threshold
-        if (task.getWorkflowInstance().getWorkflow().getEscalationAfterMins() == null) {
-            return false;
-        }
-        
-        LocalDateTime escalationTime = task.getStartedOn().plusMinutes(
-            task.getWorkflowInstance().getWorkflow().getEscalationAfterMins());
-        return LocalDateTime.now().isAfter(escalationTime);
-    }
-    
-    private void escalateTask(WorkflowInstanceTask task) {
-        // This would integrate with your escalation system
-        // For now, just log the escalation
-        logger.info("Escalating task {} for instance {}", 
-            task.getTask().getName(), task.getWorkflowInstance().getInstanceId());
-        
-        // TODO: Integrate with actual escalation service
-        // escalationService.escalateTask(task);
-    }
-    
     // Utility Methods
     @Override
     @Transactional(readOnly = true)
@@ -528,6 +795,14 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     
     // Conversion methods
     private WorkflowInstanceDto convertToInstanceDto(WorkflowInstance instance) {
+        return convertToInstanceDto(instance, null);
+    }
+    
+    /**
+     * Convert an instance, taking definition fields from the compiled plan when
+     * one is supplied so the lazy workflow association stays uninitialized
+     */
+    private WorkflowInstanceDto convertToInstanceDto(WorkflowInstance instance, WorkflowPlan plan) {
         WorkflowInstanceDto dto = new WorkflowInstanceDto();
         dto.setInstanceId(instance.getInstanceId());
         dto.setWorkflowId(instance.getWorkflow().getWorkflowId());
@@ -546,7 +821,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
             dto.setCalendarName(instance.getCalendar().getCalendarName());
         }
         
-        dto.setWorkflowName(instance.getWorkflow().getName());
+        dto.setWorkflowName(plan != null ? plan.getName() : instance.getWorkflow().getName());
         dto.setStartedByUsername(instance.getStartedBy().getUsername());
         if (instance.getEscalatedTo() != null) {
             dto.setEscalatedToUsername(instance.getEscalatedTo().getUsername());
@@ -556,6 +831,10 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     private WorkflowInstanceTaskDto convertToInstanceTaskDto(WorkflowInstanceTask instanceTask) {
+        return convertToInstanceTaskDto(instanceTask, null);
+    }
+    
+    private WorkflowInstanceTaskDto convertToInstanceTaskDto(WorkflowInstanceTask instanceTask, WorkflowPlan plan) {
         WorkflowInstanceTaskDto dto = new WorkflowInstanceTaskDto();
         dto.setInstanceTaskId(instanceTask.getInstanceTaskId());
         dto.setInstanceId(instanceTask.getWorkflowInstance().getInstanceId());
@@ -570,8 +849,14 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
             dto.setAssignedToUsername(instanceTask.getAssignedTo().getUsername());
         }
         
-        dto.setTaskName(instanceTask.getTask().getName());
-        dto.setTaskType(instanceTask.getTask().getTaskType().toString());
+        WorkflowPlan.TaskNode node = plan != null ? plan.getTask(instanceTask.getTask().getTaskId()) : null;
+        if (node != null) {
+            dto.setTaskName(node.getName());
+            dto.setTaskType(node.getTaskType().toString());
+        } else {
+            dto.setTaskName(instanceTask.getTask().getName());
+            dto.setTaskType(instanceTask.getTask().getTaskType().toString());
+        }
         
         return dto;
     }
@@ -594,26 +879,51 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         return dto;
     }
     
+    private TaskTransitionDto convertToTransitionDto(WorkflowInstanceTaskTransition transition) {
+        TaskTransitionDto dto = new TaskTransitionDto();
+        dto.setTransitionId(transition.getTransitionId());
+        dto.setInstanceId(transition.getWorkflowInstance().getInstanceId());
+        dto.setInstanceTaskId(transition.getInstanceTask().getInstanceTaskId());
+        dto.setEvent(transition.getEvent().name());
+        dto.setFromStatus(transition.getFromStatus() != null ? transition.getFromStatus().name() : null);
+        dto.setToStatus(transition.getToStatus().name());
+        dto.setAssignedTo(transition.getAssignedTo());
+        dto.setDetail(transition.getDetail());
+        dto.setOccurredOn(transition.getOccurredOn());
+        return dto;
+    }
+    
     @Override
     public WorkflowProgressDto getWorkflowProgress(Long instanceId) {
         WorkflowInstance instance = instanceRepository.findById(instanceId)
                 .orElseThrow(() -> new WorkflowException("Workflow instance not found with ID: " + instanceId));
         
-        List<WorkflowInstanceTask> tasks = instanceTaskRepository.findByWorkflowInstanceInstanceId(instanceId);
+        WorkflowPlan plan = planService.getPlan(instance.getWorkflow().getWorkflowId());
+        ensureTaskCounts(instance);
         
-        WorkflowProgressDto progress = new WorkflowProgressDto(instanceId, instance.getWorkflow().getName());
-        progress.setTotalTasks(tasks.size());
-        progress.setCompletedTasks((int) tasks.stream()
-                .filter(task -> WorkflowInstanceTask.TaskInstanceStatus.COMPLETED.equals(task.getStatus()))
-                .count());
-        progress.setPendingTasks((int) tasks.stream()
-                .filter(task -> WorkflowInstanceTask.TaskInstanceStatus.PENDING.equals(task.getStatus()))
-                .count());
-        progress.setInProgressTasks((int) tasks.stream()
-                .filter(task -> WorkflowInstanceTask.TaskInstanceStatus.IN_PROGRESS.equals(task.getStatus()))
+        WorkflowProgressDto progress = new WorkflowProgressDto(instanceId, plan.getName());
+        progress.setTotalTasks(instance.getTotalTasks());
+        progress.setCompletedTasks(instance.getCompletedTasks());
+        progress.setPendingTasks(instance.getPendingTasks());
+        progress.setInProgressTasks(instance.getInProgressTasks());
+        progress.setFailedTasks(instance.getFailedTasks());
+        
+        // Readiness and the critical path only need each task's status, not the entities
+        Map<Long, WorkflowInstanceTask.TaskInstanceStatus> statusByTaskId = new HashMap<>();
+        for (Object[] row : instanceTaskRepository.findTaskStatusesByInstanceId(instanceId)) {
+            statusByTaskId.put((Long) row[0], (WorkflowInstanceTask.TaskInstanceStatus) row[1]);
+        }
+        progress.setReadyTasks((int) statusByTaskId.entrySet().stream()
+                .filter(entry -> WorkflowInstanceTask.TaskInstanceStatus.PENDING.equals(entry.getValue()))
+                .filter(entry -> dependenciesCompleted(entry.getKey(), statusByTaskId, plan))
                 .count());
-        progress.setFailedTasks((int) tasks.stream()
-                .filter(task -> WorkflowInstanceTask.TaskInstanceStatus.FAILED.equals(task.getStatus()))
+        
+        // Wall-clock time is bounded by the longest dependency chain, not the task count
+        progress.setCriticalPathTaskIds(plan.getCriticalPathTaskIds());
+        progress.setCriticalPathLength(plan.getCriticalPathTaskIds().size());
+        progress.setCriticalPathExpectedCompletion(plan.getCriticalPathExpectedCompletion());
+        progress.setRemainingCriticalPathLength((int) plan.getCriticalPathTaskIds().stream()
+                .filter(taskId -> !WorkflowInstanceTask.TaskInstanceStatus.COMPLETED.equals(statusByTaskId.get(taskId)))
                 .count());
         
         progress.calculateProgress();
@@ -700,10 +1010,9 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     @Override
     public WorkflowInstanceDto startWorkflowWithCalendar(CreateWorkflowInstanceDto createInstanceDto) {
         // Validate workflow exists and is active
-        WorkflowConfig workflow = workflowRepository.findById(createInstanceDto.getWorkflowId())
-                .orElseThrow(() -> new WorkflowException("Workflow not found with ID: " + createInstanceDto.getWorkflowId()));
+        WorkflowPlan plan = planService.getPlan(createInstanceDto.getWorkflowId());
         
-        if (!"Y".equals(workflow.getIsActive())) {
+        if (!plan.isActive()) {
             throw new WorkflowException("Workflow is not active: " + createInstanceDto.getWorkflowId());
         }
         
@@ -733,7 +1042,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         
         // Create workflow instance
         WorkflowInstance instance = new WorkflowInstance();
-        instance.setWorkflow(workflow);
+        instance.setWorkflow(workflowRepository.getReferenceById(plan.getWorkflowId()));
         instance.setStatus(WorkflowInstance.InstanceStatus.PENDING);
         instance.setStartedBy(startedByUser);
         instance.setStartedOn(LocalDateTime.now());
@@ -742,23 +1051,182 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         WorkflowInstance savedInstance = instanceRepository.save(instance);
         
         // Create instance tasks for all workflow tasks
-        List<WorkflowConfigTask> configTasks = configTaskRepository.findByWorkflowWorkflowIdOrderBySequenceOrder(createInstanceDto.getWorkflowId());
-        for (WorkflowConfigTask configTask : configTasks) {
+        createInstanceTasks(savedInstance, plan, startedByUser);
+        
+        return convertToInstanceDto(savedInstance, plan);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkWorkflowStartResultDto startWorkflowsBulk(Long calendarId, List<Long> workflowIds, LocalDate executionDate) {
+        long startTime = System.currentTimeMillis();
+        LocalDate effectiveDate = executionDate != null ? executionDate : LocalDate.now();
+        List<Long> distinctWorkflowIds = workflowIds.stream().distinct().collect(Collectors.toList());
+        
+        BulkWorkflowStartResultDto result = new BulkWorkflowStartResultDto(calendarId, effectiveDate);
+        result.setRequestedCount(distinctWorkflowIds.size());
+        
+        // Resolve the data shared by every instance once, in a single read-only transaction
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        BulkStartContext context = readTransaction.execute(status ->
+                resolveBulkStartContext(calendarId, distinctWorkflowIds, effectiveDate));
+        
+        List<WorkflowPlan> startable = new ArrayList<>();
+        for (Long workflowId : distinctWorkflowIds) {
+            WorkflowPlan plan = context.plans.get(workflowId);
+            if (context.planFailures.containsKey(workflowId)) {
+                result.addFailed(workflowId, context.planFailures.get(workflowId));
+            } else if (plan == null) {
+                result.addFailed(workflowId, "Workflow not found with ID: " + workflowId);
+            } else if (context.alreadyStarted.contains(workflowId)) {
+                result.addSkipped(workflowId, "Already started for calendar " + calendarId + " on " + effectiveDate);
+            } else if (!plan.isActive()) {
+                result.addFailed(workflowId, "Workflow is not active: " + workflowId);
+            } else {
+                startable.add(plan);
+            }
+        }
+        
+        // Write instances in chunked transactions; a failing chunk is retried one
+        // workflow at a time so a single bad workflow does not fail its neighbours
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (List<WorkflowPlan> chunk : partition(startable, Math.max(1, bulkStartChunkSize))) {
+            try {
+                List<WorkflowInstanceDto> started = writeTransaction.execute(status -> chunk.stream()
+                        .map(plan -> createCalendarInstance(plan, context))
+                        .collect(Collectors.toList()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    result.addStarted(chunk.get(i).getWorkflowId(), started.get(i));
+                }
+            } catch (Exception e) {
+                logger.warn("Bulk start chunk of {} workflows failed for calendar {}, retrying individually: {}",
+                    chunk.size(), calendarId, e.getMessage());
+                for (WorkflowPlan plan : chunk) {
+                    try {
+                        WorkflowInstanceDto instance = writeTransaction.execute(status ->
+                                createCalendarInstance(plan, context));
+                        result.addStarted(plan.getWorkflowId(), instance);
+                    } catch (Exception itemException) {
+                        // Another job may have started it since the ledger was read; the unique key rejected this one
+                        if (calendarRunRepository.existsByCalendarIdAndEffectiveDateAndWorkflowId(
+                                calendarId, effectiveDate, plan.getWorkflowId())) {
+                            result.addSkipped(plan.getWorkflowId(), "Already started for calendar " + calendarId + " on " + effectiveDate);
+                            continue;
+                        }
+                        logger.error("Failed to start workflow {} for calendar {}", plan.getWorkflowId(), calendarId, itemException);
+                        result.addFailed(plan.getWorkflowId(), itemException.getMessage());
+                    }
+                }
+            }
+        }
+        
+        result.setDurationMs(System.currentTimeMillis() - startTime);
+        logger.info("Bulk start for calendar {} on {}: {} started, {} already started, {} failed in {} ms",
+            calendarId, effectiveDate, result.getStartedCount(), result.getSkippedCount(), result.getFailedCount(),
+            result.getDurationMs());
+        return result;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> getStartedWorkflowIds(Long calendarId, LocalDate executionDate) {
+        return new HashSet<>(calendarRunRepository.findWorkflowIdsByCalendarIdAndEffectiveDate(calendarId, executionDate));
+    }
+    
+    private BulkStartContext resolveBulkStartContext(Long calendarId, List<Long> workflowIds, LocalDate executionDate) {
+        WorkflowCalendar calendar = calendarRepository.findById(calendarId)
+                .orElseThrow(() -> new WorkflowException("Calendar not found with ID: " + calendarId));
+        if (!calendarService.canExecuteWorkflow(calendarId, executionDate)) {
+            throw new WorkflowException("Workflow cannot execute on " + executionDate + " according to calendar: " + calendarId);
+        }
+        
+        WorkflowUser startedByUser = userRepository.findById(systemUserId)
+                .orElseThrow(() -> new WorkflowException("User not found with ID: " + systemUserId));
+        
+        BulkStartContext context = new BulkStartContext(calendar, startedByUser, executionDate);
+        WorkflowPlanSet plans = planService.getPlans(workflowIds);
+        context.plans.putAll(plans.getPlans());
+        context.planFailures.putAll(plans.getFailures());
+        context.alreadyStarted.addAll(calendarRunRepository.findWorkflowIdsByCalendarIdAndEffectiveDate(calendarId, executionDate));
+        return context;
+    }
+    
+    private WorkflowInstanceDto createCalendarInstance(WorkflowPlan plan, BulkStartContext context) {
+        WorkflowInstance instance = new WorkflowInstance();
+        instance.setWorkflow(workflowRepository.getReferenceById(plan.getWorkflowId()));
+        instance.setStatus(WorkflowInstance.InstanceStatus.PENDING);
+        instance.setStartedBy(context.startedByUser);
+        instance.setStartedOn(LocalDateTime.now());
+        instance.setCalendar(context.calendar);
+        
+        WorkflowInstance savedInstance = instanceRepository.save(instance);
+        calendarRunRepository.save(new WorkflowCalendarRun(context.calendar.getCalendarId(), context.executionDate,
+            plan.getWorkflowId(), savedInstance.getInstanceId()));
+        createInstanceTasks(savedInstance, plan, context.startedByUser);
+        
+        return convertToInstanceDto(savedInstance, plan);
+    }
+    
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+    
+    /**
+     * Data shared by every instance of a bulk start, resolved once up front
+     */
+    private static class BulkStartContext {
+        private final WorkflowCalendar calendar;
+        private final WorkflowUser startedByUser;
+        private final LocalDate executionDate;
+        private final Map<Long, WorkflowPlan> plans = new LinkedHashMap<>();
+        private final Map<Long, String> planFailures = new HashMap<>();
+        private final Set<Long> alreadyStarted = new HashSet<>();
+        
+        private BulkStartContext(WorkflowCalendar calendar, WorkflowUser startedByUser, LocalDate executionDate) {
+            this.calendar = calendar;
+            this.startedByUser = startedByUser;
+            this.executionDate = executionDate;
+        }
+    }
+    
+    /**
+     * Materialize one instance task per plan task in a single batched write.
+     * IDs come from the pooled SEQ_WORKFLOW_INSTANCE_TASK allocation, so no sequence
+     * round trip is made per row, and the INSERTs (plus their CREATE transition rows) are
+     * grouped into JDBC batches on flush via hibernate.jdbc.batch_size. Config tasks
+     * are attached as uninitialized references, so nothing is read from
+     * WORKFLOW_CONFIG_TASK.
+     */
+    private List<WorkflowInstanceTask> createInstanceTasks(WorkflowInstance instance, WorkflowPlan plan,
+                                                           WorkflowUser startedByUser) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WorkflowInstanceTask> instanceTasks = new ArrayList<>(plan.getTasks().size());
+        List<WorkflowInstanceTaskTransition> transitions = new ArrayList<>(plan.getTasks().size());
+        for (WorkflowPlan.TaskNode taskNode : plan.getTasks()) {
             WorkflowInstanceTask instanceTask = new WorkflowInstanceTask();
-            instanceTask.setWorkflowInstance(savedInstance);
-            instanceTask.setTask(configTask);
-            instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
-            instanceTask.setStartedOn(LocalDateTime.now());
+            instanceTask.setWorkflowInstance(instance);
+            instanceTask.setTask(configTaskRepository.getReferenceById(taskNode.getTaskId()));
+            instanceTask.setStartedOn(now);
             
             // Assign first task to the user who started the workflow
-            if (configTask.getSequenceOrder() == 1) {
-                instanceTask.setAssignedTo(startedByUser);
-            }
+            transitions.add(applyTransition(instanceTask, WorkflowInstanceTaskTransition.TransitionEvent.CREATE,
+                    taskNode.getSequenceOrder() == 1 ? startedByUser : null, taskNode.getTaskPriority(), null));
             
-            instanceTaskRepository.save(instanceTask);
+            instanceTasks.add(instanceTask);
         }
         
-        return convertToInstanceDto(savedInstance);
+        List<WorkflowInstanceTask> savedTasks = instanceTaskRepository.saveAll(instanceTasks);
+        transitionRepository.saveAll(transitions);
+        for (WorkflowInstanceTask savedTask : savedTasks) {
+            taskTimerService.onTransition(savedTask, WorkflowInstanceTaskTransition.TransitionEvent.CREATE);
+        }
+        return savedTasks;
     }
     
     @Override
@@ -847,6 +1315,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto reassignTask(Long taskId, Long newUserId, String reason) {
         WorkflowInstanceTask task = instanceTaskRepository.findById(taskId)
                 .orElseThrow(() -> new WorkflowException("Task not found with ID: " + taskId));
@@ -854,28 +1323,30 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
         WorkflowUser newUser = userRepository.findById(newUserId)
                 .orElseThrow(() -> new WorkflowException("User not found with ID: " + newUserId));
         
+        String previousUsername = task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : "unassigned";
+        
         // Update task assignment
-        task.setAssignedTo(newUser);
+        transitionTask(task, WorkflowInstanceTaskTransition.TransitionEvent.ASSIGN, newUser, task.getTask().getTaskPriority(), reason);
         // Note: WorkflowInstanceTask doesn't have updatedOn field, removing this line
         
         // Log the reassignment
         logger.info("Task {} reassigned from {} to {} by process owner. Reason: {}", 
-            task.getTask().getName(), 
-            task.getAssignedTo() != null ? task.getAssignedTo().getUsername() : "unassigned",
-            newUser.getUsername(), reason);
+            task.getTask().getName(), previousUsername, newUser.getUsername(), reason);
         
         WorkflowInstanceTask savedTask = instanceTaskRepository.save(task);
         return convertToInstanceTaskDto(savedTask);
     }
     
     @Override
+    @RetryOnConflict
     public WorkflowInstanceTaskDto overrideTaskDecision(Long taskId, String decision, String reason) {
         WorkflowInstanceTask task = instanceTaskRepository.findById(taskId)
                 .orElseThrow(() -> new WorkflowException("Task not found with ID: " + taskId));
         
         // Override the decision with process owner authority
         task.setDecisionOutcome("OVERRIDDEN: " + decision + " (Reason: " + reason + ")");
-        task.setStatus(WorkflowInstanceTask.TaskInstanceStatus.COMPLETED);
+        transitionTask(task, WorkflowInstanceTaskTransition.TransitionEvent.OVERRIDE, task.getAssignedTo(),
+                task.getTask().getTaskPriority(), decision);
         task.setCompletedOn(LocalDateTime.now());
         // Note: WorkflowInstanceTask doesn't have updatedOn field, removing this line
         
@@ -0,0 +1,255 @@
+package com.docwf.service.impl;
+
+import com.docwf.entity.TaskDecisionOutcome;
+import com.docwf.entity.WorkflowConfig;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.InLists;
+import com.docwf.repository.TaskDecisionOutcomeRepository;
+import com.docwf.repository.WorkflowConfigRepository;
+import com.docwf.repository.WorkflowConfigTaskRepository;
+import com.docwf.service.WorkflowPlanService;
+import com.docwf.service.plan.WorkflowPlan;
+import com.docwf.service.plan.WorkflowPlanSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class WorkflowPlanServiceImpl implements WorkflowPlanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowPlanServiceImpl.class);
+
+    @Autowired
+    private WorkflowConfigRepository workflowRepository;
+
+    @Autowired
+    private WorkflowConfigTaskRepository configTaskRepository;
+
+    @Autowired
+    private TaskDecisionOutcomeRepository decisionOutcomeRepository;
+
+    private final ConcurrentHashMap<Long, WorkflowPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Per-workflow definition version, bumped on every eviction. A plan is only
+     * served or installed while its version matches, so a compile that raced
+     * with a config write can never be cached.
+     */
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictAllCount = new AtomicLong();
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowPlan getPlan(Long workflowId) {
+        WorkflowPlanSet plans = getPlans(Collections.singletonList(workflowId));
+        String failure = plans.getFailure(workflowId);
+        if (failure != null) {
+            throw new WorkflowException(failure);
+        }
+        WorkflowPlan plan = plans.get(workflowId);
+        if (plan == null) {
+            throw new WorkflowException("Workflow not found with ID: " + workflowId);
+        }
+        return plan;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkflowPlanSet getPlans(Collection<Long> workflowIds) {
+        long evictAllSnapshot = evictAllCount.get();
+        WorkflowPlanSet result = new WorkflowPlanSet();
+        Map<Long, Long> missVersions = new LinkedHashMap<>();
+
+        for (Long workflowId : workflowIds) {
+            long version = currentVersion(workflowId);
+            WorkflowPlan plan = plans.get(workflowId);
+            if (plan != null && plan.getVersion() == version) {
+                result.addPlan(plan);
+            } else {
+                missVersions.put(workflowId, version);
+            }
+        }
+
+        if (!missVersions.isEmpty()) {
+            WorkflowPlanSet compiled = compile(missVersions);
+            for (WorkflowPlan plan : compiled.getPlans().values()) {
+                result.addPlan(plan);
+                install(plan, evictAllSnapshot);
+            }
+            // Failures are not cached; the workflow is compiled again until it is fixed
+            compiled.getFailures().forEach(result::addFailure);
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(Long workflowId) {
+        invalidate(workflowId);
+
+        // A concurrent reader may recompile from pre-commit data until this
+        // transaction completes, so drop the plan again once it has
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(workflowId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        invalidateAll();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll();
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long workflowId) {
+        versions.merge(workflowId, 1L, Long::sum);
+        plans.remove(workflowId);
+    }
+
+    private void invalidateAll() {
+        evictAllCount.incrementAndGet();
+        versions.replaceAll((workflowId, version) -> version + 1);
+        plans.clear();
+    }
+
+    private long currentVersion(Long workflowId) {
+        return versions.getOrDefault(workflowId, 0L);
+    }
+
+    private void install(WorkflowPlan plan, long evictAllSnapshot) {
+        plans.compute(plan.getWorkflowId(), (workflowId, current) ->
+                currentVersion(workflowId) == plan.getVersion() && evictAllCount.get() == evictAllSnapshot
+                        ? plan : current);
+    }
+
+    private WorkflowPlanSet compile(Map<Long, Long> versionsByWorkflowId) {
+        List<Long> workflowIds = new ArrayList<>(versionsByWorkflowId.keySet());
+        WorkflowPlanSet compiled = new WorkflowPlanSet();
+
+        for (List<Long> idChunk : InLists.chunks(workflowIds)) {
+
+            Map<Long, List<WorkflowConfigTask>> tasksByWorkflow = new HashMap<>();
+            for (WorkflowConfigTask task : configTaskRepository.findWithRoleByWorkflowIds(idChunk)) {
+                tasksByWorkflow.computeIfAbsent(task.getWorkflow().getWorkflowId(), id -> new ArrayList<>()).add(task);
+            }
+
+            Map<Long, List<WorkflowPlan.DecisionRoute>> routesByTask = new HashMap<>();
+            for (TaskDecisionOutcome outcome : decisionOutcomeRepository.findByWorkflowIds(idChunk)) {
+                routesByTask.computeIfAbsent(outcome.getTask().getTaskId(), id -> new ArrayList<>())
+                        .add(compileRoute(outcome));
+            }
+
+            for (WorkflowConfig workflow : workflowRepository.findAllById(idChunk)) {
+                List<WorkflowPlan.TaskNode> nodes = new ArrayList<>();
+                for (WorkflowConfigTask task : tasksByWorkflow.getOrDefault(workflow.getWorkflowId(), List.of())) {
+                    nodes.add(compileTask(task, routesByTask.getOrDefault(task.getTaskId(), List.of())));
+                }
+                try {
+                    compiled.addPlan(new WorkflowPlan(workflow.getWorkflowId(), versionsByWorkflowId.get(workflow.getWorkflowId()),
+                            workflow.getName(), "Y".equals(workflow.getIsActive()), workflow.getCalendarId(),
+                            workflow.getDueInMins(), workflow.getReminderBeforeDueMins(),
+                            workflow.getEscalationAfterMins(), workflow.getMinutesAfterDue(), nodes));
+                } catch (WorkflowException e) {
+                    logger.warn("Could not compile plan for workflow {}: {}", workflow.getWorkflowId(), e.getMessage());
+                    compiled.addFailure(workflow.getWorkflowId(), e.getMessage());
+                }
+            }
+        }
+
+        logger.debug("Compiled {} workflow plan(s) for {} requested, {} failed", compiled.getPlans().size(),
+                workflowIds.size(), compiled.getFailures().size());
+        return compiled;
+    }
+
+    private WorkflowPlan.TaskNode compileTask(WorkflowConfigTask task, List<WorkflowPlan.DecisionRoute> routes) {
+        // When outcomes share a name the route with the best revision priority wins
+        List<WorkflowPlan.DecisionRoute> orderedRoutes = new ArrayList<>(routes);
+        orderedRoutes.sort(Comparator.comparing(WorkflowPlan.DecisionRoute::getRevisionPriority,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        return new WorkflowPlan.TaskNode(
+                task.getTaskId(),
+                task.getName(),
+                task.getTaskType(),
+                task.getSequenceOrder(),
+                task.getRole() != null ? task.getRole().getRoleId() : null,
+                task.getRole() != null ? task.getRole().getRoleName() : null,
+                task.getExpectedCompletion(),
+                task.getTaskPriority(),
+                "Y".equals(task.getIsDecisionTask()) || task.getTaskType() == WorkflowConfigTask.TaskType.DECISION,
+                "Y".equals(task.getCanRunInParallel()),
+                "Y".equals(task.getAutoEscalationEnabled()),
+                "Y".equals(task.getNotificationRequired()),
+                parseTaskIds(task.getParentTaskIds()),
+                parseTaskIds(task.getParallelTaskIds()),
+                orderedRoutes);
+    }
+
+    private WorkflowPlan.DecisionRoute compileRoute(TaskDecisionOutcome outcome) {
+        Long targetTaskId = outcome.getTargetTaskId();
+        if (targetTaskId == null && outcome.getNextTask() != null) {
+            targetTaskId = outcome.getNextTask().getTaskId();
+        }
+
+        return new WorkflowPlan.DecisionRoute(
+                outcome.getOutcomeName(),
+                targetTaskId,
+                outcome.getRevisionType(),
+                outcome.getRevisionStrategy(),
+                parseTaskIds(outcome.getRevisionTaskIds()),
+                outcome.getRevisionPriority(),
+                "Y".equals(outcome.getAutoEscalate()),
+                outcome.getEscalationRoleId());
+    }
+
+    /**
+     * Parse a comma-separated task ID column, skipping blanks and malformed entries
+     */
+    private static List<Long> parseTaskIds(String taskIds) {
+        if (taskIds == null || taskIds.isBlank()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (String token : taskIds.split(",")) {
+            String trimmed = token.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.valueOf(trimmed));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed task ID '{}' in '{}'", trimmed, taskIds);
+            }
+        }
+        return ids;
+    }
+}
@@ -5,6 +5,7 @@ import com.docwf.entity.WorkflowUser;
 import com.docwf.exception.WorkflowException;
 import com.docwf.repository.WorkflowUserRepository;
 import com.docwf.service.WorkflowUserService;
+import com.docwf.service.TaskAssignmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +24,9 @@ public class WorkflowUserServiceImpl implements WorkflowUserService {
     @Autowired
     private WorkflowUserRepository userRepository;
     
+    @Autowired
+    private TaskAssignmentService assignmentService;
+    
     @Override
     public WorkflowUserDto createUser(WorkflowUserDto userDto) {
         // Validate unique constraints
@@ -166,6 +170,8 @@ public class WorkflowUserServiceImpl implements WorkflowUserService {
         }
         
         WorkflowUser savedUser = userRepository.save(user);
+        // Only active users are assignment candidates
+        assignmentService.evictCandidates();
         return convertToDto(savedUser);
     }
     
@@ -181,6 +187,7 @@ public class WorkflowUserServiceImpl implements WorkflowUserService {
         }
         
         userRepository.delete(user);
+        assignmentService.evictCandidates();
     }
     
     @Override
@@ -235,6 +242,8 @@ public class WorkflowUserServiceImpl implements WorkflowUserService {
         user.setUpdatedOn(LocalDateTime.now());
         
         WorkflowUser savedUser = userRepository.save(user);
+        // Only active users are assignment candidates
+        assignmentService.evictCandidates();
         return convertToDto(savedUser);
     }
     
@@ -0,0 +1,102 @@
+package com.docwf.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint at /actuator/scheduler summarising the scheduler meters:
+ * trigger lag and job duration percentiles per job, misfires per group,
+ * thread saturation per scheduler and workflows handled per calendar.
+ *
+ * The same meters are available one at a time under /actuator/metrics and to
+ * any registry the deployment exports to; this puts them on one page.
+ */
+@Component
+@Endpoint(id = "scheduler")
+public class SchedulerEndpoint {
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @ReadOperation
+    public Map<String, Object> scheduler() {
+        MeterRegistry registry = schedulerMetrics.getRegistry();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("misfireThresholdMs", schedulerMetrics.getMisfireThresholdMs());
+        snapshot.put("threads", threads(registry));
+        snapshot.put("triggerLag", timers(registry, SchedulerMetrics.TRIGGER_LAG));
+        snapshot.put("jobDuration", timers(registry, SchedulerMetrics.JOB_DURATION));
+        snapshot.put("misfires", counters(registry, SchedulerMetrics.MISFIRES, "group"));
+        snapshot.put("calendarWorkflows", calendarWorkflows(registry));
+        return snapshot;
+    }
+
+    private static Map<String, Object> threads(MeterRegistry registry) {
+        Map<String, Object> threads = new TreeMap<>();
+        for (String name : List.of(SchedulerMetrics.THREADS, SchedulerMetrics.THREADS_ACTIVE, SchedulerMetrics.THREADS_UTILIZATION)) {
+            for (Gauge gauge : registry.find(name).gauges()) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> scheduler = (Map<String, Object>) threads.computeIfAbsent(
+                    gauge.getId().getTag("scheduler"), key -> new LinkedHashMap<String, Object>());
+                scheduler.put(name.substring(name.lastIndexOf('.') + 1), gauge.value());
+            }
+        }
+        return threads;
+    }
+
+    private static List<Map<String, Object>> timers(MeterRegistry registry, String name) {
+        List<Map<String, Object>> timers = new ArrayList<>();
+        for (Timer timer : registry.find(name).timers()) {
+            HistogramSnapshot histogram = timer.takeSnapshot();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            timer.getId().getTags().forEach(tag -> entry.put(tag.getKey(), tag.getValue()));
+            entry.put("count", histogram.count());
+            entry.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+            entry.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                entry.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            for (CountAtBucket bucket : histogram.histogramCounts()) {
+                entry.put("within" + Math.round(bucket.bucket(TimeUnit.MILLISECONDS)) + "Ms", (long) bucket.count());
+            }
+            timers.add(entry);
+        }
+        return timers;
+    }
+
+    private static Map<String, Object> counters(MeterRegistry registry, String name, String tag) {
+        Map<String, Object> counters = new TreeMap<>();
+        for (Counter counter : registry.find(name).counters()) {
+            counters.put(counter.getId().getTag(tag), (long) counter.count());
+        }
+        return counters;
+    }
+
+    private static Map<String, Object> calendarWorkflows(MeterRegistry registry) {
+        Map<String, Object> calendars = new TreeMap<>();
+        for (Counter counter : registry.find(SchedulerMetrics.WORKFLOWS_STARTED).counters()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> outcomes = (Map<String, Object>) calendars.computeIfAbsent(
+                counter.getId().getTag("calendar"), key -> new TreeMap<String, Object>());
+            outcomes.put(counter.getId().getTag("outcome"), (long) counter.count());
+        }
+        return calendars;
+    }
+}
@@ -0,0 +1,180 @@
+package com.docwf.service.metrics;
+
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the Quartz schedulers.
+ *
+ * Trigger lag is how late a job fired against its scheduled fire time, with a
+ * service level boundary at the job store's misfire threshold so fires that
+ * came close to misfiring are visible before they start to. Thread gauges are
+ * bound per scheduler, so the partitioner's node-local scheduler reports
+ * alongside the application one. Calendar jobs add the workflows they started,
+ * skipped and failed per calendar.
+ */
+@Component
+public class SchedulerMetrics {
+
+    public static final String TRIGGER_LAG = "workflow.scheduler.trigger.lag";
+    public static final String JOB_DURATION = "workflow.scheduler.job.duration";
+    public static final String MISFIRES = "workflow.scheduler.misfires";
+    public static final String THREADS = "workflow.scheduler.threads";
+    public static final String THREADS_ACTIVE = "workflow.scheduler.threads.active";
+    public static final String THREADS_UTILIZATION = "workflow.scheduler.threads.utilization";
+    public static final String WORKFLOWS_STARTED = "workflow.scheduler.calendar.workflows";
+
+    public static final String OUTCOME_SUCCEEDED = "succeeded";
+    public static final String OUTCOME_FAILED = "failed";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${spring.quartz.properties.org.quartz.jobStore.misfireThreshold:60000}")
+    private long misfireThresholdMs;
+
+    /**
+     * Schedulers whose thread gauges are registered, by scheduler name
+     */
+    private final Map<String, Scheduler> boundSchedulers = new ConcurrentHashMap<>();
+
+    /**
+     * Register thread pool gauges for a scheduler; later calls for the same scheduler name are ignored
+     */
+    public void bindScheduler(Scheduler scheduler) throws SchedulerException {
+        String schedulerName = scheduler.getSchedulerName();
+        if (boundSchedulers.putIfAbsent(schedulerName, scheduler) != null) {
+            return;
+        }
+        Tags tags = Tags.of("scheduler", schedulerName);
+        Gauge.builder(THREADS, scheduler, SchedulerMetrics::threadPoolSize)
+            .description("Threads in the scheduler's job thread pool")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(THREADS_ACTIVE, scheduler, SchedulerMetrics::executingJobs)
+            .description("Jobs currently executing on this node")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder(THREADS_UTILIZATION, scheduler, s -> {
+                double size = threadPoolSize(s);
+                return size > 0 ? executingJobs(s) / size : 0;
+            })
+            .description("Share of the job thread pool in use; at 1 triggers wait for a thread and lag grows")
+            .tags(tags)
+            .register(registry);
+    }
+
+    /**
+     * Record how late a job fired against its scheduled fire time
+     */
+    public void recordTriggerLag(JobExecutionContext context) {
+        Date scheduled = context.getScheduledFireTime();
+        Date fired = context.getFireTime();
+        if (scheduled == null || fired == null) {
+            return;
+        }
+        Timer.builder(TRIGGER_LAG)
+            .description("Delay between a trigger's scheduled fire time and the job starting")
+            .tags(jobTags(context))
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .serviceLevelObjectives(Duration.ofMillis(misfireThresholdMs / 2), Duration.ofMillis(misfireThresholdMs))
+            .register(registry)
+            .record(Math.max(0, fired.getTime() - scheduled.getTime()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Record how long a job ran and whether it threw
+     */
+    public void recordJobDuration(JobExecutionContext context, boolean failed) {
+        Timer.builder(JOB_DURATION)
+            .description("Time a job held its scheduler thread")
+            .tags(jobTags(context).and("outcome", failed ? OUTCOME_FAILED : OUTCOME_SUCCEEDED))
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry)
+            .record(Math.max(0, context.getJobRunTime()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count a trigger that missed its fire time by more than the misfire threshold
+     */
+    public void recordMisfire(Trigger trigger) {
+        Counter.builder(MISFIRES)
+            .description("Triggers that missed their fire time by more than the misfire threshold")
+            .tag("group", trigger.getJobKey().getGroup())
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Add a calendar job's bulk start outcome to the per-calendar counters
+     */
+    public void recordWorkflowsStarted(Long calendarId, BulkWorkflowStartResultDto result) {
+        recordWorkflowsStarted(calendarId, "started", result.getStartedCount());
+        recordWorkflowsStarted(calendarId, "skipped", result.getSkippedCount());
+        recordWorkflowsStarted(calendarId, "failed", result.getFailedCount());
+    }
+
+    /**
+     * Add workflows a calendar job handled with one outcome: started, skipped or failed
+     */
+    public void recordWorkflowsStarted(Long calendarId, String outcome, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder(WORKFLOWS_STARTED)
+            .description("Workflows handled by calendar jobs, by calendar and outcome")
+            .tag("calendar", calendarId != null ? calendarId.toString() : "none")
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment(count);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public long getMisfireThresholdMs() {
+        return misfireThresholdMs;
+    }
+
+    /**
+     * Jobs are tagged by class rather than name, since calendar jobs are named per calendar
+     */
+    private static Tags jobTags(JobExecutionContext context) {
+        return Tags.of("job", context.getJobDetail().getJobClass().getSimpleName(),
+            "group", context.getJobDetail().getKey().getGroup());
+    }
+
+    private static double threadPoolSize(Scheduler scheduler) {
+        try {
+            return scheduler.getMetaData().getThreadPoolSize();
+        } catch (SchedulerException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static double executingJobs(Scheduler scheduler) {
+        try {
+            return scheduler.isShutdown() ? 0 : scheduler.getCurrentlyExecutingJobs().size();
+        } catch (SchedulerException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.docwf.service.notification;
+
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowNotification;
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.NotificationQueueService;
+import com.docwf.service.WorkflowExecutionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers queued notifications.
+ *
+ * Each run claims due rows in chunks and hands them to a small worker pool.
+ * A worker sends its batch over one SMTP connection and records per-message
+ * delivery state. Escalations are applied to the task here, not on the
+ * scheduler thread that queued them.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationQueueService queueService;
+
+    @Autowired
+    private WorkflowExecutionService executionService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${app.workflow.notification.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.workflow.notification.from:workflow@localhost}")
+    private String fromAddress;
+
+    @Value("${app.workflow.notification.claim-size:200}")
+    private int claimSize;
+
+    @Value("${app.workflow.notification.send-batch-size:50}")
+    private int sendBatchSize;
+
+    private final ExecutorService workers;
+
+    public NotificationDispatcher(@Value("${app.workflow.notification.worker-threads:4}") int workerThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.workflow.notification.dispatch-interval-ms:5000}")
+    public void scheduledDispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            dispatchPending();
+        } catch (Exception e) {
+            logger.error("Error dispatching notifications", e);
+        }
+    }
+
+    /**
+     * Deliver everything that is due now and return the number of notifications claimed
+     */
+    public int dispatchPending() throws InterruptedException {
+        int dispatched = 0;
+        List<WorkflowNotification> claimed;
+        do {
+            claimed = queueService.claimDue(claimSize);
+
+            List<Future<?>> batches = new ArrayList<>();
+            for (int from = 0; from < claimed.size(); from += sendBatchSize) {
+                List<WorkflowNotification> batch = claimed.subList(from, Math.min(from + sendBatchSize, claimed.size()));
+                batches.add(workers.submit(() -> deliver(batch)));
+            }
+            for (Future<?> batch : batches) {
+                try {
+                    batch.get();
+                } catch (ExecutionException e) {
+                    // Claimed rows are picked up again once their lease expires
+                    logger.error("Notification batch failed", e.getCause());
+                }
+            }
+            dispatched += claimed.size();
+        } while (claimed.size() == claimSize);
+
+        if (dispatched > 0) {
+            logger.info("Dispatched {} notification(s)", dispatched);
+        }
+        return dispatched;
+    }
+
+    private void deliver(List<WorkflowNotification> batch) {
+        Map<SimpleMailMessage, Long> idByMessage = new IdentityHashMap<>();
+        for (WorkflowNotification notification : batch) {
+            if (notification.getNotificationType() == WorkflowNotification.NotificationType.ESCALATION
+                    && !applyEscalation(notification)) {
+                continue;
+            }
+            idByMessage.put(toMessage(notification), notification.getNotificationId());
+        }
+        if (idByMessage.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> failures = new LinkedHashMap<>();
+        try {
+            mailSender.send(idByMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Only the listed messages failed; the rest went out on the same connection
+            e.getFailedMessages().forEach((message, cause) -> {
+                Long notificationId = idByMessage.get(message);
+                if (notificationId != null) {
+                    failures.put(notificationId, String.valueOf(cause.getMessage()));
+                }
+            });
+            if (failures.isEmpty()) {
+                idByMessage.values().forEach(notificationId -> failures.put(notificationId, e.getMessage()));
+            }
+        } catch (MailException e) {
+            idByMessage.values().forEach(notificationId -> failures.put(notificationId, e.getMessage()));
+        }
+
+        List<Long> sent = new ArrayList<>(idByMessage.values());
+        sent.removeAll(failures.keySet());
+        if (!sent.isEmpty()) {
+            queueService.markSent(sent);
+        }
+        if (!failures.isEmpty()) {
+            logger.warn("Failed to deliver {} of {} notification(s)", failures.size(), idByMessage.size());
+            queueService.markFailed(failures);
+        }
+    }
+
+    /**
+     * Escalate the task to the notification's recipient unless a previous
+     * attempt already did. Returns false when the task no longer needs it.
+     */
+    private boolean applyEscalation(WorkflowNotification notification) {
+        Long instanceTaskId = notification.getInstanceTaskId();
+        try {
+            Optional<WorkflowInstanceTaskDto> task = executionService.getInstanceTask(instanceTaskId);
+            if (task.isEmpty()) {
+                queueService.markCancelled(notification.getNotificationId(), "Instance task no longer exists");
+                return false;
+            }
+            TaskInstanceStatus status = task.get().getStatus();
+            boolean alreadyEscalated = status == TaskInstanceStatus.ESCALATED
+                    && notification.getRecipientId().equals(task.get().getAssignedTo());
+            if (!alreadyEscalated) {
+                executionService.escalateTask(instanceTaskId, notification.getRecipientId());
+            }
+            return true;
+        } catch (WorkflowException e) {
+            logger.info("Cancelling escalation of instance task {}: {}", instanceTaskId, e.getMessage());
+            queueService.markCancelled(notification.getNotificationId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private SimpleMailMessage toMessage(WorkflowNotification notification) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromAddress);
+        message.setTo(notification.getRecipientEmail());
+        message.setSubject(notification.getSubject());
+        message.setText(notification.getBody());
+        return message;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
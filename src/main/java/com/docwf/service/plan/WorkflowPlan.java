@@ -0,0 +1,449 @@
+package com.docwf.service.plan;
+
+import com.docwf.entity.WorkflowConfigTask.TaskType;
+import com.docwf.exception.WorkflowException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled view of a workflow definition.
+ *
+ * Built once from WORKFLOW_CONFIG, WORKFLOW_CONFIG_TASK, WORKFLOW_ROLE and
+ * TASK_DECISION_OUTCOME and shared between threads by the plan cache, so the
+ * execution hot path never walks lazy config associations. The comma-separated
+ * ID columns are parsed up front into lists.
+ *
+ * Tasks form a DAG. A task with parentTaskIds waits for all of those parents
+ * (AND join). A task without parents waits for the whole previous stage in
+ * sequence order, where a stage is a run of consecutive tasks marked
+ * canRunInParallel that share a sequence order or list each other in
+ * parallelTaskIds. A purely sequential workflow therefore keeps its old
+ * one-task-at-a-time behaviour.
+ */
+public final class WorkflowPlan {
+
+    private final Long workflowId;
+    private final long version;
+    private final String name;
+    private final boolean active;
+    private final Long calendarId;
+    private final Integer dueInMins;
+    private final Integer reminderBeforeDueMins;
+    private final Integer escalationAfterMins;
+    private final Integer minutesAfterDue;
+    private final List<TaskNode> tasks;
+    private final Map<Long, TaskNode> tasksById;
+    private final Map<Long, List<Long>> dependencyTaskIds;
+    private final Map<Long, List<Long>> childTaskIds;
+    private final List<Long> criticalPathTaskIds;
+    private final int criticalPathExpectedCompletion;
+
+    // Constructors
+    public WorkflowPlan(Long workflowId, long version, String name, boolean active, Long calendarId,
+                        Integer dueInMins, Integer reminderBeforeDueMins, Integer escalationAfterMins,
+                        Integer minutesAfterDue, List<TaskNode> tasks) {
+        this.workflowId = workflowId;
+        this.version = version;
+        this.name = name;
+        this.active = active;
+        this.calendarId = calendarId;
+        this.dueInMins = dueInMins;
+        this.reminderBeforeDueMins = reminderBeforeDueMins;
+        this.escalationAfterMins = escalationAfterMins;
+        this.minutesAfterDue = minutesAfterDue;
+        this.tasks = List.copyOf(tasks);
+
+        Map<Long, TaskNode> byId = new LinkedHashMap<>();
+        for (TaskNode task : this.tasks) {
+            byId.put(task.getTaskId(), task);
+        }
+        this.tasksById = Collections.unmodifiableMap(byId);
+
+        Map<Long, List<Long>> dependencies = resolveDependencies(this.tasks, byId);
+        Map<Long, List<Long>> children = new LinkedHashMap<>();
+        for (TaskNode task : this.tasks) {
+            children.put(task.getTaskId(), new ArrayList<>());
+        }
+        dependencies.forEach((taskId, parentIds) -> parentIds.forEach(parentId -> children.get(parentId).add(taskId)));
+        children.replaceAll((taskId, ids) -> List.copyOf(ids));
+        this.dependencyTaskIds = Collections.unmodifiableMap(dependencies);
+        this.childTaskIds = Collections.unmodifiableMap(children);
+
+        // Longest path through the DAG by expected completion, then by task count
+        Map<Long, Integer> pathWeight = new HashMap<>();
+        Map<Long, Integer> pathLength = new HashMap<>();
+        Map<Long, Long> pathPredecessor = new HashMap<>();
+        Long pathEnd = null;
+        for (Long taskId : topologicalOrder(workflowId)) {
+            Long bestParent = null;
+            for (Long parentId : dependencies.get(taskId)) {
+                if (bestParent == null || isLongerPath(parentId, bestParent, pathWeight, pathLength)) {
+                    bestParent = parentId;
+                }
+            }
+            Integer expected = byId.get(taskId).getExpectedCompletion();
+            pathWeight.put(taskId, (bestParent != null ? pathWeight.get(bestParent) : 0) + (expected != null ? expected : 0));
+            pathLength.put(taskId, (bestParent != null ? pathLength.get(bestParent) : 0) + 1);
+            if (bestParent != null) {
+                pathPredecessor.put(taskId, bestParent);
+            }
+            if (pathEnd == null || isLongerPath(taskId, pathEnd, pathWeight, pathLength)) {
+                pathEnd = taskId;
+            }
+        }
+        List<Long> criticalPath = new ArrayList<>();
+        for (Long taskId = pathEnd; taskId != null; taskId = pathPredecessor.get(taskId)) {
+            criticalPath.add(0, taskId);
+        }
+        this.criticalPathTaskIds = List.copyOf(criticalPath);
+        this.criticalPathExpectedCompletion = pathEnd != null ? pathWeight.get(pathEnd) : 0;
+    }
+
+    private static boolean isLongerPath(Long taskId, Long otherTaskId, Map<Long, Integer> pathWeight,
+                                        Map<Long, Integer> pathLength) {
+        int byWeight = Integer.compare(pathWeight.get(taskId), pathWeight.get(otherTaskId));
+        return byWeight != 0 ? byWeight > 0 : pathLength.get(taskId) > pathLength.get(otherTaskId);
+    }
+
+    private static Map<Long, List<Long>> resolveDependencies(List<TaskNode> tasks, Map<Long, TaskNode> byId) {
+        Map<Long, List<Long>> dependencies = new LinkedHashMap<>();
+        List<TaskNode> previousStage = new ArrayList<>();
+        List<TaskNode> currentStage = new ArrayList<>();
+
+        for (TaskNode task : tasks) {
+            if (!currentStage.isEmpty() && joinsStage(task, currentStage)) {
+                currentStage.add(task);
+            } else {
+                previousStage = currentStage;
+                currentStage = new ArrayList<>();
+                currentStage.add(task);
+            }
+
+            List<Long> parents = new ArrayList<>();
+            for (Long parentId : task.getParentTaskIds()) {
+                if (byId.containsKey(parentId) && !parentId.equals(task.getTaskId()) && !parents.contains(parentId)) {
+                    parents.add(parentId);
+                }
+            }
+            if (parents.isEmpty()) {
+                previousStage.forEach(member -> parents.add(member.getTaskId()));
+            }
+            dependencies.put(task.getTaskId(), List.copyOf(parents));
+        }
+        return dependencies;
+    }
+
+    private static boolean joinsStage(TaskNode task, List<TaskNode> stage) {
+        if (!task.isCanRunInParallel()) {
+            return false;
+        }
+        for (TaskNode member : stage) {
+            if (member.isCanRunInParallel()
+                    && (member.getSequenceOrder().equals(task.getSequenceOrder())
+                        || member.getParallelTaskIds().contains(task.getTaskId())
+                        || task.getParallelTaskIds().contains(member.getTaskId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Long> topologicalOrder(Long workflowId) {
+        Map<Long, Integer> remaining = new HashMap<>();
+        Deque<Long> ready = new ArrayDeque<>();
+        for (TaskNode task : tasks) {
+            int count = dependencyTaskIds.get(task.getTaskId()).size();
+            remaining.put(task.getTaskId(), count);
+            if (count == 0) {
+                ready.add(task.getTaskId());
+            }
+        }
+
+        List<Long> order = new ArrayList<>(tasks.size());
+        while (!ready.isEmpty()) {
+            Long taskId = ready.poll();
+            order.add(taskId);
+            for (Long childId : childTaskIds.get(taskId)) {
+                if (remaining.merge(childId, -1, Integer::sum) == 0) {
+                    ready.add(childId);
+                }
+            }
+        }
+
+        if (order.size() != tasks.size()) {
+            List<Long> cyclic = new ArrayList<>();
+            remaining.forEach((taskId, count) -> {
+                if (count > 0) {
+                    cyclic.add(taskId);
+                }
+            });
+            throw new WorkflowException("Workflow " + workflowId + " has a task dependency cycle involving tasks " + cyclic);
+        }
+        return order;
+    }
+
+    /**
+     * Get a task by config task ID, or null if it is not part of this plan
+     */
+    public TaskNode getTask(Long taskId) {
+        return tasksById.get(taskId);
+    }
+
+    /**
+     * Get the first task in sequence order, or null for a workflow without tasks
+     */
+    public TaskNode getFirstTask() {
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+
+    /**
+     * Get the IDs of tasks that must complete before the given task can start
+     */
+    public List<Long> getDependencyTaskIds(Long taskId) {
+        return dependencyTaskIds.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Get the IDs of tasks that wait on the given task
+     */
+    public List<Long> getChildTaskIds(Long taskId) {
+        return childTaskIds.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Get the longest chain of dependent tasks, first task first. Chains are
+     * compared by summed expected completion and then by task count, so with no
+     * estimates at all this is simply the longest chain.
+     */
+    public List<Long> getCriticalPathTaskIds() {
+        return criticalPathTaskIds;
+    }
+
+    /**
+     * Get the summed expected completion of the tasks on the critical path
+     */
+    public int getCriticalPathExpectedCompletion() {
+        return criticalPathExpectedCompletion;
+    }
+
+    // Getters
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public Long getCalendarId() {
+        return calendarId;
+    }
+
+    public Integer getDueInMins() {
+        return dueInMins;
+    }
+
+    public Integer getReminderBeforeDueMins() {
+        return reminderBeforeDueMins;
+    }
+
+    public Integer getEscalationAfterMins() {
+        return escalationAfterMins;
+    }
+
+    public Integer getMinutesAfterDue() {
+        return minutesAfterDue;
+    }
+
+    public List<TaskNode> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Inner class for a compiled workflow task
+     */
+    public static final class TaskNode {
+        private final Long taskId;
+        private final String name;
+        private final TaskType taskType;
+        private final Integer sequenceOrder;
+        private final Long roleId;
+        private final String roleName;
+        private final Integer expectedCompletion;
+        private final String taskPriority;
+        private final boolean decisionTask;
+        private final boolean canRunInParallel;
+        private final boolean autoEscalationEnabled;
+        private final boolean notificationRequired;
+        private final List<Long> parentTaskIds;
+        private final List<Long> parallelTaskIds;
+        private final Map<String, DecisionRoute> decisionRoutes;
+
+        public TaskNode(Long taskId, String name, TaskType taskType, Integer sequenceOrder, Long roleId,
+                        String roleName, Integer expectedCompletion, String taskPriority, boolean decisionTask,
+                        boolean canRunInParallel, boolean autoEscalationEnabled, boolean notificationRequired,
+                        List<Long> parentTaskIds, List<Long> parallelTaskIds, List<DecisionRoute> decisionRoutes) {
+            this.taskId = taskId;
+            this.name = name;
+            this.taskType = taskType;
+            this.sequenceOrder = sequenceOrder;
+            this.roleId = roleId;
+            this.roleName = roleName;
+            this.expectedCompletion = expectedCompletion;
+            this.taskPriority = taskPriority;
+            this.decisionTask = decisionTask;
+            this.canRunInParallel = canRunInParallel;
+            this.autoEscalationEnabled = autoEscalationEnabled;
+            this.notificationRequired = notificationRequired;
+            this.parentTaskIds = List.copyOf(parentTaskIds);
+            this.parallelTaskIds = List.copyOf(parallelTaskIds);
+
+            Map<String, DecisionRoute> routes = new LinkedHashMap<>();
+            for (DecisionRoute route : decisionRoutes) {
+                routes.putIfAbsent(route.getOutcomeName(), route);
+            }
+            this.decisionRoutes = Collections.unmodifiableMap(routes);
+        }
+
+        /**
+         * Get the route configured for a decision outcome, or null if none is configured
+         */
+        public DecisionRoute getDecisionRoute(String outcomeName) {
+            return outcomeName != null ? decisionRoutes.get(outcomeName) : null;
+        }
+
+        public Long getTaskId() {
+            return taskId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TaskType getTaskType() {
+            return taskType;
+        }
+
+        public Integer getSequenceOrder() {
+            return sequenceOrder;
+        }
+
+        public Long getRoleId() {
+            return roleId;
+        }
+
+        public String getRoleName() {
+            return roleName;
+        }
+
+        public Integer getExpectedCompletion() {
+            return expectedCompletion;
+        }
+
+        public String getTaskPriority() {
+            return taskPriority;
+        }
+
+        public boolean isDecisionTask() {
+            return decisionTask;
+        }
+
+        public boolean isCanRunInParallel() {
+            return canRunInParallel;
+        }
+
+        public boolean isAutoEscalationEnabled() {
+            return autoEscalationEnabled;
+        }
+
+        public boolean isNotificationRequired() {
+            return notificationRequired;
+        }
+
+        public List<Long> getParentTaskIds() {
+            return parentTaskIds;
+        }
+
+        public List<Long> getParallelTaskIds() {
+            return parallelTaskIds;
+        }
+
+        public Map<String, DecisionRoute> getDecisionRoutes() {
+            return decisionRoutes;
+        }
+    }
+
+    /**
+     * Inner class for a compiled decision outcome route
+     */
+    public static final class DecisionRoute {
+        private final String outcomeName;
+        private final Long targetTaskId;
+        private final String revisionType;
+        private final String revisionStrategy;
+        private final List<Long> revisionTaskIds;
+        private final Integer revisionPriority;
+        private final boolean autoEscalate;
+        private final Long escalationRoleId;
+
+        public DecisionRoute(String outcomeName, Long targetTaskId, String revisionType, String revisionStrategy,
+                             List<Long> revisionTaskIds, Integer revisionPriority, boolean autoEscalate,
+                             Long escalationRoleId) {
+            this.outcomeName = outcomeName;
+            this.targetTaskId = targetTaskId;
+            this.revisionType = revisionType;
+            this.revisionStrategy = revisionStrategy;
+            this.revisionTaskIds = List.copyOf(revisionTaskIds);
+            this.revisionPriority = revisionPriority;
+            this.autoEscalate = autoEscalate;
+            this.escalationRoleId = escalationRoleId;
+        }
+
+        public String getOutcomeName() {
+            return outcomeName;
+        }
+
+        public Long getTargetTaskId() {
+            return targetTaskId;
+        }
+
+        public String getRevisionType() {
+            return revisionType;
+        }
+
+        public String getRevisionStrategy() {
+            return revisionStrategy;
+        }
+
+        public List<Long> getRevisionTaskIds() {
+            return revisionTaskIds;
+        }
+
+        public Integer getRevisionPriority() {
+            return revisionPriority;
+        }
+
+        public boolean isAutoEscalate() {
+            return autoEscalate;
+        }
+
+        public Long getEscalationRoleId() {
+            return escalationRoleId;
+        }
+    }
+}
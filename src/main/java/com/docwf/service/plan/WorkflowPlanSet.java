@@ -0,0 +1,45 @@
+package com.docwf.service.plan;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plans looked up together, with the reason each workflow that could not be
+ * compiled was left out. A workflow that does not exist is in neither map.
+ */
+public final class WorkflowPlanSet {
+
+    private final Map<Long, WorkflowPlan> plans = new LinkedHashMap<>();
+    private final Map<Long, String> failures = new LinkedHashMap<>();
+
+    public void addPlan(WorkflowPlan plan) {
+        plans.put(plan.getWorkflowId(), plan);
+    }
+
+    public void addFailure(Long workflowId, String reason) {
+        failures.put(workflowId, reason);
+    }
+
+    /**
+     * Get the plan of a workflow, or null if it does not exist or failed to compile
+     */
+    public WorkflowPlan get(Long workflowId) {
+        return plans.get(workflowId);
+    }
+
+    /**
+     * Get why a workflow failed to compile, or null if it did not
+     */
+    public String getFailure(Long workflowId) {
+        return failures.get(workflowId);
+    }
+
+    public Map<Long, WorkflowPlan> getPlans() {
+        return Collections.unmodifiableMap(plans);
+    }
+
+    public Map<Long, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+}
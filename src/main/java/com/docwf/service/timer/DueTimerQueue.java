@@ -0,0 +1,116 @@
+package com.docwf.service.timer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory delay queue of task timers that fall due within the horizon.
+ *
+ * Only the near future is held in memory: timers further out stay in
+ * WORKFLOW_TASK_TIMER until a periodic load brings them inside the horizon.
+ * Timers created by a transaction are offered once it commits, so a deadline
+ * shorter than the horizon still fires on time without waiting for a load.
+ */
+@Component
+public class DueTimerQueue {
+
+    private final DelayQueue<DueTimer> queue = new DelayQueue<>();
+
+    private final Set<Long> queuedTimerIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.workflow.timers.horizon-ms:600000}")
+    private long horizonMs;
+
+    /**
+     * Queue a timer if it falls due within the horizon and is not queued already
+     */
+    public void offer(Long timerId, LocalDateTime dueOn) {
+        long dueAtMillis = dueOn.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (dueAtMillis <= System.currentTimeMillis() + horizonMs && queuedTimerIds.add(timerId)) {
+            queue.add(new DueTimer(timerId, dueAtMillis));
+        }
+    }
+
+    /**
+     * Queue a timer once the current transaction commits, or now outside one
+     */
+    public void offerAfterCommit(Long timerId, LocalDateTime dueOn) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(timerId, dueOn);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(timerId, dueOn);
+            }
+        });
+    }
+
+    /**
+     * Wait up to timeoutMs for a timer to fall due, then return it together
+     * with every other timer that is due by now
+     */
+    public List<Long> awaitDue(long timeoutMs) throws InterruptedException {
+        DueTimer first = queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+
+        List<DueTimer> due = new ArrayList<>();
+        due.add(first);
+        queue.drainTo(due);
+
+        List<Long> timerIds = new ArrayList<>(due.size());
+        for (DueTimer timer : due) {
+            queuedTimerIds.remove(timer.timerId);
+            timerIds.add(timer.timerId);
+        }
+        return timerIds;
+    }
+
+    /**
+     * End of the window currently covered by the in-memory queue
+     */
+    public LocalDateTime getHorizonEnd() {
+        return LocalDateTime.now().plus(horizonMs, ChronoUnit.MILLIS);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private static final class DueTimer implements Delayed {
+
+        private final Long timerId;
+        private final long dueAtMillis;
+
+        private DueTimer(Long timerId, long dueAtMillis) {
+            this.timerId = timerId;
+            this.dueAtMillis = dueAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((DueTimer) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.docwf.service.timer;
+
+import com.docwf.service.TaskTimerService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fires task timers the moment they fall due.
+ *
+ * A single daemon thread blocks on {@link DueTimerQueue} and hands each batch
+ * of due timers to {@link TaskTimerService#fireTimers}, so an idle system does
+ * no work at all between deadlines. Timers dropped by a failed batch are still
+ * SCHEDULED in the table and come back with the next horizon load.
+ */
+@Component
+public class DueTimerWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DueTimerWorker.class);
+
+    private static final long POLL_TIMEOUT_MS = 1000;
+
+    @Autowired
+    private DueTimerQueue dueTimerQueue;
+
+    @Autowired
+    private TaskTimerService taskTimerService;
+
+    @Value("${app.workflow.timers.enabled:true}")
+    private boolean enabled;
+
+    private volatile Thread workerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Task timers are disabled");
+            return;
+        }
+
+        taskTimerService.backfillTimers();
+        taskTimerService.loadUpcomingTimers();
+
+        Thread thread = new Thread(this::run, "due-timer-worker");
+        thread.setDaemon(true);
+        workerThread = thread;
+        thread.start();
+        logger.info("Started due-timer worker with {} timer(s) queued", dueTimerQueue.size());
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Long> dueTimerIds = dueTimerQueue.awaitDue(POLL_TIMEOUT_MS);
+                if (!dueTimerIds.isEmpty()) {
+                    taskTimerService.fireTimers(dueTimerIds);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error firing due task timers", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = workerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -107,7 +107,7 @@ CREATE TABLE QRTZ_FIRED_TRIGGERS (
     TRIGGER_GROUP VARCHAR(200) NOT NULL,
     INSTANCE_NAME VARCHAR(200) NOT NULL,
     FIRED_TIME BIGINT NOT NULL,
-    SCHED_TIME BIGINT NOT NULL,
+    SCHED_TIME BIGINT,  -- not written by Quartz 2.0.x
     PRIORITY INTEGER NOT NULL,
     STATE VARCHAR(16) NOT NULL,
     JOB_NAME VARCHAR(200) NULL,
@@ -148,6 +148,8 @@ INSERT INTO QRTZ_LOCKS VALUES('WorkflowScheduler','MISFIRE_ACCESS');
 ------------------------------------------------------------
 -- SEQUENCES
 ------------------------------------------------------------
+-- Sequences with INCREMENT BY 50 hand out pooled ID blocks and must match the
+-- allocationSize of their entity; see upgrade-pooled-sequences.sql for existing schemas
 CREATE SEQUENCE SEQ_WORKFLOW_USER START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_WORKFLOW_ROLE START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_WORKFLOW_CONFIG START WITH 1 INCREMENT BY 1;
@@ -157,13 +159,20 @@ CREATE SEQUENCE SEQ_WORKFLOW_CONFIG_TASK_FILE START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_WORKFLOW_CONFIG_PARAM START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_TASK_DECISION_OUTCOME START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_WORKFLOW_CALENDAR START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE SEQ_WORKFLOW_CALENDAR_DAY START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_WORKFLOW_CALENDAR_DAY START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_COMPOSITE_CALENDAR START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE START WITH 1 INCREMENT BY 50;
 CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_ROLE START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_TASK START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_TASK START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_TASK_TRANSITION START WITH 1 INCREMENT BY 50;
 CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_TASK_FILE START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_WORKFLOW_INSTANCE_TASK_QUERY START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE SEQ_TASK_INSTANCE_DECISION_OUTCOME START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_WORKFLOW_NOTIFICATION START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_TASK_TIMER START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_CALENDAR_RUN START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_JOB_EXECUTION START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_WORKFLOW_FILE_UPLOAD START WITH 1 INCREMENT BY 50;
 
 ------------------------------------------------------------
 -- REFERENCE LAYER
@@ -323,6 +332,7 @@ CREATE TABLE WORKFLOW_CALENDAR (
     REGION          VARCHAR2(50),   -- Geographic region (e.g., "US", "EU", "APAC")
     OFFSET_DAYS     NUMBER,         -- Days to offset from the base date (can be negative)
     IS_ACTIVE       CHAR(1) DEFAULT 'Y' CHECK (IS_ACTIVE IN ('Y','N')),  -- Whether calendar is active for scheduling
+    SCHEDULE_PAUSED CHAR(1) DEFAULT 'N' CHECK (SCHEDULE_PAUSED IN ('Y','N')),  -- Paused cron schedule, checked by the owning node
     CREATED_BY      VARCHAR2(100) NOT NULL,
     CREATED_AT      TIMESTAMP DEFAULT SYSTIMESTAMP,
     UPDATED_BY      VARCHAR2(100),
@@ -349,6 +359,18 @@ CREATE INDEX IDX_WORKFLOW_CALENDAR_TIMEZONE ON WORKFLOW_CALENDAR(TIMEZONE);
 CREATE INDEX IDX_WORKFLOW_CALENDAR_REGION ON WORKFLOW_CALENDAR(REGION);
 CREATE INDEX IDX_WORKFLOW_CALENDAR_ACTIVE ON WORKFLOW_CALENDAR(IS_ACTIVE);
 
+-- Set expressions over calendars, e.g. intersect(1, 2); calendars are referenced by ID
+CREATE TABLE WORKFLOW_COMPOSITE_CALENDAR (
+    COMPOSITE_ID    NUMBER PRIMARY KEY,
+    COMPOSITE_NAME  VARCHAR2(100) NOT NULL UNIQUE,
+    DESCRIPTION     VARCHAR2(255),
+    EXPRESSION      VARCHAR2(1000) NOT NULL,  -- union(...), intersect(...), minus(...), shift(expr, days)
+    CREATED_BY      VARCHAR2(100) NOT NULL,
+    CREATED_AT      TIMESTAMP DEFAULT SYSTIMESTAMP,
+    UPDATED_BY      VARCHAR2(100),
+    UPDATED_AT      TIMESTAMP
+);
+
 ------------------------------------------------------------
 -- EXECUTION / RUNTIME LAYER
 ------------------------------------------------------------
@@ -360,7 +382,15 @@ CREATE TABLE WORKFLOW_INSTANCE (
     STARTED_ON      TIMESTAMP DEFAULT SYSTIMESTAMP,
     COMPLETED_ON    TIMESTAMP,
     ESCALATED_TO    NUMBER REFERENCES WORKFLOW_USER(USER_ID),
-    CALENDAR_ID     NUMBER REFERENCES WORKFLOW_CALENDAR(CALENDAR_ID)
+    CALENDAR_ID     NUMBER REFERENCES WORKFLOW_CALENDAR(CALENDAR_ID),
+    VERSION         NUMBER DEFAULT 0 NOT NULL, -- optimistic lock, bumped by every task transition
+    -- task counts by status, maintained with each task transition
+    TOTAL_TASKS       NUMBER DEFAULT 0 NOT NULL,
+    PENDING_TASKS     NUMBER DEFAULT 0 NOT NULL,
+    IN_PROGRESS_TASKS NUMBER DEFAULT 0 NOT NULL,
+    COMPLETED_TASKS   NUMBER DEFAULT 0 NOT NULL,
+    FAILED_TASKS      NUMBER DEFAULT 0 NOT NULL,
+    ESCALATED_TASKS   NUMBER DEFAULT 0 NOT NULL
 );
 
 CREATE INDEX IDX_WORKFLOW_INSTANCE_WORKFLOW ON WORKFLOW_INSTANCE(WORKFLOW_ID);
@@ -386,18 +416,41 @@ CREATE TABLE WORKFLOW_INSTANCE_TASK (
     COMPLETED_BY     VARCHAR2(100),
     REJECTED_BY      VARCHAR2(100),
     DECISION_OUTCOME VARCHAR2(255),
-    PARENT_TASK_IDS  VARCHAR2(500)  -- Comma-separated list of parent task IDs
+    PARENT_TASK_IDS  VARCHAR2(500),  -- Comma-separated list of parent task IDs
+    VERSION          NUMBER DEFAULT 0 NOT NULL  -- optimistic lock
 );
 
 CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_INSTANCE ON WORKFLOW_INSTANCE_TASK(INSTANCE_ID);
 
+-- Append-only task state log; the audit source for WORKFLOW_INSTANCE_TASK, which is not audited by Envers
+CREATE TABLE WORKFLOW_INSTANCE_TASK_TRANSITION (
+    TRANSITION_ID    NUMBER PRIMARY KEY,
+    INSTANCE_ID      NUMBER NOT NULL REFERENCES WORKFLOW_INSTANCE(INSTANCE_ID) ON DELETE CASCADE,
+    INSTANCE_TASK_ID NUMBER NOT NULL REFERENCES WORKFLOW_INSTANCE_TASK(INSTANCE_TASK_ID) ON DELETE CASCADE,
+    EVENT            VARCHAR2(20) NOT NULL CHECK (EVENT IN (
+                             'CREATE','ACTIVATE','ASSIGN','START','COMPLETE','FAIL','ESCALATE','REOPEN','OVERRIDE')),
+    FROM_STATUS      VARCHAR2(50),
+    TO_STATUS        VARCHAR2(50) NOT NULL,
+    ASSIGNED_TO      NUMBER,  -- USER_ID after the transition; not a foreign key so users can be purged
+    DETAIL           VARCHAR2(500),  -- decision outcome, failure or reassignment reason
+    OCCURRED_ON      TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_TRANSITION_INSTANCE ON WORKFLOW_INSTANCE_TASK_TRANSITION(INSTANCE_ID, TRANSITION_ID);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_TRANSITION_TASK ON WORKFLOW_INSTANCE_TASK_TRANSITION(INSTANCE_TASK_ID, TRANSITION_ID);
+
 CREATE TABLE WORKFLOW_INSTANCE_TASK_FILE (
     INSTANCE_FILE_ID NUMBER,
     INSTANCE_TASK_ID NUMBER NOT NULL REFERENCES WORKFLOW_INSTANCE_TASK(INSTANCE_TASK_ID) ON DELETE CASCADE,
     VERSION          NUMBER NOT NULL DEFAULT 1,
     FILE_NAME        VARCHAR2(500),
+    FILE_EXTENSION   VARCHAR2(50),    -- lower case, without the dot, for searches by type
     FILE_PATH        VARCHAR2(1000),
     FILE_LOCATION    VARCHAR2(1000),  -- Physical storage location (e.g., S3 bucket, local directory)
+    FILE_SIZE        NUMBER,          -- bytes, recorded when the upload completes
+    CHECKSUM         VARCHAR2(64),    -- hex SHA-256 of the content
+    DELTA_BASE_VERSION NUMBER,        -- set when stored as a delta against this newer version
+    DELTA_CHECKSUM   VARCHAR2(64),    -- hex SHA-256 of the delta's blob; FILE_PATH is then the delta
     FILE_TYPE_REGEX  VARCHAR2(100),   -- File type pattern (e.g., "*.*", "*.xls", "*.pdf")
     ACTION_TYPE      VARCHAR2(50) CHECK (ACTION_TYPE IN (
                              'UPLOAD','UPDATE','CONSOLIDATE')),
@@ -416,6 +469,14 @@ CREATE TABLE WORKFLOW_INSTANCE_TASK_FILE (
 
 CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_TASK ON WORKFLOW_INSTANCE_TASK_FILE(INSTANCE_TASK_ID);
 CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_VERSION ON WORKFLOW_INSTANCE_TASK_FILE(INSTANCE_FILE_ID, VERSION DESC);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_CHECKSUM ON WORKFLOW_INSTANCE_TASK_FILE(CHECKSUM);  -- blob reference checks
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_DELTA ON WORKFLOW_INSTANCE_TASK_FILE(DELTA_CHECKSUM);
+-- File search: each filter leads an index and ends in CREATED_AT, the default sort
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_CREATED ON WORKFLOW_INSTANCE_TASK_FILE(CREATED_AT);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_EXTENSION ON WORKFLOW_INSTANCE_TASK_FILE(FILE_EXTENSION, CREATED_AT);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_CREATED_BY ON WORKFLOW_INSTANCE_TASK_FILE(CREATED_BY, CREATED_AT);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_ACTION ON WORKFLOW_INSTANCE_TASK_FILE(ACTION_TYPE, CREATED_AT);
+CREATE INDEX IDX_WORKFLOW_INSTANCE_TASK_FILE_SIZE ON WORKFLOW_INSTANCE_TASK_FILE(FILE_SIZE);
 
 CREATE TABLE WORKFLOW_INSTANCE_TASK_QUERY (
     QUERY_ID              NUMBER PRIMARY KEY,
@@ -455,6 +516,119 @@ CREATE TABLE TASK_INSTANCE_DECISION_OUTCOME (
 
 CREATE INDEX IDX_TASK_INSTANCE_DECISION ON TASK_INSTANCE_DECISION_OUTCOME(INSTANCE_TASK_ID);
 
+-- Outbound notification queue; schedulers insert, NotificationDispatcher delivers
+CREATE TABLE WORKFLOW_NOTIFICATION (
+    NOTIFICATION_ID   NUMBER PRIMARY KEY,
+    NOTIFICATION_TYPE VARCHAR2(20) NOT NULL CHECK (NOTIFICATION_TYPE IN ('REMINDER','ESCALATION','OVERDUE','ATTENTION')),
+    DEDUP_KEY         VARCHAR2(200) NOT NULL UNIQUE,  -- type, task or instance, recipient and dedup window
+    INSTANCE_ID       NUMBER,
+    INSTANCE_TASK_ID  NUMBER,
+    RECIPIENT_ID      NUMBER,
+    RECIPIENT_EMAIL   VARCHAR2(255) NOT NULL,
+    SUBJECT           VARCHAR2(200) NOT NULL,
+    BODY              VARCHAR2(2000),
+    STATUS            VARCHAR2(20) DEFAULT 'PENDING' NOT NULL CHECK (STATUS IN ('PENDING','SENDING','SENT','FAILED','CANCELLED')),
+    ATTEMPTS          NUMBER DEFAULT 0 NOT NULL,
+    LAST_ERROR        VARCHAR2(500),
+    CREATED_ON        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    NEXT_ATTEMPT_ON   TIMESTAMP NOT NULL,  -- retry time when PENDING, lease expiry when SENDING
+    SENT_ON           TIMESTAMP
+);
+
+CREATE INDEX IDX_WORKFLOW_NOTIFICATION_DUE ON WORKFLOW_NOTIFICATION(STATUS, NEXT_ATTEMPT_ON);
+CREATE INDEX IDX_WORKFLOW_NOTIFICATION_TASK ON WORKFLOW_NOTIFICATION(INSTANCE_TASK_ID);
+
+CREATE TABLE WORKFLOW_TASK_TIMER (
+    TIMER_ID          NUMBER PRIMARY KEY,
+    INSTANCE_TASK_ID  NUMBER NOT NULL REFERENCES WORKFLOW_INSTANCE_TASK(INSTANCE_TASK_ID) ON DELETE CASCADE,
+    TIMER_TYPE        VARCHAR2(20) NOT NULL CHECK (TIMER_TYPE IN ('REMINDER','ESCALATION','OVERDUE','ATTENTION')),
+    DUE_ON            TIMESTAMP NOT NULL,  -- computed when the task is activated or started
+    STATUS            VARCHAR2(20) DEFAULT 'SCHEDULED' NOT NULL CHECK (STATUS IN ('SCHEDULED','FIRED','CANCELLED')),
+    FIRED_ON          TIMESTAMP
+);
+
+CREATE INDEX IDX_WORKFLOW_TASK_TIMER_DUE ON WORKFLOW_TASK_TIMER(STATUS, DUE_ON);
+CREATE INDEX IDX_WORKFLOW_TASK_TIMER_TASK ON WORKFLOW_TASK_TIMER(INSTANCE_TASK_ID);
+
+-- One row per workflow started by a calendar for an effective date, written with the instance
+CREATE TABLE WORKFLOW_CALENDAR_RUN (
+    RUN_ID          NUMBER PRIMARY KEY,
+    CALENDAR_ID     NUMBER NOT NULL REFERENCES WORKFLOW_CALENDAR(CALENDAR_ID),
+    EFFECTIVE_DATE  DATE NOT NULL,
+    WORKFLOW_ID     NUMBER NOT NULL REFERENCES WORKFLOW_CONFIG(WORKFLOW_ID),
+    INSTANCE_ID     NUMBER REFERENCES WORKFLOW_INSTANCE(INSTANCE_ID) ON DELETE SET NULL,  -- the run still counts if the instance is purged
+    STARTED_ON      TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    CONSTRAINT UK_WORKFLOW_CALENDAR_RUN UNIQUE (CALENDAR_ID, EFFECTIVE_DATE, WORKFLOW_ID)  -- also serves the per-job ledger lookup
+);
+
+-- One row per Quartz job execution, inserted when it fires and completed when it returns
+CREATE TABLE WORKFLOW_JOB_EXECUTION (
+    EXECUTION_ID         NUMBER PRIMARY KEY,
+    JOB_NAME             VARCHAR2(200) NOT NULL,
+    JOB_GROUP            VARCHAR2(200) NOT NULL,
+    CALENDAR_ID          NUMBER,  -- no foreign key; history outlives deleted calendars
+    SCHEDULER_INSTANCE   VARCHAR2(200),
+    SCHEDULED_FIRE_TIME  TIMESTAMP,
+    FIRED_ON             TIMESTAMP NOT NULL,
+    COMPLETED_ON         TIMESTAMP,
+    DURATION_MS          NUMBER,
+    STATUS               VARCHAR2(20) NOT NULL CHECK (STATUS IN ('RUNNING','SUCCEEDED','FAILED','VETOED')),
+    INSTANCES_CREATED    NUMBER,
+    RECOVERING           NUMBER(1) DEFAULT 0 NOT NULL,
+    ERROR_MESSAGE        VARCHAR2(1000)
+);
+
+CREATE INDEX IDX_WORKFLOW_JOB_EXECUTION_JOB ON WORKFLOW_JOB_EXECUTION(JOB_NAME, FIRED_ON);
+CREATE INDEX IDX_WORKFLOW_JOB_EXECUTION_STATUS ON WORKFLOW_JOB_EXECUTION(STATUS, FIRED_ON);  -- stuck and failed job lookups
+
+-- Hourly execution totals per job, added to as executions complete
+CREATE TABLE WORKFLOW_JOB_EXECUTION_ROLLUP (
+    JOB_NAME              VARCHAR2(200) NOT NULL,
+    JOB_GROUP             VARCHAR2(200) NOT NULL,
+    BUCKET_START          TIMESTAMP NOT NULL,
+    EXECUTIONS            NUMBER DEFAULT 0 NOT NULL,
+    FAILURES              NUMBER DEFAULT 0 NOT NULL,
+    TOTAL_DURATION_MS     NUMBER DEFAULT 0 NOT NULL,
+    MAX_DURATION_MS       NUMBER DEFAULT 0 NOT NULL,
+    TOTAL_START_DELAY_MS  NUMBER DEFAULT 0 NOT NULL,
+    INSTANCES_CREATED     NUMBER DEFAULT 0 NOT NULL,
+    PRIMARY KEY (JOB_NAME, JOB_GROUP, BUCKET_START)
+);
+
+CREATE INDEX IDX_WORKFLOW_JOB_EXECUTION_ROLLUP_BUCKET ON WORKFLOW_JOB_EXECUTION_ROLLUP(BUCKET_START);
+
+-- Chunked uploads in progress; BYTES_RECEIVED is the durable offset to resume from
+CREATE TABLE WORKFLOW_FILE_UPLOAD (
+    UPLOAD_ID         NUMBER PRIMARY KEY,
+    INSTANCE_TASK_ID  NUMBER NOT NULL REFERENCES WORKFLOW_INSTANCE_TASK(INSTANCE_TASK_ID) ON DELETE CASCADE,
+    INSTANCE_FILE_ID  NUMBER,  -- set when uploading a new version of an existing file
+    FILE_NAME         VARCHAR2(500) NOT NULL,
+    ACTION_TYPE       VARCHAR2(50) NOT NULL CHECK (ACTION_TYPE IN ('UPLOAD','UPDATE','CONSOLIDATE')),
+    TOTAL_SIZE        NUMBER NOT NULL,
+    BYTES_RECEIVED    NUMBER DEFAULT 0 NOT NULL,
+    PART_PATH         VARCHAR2(1000),
+    CHECKSUM          VARCHAR2(64),
+    STATUS            VARCHAR2(20) DEFAULT 'ACTIVE' NOT NULL CHECK (STATUS IN ('ACTIVE','COMPLETED','ABORTED','EXPIRED')),
+    FILE_VERSION      NUMBER,
+    CREATED_BY        VARCHAR2(100),
+    CREATED_ON        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    UPDATED_ON        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX IDX_WORKFLOW_FILE_UPLOAD_STATUS ON WORKFLOW_FILE_UPLOAD(STATUS, UPDATED_ON);  -- expiry sweep
+
+-- Content of task files, stored once per SHA-256; FILE_PATH of the files using a blob is its BLOB_PATH
+CREATE TABLE WORKFLOW_FILE_BLOB (
+    CHECKSUM          VARCHAR2(64) PRIMARY KEY,
+    SIZE_BYTES        NUMBER NOT NULL,
+    BLOB_PATH         VARCHAR2(1000) NOT NULL,
+    REF_COUNT         NUMBER DEFAULT 0 NOT NULL,  -- task file versions using the blob
+    CREATED_ON        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    UNREFERENCED_ON   TIMESTAMP  -- set when REF_COUNT drops to zero; collected after the grace period
+);
+
+CREATE INDEX IDX_WORKFLOW_FILE_BLOB_UNREFERENCED ON WORKFLOW_FILE_BLOB(UNREFERENCED_ON);  -- garbage collection
+
 ------------------------------------------------------------
 -- ADDITIONAL CONSTRAINTS AND INDEXES
 ------------------------------------------------------------
@@ -521,8 +695,7 @@ ALTER TABLE WORKFLOW_INSTANCE_AUD ADD (REVISION_ID NUMBER, REVISION_TYPE CHAR(1)
 CREATE TABLE WORKFLOW_INSTANCE_ROLE_AUD AS SELECT * FROM WORKFLOW_INSTANCE_ROLE WHERE 1=0;
 ALTER TABLE WORKFLOW_INSTANCE_ROLE_AUD ADD (REVISION_ID NUMBER, REVISION_TYPE CHAR(1));
 
-CREATE TABLE WORKFLOW_INSTANCE_TASK_AUD AS SELECT * FROM WORKFLOW_INSTANCE_TASK WHERE 1=0;
-ALTER TABLE WORKFLOW_INSTANCE_TASK_AUD ADD (REVISION_ID NUMBER, REVISION_TYPE CHAR(1));
+-- WORKFLOW_INSTANCE_TASK history lives in WORKFLOW_INSTANCE_TASK_TRANSITION
 
 CREATE TABLE WORKFLOW_INSTANCE_TASK_FILE_AUD AS SELECT * FROM WORKFLOW_INSTANCE_TASK_FILE WHERE 1=0;
 ALTER TABLE WORKFLOW_INSTANCE_TASK_FILE_AUD ADD (REVISION_ID NUMBER, REVISION_TYPE CHAR(1));
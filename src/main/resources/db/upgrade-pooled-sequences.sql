@@ -0,0 +1,31 @@
+------------------------------------------------------------
+-- UPGRADE: POOLED ID SEQUENCES
+--
+-- Run once against a schema created before these sequences were switched
+-- to INCREMENT BY 50, with the application stopped. Hibernate checks the
+-- increment against allocationSize at startup, so the application does not
+-- boot on the old sequences.
+--
+-- Hibernate uses the 49 values below each value it draws, so each sequence
+-- is first moved to at least the table's current maximum ID; the next block
+-- then starts above every existing row.
+------------------------------------------------------------
+DECLARE
+    PROCEDURE pool(p_sequence VARCHAR2, p_table VARCHAR2, p_column VARCHAR2) IS
+        v_max  NUMBER;
+        v_next NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(' || p_column || '), 0) FROM ' || p_table INTO v_max;
+        EXECUTE IMMEDIATE 'SELECT ' || p_sequence || '.NEXTVAL FROM DUAL' INTO v_next;
+        IF v_next < v_max THEN
+            EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || p_sequence || ' INCREMENT BY ' || (v_max - v_next);
+            EXECUTE IMMEDIATE 'SELECT ' || p_sequence || '.NEXTVAL FROM DUAL' INTO v_next;
+        END IF;
+        EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || p_sequence || ' INCREMENT BY 50';
+    END;
+BEGIN
+    pool('SEQ_WORKFLOW_CALENDAR_DAY', 'WORKFLOW_CALENDAR_DAYS', 'CALENDAR_DAY_ID');
+    pool('SEQ_WORKFLOW_INSTANCE', 'WORKFLOW_INSTANCE', 'INSTANCE_ID');
+    pool('SEQ_WORKFLOW_INSTANCE_TASK', 'WORKFLOW_INSTANCE_TASK', 'INSTANCE_TASK_ID');
+END;
+/
@@ -0,0 +1,137 @@
+package com.docwf.benchmark;
+
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.entity.WorkflowCalendarDay;
+import com.docwf.service.calendar.CalendarBitmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business-date lookups on a ten-year calendar with 120 holidays and 60 run
+ * days: the compiled CalendarBitmap against the day-by-day walk over
+ * WorkflowCalendar.isDateValid it replaced.
+ *
+ * Run with:
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main CalendarLookupBenchmark"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarLookupBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate END = LocalDate.of(2029, 12, 31);
+    private static final int QUERIES = 1024;
+
+    private WorkflowCalendar calendar;
+    private CalendarBitmap bitmap;
+    private LocalDate[] queryDates;
+    private YearMonth[] queryMonths;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int span = (int) (END.toEpochDay() - START.toEpochDay());
+
+        calendar = new WorkflowCalendar("Benchmark", null, START, END, "NONE", "benchmark");
+        List<LocalDate> holidays = new ArrayList<>();
+        List<LocalDate> runDays = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            LocalDate holiday = START.plusDays(random.nextInt(span));
+            calendar.addCalendarDay(new WorkflowCalendarDay(calendar, holiday, "HOLIDAY", null));
+            holidays.add(holiday);
+        }
+        for (int i = 0; i < 60; i++) {
+            LocalDate runDay = START.plusDays(random.nextInt(span));
+            calendar.addCalendarDay(new WorkflowCalendarDay(calendar, runDay, "RUNDAY", null));
+            runDays.add(runDay);
+        }
+        bitmap = new CalendarBitmap(1L, 0L, START, END, "NONE", holidays, runDays);
+
+        queryDates = new LocalDate[QUERIES];
+        queryMonths = new YearMonth[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryDates[i] = START.plusDays(random.nextInt(span));
+            queryMonths[i] = YearMonth.from(queryDates[i]);
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public LocalDate nextValidDateWalk() {
+        LocalDate date = queryDates[nextQuery()].plusDays(1);
+        while (!date.isAfter(END)) {
+            if (calendar.isDateValid(date)) {
+                return date;
+            }
+            date = date.plusDays(1);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public LocalDate nextValidDateBitmap() {
+        return bitmap.getNextValidDate(queryDates[nextQuery()]);
+    }
+
+    @Benchmark
+    public LocalDate lastBusinessDayOfMonthWalk() {
+        YearMonth month = queryMonths[nextQuery()];
+        for (LocalDate date = month.atEndOfMonth(); !date.isBefore(month.atDay(1)); date = date.minusDays(1)) {
+            if (calendar.isDateValid(date)) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public LocalDate lastBusinessDayOfMonthBitmap() {
+        return bitmap.getNthValidDateOfMonth(queryMonths[nextQuery()], -1);
+    }
+
+    @Benchmark
+    public int businessDaysInYearWalk() {
+        LocalDate from = queryDates[nextQuery()];
+        LocalDate to = from.plusYears(1);
+        int count = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (calendar.isDateValid(date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int businessDaysInYearBitmap() {
+        LocalDate from = queryDates[nextQuery()];
+        return bitmap.countValidDates(from, from.plusYears(1));
+    }
+}
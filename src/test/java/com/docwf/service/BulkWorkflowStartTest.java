@@ -0,0 +1,170 @@
+package com.docwf.service;
+
+import com.docwf.controller.WorkflowExecutionController;
+import com.docwf.dto.BulkWorkflowStartRequestDto;
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import com.docwf.dto.BulkWorkflowStartResultDto.ItemResultDto;
+import com.docwf.repository.WorkflowCalendarRunRepository;
+import com.docwf.repository.WorkflowInstanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests bulk workflow starts: how each requested workflow is reported, and
+ * that a workflow whose plan cannot be compiled, or whose write fails inside
+ * a chunk, fails alone.
+ */
+public class BulkWorkflowStartTest extends WorkflowTestSupport {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 9, 4);
+
+    @Autowired
+    private WorkflowExecutionController executionController;
+
+    @Autowired
+    private WorkflowPlanService planService;
+
+    @Autowired
+    private WorkflowCalendarRunRepository calendarRunRepository;
+
+    @Autowired
+    private WorkflowInstanceRepository instanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void useTestSystemUser() {
+        override(executionService, "systemUserId", createUser("bulk").getUserId());
+    }
+
+    @Test
+    void testReportsStartedSkippedAndFailedWorkflows() {
+        Long calendarId = createCalendar("Bulk outcomes");
+        List<Long> active = createWorkflows(3, "Y");
+        Long inactive = createWorkflows(1, "N").get(0);
+        Long missing = -1L;
+
+        // The first workflow is already started for the date
+        BulkWorkflowStartResultDto earlier = executionService.startWorkflowsBulk(calendarId, active.subList(0, 1), RUN_DATE);
+        assertEquals(1, earlier.getStartedCount());
+
+        List<Long> requested = new ArrayList<>(active);
+        requested.add(inactive);
+        requested.add(missing);
+        requested.add(active.get(1));  // duplicates are started once
+
+        BulkWorkflowStartResultDto result = executionService.startWorkflowsBulk(calendarId, requested, RUN_DATE);
+        assertEquals(5, result.getRequestedCount());
+        assertEquals(2, result.getStartedCount());
+        assertEquals(1, result.getSkippedCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(5, result.getItems().size());
+
+        Map<Long, ItemResultDto> items = byWorkflow(result);
+        assertEquals(ItemResultDto.SKIPPED, items.get(active.get(0)).getStatus());
+        assertNull(items.get(active.get(0)).getInstanceId());
+        for (Long workflowId : active.subList(1, 3)) {
+            assertEquals(ItemResultDto.STARTED, items.get(workflowId).getStatus());
+            assertNotNull(items.get(workflowId).getInstanceId());
+        }
+        assertEquals(ItemResultDto.FAILED, items.get(inactive).getStatus());
+        assertTrue(items.get(inactive).getErrorMessage().contains("not active"));
+        assertEquals(ItemResultDto.FAILED, items.get(missing).getStatus());
+        assertTrue(items.get(missing).getErrorMessage().contains("not found"));
+
+        assertEquals(new HashSet<>(active), executionService.getStartedWorkflowIds(calendarId, RUN_DATE));
+    }
+
+    @Test
+    void testFailureInsideAChunkOnlyFailsThatWorkflow() {
+        Long calendarId = createCalendar("Bulk partial failure");
+        List<Long> workflowIds = createWorkflows(6, "Y");
+        Long broken = workflowIds.get(1);
+        breakCachedPlan(broken);
+
+        // Two chunks of three: the first fails as a whole and is retried per workflow
+        override(executionService, "bulkStartChunkSize", 3);
+        BulkWorkflowStartResultDto result = executionService.startWorkflowsBulk(calendarId, workflowIds, RUN_DATE);
+
+        assertEquals(5, result.getStartedCount());
+        assertEquals(0, result.getSkippedCount());
+        assertEquals(1, result.getFailedCount());
+        Map<Long, ItemResultDto> items = byWorkflow(result);
+        assertEquals(ItemResultDto.FAILED, items.get(broken).getStatus());
+        assertNotNull(items.get(broken).getErrorMessage());
+        for (Long workflowId : workflowIds) {
+            if (!workflowId.equals(broken)) {
+                assertEquals(ItemResultDto.STARTED, items.get(workflowId).getStatus());
+                assertTrue(instanceRepository.findById(items.get(workflowId).getInstanceId()).isPresent());
+            }
+        }
+
+        // Nothing of the failed workflow was written, not even its ledger entry
+        List<Long> recorded = calendarRunRepository.findWorkflowIdsByCalendarIdAndEffectiveDate(calendarId, RUN_DATE);
+        assertEquals(5, recorded.size());
+        assertFalse(recorded.contains(broken));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM WORKFLOW_INSTANCE WHERE WORKFLOW_ID = ?", Integer.class, broken));
+    }
+
+    @Test
+    void testWorkflowWithDependencyCycleFailsAlone() {
+        Long calendarId = createCalendar("Bulk cycle");
+        List<Long> workflowIds = createWorkflows(3, "Y");
+        Long cyclic = createCyclicWorkflow("Bulk Cycle");
+        List<Long> requested = new ArrayList<>(workflowIds);
+        requested.add(1, cyclic);
+
+        BulkWorkflowStartResultDto result = executionService.startWorkflowsBulk(calendarId, requested, RUN_DATE);
+        assertEquals(3, result.getStartedCount());
+        assertEquals(1, result.getFailedCount());
+        ItemResultDto failed = byWorkflow(result).get(cyclic);
+        assertEquals(ItemResultDto.FAILED, failed.getStatus());
+        assertTrue(failed.getErrorMessage().contains("cycle"));
+        assertEquals(new HashSet<>(workflowIds), executionService.getStartedWorkflowIds(calendarId, RUN_DATE));
+    }
+
+    @Test
+    void testControllerStartsBulkRequest() {
+        Long calendarId = createCalendar("Bulk controller");
+        List<Long> workflowIds = createWorkflows(2, "Y");
+
+        ResponseEntity<BulkWorkflowStartResultDto> response = executionController.startWorkflowsBulk(
+                new BulkWorkflowStartRequestDto(calendarId, workflowIds, RUN_DATE));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(RUN_DATE, response.getBody().getExecutionDate());
+        assertEquals(2, response.getBody().getStartedCount());
+    }
+
+    /**
+     * Compile and cache the workflow's plan, then delete its task behind the
+     * cache's back so writing an instance from the plan violates a foreign key
+     */
+    private void breakCachedPlan(Long workflowId) {
+        planService.getPlan(workflowId);
+        jdbcTemplate.update("DELETE FROM WORKFLOW_CONFIG_TASK WHERE WORKFLOW_ID = ?", workflowId);
+    }
+
+    private static Map<Long, ItemResultDto> byWorkflow(BulkWorkflowStartResultDto result) {
+        return result.getItems().stream().collect(Collectors.toMap(ItemResultDto::getWorkflowId, Function.identity()));
+    }
+
+    private List<Long> createWorkflows(int count, String isActive) {
+        return createWorkflows("Bulk Workflow", count, isActive);
+    }
+}
@@ -0,0 +1,207 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.entity.WorkflowCalendarDay;
+import com.docwf.service.calendar.CalendarBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the compiled CalendarBitmap
+ * Checks it against the WorkflowCalendar entity rules it replaces on the hot path
+ */
+public class CalendarBitmapTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2028, 12, 31);
+
+    @Test
+    void testMatchesEntityRulesForEveryRecurrence() {
+        for (String recurrence : new String[] {null, "NONE", "DAILY", "WEEKLY", "MONTHLY", "YEARLY"}) {
+            WorkflowCalendar calendar = calendar(recurrence, 40, 25, new Random(7));
+            CalendarBitmap bitmap = compile(calendar);
+
+            for (LocalDate date = START.minusDays(3); !date.isAfter(END.plusDays(3)); date = date.plusDays(1)) {
+                assertEquals(calendar.isDateValid(date), bitmap.isValid(date), recurrence + " valid on " + date);
+                assertEquals(calendar.canExecuteWorkflow(date), bitmap.canExecute(date), recurrence + " executable on " + date);
+            }
+        }
+    }
+
+    @Test
+    void testWithoutRunDaysExecutesOnNonHolidayWeekdays() {
+        WorkflowCalendar calendar = calendar("DAILY", 0, 0, new Random(1));
+        calendar.addCalendarDay(new WorkflowCalendarDay(calendar, LocalDate.of(2024, 7, 4), "HOLIDAY", "Independence Day"));
+        CalendarBitmap bitmap = compile(calendar);
+
+        assertTrue(bitmap.canExecute(LocalDate.of(2024, 7, 3)));
+        assertFalse(bitmap.canExecute(LocalDate.of(2024, 7, 4)));
+        assertFalse(bitmap.canExecute(LocalDate.of(2024, 7, 6)));
+        assertTrue(bitmap.isValid(LocalDate.of(2024, 7, 6)));
+        assertTrue(bitmap.isHoliday(LocalDate.of(2024, 7, 4)));
+    }
+
+    @Test
+    void testRunDayOutsideRangeStillRestrictsExecution() {
+        WorkflowCalendar calendar = calendar("NONE", 0, 0, new Random(1));
+        calendar.addCalendarDay(new WorkflowCalendarDay(calendar, END.plusYears(1), "RUNDAY", null));
+        CalendarBitmap bitmap = compile(calendar);
+
+        LocalDate monday = LocalDate.of(2024, 3, 4);
+        assertEquals(calendar.canExecuteWorkflow(monday), bitmap.canExecute(monday));
+        assertFalse(bitmap.canExecute(monday));
+        assertTrue(bitmap.isValid(monday));
+    }
+
+    @Test
+    void testValidDatesAreClippedToTheCalendarRange() {
+        WorkflowCalendar calendar = calendar("NONE", 30, 10, new Random(3));
+        CalendarBitmap bitmap = compile(calendar);
+
+        List<LocalDate> expected = START.datesUntil(END.plusDays(1))
+                .filter(calendar::isDateValid)
+                .collect(Collectors.toList());
+        assertEquals(expected, bitmap.getValidDates(START.minusYears(1), END.plusYears(1)));
+
+        // Ranges that cross 64-day word boundaries
+        LocalDate from = LocalDate.of(2025, 2, 27);
+        LocalDate to = LocalDate.of(2025, 9, 2);
+        assertEquals(from.datesUntil(to.plusDays(1)).filter(calendar::isDateValid).collect(Collectors.toList()),
+                bitmap.getValidDates(from, to));
+        assertEquals(List.of(), bitmap.getValidDates(END.plusDays(1), END.plusYears(1)));
+    }
+
+    @Test
+    void testRankLookupsMatchDayByDayWalk() {
+        WorkflowCalendar calendar = calendar("NONE", 60, 30, new Random(11));
+        CalendarBitmap bitmap = compile(calendar);
+
+        for (LocalDate date = START.minusDays(10); !date.isAfter(END.plusDays(10)); date = date.plusDays(1)) {
+            assertEquals(walk(calendar, date.plusDays(1), 1), bitmap.getNextValidDate(date), "next after " + date);
+            assertEquals(walk(calendar, date.minusDays(1), -1), bitmap.getPreviousValidDate(date), "previous before " + date);
+        }
+
+        for (YearMonth month = YearMonth.from(START); !month.isAfter(YearMonth.from(END)); month = month.plusMonths(1)) {
+            List<LocalDate> validInMonth = month.atDay(1).datesUntil(month.atEndOfMonth().plusDays(1))
+                    .filter(calendar::isDateValid)
+                    .collect(Collectors.toList());
+            assertEquals(validInMonth.get(0), bitmap.getNthValidDateOfMonth(month, 1));
+            assertEquals(validInMonth.get(4), bitmap.getNthValidDateOfMonth(month, 5));
+            assertEquals(validInMonth.get(validInMonth.size() - 1), bitmap.getNthValidDateOfMonth(month, -1));
+            assertNull(bitmap.getNthValidDateOfMonth(month, validInMonth.size() + 1));
+            assertNull(bitmap.getNthValidDateOfMonth(month, 0));
+        }
+
+        Random random = new Random(5);
+        int span = (int) (END.toEpochDay() - START.toEpochDay());
+        for (int i = 0; i < 500; i++) {
+            LocalDate from = START.plusDays(random.nextInt(span + 40) - 20);
+            LocalDate to = from.plusDays(random.nextInt(400) - 20);
+            long expected = from.isAfter(to) ? 0 : from.datesUntil(to.plusDays(1)).filter(calendar::isDateValid).count();
+            assertEquals(expected, bitmap.countValidDates(from, to), "between " + from + " and " + to);
+        }
+    }
+
+    @Test
+    void testAlgebraMatchesDayByDaySetOperations() {
+        WorkflowCalendar us = calendar("NONE", 50, 20, new Random(21));
+        WorkflowCalendar eu = calendar("NONE", 50, 0, new Random(22), LocalDate.of(2025, 6, 1), LocalDate.of(2030, 6, 30));
+        CalendarBitmap usBitmap = compile(us);
+        CalendarBitmap euBitmap = compile(eu);
+
+        CalendarBitmap union = usBitmap.union(euBitmap);
+        CalendarBitmap intersection = usBitmap.intersect(euBitmap);
+        CalendarBitmap difference = usBitmap.minus(euBitmap);
+        CalendarBitmap dayBefore = usBitmap.shift(-1);
+        assertEquals(START, union.getStartDate());
+        assertEquals(eu.getEndDate(), union.getEndDate());
+        assertEquals(eu.getStartDate(), intersection.getStartDate());
+        assertEquals(END, intersection.getEndDate());
+        assertNull(union.getCalendarId());
+
+        for (LocalDate date = START.minusDays(5); !date.isAfter(eu.getEndDate().plusDays(5)); date = date.plusDays(1)) {
+            boolean usValid = us.isDateValid(date);
+            boolean euValid = eu.isDateValid(date);
+            assertEquals(usValid || euValid, union.isValid(date), "union on " + date);
+            assertEquals(usValid && euValid, intersection.isValid(date), "intersection on " + date);
+            assertEquals(usValid && !euValid, difference.isValid(date), "difference on " + date);
+            assertEquals(us.canExecuteWorkflow(date) && eu.canExecuteWorkflow(date), intersection.canExecute(date),
+                    "intersection executable on " + date);
+            assertEquals(us.isDateValid(date.plusDays(1)), dayBefore.isValid(date), "shift on " + date);
+        }
+
+        // Rank lookups work on composites as on compiled calendars
+        List<LocalDate> bothValid = eu.getStartDate().datesUntil(END.plusDays(1))
+                .filter(date -> us.isDateValid(date) && eu.isDateValid(date))
+                .collect(Collectors.toList());
+        assertEquals(bothValid, intersection.getValidDates(START, eu.getEndDate()));
+        assertEquals(bothValid.get(0), intersection.getNextValidDate(START));
+        assertEquals(bothValid.size(), intersection.countValidDates(START, eu.getEndDate()));
+    }
+
+    @Test
+    void testIntersectionOfDisjointRangesIsEmpty() {
+        CalendarBitmap early = compile(calendar("DAILY", 0, 0, new Random(1)));
+        CalendarBitmap late = compile(calendar("DAILY", 0, 0, new Random(1), END.plusYears(1), END.plusYears(2)));
+
+        CalendarBitmap intersection = early.intersect(late);
+        assertFalse(intersection.isValid(END));
+        assertFalse(intersection.isValid(END.plusYears(1)));
+        assertNull(intersection.getNextValidDate(START));
+        assertEquals(List.of(), intersection.getValidDates(START, END.plusYears(2)));
+        assertEquals(0, intersection.countValidDates(START, END.plusYears(2)));
+
+        CalendarBitmap union = early.union(late);
+        assertTrue(union.isValid(END));
+        assertFalse(union.isValid(END.plusMonths(6)));
+        assertTrue(union.isValid(END.plusYears(1)));
+    }
+
+    /**
+     * First valid date from the given date in one direction, as the service used to find it
+     */
+    private static LocalDate walk(WorkflowCalendar calendar, LocalDate date, int step) {
+        for (; step > 0 ? !date.isAfter(END) : !date.isBefore(START); date = date.plusDays(step)) {
+            if (calendar.isDateValid(date)) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private static WorkflowCalendar calendar(String recurrence, int holidays, int runDays, Random random) {
+        return calendar(recurrence, holidays, runDays, random, START, END);
+    }
+
+    private static WorkflowCalendar calendar(String recurrence, int holidays, int runDays, Random random,
+                                             LocalDate start, LocalDate end) {
+        WorkflowCalendar calendar = new WorkflowCalendar("Test", null, start, end, recurrence, "test");
+        int span = (int) (end.toEpochDay() - start.toEpochDay());
+        for (int i = 0; i < holidays; i++) {
+            calendar.addCalendarDay(new WorkflowCalendarDay(calendar, start.plusDays(random.nextInt(span)), "HOLIDAY", null));
+        }
+        for (int i = 0; i < runDays; i++) {
+            calendar.addCalendarDay(new WorkflowCalendarDay(calendar, start.plusDays(random.nextInt(span)), "RUNDAY", null));
+        }
+        return calendar;
+    }
+
+    private static CalendarBitmap compile(WorkflowCalendar calendar) {
+        return new CalendarBitmap(1L, 0L, calendar.getStartDate(), calendar.getEndDate(), calendar.getRecurrence(),
+                datesOfType(calendar, "HOLIDAY"), datesOfType(calendar, "RUNDAY"));
+    }
+
+    private static List<LocalDate> datesOfType(WorkflowCalendar calendar, String dayType) {
+        return calendar.getCalendarDays().stream()
+                .filter(day -> dayType.equals(day.getDayType()))
+                .map(WorkflowCalendarDay::getDayDate)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,131 @@
+package com.docwf.service;
+
+import com.docwf.job.CalendarWorkflowPartitionJob;
+import com.docwf.service.cluster.ConsistentHashRing;
+import com.docwf.service.cluster.QuartzClusterMembership;
+import org.junit.jupiter.api.Test;
+import org.quartz.Scheduler;
+import org.quartz.spi.JobFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests calendar ownership and fan-out partitioning against real clustered
+ * Quartz schedulers sharing one H2 job store, see {@link QuartzClusterHarness}.
+ */
+public class CalendarClusterPartitioningTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int CALENDARS = 3000;
+
+    @Test
+    void testRingGivesEveryCalendarOneOwnerAndMovesOnlyTheLostNodesShare() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), VIRTUAL_NODES);
+        ConsistentHashRing two = new ConsistentHashRing(List.of("node-1", "node-2"), VIRTUAL_NODES);
+
+        Map<String, Integer> owned = new HashMap<>();
+        int moved = 0;
+        for (long calendarId = 1; calendarId <= CALENDARS; calendarId++) {
+            String owner = three.ownerOf(calendarId);
+            assertEquals(owner, reordered.ownerOf(calendarId));
+            owned.merge(owner, 1, Integer::sum);
+
+            String survivor = two.ownerOf(calendarId);
+            if (!owner.equals("node-3")) {
+                assertEquals(owner, survivor, "calendar " + calendarId + " moved between surviving nodes");
+            } else {
+                moved++;
+            }
+        }
+
+        assertEquals(Set.of("node-1", "node-2", "node-3"), owned.keySet());
+        for (int count : owned.values()) {
+            assertTrue(count > CALENDARS / 3 * 0.75 && count < CALENDARS / 3 * 1.25, "unbalanced ownership " + owned);
+        }
+        assertEquals(owned.get("node-3").intValue(), moved);
+        assertNull(new ConsistentHashRing(List.of(), VIRTUAL_NODES).ownerOf(1L));
+    }
+
+    @Test
+    void testMembershipFollowsSchedulerCheckins() throws Exception {
+        try (QuartzClusterHarness cluster = new QuartzClusterHarness("membership")) {
+            JobFactory noJobs = (bundle, scheduler) -> context -> { };
+            cluster.startNode("node-1", 1, noJobs);
+            cluster.startNode("node-2", 1, noJobs);
+            Scheduler third = cluster.startNode("node-3", 1, noJobs);
+
+            QuartzClusterMembership membership = cluster.membership();
+            assertEquals(Set.of("node-1", "node-2", "node-3"), membership.liveInstances());
+
+            third.shutdown(true);
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (membership.liveInstances().contains("node-3") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(Set.of("node-1", "node-2"), membership.liveInstances());
+        }
+    }
+
+    @Test
+    void testFanOutSlicesRunOnceEachAcrossNodes() throws Exception {
+        List<Long> workflowIds = LongStream.rangeClosed(1, 300).boxed().collect(Collectors.toList());
+        int partitionSize = 10;
+        Map<Long, AtomicInteger> starts = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> slicesByNode = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(workflowIds.size() / partitionSize);
+
+        JobFactory slices = (bundle, scheduler) -> {
+            String node = scheduler.getSchedulerInstanceId();
+            return context -> {
+                List<Long> slice = CalendarWorkflowPartitionJob.workflowIdsOf(context.getMergedJobDataMap());
+                slice.forEach(workflowId -> starts.computeIfAbsent(workflowId, id -> new AtomicInteger()).incrementAndGet());
+                slicesByNode.computeIfAbsent(node, id -> new AtomicInteger()).incrementAndGet();
+                sleep(100);
+                done.countDown();
+            };
+        };
+
+        try (QuartzClusterHarness cluster = new QuartzClusterHarness("fanout")) {
+            List<Scheduler> nodes = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                nodes.add(cluster.createNode("node-" + i, 2, slices));
+            }
+
+            LocalDate executionDate = LocalDate.of(2024, 7, 1);
+            assertEquals(30, CalendarWorkflowPartitionJob.submit(nodes.get(0), 7L, executionDate, workflowIds, partitionSize));
+            // The same fan-out submitted again while pending is not duplicated
+            assertEquals(0, CalendarWorkflowPartitionJob.submit(nodes.get(1), 7L, executionDate, workflowIds, partitionSize));
+
+            for (Scheduler node : nodes) {
+                node.start();
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS), "slices left: " + done.getCount());
+        }
+
+        assertEquals(workflowIds.size(), starts.size());
+        assertTrue(starts.values().stream().allMatch(count -> count.get() == 1), "workflows started more than once");
+        assertEquals(Set.of("node-1", "node-2", "node-3"), slicesByNode.keySet(), "slices by node " + slicesByNode);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.docwf.service;
+
+import com.docwf.job.CalendarWorkflowPartitionJob;
+import org.junit.jupiter.api.Test;
+import org.quartz.Scheduler;
+import org.quartz.spi.JobFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scale-out benchmark for partitioned calendar fan-out.
+ *
+ * One month-end fan-out is sliced with {@link CalendarWorkflowPartitionJob#submit}
+ * into a clustered job store and drained by 1, 2 and 4 in-process nodes of
+ * {@link QuartzClusterHarness}. Each slice holds its thread for a fixed time per
+ * workflow, standing in for the JDBC-bound instance creation, so the makespan
+ * shows how far adding nodes helps once Quartz's own coordination is included.
+ *
+ * Not picked up by the default surefire includes; run explicitly:
+ * <pre>
+ *   mvn test -Dtest=CalendarClusterScaleOutBenchmark
+ * </pre>
+ */
+public class CalendarClusterScaleOutBenchmark {
+
+    private static final int WORKFLOWS = 2400;
+    private static final int PARTITION_SIZE = 25;
+    private static final int THREADS_PER_NODE = 4;
+    private static final long WORK_MS_PER_WORKFLOW = 4;
+    private static final int[] NODE_COUNTS = {1, 2, 4};
+
+    @Test
+    public void measureFanOutScaleOut() throws Exception {
+        Map<Integer, Long> makespans = new LinkedHashMap<>();
+        for (int nodeCount : NODE_COUNTS) {
+            makespans.put(nodeCount, drain(nodeCount));
+        }
+
+        long single = makespans.get(1);
+        System.out.println("=== Calendar fan-out scale-out (" + WORKFLOWS + " workflows, "
+                + WORKFLOWS / PARTITION_SIZE + " slices, " + THREADS_PER_NODE + " threads/node) ===");
+        makespans.forEach((nodes, millis) -> System.out.printf("%d node(s): %5d ms, speedup %.2f, efficiency %.0f%%%n",
+                nodes, millis, single / (double) millis, 100.0 * single / millis / nodes));
+
+        assertTrue(single / (double) makespans.get(4) > 2.5, "4 nodes should drain well over twice as fast: " + makespans);
+    }
+
+    private long drain(int nodeCount) throws Exception {
+        List<Long> workflowIds = LongStream.rangeClosed(1, WORKFLOWS).boxed().collect(Collectors.toList());
+        CountDownLatch done = new CountDownLatch(WORKFLOWS / PARTITION_SIZE);
+        JobFactory slices = (bundle, scheduler) -> context -> {
+            int size = CalendarWorkflowPartitionJob.workflowIdsOf(context.getMergedJobDataMap()).size();
+            try {
+                Thread.sleep(size * WORK_MS_PER_WORKFLOW);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+
+        try (QuartzClusterHarness cluster = new QuartzClusterHarness("scaleout" + nodeCount)) {
+            List<Scheduler> nodes = new ArrayList<>();
+            for (int i = 1; i <= nodeCount; i++) {
+                nodes.add(cluster.createNode("node-" + i, THREADS_PER_NODE, slices));
+            }
+            CalendarWorkflowPartitionJob.submit(nodes.get(0), 1L, LocalDate.of(2024, 1, 31), workflowIds, PARTITION_SIZE);
+
+            long start = System.nanoTime();
+            for (Scheduler node : nodes) {
+                node.start();
+            }
+            assertTrue(done.await(2, TimeUnit.MINUTES), "slices left: " + done.getCount());
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+    }
+}
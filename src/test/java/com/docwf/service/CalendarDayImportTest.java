@@ -0,0 +1,219 @@
+package com.docwf.service;
+
+import com.docwf.dto.CalendarDayImportResultDto;
+import com.docwf.dto.WorkflowCalendarDayDto;
+import com.docwf.dto.WorkflowCalendarDto;
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.calendar.CalendarDayImportReader.Format;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the streaming calendar-day import for each upload format, including
+ * deduplication against existing days, per-row rejection and imports that
+ * span several flushed chunks.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CalendarDayImportTest {
+
+    @Autowired
+    private WorkflowCalendarService calendarService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testJsonImportSkipsDuplicatesAndReportsBadRows() {
+        Long calendarId = createCalendar("Import JSON");
+        calendarService.addCalendarDay(calendarId, new WorkflowCalendarDayDto(calendarId, LocalDate.of(2024, 1, 1), "HOLIDAY", "New Year"));
+
+        String json = "[" +
+                "{\"dayDate\": \"2024-01-01\", \"dayType\": \"HOLIDAY\"}," +                       // already on the calendar
+                "{\"dayDate\": \"2024-07-04\", \"dayType\": \"holiday\", \"note\": \"Independence Day\"}," +
+                "{\"dayDate\": \"2024-07-04\", \"dayType\": \"HOLIDAY\"}," +                       // repeated in the upload
+                "{\"dayDate\": \"2024-07-06\", \"dayType\": \"RUNDAY\", \"calendarId\": 999}," +
+                "{\"dayDate\": \"2024-13-01\", \"dayType\": \"HOLIDAY\"}," +
+                "{\"dayDate\": \"2024-08-01\", \"dayType\": \"WEEKEND\"}," +
+                "{\"dayDate\": \"2024-12-25\"}" +                                                  // default type
+                "]";
+        CalendarDayImportResultDto result = importDays(calendarId, json, Format.JSON);
+
+        assertEquals(7, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("Row 5:"), result.getErrors().toString());
+        assertTrue(result.getErrors().get(1).startsWith("Row 6:"), result.getErrors().toString());
+
+        Map<LocalDate, String> days = daysOf(calendarId);
+        assertEquals(Map.of(
+                LocalDate.of(2024, 1, 1), "HOLIDAY",
+                LocalDate.of(2024, 7, 4), "HOLIDAY",
+                LocalDate.of(2024, 7, 6), "RUNDAY",
+                LocalDate.of(2024, 12, 25), "HOLIDAY"), days);
+
+        // The cached calendar bitmap is rebuilt with the imported days
+        assertFalse(calendarService.isDateValid(calendarId, LocalDate.of(2024, 7, 4)));
+        assertTrue(calendarService.isDateValid(calendarId, LocalDate.of(2024, 7, 6)));
+    }
+
+    @Test
+    void testCsvImportOfManyDaysInOnePass() {
+        Long calendarId = createCalendar("Import CSV");
+
+        StringBuilder csv = new StringBuilder("date,type,note\n");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 3000; i++) {
+            csv.append(start.plusDays(i)).append(i % 10 == 0 ? ",RUNDAY" : ",HOLIDAY")
+                    .append(",\"Day ").append(i).append(", imported\"\n");
+        }
+        csv.append("# trailing comment\n\n");
+        csv.append(start).append(",RUNDAY,repeat\n");
+
+        CalendarDayImportResultDto result = importDays(calendarId, csv.toString(), Format.CSV);
+        assertEquals(3001, result.getReceived());
+        assertEquals(3000, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(0, result.getRejected());
+
+        List<WorkflowCalendarDayDto> days = calendarService.getCalendarDays(calendarId);
+        assertEquals(3000, days.size());
+        assertEquals(300, days.stream().filter(day -> "RUNDAY".equals(day.getDayType())).count());
+        assertTrue(days.stream().anyMatch(day -> "Day 7, imported".equals(day.getNote())));
+
+        // Importing the same file again adds nothing
+        CalendarDayImportResultDto again = importDays(calendarId, csv.toString(), Format.CSV);
+        assertEquals(0, again.getImported());
+        assertEquals(3001, again.getDuplicates());
+    }
+
+    @Test
+    void testDaysAreWrittenCorrectlyAcrossClearedChunks() {
+        Long calendarId = createCalendar("Import chunks");
+        Object service = AopTestUtils.<Object>getTargetObject(calendarService);
+        Object chunkSize = ReflectionTestUtils.getField(service, "importChunkSize");
+        // 24 new days flush as three full chunks of 7 and a last chunk of 3
+        ReflectionTestUtils.setField(service, "importChunkSize", 7);
+        CalendarDayImportResultDto result;
+        StringBuilder csv = new StringBuilder("date,type,note\n");
+        LocalDate start = LocalDate.of(2025, 3, 1);
+        try {
+            for (int i = 0; i < 24; i++) {
+                csv.append(start.plusDays(i)).append(i % 3 == 0 ? ",RUNDAY" : ",HOLIDAY").append(",Day ").append(i).append('\n');
+                if (i == 20) {
+                    // Repeats a day written two chunks earlier, after the persistence context was cleared
+                    csv.append(start.plusDays(3)).append(",RUNDAY,Repeat\n");
+                }
+            }
+            result = importDays(calendarId, csv.toString(), Format.CSV);
+        } finally {
+            ReflectionTestUtils.setField(service, "importChunkSize", chunkSize);
+        }
+        assertEquals(25, result.getReceived());
+        assertEquals(24, result.getImported());
+        assertEquals(1, result.getDuplicates());
+
+        // Every row is written once, for this calendar, with its own date, type and note
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT CALENDAR_DAY_ID, CALENDAR_ID, DAY_DATE, DAY_TYPE, NOTE FROM WORKFLOW_CALENDAR_DAYS " +
+                "WHERE CALENDAR_ID = ? ORDER BY DAY_DATE", calendarId);
+        assertEquals(24, rows.size());
+        assertEquals(24, rows.stream().map(row -> row.get("CALENDAR_DAY_ID")).distinct().count());
+        Map<LocalDate, String> notes = new HashMap<>();
+        for (int i = 0; i < 24; i++) {
+            Map<String, Object> row = rows.get(i);
+            assertEquals(calendarId, ((Number) row.get("CALENDAR_ID")).longValue());
+            assertEquals(start.plusDays(i), ((Timestamp) row.get("DAY_DATE")).toLocalDateTime().toLocalDate());
+            assertEquals(i % 3 == 0 ? "RUNDAY" : "HOLIDAY", row.get("DAY_TYPE"));
+            notes.put(start.plusDays(i), (String) row.get("NOTE"));
+        }
+        assertEquals("Day 3", notes.get(start.plusDays(3)));
+        assertEquals("Day 23", notes.get(start.plusDays(23)));
+
+        // The calendar itself is untouched and its cached bitmap sees days from the last chunk
+        assertTrue(calendarService.getCalendarById(calendarId).orElseThrow().getCalendarName().startsWith("Import chunks "));
+        assertFalse(calendarService.isDateValid(calendarId, start.plusDays(22)));
+        assertTrue(calendarService.isDateValid(calendarId, start.plusDays(21)));
+    }
+
+    @Test
+    void testIcalImportExpandsMultiDayEvents() {
+        Long calendarId = createCalendar("Import iCal");
+
+        String ics = String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "VERSION:2.0",
+                "BEGIN:VEVENT",
+                "DTSTART;VALUE=DATE:20241225",
+                "DTEND;VALUE=DATE:20241227",
+                "SUMMARY:Christmas Day\\, Boxing",
+                "  Day",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "DTSTART:20240527T000000Z",
+                "SUMMARY:Memorial Day",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:No start",
+                "END:VEVENT",
+                "END:VCALENDAR",
+                "");
+        CalendarDayImportResultDto result = importDays(calendarId, ics, Format.ICAL);
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("Row 13:"), result.getErrors().toString());
+
+        List<WorkflowCalendarDayDto> days = calendarService.getCalendarDays(calendarId);
+        assertEquals(List.of(LocalDate.of(2024, 5, 27), LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 26)),
+                days.stream().map(WorkflowCalendarDayDto::getDayDate).sorted().collect(Collectors.toList()));
+        assertTrue(days.stream().allMatch(day -> "HOLIDAY".equals(day.getDayType())));
+        assertTrue(days.stream().anyMatch(day -> "Christmas Day, Boxing Day".equals(day.getNote())));
+    }
+
+    @Test
+    void testFormatResolutionAndMalformedFiles() {
+        assertEquals(Format.ICAL, Format.resolve(null, "us-holidays.ics"));
+        assertEquals(Format.CSV, Format.resolve("csv", "days.txt"));
+        assertThrows(WorkflowException.class, () -> Format.resolve(null, "days.xlsx"));
+
+        Long calendarId = createCalendar("Import malformed");
+        assertThrows(WorkflowException.class, () -> importDays(calendarId, "{\"dayDate\": \"2024-01-01\"}", Format.JSON));
+        assertThrows(WorkflowException.class, () -> importDays(calendarId, "[{\"dayDate\": ", Format.JSON));
+        assertThrows(WorkflowException.class, () -> importDays(-1L, "[]", Format.JSON));
+    }
+
+    private CalendarDayImportResultDto importDays(Long calendarId, String content, Format format) {
+        InputStream stream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        return calendarService.importCalendarDays(calendarId, stream, format, "HOLIDAY");
+    }
+
+    private Long createCalendar(String name) {
+        WorkflowCalendarDto calendar = new WorkflowCalendarDto(name + " " + System.nanoTime(), null,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2032, 12, 31), "NONE", "test");
+        return calendarService.createCalendar(calendar).getCalendarId();
+    }
+
+    private Map<LocalDate, String> daysOf(Long calendarId) {
+        return calendarService.getCalendarDays(calendarId).stream()
+                .collect(Collectors.toMap(WorkflowCalendarDayDto::getDayDate, WorkflowCalendarDayDto::getDayType));
+    }
+}
@@ -0,0 +1,73 @@
+package com.docwf.service;
+
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.calendar.CalendarBitmap;
+import com.docwf.service.calendar.CalendarExpression;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for parsing and evaluating composite calendar expressions
+ */
+public class CalendarExpressionTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    // 2024-07-04 (Thursday) is a US holiday and 2024-07-05 an EU one; calendar 3
+    // is closed on both but runs on Saturday 2024-07-06
+    private static final Map<Long, CalendarBitmap> BITMAPS = Map.of(
+            1L, new CalendarBitmap(1L, 0L, START, END, "NONE", List.of(LocalDate.of(2024, 7, 4)), List.of()),
+            2L, new CalendarBitmap(2L, 0L, START, END, "NONE", List.of(LocalDate.of(2024, 7, 5)), List.of()),
+            3L, new CalendarBitmap(3L, 0L, START, END, "NONE", List.of(LocalDate.of(2024, 7, 4), LocalDate.of(2024, 7, 5)),
+                    List.of(LocalDate.of(2024, 7, 6))));
+
+    @Test
+    void testEvaluatesNestedExpression() {
+        CalendarExpression expression = CalendarExpression.parse(" union( intersect(1, 2), 3 ) ");
+
+        assertEquals(Set.of(1L, 2L, 3L), expression.getCalendarIds());
+        assertEquals("union( intersect(1, 2), 3 )", expression.toString());
+
+        CalendarBitmap bitmap = expression.evaluate(BITMAPS::get);
+        assertTrue(bitmap.isValid(LocalDate.of(2024, 7, 3)));
+        assertFalse(bitmap.isValid(LocalDate.of(2024, 7, 4)));
+        assertFalse(bitmap.isValid(LocalDate.of(2024, 7, 5)));
+        assertTrue(bitmap.isValid(LocalDate.of(2024, 7, 6)));
+        assertEquals(LocalDate.of(2024, 7, 6), bitmap.getNextValidDate(LocalDate.of(2024, 7, 3)));
+    }
+
+    @Test
+    void testMinusAndShift() {
+        CalendarBitmap openInUsOnly = CalendarExpression.parse("minus(1, 2)").evaluate(BITMAPS::get);
+        assertEquals(List.of(LocalDate.of(2024, 7, 5)), openInUsOnly.getValidDates(START, END));
+
+        CalendarBitmap empty = CalendarExpression.parse("minus(1, 2, 1)").evaluate(BITMAPS::get);
+        assertEquals(0, empty.countValidDates(START, END));
+
+        CalendarBitmap dayAfter = CalendarExpression.parse("shift(1, +1)").evaluate(BITMAPS::get);
+        assertFalse(dayAfter.isValid(LocalDate.of(2024, 7, 5)));
+        assertTrue(dayAfter.isValid(LocalDate.of(2024, 7, 4)));
+        assertEquals(END.plusDays(1), dayAfter.getEndDate());
+
+        CalendarBitmap dayBefore = CalendarExpression.parse("SHIFT(1, -1)").evaluate(BITMAPS::get);
+        assertFalse(dayBefore.isValid(LocalDate.of(2024, 7, 3)));
+    }
+
+    @Test
+    void testRejectsMalformedExpressions() {
+        for (String text : new String[] {"", "union(1)", "union(1, 2", "join(1, 2)", "shift(1)", "shift(1, x)",
+                "intersect(1, 2) 3", "union(1,, 2)", "shift(1, 99999)", "99999999999999999999"}) {
+            assertThrows(WorkflowException.class, () -> CalendarExpression.parse(text), text);
+        }
+
+        WorkflowException error = assertThrows(WorkflowException.class, () -> CalendarExpression.parse("union(1, join(2, 3))"));
+        assertTrue(error.getMessage().contains("position 9"), error.getMessage());
+    }
+}
@@ -0,0 +1,193 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowCalendar;
+import com.docwf.job.CalendarWorkflowExecutionJob;
+import com.docwf.job.JobExecutionHistoryListener;
+import com.docwf.job.SchedulerMetricsListener;
+import com.docwf.repository.WorkflowCalendarRepository;
+import com.docwf.service.cluster.CalendarJobPartitioner;
+import com.docwf.service.impl.CalendarSchedulerServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerMetaData;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for calendar ownership on a single node
+ * Covers the stored pause flag and catching up a cron time missed before the node owned a calendar
+ */
+public class CalendarJobPartitionerTest {
+
+    private static final String NEVER_TODAY = "0 0 12 1 1 ? 2099";
+    private static final String DAILY_AT_MIDNIGHT = "0 0 0 * * ?";
+
+    private final Map<Long, WorkflowCalendar> calendars = new HashMap<>();
+    private final List<Long> fired = Collections.synchronizedList(new ArrayList<>());
+
+    private WorkflowCalendarRepository calendarRepository;
+
+    private CalendarJobPartitioner partitioner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Scheduler clustered = mock(Scheduler.class);
+        when(clustered.getSchedulerInstanceId()).thenReturn("node-1");
+        when(clustered.getMetaData()).thenReturn(mock(SchedulerMetaData.class));
+        when(clustered.getJobKeys(any())).thenReturn(Set.of());
+
+        calendarRepository = mock(WorkflowCalendarRepository.class);
+        when(calendarRepository.findActiveCalendarsWithCronExpression()).thenAnswer(invocation -> new ArrayList<>(calendars.values()));
+        when(calendarRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(calendars.get(invocation.<Long>getArgument(0))));
+        when(calendarRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Owned calendar jobs record which calendar fired instead of starting workflows
+        Job job = context -> fired.add(context.getMergedJobDataMap().getLongValue("calendarId"));
+        AutowireCapableBeanFactory beanFactory = mock(AutowireCapableBeanFactory.class);
+        doReturn(job).when(beanFactory).createBean(CalendarWorkflowExecutionJob.class);
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getAutowireCapableBeanFactory()).thenReturn(beanFactory);
+
+        partitioner = new CalendarJobPartitioner();
+        ReflectionTestUtils.setField(partitioner, "scheduler", clustered);
+        ReflectionTestUtils.setField(partitioner, "calendarRepository", calendarRepository);
+        ReflectionTestUtils.setField(partitioner, "applicationContext", applicationContext);
+        ReflectionTestUtils.setField(partitioner, "historyListener", mock(JobExecutionHistoryListener.class));
+        ReflectionTestUtils.setField(partitioner, "metricsListener", mock(SchedulerMetricsListener.class));
+        ReflectionTestUtils.setField(partitioner, "enabled", true);
+        ReflectionTestUtils.setField(partitioner, "virtualNodes", 128);
+        ReflectionTestUtils.setField(partitioner, "partitionSize", 100);
+        ReflectionTestUtils.setField(partitioner, "ownerThreads", 1);
+        ReflectionTestUtils.setField(partitioner, "tablePrefix", "QRTZ_");
+    }
+
+    @AfterEach
+    void stop() {
+        partitioner.stop();
+    }
+
+    @Test
+    void testPausedCalendarIsReleasedByItsOwnerUntilResumed() throws Exception {
+        addCalendar(1L, NEVER_TODAY, "N");
+        partitioner.start();
+        assertTrue(isOwned(1L));
+        assertNotNull(partitioner.getNextFireTime(1L));
+
+        assertTrue(partitioner.setPaused(1L, true));
+        assertEquals("Y", calendars.get(1L).getSchedulePaused());
+        verify(calendarRepository).save(calendars.get(1L));
+        assertTrue(partitioner.isPaused(1L));
+        assertFalse(isOwned(1L));
+        assertNull(partitioner.getNextFireTime(1L));
+
+        // Taking ownership again honours the stored flag
+        partitioner.rebalance();
+        assertFalse(isOwned(1L));
+
+        assertTrue(partitioner.setPaused(1L, false));
+        assertEquals("N", calendars.get(1L).getSchedulePaused());
+        assertTrue(isOwned(1L));
+        assertFalse(partitioner.setPaused(99L, true));
+    }
+
+    @Test
+    void testTakingOverCatchesUpACronTimeEarlierToday() throws Exception {
+        addCalendar(1L, DAILY_AT_MIDNIGHT, "N");
+        addCalendar(2L, NEVER_TODAY, "N");
+        addCalendar(3L, DAILY_AT_MIDNIGHT, "Y");
+        partitioner.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fired.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // Only once, and not again while ownership is unchanged
+        partitioner.rebalance();
+        Thread.sleep(500);
+        assertEquals(List.of(1L), fired);
+        assertTrue(isOwned(1L));
+        assertTrue(isOwned(2L));
+        assertFalse(isOwned(3L));
+    }
+
+    @Test
+    void testCatchUpCountsTodayInTheCalendarsTimeZone() throws Exception {
+        // On a UTC server, 00:01 for a calendar an hour ahead was 23:01 yesterday, still earlier today for the calendar
+        assumeTrue(LocalTime.now(ZoneOffset.UTC).getHour() < 23);
+        TimeZone serverZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        try {
+            addCalendar(1L, "0 1 0 * * ?", "N");
+            calendars.get(1L).setTimezone("GMT+01:00");
+            partitioner.start();
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (fired.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(List.of(1L), fired);
+        } finally {
+            TimeZone.setDefault(serverZone);
+        }
+    }
+
+    @Test
+    void testSchedulerServiceRoutesPauseAndResumeThroughThePartitioner() {
+        CalendarJobPartitioner routed = mock(CalendarJobPartitioner.class);
+        Scheduler clustered = mock(Scheduler.class);
+        when(routed.isEnabled()).thenReturn(true);
+        when(routed.setPaused(1L, true)).thenReturn(true);
+        when(routed.setPaused(1L, false)).thenReturn(true);
+        CalendarSchedulerServiceImpl service = new CalendarSchedulerServiceImpl();
+        ReflectionTestUtils.setField(service, "scheduler", clustered);
+        ReflectionTestUtils.setField(service, "calendarJobPartitioner", routed);
+
+        assertTrue(service.pauseCalendarSchedule(1L));
+        assertTrue(service.resumeCalendarSchedule(1L));
+        verify(routed).setPaused(1L, true);
+        verify(routed).setPaused(1L, false);
+        verifyNoInteractions(clustered);
+    }
+
+    private boolean isOwned(Long calendarId) throws Exception {
+        Scheduler owner = (Scheduler) ReflectionTestUtils.getField(partitioner, "ownerScheduler");
+        return owner.checkExists(JobKey.jobKey("ownedCalendar_" + calendarId, "ownedCalendars"));
+    }
+
+    private void addCalendar(Long calendarId, String cronExpression, String paused) {
+        WorkflowCalendar calendar = new WorkflowCalendar("Owned " + calendarId, null, LocalDate.of(2024, 1, 1),
+                LocalDate.now().plusYears(1), "NONE", "test");
+        calendar.setCalendarId(calendarId);
+        calendar.setCronExpression(cronExpression);
+        calendar.setTimezone(ZoneId.systemDefault().getId());
+        calendar.setSchedulePaused(paused);
+        calendars.put(calendarId, calendar);
+    }
+}
@@ -0,0 +1,132 @@
+package com.docwf.service;
+
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import com.docwf.dto.BulkWorkflowStartResultDto.ItemResultDto;
+import com.docwf.dto.WorkflowCalendarDayDto;
+import com.docwf.repository.WorkflowCalendarRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the calendar run ledger makes scheduled starts idempotent per
+ * calendar, workflow and effective date, including when two jobs race.
+ */
+public class CalendarRunLedgerTest extends WorkflowTestSupport {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 7, 3);
+
+    @Autowired
+    private WorkflowCalendarService calendarService;
+
+    @Autowired
+    private CalendarJobManagementService jobManagementService;
+
+    @Autowired
+    private WorkflowCalendarRunRepository calendarRunRepository;
+
+    @BeforeEach
+    void useTestSystemUser() {
+        // Scheduled starts are recorded against the configured system user
+        override(executionService, "systemUserId", createUser("ledger").getUserId());
+    }
+
+    @Test
+    void testSecondRunForTheSameDateStartsNothing() {
+        Long calendarId = createCalendar("Ledger repeat");
+        List<Long> workflowIds = createWorkflows(5);
+
+        BulkWorkflowStartResultDto first = executionService.startWorkflowsBulk(calendarId, workflowIds, RUN_DATE);
+        assertEquals(5, first.getStartedCount());
+        assertEquals(new HashSet<>(workflowIds), executionService.getStartedWorkflowIds(calendarId, RUN_DATE));
+
+        BulkWorkflowStartResultDto again = executionService.startWorkflowsBulk(calendarId, workflowIds, RUN_DATE);
+        assertEquals(0, again.getStartedCount());
+        assertEquals(5, again.getSkippedCount());
+        assertEquals(0, again.getFailedCount());
+        assertTrue(again.getItems().stream().allMatch(item -> ItemResultDto.SKIPPED.equals(item.getStatus())));
+
+        // A partly overlapping run only starts the new workflow
+        List<Long> more = new ArrayList<>(workflowIds);
+        more.addAll(createWorkflows(1));
+        BulkWorkflowStartResultDto overlapping = executionService.startWorkflowsBulk(calendarId, more, RUN_DATE);
+        assertEquals(1, overlapping.getStartedCount());
+        assertEquals(5, overlapping.getSkippedCount());
+
+        // The next business day is a new run
+        BulkWorkflowStartResultDto nextDay = executionService.startWorkflowsBulk(calendarId, workflowIds, RUN_DATE.plusDays(1));
+        assertEquals(5, nextDay.getStartedCount());
+        assertEquals(6, calendarRunRepository.findWorkflowIdsByCalendarIdAndEffectiveDate(calendarId, RUN_DATE).size());
+    }
+
+    @Test
+    void testRacingRunsStartEachWorkflowOnce() throws Exception {
+        Long calendarId = createCalendar("Ledger race");
+        List<Long> workflowIds = createWorkflows(20);
+
+        int runs = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(runs);
+        CountDownLatch ready = new CountDownLatch(runs);
+        List<Future<BulkWorkflowStartResultDto>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return executionService.startWorkflowsBulk(calendarId, workflowIds, RUN_DATE);
+                }));
+            }
+
+            Set<Long> instanceIds = new HashSet<>();
+            int started = 0;
+            for (Future<BulkWorkflowStartResultDto> result : results) {
+                BulkWorkflowStartResultDto run = result.get();
+                started += run.getStartedCount();
+                run.getItems().stream()
+                        .filter(item -> ItemResultDto.STARTED.equals(item.getStatus()))
+                        .forEach(item -> instanceIds.add(item.getInstanceId()));
+            }
+            assertEquals(workflowIds.size(), started);
+            assertEquals(workflowIds.size(), instanceIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(new HashSet<>(workflowIds), executionService.getStartedWorkflowIds(calendarId, RUN_DATE));
+    }
+
+    @Test
+    void testRetriggerStartsOnlyOncePerDay() {
+        Long calendarId = createCalendar("Ledger retrigger");
+        // The calendar has no time zone of its own, so its days are UTC days
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        calendarService.addCalendarDay(calendarId, new WorkflowCalendarDayDto(calendarId, today, "RUNDAY", "retrigger test"));
+        Long workflowId = createWorkflows(1).get(0);
+
+        Map<String, Object> first = jobManagementService.retriggerWorkflowExecution(calendarId, workflowId);
+        assertEquals(ItemResultDto.STARTED, first.get("status"));
+        assertNotNull(first.get("instanceId"));
+
+        Map<String, Object> second = jobManagementService.retriggerWorkflowExecution(calendarId, workflowId);
+        assertEquals(ItemResultDto.SKIPPED, second.get("status"));
+        assertNull(second.get("instanceId"));
+        assertEquals(List.of(workflowId), calendarRunRepository.findWorkflowIdsByCalendarIdAndEffectiveDate(calendarId, today));
+    }
+
+    private List<Long> createWorkflows(int count) {
+        return createWorkflows("Ledger Workflow", count, "Y");
+    }
+}
@@ -0,0 +1,184 @@
+package com.docwf.service;
+
+import com.docwf.job.ThreadPerJobPool;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.spi.JobFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load benchmark for month-end calendar firing: {@link #TRIGGERS} calendar
+ * triggers due at the same instant, each running a fan-out that alternates
+ * short JDBC transactions on a {@link #CONNECTIONS}-connection Hikari pool with
+ * time spent off the connection, as instance creation does between chunks.
+ *
+ * Compares trigger-to-completion latency for the production SimpleThreadPool
+ * against {@link ThreadPerJobPool}, with and without a datasource limit. On a
+ * Java 21 runtime the latter runs on virtual threads.
+ *
+ * Not picked up by the default surefire includes; run explicitly:
+ * <pre>
+ *   mvn test -Dtest=CalendarTriggerLoadBenchmark
+ * </pre>
+ */
+public class CalendarTriggerLoadBenchmark {
+
+    private static final int TRIGGERS = 500;
+    private static final int CONNECTIONS = 10;
+    private static final int CHUNKS_PER_FAN_OUT = 4;
+    private static final long DB_MS_PER_CHUNK = 5;
+    private static final long OFF_CONNECTION_MS_PER_CHUNK = 15;
+    private static final long FIRE_DELAY_MS = 2000;
+
+    private static HikariDataSource dataSource;
+
+    @Test
+    public void measureMonthEndTriggerLatency() throws Exception {
+        Map<String, long[]> latencies = new LinkedHashMap<>();
+        try (HikariDataSource pool = dataSource()) {
+            dataSource = pool;
+            latencies.put("SimpleThreadPool, 10 threads", run(simpleThreadPool(10)));
+            latencies.put("ThreadPerJobPool, 500 jobs", run(threadPerJobPool(TRIGGERS, 0)));
+            latencies.put("ThreadPerJobPool, 500 jobs, datasource limit 40", run(threadPerJobPool(TRIGGERS, 40)));
+        } finally {
+            dataSource = null;
+        }
+
+        System.out.println("=== " + TRIGGERS + " simultaneous month-end triggers, " + CONNECTIONS + " connections, "
+                + Runtime.version() + " ===");
+        latencies.forEach((pool, millis) -> System.out.printf("%-48s p50 %5d ms, p95 %5d ms, max %5d ms%n",
+                pool, percentile(millis, 50), percentile(millis, 95), millis[millis.length - 1]));
+
+        long fixedP95 = percentile(latencies.get("SimpleThreadPool, 10 threads"), 95);
+        long limitedP95 = percentile(latencies.get("ThreadPerJobPool, 500 jobs, datasource limit 40"), 95);
+        assertTrue(limitedP95 < fixedP95 / 2, "thread-per-job p95 " + limitedP95 + " ms vs fixed pool " + fixedP95 + " ms");
+    }
+
+    /**
+     * Fire TRIGGERS one-shot triggers at the same instant and return each job's
+     * trigger-to-completion latency, sorted
+     */
+    private long[] run(Properties threadPool) throws Exception {
+        long[] latencies = new long[TRIGGERS];
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(TRIGGERS);
+        JobFactory fanOuts = (bundle, scheduler) -> context -> {
+            try {
+                runFanOut();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                latencies[completed.getAndIncrement()] = System.currentTimeMillis() - context.getScheduledFireTime().getTime();
+                done.countDown();
+            }
+        };
+
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "LoadBenchmark_" + System.nanoTime());
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_SKIP_UPDATE_CHECK, "true");
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        properties.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", String.valueOf(TRIGGERS));
+        properties.putAll(threadPool);
+        Scheduler scheduler = new StdSchedulerFactory(properties).getScheduler();
+        scheduler.setJobFactory(fanOuts);
+        try {
+            Date monthEnd = new Date(System.currentTimeMillis() + FIRE_DELAY_MS);
+            for (int i = 0; i < TRIGGERS; i++) {
+                JobDetail job = JobBuilder.newJob(FanOutJob.class).withIdentity("calendar" + i).build();
+                Trigger trigger = TriggerBuilder.newTrigger().withIdentity("monthEnd" + i)
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule()).startAt(monthEnd).build();
+                scheduler.scheduleJob(job, trigger);
+            }
+            scheduler.start();
+            assertTrue(done.await(2, TimeUnit.MINUTES), "fan-outs left: " + done.getCount());
+        } finally {
+            scheduler.shutdown(true);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void runFanOut() throws SQLException {
+        for (int chunk = 0; chunk < CHUNKS_PER_FAN_OUT; chunk++) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.execute();
+                pause(DB_MS_PER_CHUNK);
+            }
+            pause(OFF_CONNECTION_MS_PER_CHUNK);
+        }
+    }
+
+    private static Properties simpleThreadPool(int threads) {
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, SimpleThreadPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threads));
+        return properties;
+    }
+
+    private static Properties threadPerJobPool(int threadCount, int dataSourceConcurrency) {
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, ThreadPerJobPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threadCount));
+        if (dataSourceConcurrency > 0) {
+            properties.setProperty("org.quartz.threadPool.dataSource", "loadBenchmark_" + System.nanoTime());
+            properties.setProperty("org.quartz.threadPool.dataSourceConcurrency", String.valueOf(dataSourceConcurrency));
+        }
+        return properties;
+    }
+
+    private static HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:loadBenchmark_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(CONNECTIONS);
+        config.setMinimumIdle(CONNECTIONS);
+        config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(1));
+        return new HikariDataSource(config);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stored job class only; the job factory supplies what actually runs
+     */
+    public static class FanOutJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
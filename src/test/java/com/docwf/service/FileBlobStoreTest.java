@@ -0,0 +1,157 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowFileBlob;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.repository.WorkflowFileBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the content-addressed blob store: identical content is stored once
+ * whichever way it arrives, references follow the file versions using it, and
+ * garbage collection reclaims only blobs nothing uses.
+ */
+public class FileBlobStoreTest extends FileServiceTestSupport {
+
+    @Autowired
+    private FileBlobStore blobStore;
+
+    @Autowired
+    private WorkflowFileBlobRepository blobRepository;
+
+    @BeforeEach
+    void collectStraightAway() {
+        // Unreferenced blobs are collectable straight away
+        override(blobStore, "gcGraceMinutes", 0L);
+    }
+
+    @Test
+    void storesIdenticalContentOnce() throws Exception {
+        byte[] content = randomBytes(1, 20_000);
+        String checksum = sha256(content);
+
+        WorkflowInstanceTaskFileDto original = store(null, "budget.xlsx", content);
+        WorkflowInstanceTaskFileDto copy = store(null, "budget copy.xlsx", content);
+        WorkflowInstanceTaskFileDto version2 = store(original.getInstanceFileId(), "budget.xlsx", content);
+
+        // A chunked upload of the same content shares the blob too
+        Long uploadId = uploadService.initUpload(instanceTaskId, null, "budget.xlsx", content.length, null, "uploader").getUploadId();
+        uploadService.appendChunk(uploadId, 0, new ByteArrayInputStream(content));
+        WorkflowInstanceTaskFileDto uploaded = uploadService.completeUpload(uploadId, checksum);
+
+        assertEquals(2, version2.getFileVersion());
+        assertEquals(original.getFilePath(), copy.getFilePath());
+        assertEquals(original.getFilePath(), version2.getFilePath());
+        assertEquals(original.getFilePath(), uploaded.getFilePath());
+        Path blob = Paths.get(original.getFilePath());
+        assertEquals(UPLOAD_DIR.resolve("blobs").resolve(checksum.substring(0, 2)).resolve(checksum.substring(2, 4))
+                .resolve(checksum).toAbsolutePath().normalize(), blob);
+        assertArrayEquals(content, Files.readAllBytes(blob));
+        assertEquals(1, countFiles(blob.getParent()));
+        assertEquals(4, blobRepository.findById(checksum).orElseThrow().getRefCount());
+
+        // No part files are left behind
+        try (Stream<Path> files = Files.list(UPLOAD_DIR)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void collectsBlobOnceLastVersionIsDeleted() throws Exception {
+        byte[] content = randomBytes(2, 5_000);
+        String checksum = sha256(content);
+        WorkflowInstanceTaskFileDto first = store(null, "notes.txt", content);
+        WorkflowInstanceTaskFileDto second = store(null, "notes.txt", content);
+        Path blob = Paths.get(first.getFilePath());
+
+        uploadService.deleteFileVersion(first.getInstanceFileId(), 1);
+        assertTrue(uploadService.getFile(first.getInstanceFileId(), 1).isEmpty());
+        assertEquals(1, blobRepository.findById(checksum).orElseThrow().getRefCount());
+        blobStore.collectGarbage();
+        assertTrue(Files.exists(blob));
+
+        uploadService.deleteFileVersion(second.getInstanceFileId(), 1);
+        WorkflowFileBlob unreferenced = blobRepository.findById(checksum).orElseThrow();
+        assertEquals(0, unreferenced.getRefCount());
+        assertNotNull(unreferenced.getUnreferencedOn());
+        assertTrue(Files.exists(blob));
+
+        Thread.sleep(5);
+        assertTrue(blobStore.collectGarbage() >= 1);
+        assertFalse(Files.exists(blob));
+        assertTrue(blobRepository.findById(checksum).isEmpty());
+
+        // Storing the content again starts a new blob
+        WorkflowInstanceTaskFileDto again = store(null, "notes.txt", content);
+        assertEquals(blob, Paths.get(again.getFilePath()));
+        assertArrayEquals(content, Files.readAllBytes(blob));
+        assertEquals(1, blobRepository.findById(checksum).orElseThrow().getRefCount());
+    }
+
+    @Test
+    void collectionKeepsBlobsStillInUseAndRemovesOrphans() throws Exception {
+        byte[] content = randomBytes(3, 3_000);
+        String checksum = sha256(content);
+        Path blob = Paths.get(store(null, "schedule.csv", content).getFilePath());
+
+        // A count that has drifted below the rows using the blob is repaired, not acted on
+        WorkflowFileBlob drifted = blobRepository.findById(checksum).orElseThrow();
+        drifted.setRefCount(0);
+        drifted.setUnreferencedOn(LocalDateTime.now().minusDays(1));
+        blobRepository.save(drifted);
+
+        // A file with no row, as a crash between linking and committing would leave
+        String orphanChecksum = sha256(randomBytes(4, 10));
+        Path orphan = UPLOAD_DIR.resolve("blobs").resolve(orphanChecksum.substring(0, 2))
+                .resolve(orphanChecksum.substring(2, 4)).resolve(orphanChecksum);
+        Files.createDirectories(orphan.getParent());
+        Files.write(orphan, randomBytes(4, 10));
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        blobStore.collectGarbage();
+        assertTrue(Files.exists(blob));
+        WorkflowFileBlob repaired = blobRepository.findById(checksum).orElseThrow();
+        assertEquals(1, repaired.getRefCount());
+        assertNull(repaired.getUnreferencedOn());
+        assertFalse(Files.exists(orphan));
+    }
+
+    private WorkflowInstanceTaskFileDto store(Long instanceFileId, String fileName, byte[] content) throws IOException {
+        return uploadService.storeFile(instanceFileId == null ? instanceTaskId : null, instanceFileId, fileName,
+                instanceFileId == null ? ActionType.UPLOAD : ActionType.UPDATE, "uploader", out -> out.write(content));
+    }
+
+    private static long countFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static byte[] randomBytes(long seed, int length) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
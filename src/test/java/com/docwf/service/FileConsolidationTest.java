@@ -0,0 +1,198 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.FileConsolidationService.ConsolidationFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests streaming consolidation: ZIP entries compressed in parallel or inline
+ * keep their order and content, concatenation, and consolidation tasks
+ */
+public class FileConsolidationTest extends FileServiceTestSupport {
+
+    @Autowired
+    private FileConsolidationService consolidationService;
+
+    @Autowired
+    private ComplexWorkflowExecutionService complexExecutionService;
+
+    private Long consolidateTaskId;
+
+    @BeforeEach
+    void smallLimits() {
+        // Small limits so a handful of files exercises both the parallel and the inline path
+        override(consolidationService, "parallelEntryMaxBytes", 4000L);
+        override(consolidationService, "maxBufferedBytes", 10000L);
+        override(consolidationService, "bufferBytes", 1024);
+        consolidateTaskId = findTask("Consolidate");
+    }
+
+    @Override
+    protected WorkflowConfigTask[] moreTasks() {
+        WorkflowConfigTask consolidate = task("Consolidate", WorkflowConfigTask.TaskType.CONSOLIDATE_FILE, 2);
+        consolidate.setConsolidationMode("HYBRID");
+        consolidate.setMinFileSelections(2);
+        return new WorkflowConfigTask[] {consolidate};
+    }
+
+    @Test
+    void zipKeepsOrderAndContentAcrossParallelAndInlineEntries() throws Exception {
+        // Small entries are deflated ahead by the pool within the 10000 byte budget;
+        // the large one, and any that do not fit, are deflated while being written
+        Map<String, byte[]> expected = new LinkedHashMap<>();
+        List<Long> fileIds = new ArrayList<>();
+        addFile("summary.csv", text(3000), expected, fileIds);
+        addFile("ledger.bin", random(20_000), expected, fileIds);
+        addFile("north.csv", text(3500), expected, fileIds);
+        addFile("south.csv", random(3900), expected, fileIds);
+        addFile("east.csv", text(3800), expected, fileIds);
+        addFile("empty.txt", new byte[0], expected, fileIds);
+        byte[] duplicate = text(100);
+        fileIds.add(upload("summary.csv", duplicate));
+        expected.put("summary (2).csv", duplicate);
+
+        WorkflowInstanceTaskFileDto consolidated = consolidationService.consolidate(instanceTaskId, fileIds,
+                ConsolidationFormat.ZIP, "tester");
+
+        assertEquals(ActionType.CONSOLIDATE, consolidated.getActionType());
+        Path stored = Paths.get(consolidated.getFilePath());
+        // Kept in the blob store like any other task file
+        assertTrue(stored.startsWith(UPLOAD_DIR.resolve("blobs")));
+        byte[] zip = Files.readAllBytes(stored);
+        assertEquals(zip.length, consolidated.getFileSize());
+        assertEquals(sha256(zip), consolidated.getChecksum());
+        assertEntries(expected, unzip(zip));
+
+        // The same archive streams without being stored
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        consolidationService.writeConsolidated(consolidationService.resolveSources(fileIds), ConsolidationFormat.ZIP, streamed);
+        assertEntries(expected, unzip(streamed.toByteArray()));
+    }
+
+    @Test
+    void concatenatesLatestVersionsAndRejectsUnknownFiles() throws Exception {
+        Long header = upload("header.txt", "id,amount\n".getBytes(StandardCharsets.UTF_8));
+        Long rows = upload("rows.txt", "1,10\n".getBytes(StandardCharsets.UTF_8));
+        // A new version of the rows replaces the first in the output
+        Long rowsUpload = uploadService.initUpload(instanceTaskId, rows, "rows.txt", 10, null, "tester").getUploadId();
+        uploadService.appendChunk(rowsUpload, 0, new ByteArrayInputStream("1,10\n2,20\n".getBytes(StandardCharsets.UTF_8)));
+        uploadService.completeUpload(rowsUpload, null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        consolidationService.writeConsolidated(consolidationService.resolveSources(List.of(header, rows)),
+                ConsolidationFormat.CONCAT, out);
+        assertEquals("id,amount\n1,10\n2,20\n", out.toString(StandardCharsets.UTF_8));
+
+        assertThrows(WorkflowException.class, () -> consolidationService.resolveSources(List.of(header, -1L)));
+        assertThrows(WorkflowException.class, () -> consolidationService.resolveSources(List.of()));
+    }
+
+    @Test
+    void consolidationTaskEnforcesSelectionsAndCompletes() throws Exception {
+        Long first = upload("q1.csv", text(500));
+        Long second = upload("q2.csv", text(700));
+
+        assertThrows(WorkflowException.class,
+                () -> complexExecutionService.consolidateFiles(consolidateTaskId, List.of(first), "Too few"));
+        assertTrue(fileRepository.findByInstanceTaskInstanceTaskId(consolidateTaskId).isEmpty());
+
+        WorkflowInstanceTaskDto completed = complexExecutionService.consolidateFiles(consolidateTaskId,
+                List.of(first, second), "Quarterly pack");
+        assertEquals(TaskInstanceStatus.COMPLETED, completed.getStatus());
+
+        List<WorkflowInstanceTaskFile> outputs = fileRepository.findByInstanceTaskInstanceTaskId(consolidateTaskId);
+        assertEquals(1, outputs.size());
+        assertEquals(ActionType.CONSOLIDATE, outputs.get(0).getActionType());
+        assertEquals("Quarterly pack", outputs.get(0).getFileCommentary());
+        assertEquals(List.of("q1.csv", "q2.csv"),
+                new ArrayList<>(unzip(Files.readAllBytes(Paths.get(outputs.get(0).getFilePath()))).keySet()));
+    }
+
+    @Test
+    void autoConsolidationCollectsFilesOfOtherTasks() throws Exception {
+        upload("a.csv", text(100));
+        upload("b.csv", text(200));
+
+        WorkflowInstanceTaskDto completed = complexExecutionService.executeAutoConsolidation(consolidateTaskId);
+        assertEquals(TaskInstanceStatus.COMPLETED, completed.getStatus());
+
+        WorkflowInstanceTaskFile output = fileRepository.findByInstanceTaskInstanceTaskId(consolidateTaskId).get(0);
+        assertEquals(List.of("a.csv", "b.csv"),
+                new ArrayList<>(unzip(Files.readAllBytes(Paths.get(output.getFilePath()))).keySet()));
+    }
+
+    private void addFile(String name, byte[] content, Map<String, byte[]> expected, List<Long> fileIds) throws IOException {
+        fileIds.add(upload(name, content));
+        expected.put(name, content);
+    }
+
+    private Long upload(String name, byte[] content) throws IOException {
+        Long uploadId = uploadService.initUpload(instanceTaskId, null, name, content.length, null, "tester").getUploadId();
+        uploadService.appendChunk(uploadId, 0, new ByteArrayInputStream(content));
+        return uploadService.completeUpload(uploadId, null).getInstanceFileId();
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static void assertEntries(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    private static byte[] text(int length) {
+        StringBuilder text = new StringBuilder(length);
+        Random random = new Random(length);
+        while (text.length() < length) {
+            text.append("row,").append(random.nextInt(1000)).append(",EUR\n");
+        }
+        return text.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
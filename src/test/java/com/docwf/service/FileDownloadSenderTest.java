@@ -0,0 +1,186 @@
+package com.docwf.service;
+
+import com.docwf.service.file.FileDownloadSender;
+import com.docwf.service.file.ReconstructedFileCache;
+import com.docwf.service.file.VersionContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for serving stored files with ranges, conditional requests and sendfile
+ * Covers cached copies being written directly, since they can be deleted once sent
+ */
+public class FileDownloadSenderTest {
+
+    @TempDir
+    Path dir;
+
+    private final FileDownloadSender sender = new FileDownloadSender();
+
+    private Path report;
+    private byte[] content;
+
+    @BeforeEach
+    void writeReport() throws Exception {
+        content = new byte[100_000];
+        new Random(7).nextBytes(content);
+        report = Files.write(dir.resolve("report.pdf"), content);
+        ReflectionTestUtils.setField(sender, "sendfileMinBytes", 49152L);
+    }
+
+    @Test
+    void sendsWholeFileWithValidatorsAndDetectedType() throws Exception {
+        MockHttpServletResponse response = send(get(), true);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals(content.length, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+        assertArrayEquals(content, response.getContentAsByteArray());
+
+        MockHttpServletResponse inline = send(get(), false);
+        assertTrue(inline.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("inline"));
+    }
+
+    @Test
+    void answersUnchangedFileWithNotModified() throws Exception {
+        String etag = send(get(), true).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletRequest revalidate = get();
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = send(revalidate, true);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        // Replacing the file changes the validator
+        Files.write(report, Arrays.copyOf(content, 10));
+        MockHttpServletRequest stale = get();
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        assertEquals(200, send(stale, true).getStatus());
+    }
+
+    @Test
+    void sendsSingleAndSuffixRanges() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-1999");
+        MockHttpServletResponse response = send(request, true);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 1000-1999/100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(1000, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), response.getContentAsByteArray());
+
+        MockHttpServletRequest suffix = get();
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-500");
+        MockHttpServletResponse tail = send(suffix, true);
+        assertEquals("bytes 99500-99999/100000", tail.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 99_500, 100_000), tail.getContentAsByteArray());
+    }
+
+    @Test
+    void sendsMultipleRangesAsByteranges() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9,500-519");
+        MockHttpServletResponse response = send(request, true);
+
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        byte[] body = response.getContentAsByteArray();
+        assertEquals(body.length, response.getContentLengthLong());
+
+        String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("Content-Range: bytes 0-9/100000"));
+        assertTrue(text.contains("Content-Range: bytes 500-519/100000"));
+        assertTrue(text.endsWith("\r\n--" + boundary + "--\r\n"));
+        String second = text.substring(text.indexOf("bytes 500-519/100000") + "bytes 500-519/100000\r\n\r\n".length());
+        assertArrayEquals(Arrays.copyOfRange(content, 500, 520),
+                Arrays.copyOf(second.getBytes(StandardCharsets.ISO_8859_1), 20));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRangesAndIgnoresStaleIfRange() throws Exception {
+        MockHttpServletRequest beyond = get();
+        beyond.addHeader(HttpHeaders.RANGE, "bytes=200000-");
+        MockHttpServletResponse response = send(beyond, true);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        // Overlapping ranges adding up to more than the file
+        MockHttpServletRequest overlapping = get();
+        overlapping.addHeader(HttpHeaders.RANGE, "bytes=0-79999,1-79999");
+        assertEquals(416, send(overlapping, true).getStatus());
+
+        MockHttpServletRequest stale = get();
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"not-this-version\"");
+        MockHttpServletResponse whole = send(stale, true);
+        assertEquals(200, whole.getStatus());
+        assertEquals(content.length, whole.getContentAsByteArray().length);
+    }
+
+    @Test
+    void handsLargeRegionsToSendfileAndSkipsBodyForHead() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-60099");
+        MockHttpServletResponse response = send(request, true);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(report.toRealPath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(100L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(60100L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/api/files/download/report.pdf");
+        MockHttpServletResponse headers = send(head, true);
+        assertEquals(200, headers.getStatus());
+        assertEquals(content.length, headers.getContentLengthLong());
+        assertEquals(0, headers.getContentAsByteArray().length);
+    }
+
+    @Test
+    void writesCachedCopiesItselfInsteadOfHandingThemToSendfile() throws Exception {
+        ReconstructedFileCache cache = new ReconstructedFileCache();
+        ReflectionTestUtils.setField(cache, "cacheDir", dir.resolve("cache").toString());
+        ReflectionTestUtils.setField(cache, "maxBytes", 1L);
+        MockHttpServletRequest request = get();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Closing the copy may delete it, so the connector must not open it by name later
+        try (VersionContent copy = cache.put("report", Files.copy(report, cache.newTempFile(),
+                StandardCopyOption.REPLACE_EXISTING))) {
+            sender.send(copy, "report.pdf", true, request, response);
+        }
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertTrue(cache.open("report").isEmpty());
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/files/download/report.pdf");
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, boolean attachment) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sender.send(report, attachment, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests searching recorded file metadata: each filter, latest versions only
+ * against all versions, and paging and sorting.
+ */
+public class FileSearchTest extends FileServiceTestSupport {
+
+    @Autowired
+    private FileSearchService searchService;
+
+    @Test
+    void filtersByEachCriterion() throws Exception {
+        store(null, "Budget_Q1.XLSX", ActionType.UPLOAD, "alice", 10);
+        store(null, "notes.txt", ActionType.UPLOAD, "bob", 1000);
+        store(null, "merged.csv", ActionType.CONSOLIDATE, "alice", 100);
+
+        Page<WorkflowInstanceTaskFileDto> byExtension = search(null, ".xlsx", null, null, null, null, null, null);
+        assertEquals(List.of("Budget_Q1.XLSX"), names(byExtension));
+        assertEquals("xlsx", byExtension.getContent().get(0).getFileExtension());
+
+        assertEquals(List.of("Budget_Q1.XLSX"), names(search("budget", null, null, null, null, null, null, null)));
+        assertEquals(List.of("notes.txt"), names(search(null, null, 500L, null, null, null, null, null)));
+        assertEquals(List.of("Budget_Q1.XLSX"), names(search(null, null, null, 50L, null, null, null, null)));
+        assertEquals(List.of("notes.txt"), names(search(null, null, null, null, null, null, "bob", null)));
+        assertEquals(List.of("merged.csv"), names(search(null, null, null, null, null, null, null, ActionType.CONSOLIDATE)));
+
+        // The instance finds the same files as its task
+        assertEquals(3, searchService.searchFiles(null, null, null, null, null, null, null, instanceId, null, null,
+                false, PageRequest.of(0, 10)).getTotalElements());
+
+        assertTrue(search(null, null, null, null, "2999-01-01T00:00:00", null, null, null).isEmpty());
+        assertEquals(3, search(null, null, null, null, "2000-01-01T00:00:00", "2999-01-01T00:00:00", null, null)
+                .getTotalElements());
+        assertTrue(search(null, null, null, null, "yesterday", null, null, null).isEmpty());
+    }
+
+    @Test
+    void matchesLatestVersionsUnlessAllRequested() throws Exception {
+        Long forecast = store(null, "forecast.csv", ActionType.UPLOAD, "alice", 10).getInstanceFileId();
+        store(forecast, "forecast.csv", ActionType.UPDATE, "alice", 20);
+        store(forecast, "forecast.csv", ActionType.UPDATE, "alice", 30);
+        store(null, "summary.csv", ActionType.UPLOAD, "alice", 5);
+
+        Page<WorkflowInstanceTaskFileDto> latest = search(null, "csv", null, null, null, null, null, null);
+        assertEquals(2, latest.getTotalElements());
+        WorkflowInstanceTaskFileDto latestForecast = latest.getContent().stream()
+                .filter(file -> file.getInstanceFileId().equals(forecast))
+                .findFirst().orElseThrow();
+        assertEquals(3, latestForecast.getFileVersion());
+
+        Page<WorkflowInstanceTaskFileDto> all = searchService.searchFiles(null, "csv", null, null, null, null,
+                instanceTaskId, null, null, null, true, PageRequest.of(0, 10));
+        assertEquals(4, all.getTotalElements());
+
+        // An older version's size does not match once a newer one exists
+        assertTrue(search(null, null, 10L, 10L, null, null, null, null).isEmpty());
+    }
+
+    @Test
+    void pagesAndSorts() throws Exception {
+        store(null, "c.txt", ActionType.UPLOAD, "alice", 300);
+        store(null, "a.txt", ActionType.UPLOAD, "alice", 100);
+        store(null, "b.txt", ActionType.UPLOAD, "alice", 200);
+
+        Pageable bySize = PageRequest.of(0, 2, Sort.by("fileSize"));
+        Page<WorkflowInstanceTaskFileDto> first = searchService.searchFiles(null, null, null, null, null, null,
+                instanceTaskId, null, null, null, false, bySize);
+        assertEquals(3, first.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+        assertEquals(List.of("a.txt", "b.txt"), names(first));
+        assertEquals(List.of("c.txt"), names(searchService.searchFiles(null, null, null, null, null, null,
+                instanceTaskId, null, null, null, false, bySize.next())));
+
+        // Newest first when no order is given
+        assertEquals(List.of("b.txt", "a.txt", "c.txt"), names(search(null, null, null, null, null, null, null, null)));
+
+        assertThrows(WorkflowException.class, () -> searchService.searchFiles(null, null, null, null, null, null,
+                instanceTaskId, null, null, null, false, PageRequest.of(0, 10, Sort.by("filePath"))));
+    }
+
+    private Page<WorkflowInstanceTaskFileDto> search(String fileName, String extension, Long minSize, Long maxSize,
+                                                     String createdAfter, String createdBefore, String createdBy,
+                                                     ActionType actionType) {
+        return searchService.searchFiles(fileName, extension, minSize, maxSize, createdAfter, createdBefore,
+                instanceTaskId, null, createdBy, actionType, false, PageRequest.of(0, 10));
+    }
+
+    private WorkflowInstanceTaskFileDto store(Long instanceFileId, String fileName, ActionType actionType,
+                                              String createdBy, int size) throws IOException {
+        byte[] content = (fileName + System.nanoTime() + "\n".repeat(size)).substring(0, size).getBytes();
+        return uploadService.storeFile(instanceFileId == null ? instanceTaskId : null, instanceFileId, fileName,
+                actionType, createdBy, out -> out.write(content));
+    }
+
+    private static List<String> names(Page<WorkflowInstanceTaskFileDto> page) {
+        return page.getContent().stream().map(WorkflowInstanceTaskFileDto::getFileName).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowConfigTask.TaskType;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.repository.WorkflowInstanceTaskFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared setup for the file service tests, which all run in one Spring context
+ * against one upload directory. Each test gets a started workflow whose upload
+ * task it stores files against; limits a test class lowers are set on the
+ * beans with {@link #override} so they do not need a context of their own.
+ */
+abstract class FileServiceTestSupport extends WorkflowTestSupport {
+
+    protected static final Path UPLOAD_DIR = createUploadDir();
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("docwf-files");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void fileProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.file.upload-dir", UPLOAD_DIR::toString);
+        registry.add("app.file.consolidated-dir", () -> UPLOAD_DIR.resolve("consolidated").toString());
+        // Small buffers so every test crosses buffer boundaries
+        registry.add("app.workflow.file.chunked-upload.buffer-bytes", () -> "1000");
+    }
+
+    @Autowired
+    protected FileUploadService uploadService;
+
+    @Autowired
+    protected WorkflowInstanceTaskFileRepository fileRepository;
+
+    protected Long instanceId;
+
+    protected Long instanceTaskId;
+
+    @BeforeEach
+    void startWorkflow() {
+        WorkflowUser user = createUser("files");
+        List<WorkflowConfigTask> tasks = new ArrayList<>();
+        tasks.add(task("Upload", TaskType.FILE_UPLOAD, 1));
+        tasks.addAll(List.of(moreTasks()));
+        Long workflowId = createWorkflow(workflow(getClass().getSimpleName()), user,
+                tasks.toArray(new WorkflowConfigTask[0]));
+        instanceId = executionService.startWorkflow(workflowId, user.getUserId()).getInstanceId();
+        instanceTaskId = findTask("Upload");
+    }
+
+    /**
+     * Tasks to add to each test's workflow after the upload task
+     */
+    protected WorkflowConfigTask[] moreTasks() {
+        return new WorkflowConfigTask[0];
+    }
+
+    protected Long findTask(String taskName) {
+        return executionService.getInstanceTasks(instanceId).stream()
+                .filter(task -> taskName.equals(task.getTaskName()))
+                .map(WorkflowInstanceTaskDto::getInstanceTaskId)
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,157 @@
+package com.docwf.service;
+
+import com.docwf.dto.FileUploadSessionDto;
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.exception.WorkflowException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests chunked uploads: in-order appends with a running checksum, resuming
+ * after an interrupted chunk or a lost checksum, and completion into a task
+ * file version.
+ */
+public class FileUploadServiceTest extends FileServiceTestSupport {
+
+    @BeforeEach
+    void smallChunks() {
+        // Small chunks so every test crosses chunk boundaries
+        override(uploadService, "maxChunkBytes", 4096L);
+    }
+
+    @Test
+    void uploadsInChunksAndRecordsFileWithChecksum() throws Exception {
+        byte[] content = randomBytes(10_000);
+        FileUploadSessionDto upload = uploadService.initUpload(instanceTaskId, null, "quarter.xlsx", content.length,
+                null, "uploader");
+        assertEquals(ActionType.UPLOAD, upload.getActionType());
+
+        // 4096 byte chunks; one sent at the wrong offset is refused without changing anything
+        upload = uploadService.appendChunk(upload.getUploadId(), 0, slice(content, 0, 4096));
+        assertEquals(4096, upload.getBytesReceived());
+        Long uploadId = upload.getUploadId();
+        assertThrows(WorkflowException.class, () -> uploadService.appendChunk(uploadId, 0, slice(content, 0, 4096)));
+        assertThrows(WorkflowException.class, () -> uploadService.completeUpload(uploadId, null));
+        uploadService.appendChunk(uploadId, 4096, slice(content, 4096, 8192));
+        upload = uploadService.appendChunk(uploadId, 8192, slice(content, 8192, content.length));
+        assertEquals(content.length, upload.getBytesReceived());
+
+        WorkflowInstanceTaskFileDto file = uploadService.completeUpload(uploadId, sha256(content));
+        assertEquals(uploadId, file.getInstanceFileId());
+        assertEquals(1, file.getFileVersion());
+        assertEquals("xlsx", file.getFileExtension());
+        assertEquals(sha256(content), file.getChecksum());
+        assertEquals(content.length, file.getFileSize());
+        // Stored in the blob store under its checksum
+        assertEquals(sha256(content), Paths.get(file.getFilePath()).getFileName().toString());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(file.getFilePath())));
+        assertFalse(Files.exists(UPLOAD_DIR.resolve("upload_" + uploadId + ".part")));
+
+        WorkflowInstanceTaskFile stored = fileRepository.findByInstanceFileIdAndVersion(uploadId, 1).orElseThrow();
+        assertEquals(sha256(content), stored.getChecksum());
+        assertEquals("COMPLETED", uploadService.getUpload(uploadId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void resumesAfterInterruptedChunkAndLostChecksum() throws Exception {
+        byte[] content = randomBytes(6_000);
+        Long uploadId = uploadService.initUpload(instanceTaskId, null, "ledger.csv", content.length,
+                ActionType.UPLOAD, "uploader").getUploadId();
+
+        // The connection drops 2500 bytes into a 4096 byte chunk; what arrived is kept
+        assertThrows(IOException.class, () -> uploadService.appendChunk(uploadId, 0, failingAfter(slice(content, 0, 4096), 2500)));
+        FileUploadSessionDto upload = uploadService.getUpload(uploadId).orElseThrow();
+        assertEquals(2500, upload.getBytesReceived());
+
+        // A restart loses the running checksum; it is rebuilt from the part file
+        Object target = AopTestUtils.<Object>getTargetObject(uploadService);
+        ReflectionTestUtils.setField(target, "receiving", new ConcurrentHashMap<>());
+
+        uploadService.appendChunk(uploadId, 2500, slice(content, 2500, content.length));
+        WorkflowInstanceTaskFileDto file = uploadService.completeUpload(uploadId, null);
+        assertEquals(sha256(content), file.getChecksum());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(file.getFilePath())));
+    }
+
+    @Test
+    void addsVersionsAndRejectsOversizedChunksAndBadChecksums() throws Exception {
+        byte[] first = randomBytes(100);
+        Long firstUpload = uploadService.initUpload(instanceTaskId, null, "plan.pdf", first.length, null, "uploader").getUploadId();
+        uploadService.appendChunk(firstUpload, 0, new ByteArrayInputStream(first));
+        Long instanceFileId = uploadService.completeUpload(firstUpload, null).getInstanceFileId();
+
+        byte[] second = randomBytes(200);
+        FileUploadSessionDto update = uploadService.initUpload(instanceTaskId, instanceFileId, "plan.pdf", second.length,
+                null, "uploader");
+        assertEquals(ActionType.UPDATE, update.getActionType());
+        Long updateId = update.getUploadId();
+
+        // More bytes than the file has left are refused
+        assertThrows(WorkflowException.class, () -> uploadService.appendChunk(updateId, 0, new ByteArrayInputStream(randomBytes(201))));
+        assertEquals(0, uploadService.getUpload(updateId).orElseThrow().getBytesReceived());
+
+        uploadService.appendChunk(updateId, 0, new ByteArrayInputStream(second));
+        assertThrows(WorkflowException.class, () -> uploadService.completeUpload(updateId, sha256(first)));
+        WorkflowInstanceTaskFileDto version2 = uploadService.completeUpload(updateId, sha256(second));
+        assertEquals(instanceFileId, version2.getInstanceFileId());
+        assertEquals(2, version2.getFileVersion());
+        assertEquals(2, fileRepository.findAllVersionsByInstanceFileId(instanceFileId).size());
+
+        // An aborted upload leaves nothing behind
+        Long abandoned = uploadService.initUpload(instanceTaskId, null, "draft.txt", 50, null, "uploader").getUploadId();
+        uploadService.appendChunk(abandoned, 0, new ByteArrayInputStream(randomBytes(20)));
+        uploadService.abortUpload(abandoned);
+        assertFalse(Files.exists(UPLOAD_DIR.resolve("upload_" + abandoned + ".part")));
+        assertEquals("ABORTED", uploadService.getUpload(abandoned).orElseThrow().getStatus());
+        assertThrows(WorkflowException.class, () -> uploadService.appendChunk(abandoned, 20, new ByteArrayInputStream(randomBytes(30))));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static InputStream slice(byte[] content, int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, to));
+    }
+
+    /**
+     * A request body whose connection drops after the given number of bytes
+     */
+    private static InputStream failingAfter(InputStream in, int bytes) {
+        return new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read >= bytes) {
+                    throw new IOException("Connection reset");
+                }
+                read++;
+                return in.read();
+            }
+        };
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
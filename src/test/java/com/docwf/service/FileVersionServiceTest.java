@@ -0,0 +1,275 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceTaskFileDto;
+import com.docwf.entity.WorkflowInstanceTaskFile;
+import com.docwf.entity.WorkflowInstanceTaskFile.ActionType;
+import com.docwf.repository.WorkflowFileBlobRepository;
+import com.docwf.service.file.BinaryDelta;
+import com.docwf.service.file.ReconstructedFileCache;
+import com.docwf.service.file.VersionContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests delta-encoded file versions: the delta format itself, older versions
+ * re-encoded as each new one arrives and rebuilt on demand, the chain limit,
+ * deleting a version other versions are encoded against, and rebuilt copies
+ * kept in the cache while they are open.
+ */
+public class FileVersionServiceTest extends FileServiceTestSupport {
+
+    @Autowired
+    private FileVersionService versionService;
+
+    @Autowired
+    private WorkflowFileBlobRepository blobRepository;
+
+    @BeforeEach
+    void shortChain() {
+        // A short chain so one test reaches the limit
+        override(versionService, "maxDeltaChain", 3);
+    }
+
+    @Test
+    void deltaRebuildsEditedInsertedAndRemovedRows() throws Exception {
+        List<String> rows = sheet(1, 3000);
+        byte[] base = join(rows);
+
+        List<String> edited = new ArrayList<>(rows);
+        edited.set(10, "10,changed,0.00");
+        edited.add(1500, "inserted,row,1.23");
+        edited.subList(2500, 2600).clear();
+        edited.add("appended,row,9.99");
+        byte[] target = join(edited);
+
+        byte[] delta = encode(base, target);
+        assertArrayEquals(target, apply(base, delta));
+        assertTrue(delta.length < target.length / 50, "delta of " + delta.length + " bytes for " + target.length);
+
+        // Degenerate inputs still round trip
+        assertArrayEquals(new byte[0], apply(base, encode(base, new byte[0])));
+        assertArrayEquals(target, apply(new byte[0], encode(new byte[0], target)));
+        byte[] tiny = "a,b".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(tiny, apply(base, encode(base, tiny)));
+        assertArrayEquals(base, apply(base, encode(base, base)));
+
+        // Mapped files encode to the same delta as arrays, with literals longer than the copy buffer
+        byte[] noise = new byte[100_000];
+        new Random(3).nextBytes(noise);
+        ByteArrayOutputStream splice = new ByteArrayOutputStream();
+        splice.write(base, 0, 1000);
+        splice.write(noise);
+        splice.write(base, 1000, base.length - 1000);
+        byte[] spliced = splice.toByteArray();
+        Path baseFile = Files.write(Files.createTempFile(UPLOAD_DIR, "base", ".csv"), base);
+        Path targetFile = Files.write(Files.createTempFile(UPLOAD_DIR, "target", ".csv"), spliced);
+        ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+        try (FileChannel baseChannel = FileChannel.open(baseFile, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(targetFile, StandardOpenOption.READ)) {
+            BinaryDelta.encode(baseChannel.map(FileChannel.MapMode.READ_ONLY, 0, baseChannel.size()),
+                    targetChannel.map(FileChannel.MapMode.READ_ONLY, 0, targetChannel.size()), 64, mapped);
+        } finally {
+            Files.delete(baseFile);
+            Files.delete(targetFile);
+        }
+        assertArrayEquals(encode(base, spliced), mapped.toByteArray());
+        assertArrayEquals(spliced, apply(base, mapped.toByteArray()));
+    }
+
+    @Test
+    void storesOlderVersionsAsDeltasAndRebuildsThem() throws Exception {
+        List<byte[]> contents = revisions(2, 4);
+        Long instanceFileId = storeVersions(contents);
+
+        List<WorkflowInstanceTaskFileDto> versions = versionService.getVersions(instanceFileId);
+        assertEquals(List.of(4, 3, 2, 1), versions.stream().map(WorkflowInstanceTaskFileDto::getFileVersion).toList());
+        assertNull(versions.get(0).getDeltaBaseVersion());
+        for (int version = 1; version <= 3; version++) {
+            assertEquals(version + 1, versions.get(4 - version).getDeltaBaseVersion());
+        }
+        assertEquals(4, versionService.getLatestVersion(instanceFileId).orElseThrow().getFileVersion());
+        assertTrue(versionService.getLatestVersions(instanceTaskId).stream()
+                .anyMatch(file -> file.getInstanceFileId().equals(instanceFileId) && file.getFileVersion() == 4));
+
+        // Four versions take little more than one whole copy
+        long whole = contents.stream().mapToLong(content -> content.length).sum();
+        long stored = 0;
+        for (WorkflowInstanceTaskFile file : fileRepository.findAllVersionsByInstanceFileId(instanceFileId)) {
+            String blob = file.isDeltaEncoded() ? file.getDeltaChecksum() : file.getChecksum();
+            stored += blobRepository.findById(blob).orElseThrow().getSizeBytes();
+        }
+        assertTrue(stored * 3 < whole, stored + " bytes stored for " + whole);
+
+        for (int version = 1; version <= 4; version++) {
+            assertArrayEquals(contents.get(version - 1), read(instanceFileId, version), "version " + version);
+        }
+        // Rebuilt versions are served from the cache afterwards
+        try (VersionContent first = versionService.openVersion(instanceFileId, 1);
+             VersionContent second = versionService.openVersion(instanceFileId, 1)) {
+            assertTrue(first.isCached());
+            assertEquals(first.getPath(), second.getPath());
+        }
+    }
+
+    @Test
+    void cachedCopiesAreNotEvictedWhileOpen() throws Exception {
+        ReconstructedFileCache cache = new ReconstructedFileCache();
+        ReflectionTestUtils.setField(cache, "cacheDir", Files.createTempDirectory(UPLOAD_DIR, "cache").toString());
+        ReflectionTestUtils.setField(cache, "maxBytes", 150L);
+
+        VersionContent first = cache.put("first", rebuilt(cache, 100));
+        // Over budget, but the first copy is still being read
+        cache.put("second", rebuilt(cache, 100)).close();
+        assertTrue(Files.exists(first.getPath()));
+        assertEquals(100, Files.size(first.getPath()));
+        assertTrue(cache.open("second").isEmpty());
+
+        // Closing the last reader lets it go
+        VersionContent again = cache.open("first").orElseThrow();
+        first.close();
+        first.close();
+        assertEquals(1, cache.pinCount("first"));
+        assertTrue(Files.exists(again.getPath()));
+        again.close();
+        assertEquals(0, cache.pinCount("first"));
+        cache.put("third", rebuilt(cache, 100)).close();
+        assertFalse(Files.exists(again.getPath()));
+        assertTrue(cache.open("first").isEmpty());
+    }
+
+    @Test
+    void keepsEveryFewVersionsWholeToLimitTheChain() throws Exception {
+        Long instanceFileId = storeVersions(revisions(3, 6));
+
+        // With at most 3 deltas to apply, version 4 stays whole and version 5 is encoded against 6
+        List<Integer> bases = new ArrayList<>();
+        for (WorkflowInstanceTaskFileDto version : versionService.getVersions(instanceFileId)) {
+            bases.add(0, version.getDeltaBaseVersion());
+        }
+        assertEquals(Arrays.asList(2, 3, 4, null, 6, null), bases);
+        assertArrayEquals(revisions(3, 6).get(0), read(instanceFileId, 1));
+    }
+
+    @Test
+    void deletingAVersionStoresVersionsEncodedAgainstItWhole() throws Exception {
+        List<byte[]> contents = revisions(4, 3);
+        Long instanceFileId = storeVersions(contents);
+        assertEquals(2, fileRepository.findByInstanceFileIdAndVersion(instanceFileId, 1).orElseThrow().getDeltaBaseVersion());
+
+        uploadService.deleteFileVersion(instanceFileId, 2);
+        WorkflowInstanceTaskFile first = fileRepository.findByInstanceFileIdAndVersion(instanceFileId, 1).orElseThrow();
+        assertFalse(first.isDeltaEncoded());
+        assertArrayEquals(contents.get(0), read(instanceFileId, 1));
+
+        // Removing the latest leaves the version before it whole, as the latest always is
+        uploadService.deleteFileVersion(instanceFileId, 3);
+        assertEquals(1, versionService.getLatestVersion(instanceFileId).orElseThrow().getFileVersion());
+        assertArrayEquals(contents.get(0), read(instanceFileId, 1));
+    }
+
+    @Test
+    void keepsVersionsWholeWhenTheDeltaSavesLittle() throws Exception {
+        List<byte[]> contents = new ArrayList<>();
+        for (int seed = 10; seed < 12; seed++) {
+            byte[] bytes = new byte[20_000];
+            new Random(seed).nextBytes(bytes);
+            contents.add(bytes);
+        }
+        Long instanceFileId = storeVersions(contents);
+        assertTrue(versionService.getVersions(instanceFileId).stream().allMatch(file -> file.getDeltaBaseVersion() == null));
+        assertArrayEquals(contents.get(0), read(instanceFileId, 1));
+    }
+
+    private byte[] read(Long instanceFileId, int version) throws IOException {
+        try (VersionContent content = versionService.openVersion(instanceFileId, version)) {
+            return Files.readAllBytes(content.getPath());
+        }
+    }
+
+    private static Path rebuilt(ReconstructedFileCache cache, int size) throws IOException {
+        return Files.write(cache.newTempFile(), new byte[size]);
+    }
+
+    private Long storeVersions(List<byte[]> contents) throws IOException {
+        Long instanceFileId = null;
+        for (byte[] content : contents) {
+            WorkflowInstanceTaskFileDto file = uploadService.storeFile(instanceFileId == null ? instanceTaskId : null,
+                    instanceFileId, "forecast.csv", instanceFileId == null ? ActionType.UPLOAD : ActionType.UPDATE,
+                    "uploader", out -> out.write(content));
+            instanceFileId = file.getInstanceFileId();
+        }
+        return instanceFileId;
+    }
+
+    /**
+     * Successive revisions of a sheet, each changing, adding and removing a few rows
+     */
+    private static List<byte[]> revisions(long seed, int count) {
+        List<byte[]> revisions = new ArrayList<>();
+        for (int revision = 1; revision <= count; revision++) {
+            revisions.add(join(revisionRows(seed, revision)));
+        }
+        return revisions;
+    }
+
+    private static List<String> revisionRows(long seed, int revision) {
+        List<String> rows = sheet(seed, 2000);
+        Random random = new Random(seed);
+        for (int r = 1; r < revision; r++) {
+            for (int edit = 0; edit < 5; edit++) {
+                rows.set(random.nextInt(rows.size()), r + "," + edit + "," + random.nextInt(100000));
+            }
+            rows.add(random.nextInt(rows.size()), "added in " + r);
+            rows.remove(random.nextInt(rows.size()));
+        }
+        return rows;
+    }
+
+    private static List<String> sheet(long seed, int rows) {
+        Random random = new Random(seed);
+        List<String> sheet = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            sheet.add(row + ",account-" + random.nextInt(500) + "," + random.nextInt(1_000_000) / 100.0);
+        }
+        return sheet;
+    }
+
+    private static byte[] join(List<String> rows) {
+        return (String.join("\n", rows) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(byte[] base, byte[] target) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDelta.encode(base, target, 64, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] apply(byte[] base, byte[] delta) throws IOException {
+        Path file = Files.createTempFile(UPLOAD_DIR, "base", ".csv");
+        Files.write(file, base);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            BinaryDelta.apply(channel, new ByteArrayInputStream(delta), out);
+        } finally {
+            Files.delete(file);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,183 @@
+package com.docwf.service;
+
+import com.docwf.dto.JobExecutionStatisticsDto;
+import com.docwf.dto.QuartzJobStatusDto;
+import com.docwf.entity.WorkflowJobExecution;
+import com.docwf.entity.WorkflowJobExecution.ExecutionStatus;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowJobExecutionRepository;
+import com.docwf.repository.WorkflowJobExecutionRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that Quartz job executions are recorded with their outcome and hourly
+ * rollups, and that job monitoring reads stuck and failed jobs, statistics and
+ * health from that history.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class JobExecutionHistoryTest {
+
+    private static final String GROUP = "HISTORY_TEST";
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private JobExecutionHistoryService historyService;
+
+    @Autowired
+    private CalendarJobManagementService jobManagementService;
+
+    @Autowired
+    private WorkflowJobExecutionRepository executionRepository;
+
+    @Autowired
+    private WorkflowJobExecutionRollupRepository rollupRepository;
+
+    @BeforeEach
+    @AfterEach
+    void clearHistory() {
+        executionRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void recordsSucceededAndFailedExecutionsWithRollups() throws Exception {
+        runJob("historySucceeding", SucceedingJob.class);
+        runJob("historySucceeding", SucceedingJob.class);
+        runJob("historyFailing", FailingJob.class);
+
+        List<WorkflowJobExecution> succeeded = historyService.getHistory("historySucceeding", 10);
+        assertEquals(2, succeeded.size());
+        for (WorkflowJobExecution execution : succeeded) {
+            assertEquals(ExecutionStatus.SUCCEEDED, execution.getStatus());
+            assertEquals(GROUP, execution.getJobGroup());
+            assertEquals(3, execution.getInstancesCreated());
+            assertEquals(42L, execution.getCalendarId());
+            assertNotNull(execution.getCompletedOn());
+            assertNotNull(execution.getDurationMs());
+        }
+
+        WorkflowJobExecution failed = historyService.getHistory("historyFailing", 10).get(0);
+        assertEquals(ExecutionStatus.FAILED, failed.getStatus());
+        assertTrue(failed.getErrorMessage().contains("calendar store unavailable"), failed.getErrorMessage());
+
+        JobExecutionStatisticsDto statistics = historyService.getStatistics("historySucceeding", LocalDateTime.now().minusHours(1));
+        assertEquals(2, statistics.getTotalExecutions());
+        assertEquals(0, statistics.getFailedExecutions());
+        assertEquals(6, statistics.getInstancesCreated());
+
+        JobExecutionStatisticsDto all = historyService.getStatistics(null, LocalDateTime.now().minusHours(1));
+        assertEquals(3, all.getTotalExecutions());
+        assertEquals(1, all.getFailedExecutions());
+        assertEquals(2, all.getJobCount());
+
+        Map<String, Object> stats = jobManagementService.getJobStatistics("historySucceeding", "1d");
+        assertEquals(2L, stats.get("totalExecutions"));
+        assertEquals(2L, stats.get("successfulExecutions"));
+        assertNotNull(stats.get("lastExecution"));
+
+        List<Map<String, Object>> history = jobManagementService.getJobExecutionHistory("historyFailing", 5);
+        assertEquals(1, history.size());
+        assertEquals("FAILED", history.get(0).get("status"));
+    }
+
+    @Test
+    void reportsFailedJobsOncePerJobWithFailureCount() throws Exception {
+        runJob("historyFailing", FailingJob.class);
+        runJob("historyFailing", FailingJob.class);
+
+        List<QuartzJobStatusDto> failedJobs = jobManagementService.getFailedJobs();
+        assertEquals(1, failedJobs.size());
+        assertEquals("historyFailing", failedJobs.get(0).getJobName());
+        assertEquals(2, failedJobs.get(0).getRetryCount());
+        assertNotNull(failedJobs.get(0).getLastErrorTime());
+
+        Map<String, Object> health = jobManagementService.getJobHealthStatus();
+        assertEquals(1L, health.get("failedJobs"));
+        assertEquals("DEGRADED", health.get("overallHealth"));
+    }
+
+    @Test
+    void reportsExecutionsStillRunningPastThresholdAsStuck() {
+        LocalDateTime now = LocalDateTime.now();
+        historyService.recordStarted(new WorkflowJobExecution("historyHung", GROUP, now.minusHours(2), now.minusHours(2)));
+        historyService.recordStarted(new WorkflowJobExecution("historyBusy", GROUP, now.minusMinutes(1), now.minusMinutes(1)));
+
+        List<QuartzJobStatusDto> stuckJobs = jobManagementService.getStuckJobs();
+        assertEquals(1, stuckJobs.size());
+        assertEquals("historyHung", stuckJobs.get(0).getJobName());
+        assertTrue(stuckJobs.get(0).getIsStuck());
+
+        Map<String, Object> health = jobManagementService.getJobHealthStatus();
+        assertEquals(2L, health.get("activeJobs"));
+        assertEquals(1L, health.get("stuckJobs"));
+        assertEquals("DEGRADED", health.get("overallHealth"));
+    }
+
+    @Test
+    void rejectsUnknownStatisticsPeriod() {
+        assertThrows(WorkflowException.class, () -> jobManagementService.getJobStatistics("historySucceeding", "soon"));
+    }
+
+    /**
+     * Fire a durable job once and wait for its execution to be completed and rolled up
+     */
+    private void runJob(String jobName, Class<? extends Job> jobClass) throws Exception {
+        JobKey jobKey = new JobKey(jobName, GROUP);
+        long completedBefore = completedExecutions(jobName);
+        if (!scheduler.checkExists(jobKey)) {
+            JobDetail job = JobBuilder.newJob(jobClass).withIdentity(jobKey).storeDurably()
+                .usingJobData("calendarId", 42L).build();
+            scheduler.addJob(job, false);
+        }
+        scheduler.scheduleJob(TriggerBuilder.newTrigger().forJob(jobKey).startNow().build());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (completedExecutions(jobName) == completedBefore) {
+            assertTrue(System.currentTimeMillis() < deadline, "Job " + jobName + " was not recorded");
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * The rollup is added to after the execution row is completed, so counting it covers both
+     */
+    private long completedExecutions(String jobName) {
+        return historyService.getStatistics(jobName, LocalDateTime.now().minusHours(1)).getTotalExecutions();
+    }
+
+    public static class SucceedingJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+            context.setResult(3);
+        }
+    }
+
+    public static class FailingJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            throw new JobExecutionException("Calendar job failed", new IllegalStateException("calendar store unavailable"));
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowInstanceDto;
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.entity.WorkflowConfig;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowNotification;
+import com.docwf.entity.WorkflowNotification.DeliveryStatus;
+import com.docwf.entity.WorkflowNotification.NotificationType;
+import com.docwf.entity.WorkflowTaskTimer;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.repository.WorkflowNotificationRepository;
+import com.docwf.repository.WorkflowTaskTimerRepository;
+import com.docwf.repository.WorkflowUserRepository;
+import com.docwf.service.notification.NotificationDispatcher;
+import com.docwf.service.timer.DueTimerQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the notification queue end to end against a local SMTP stub: task
+ * timers fire once and only enqueue, and the dispatcher delivers, escalates
+ * and records per-message delivery state.
+ */
+public class NotificationDispatchTest extends WorkflowTestSupport {
+
+    private static final SmtpStub smtp = SmtpStub.start();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", smtp::getPort);
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        smtp.close();
+    }
+
+    @Autowired
+    private NotificationQueueService queueService;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    private WorkflowNotificationRepository notificationRepository;
+
+    @Autowired
+    private WorkflowUserRepository userRepository;
+
+    @Autowired
+    private WorkflowTaskTimerRepository timerRepository;
+
+    @Autowired
+    private TaskTimerService taskTimerService;
+
+    @Autowired
+    private DueTimerQueue dueTimerQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRemindersAndEscalationsAreQueuedOnceAndDelivered() throws Exception {
+        long suffix = System.nanoTime();
+        WorkflowUser manager = userRepository.save(new WorkflowUser("manager_" + suffix, "Team", "Manager",
+                "manager" + suffix + "@example.com", "test"));
+        WorkflowUser reviewer = new WorkflowUser("reviewer_" + suffix, "Slow", "Reviewer",
+                "reviewer" + suffix + "@example.com", "test");
+        reviewer.setEscalationTo(manager);
+        reviewer = userRepository.save(reviewer);
+
+        Long workflowId = createWorkflow(reviewer);
+        WorkflowInstanceDto instance = executionService.startWorkflow(workflowId, reviewer.getUserId());
+        WorkflowInstanceTaskDto review = executionService.getInstanceTasks(instance.getInstanceId()).get(0);
+        executionService.startTask(review.getInstanceTaskId());
+
+        // Deadlines were set when the task was activated and started
+        List<WorkflowTaskTimer> timers = timerRepository.findByInstanceTaskInstanceTaskIdOrderByTimerId(
+                review.getInstanceTaskId());
+        assertEquals(List.of(NotificationType.REMINDER, NotificationType.ATTENTION,
+                        NotificationType.ESCALATION, NotificationType.OVERDUE),
+                timers.stream().map(WorkflowTaskTimer::getTimerType).toList());
+        assertTrue(timers.stream().allMatch(t -> t.getStatus() == WorkflowTaskTimer.TimerStatus.SCHEDULED));
+
+        // The reminder and escalation are due at once and were handed to the in-memory queue on commit
+        List<Long> dueTimerIds = dueTimerQueue.awaitDue(5000);
+        assertTrue(dueTimerIds.containsAll(List.of(timers.get(0).getTimerId(), timers.get(2).getTimerId())));
+        assertEquals(2, taskTimerService.fireTimers(dueTimerIds));
+
+        // Fired timers are not fired again by the sweeps
+        for (int run = 0; run < 3; run++) {
+            executionService.triggerWorkflowReminders();
+            executionService.triggerWorkflowEscalations();
+        }
+        List<WorkflowNotification> queued = notificationRepository.findByInstanceTaskIdOrderByNotificationId(
+                review.getInstanceTaskId());
+        assertEquals(2, queued.size());
+        assertEquals(1, queued.stream().filter(n -> n.getNotificationType() == NotificationType.REMINDER).count());
+        assertEquals(1, queued.stream().filter(n -> n.getNotificationType() == NotificationType.ESCALATION).count());
+        assertTrue(queued.stream().allMatch(n -> n.getStatus() == DeliveryStatus.PENDING));
+
+        // Nothing was sent or escalated by the scheduler itself
+        assertEquals(TaskInstanceStatus.IN_PROGRESS, executionService.getInstanceTask(review.getInstanceTaskId())
+                .orElseThrow().getStatus());
+        assertFalse(smtp.getRecipients().contains(reviewer.getEmail()));
+
+        dispatcher.dispatchPending();
+
+        assertTrue(smtp.getRecipients().contains(reviewer.getEmail()));
+        assertTrue(smtp.getRecipients().contains(manager.getEmail()));
+        for (WorkflowNotification notification : notificationRepository.findByInstanceTaskIdOrderByNotificationId(
+                review.getInstanceTaskId())) {
+            assertEquals(DeliveryStatus.SENT, notification.getStatus());
+            assertEquals(1, notification.getAttempts());
+            assertNotNull(notification.getSentOn());
+        }
+
+        WorkflowInstanceTaskDto escalated = executionService.getInstanceTask(review.getInstanceTaskId()).orElseThrow();
+        assertEquals(TaskInstanceStatus.ESCALATED, escalated.getStatus());
+        assertEquals(manager.getUserId(), escalated.getAssignedTo());
+    }
+
+    @Test
+    public void testFiredAndCancelledTimersArePurgedAfterRetention() {
+        long suffix = System.nanoTime();
+        WorkflowUser manager = userRepository.save(new WorkflowUser("purge_manager_" + suffix, "Purge", "Manager",
+                "purge.manager" + suffix + "@example.com", "test"));
+        WorkflowUser reviewer = new WorkflowUser("purge_reviewer_" + suffix, "Purge", "Reviewer",
+                "purge.reviewer" + suffix + "@example.com", "test");
+        reviewer.setEscalationTo(manager);
+        reviewer = userRepository.save(reviewer);
+
+        Long workflowId = createWorkflow(reviewer);
+        WorkflowInstanceDto instance = executionService.startWorkflow(workflowId, reviewer.getUserId());
+        Long taskId = executionService.getInstanceTasks(instance.getInstanceId()).get(0).getInstanceTaskId();
+        executionService.startTask(taskId);
+        List<WorkflowTaskTimer> timers = timerRepository.findByInstanceTaskInstanceTaskIdOrderByTimerId(taskId);
+        Long reminder = timers.get(0).getTimerId();
+        Long attention = timers.get(1).getTimerId();
+        Long escalation = timers.get(2).getTimerId();
+        Long overdue = timers.get(3).getTimerId();
+
+        // Reminder and escalation fire; overdue is cancelled because the task completed first
+        assertEquals(2, taskTimerService.fireTimers(List.of(reminder, escalation)));
+        executionService.completeTask(taskId, "REVIEWED");
+        jdbcTemplate.update("UPDATE WORKFLOW_TASK_TIMER SET DUE_ON = ? WHERE TIMER_ID = ?",
+                LocalDateTime.now().minusMinutes(1), overdue);
+        assertEquals(0, taskTimerService.fireTimers(List.of(overdue)));
+
+        // Within retention nothing of this task is purged
+        taskTimerService.purgeFinishedTimers();
+        assertEquals(4, timerRepository.findByInstanceTaskInstanceTaskIdOrderByTimerId(taskId).size());
+
+        jdbcTemplate.update("UPDATE WORKFLOW_TASK_TIMER SET DUE_ON = ? WHERE INSTANCE_TASK_ID = ?",
+                LocalDateTime.now().minusDays(31), taskId);
+        assertTrue(taskTimerService.purgeFinishedTimers() >= 3);
+
+        // A timer that never fired is kept however old it is
+        List<WorkflowTaskTimer> remaining = timerRepository.findByInstanceTaskInstanceTaskIdOrderByTimerId(taskId);
+        assertEquals(1, remaining.size());
+        assertEquals(attention, remaining.get(0).getTimerId());
+        assertEquals(WorkflowTaskTimer.TimerStatus.SCHEDULED, remaining.get(0).getStatus());
+    }
+
+    @Test
+    public void testRejectedRecipientIsRetriedWithoutBlockingTheBatch() throws Exception {
+        long suffix = System.nanoTime();
+        WorkflowUser good = userRepository.save(new WorkflowUser("good_" + suffix, "Good", "User",
+                "good" + suffix + "@example.com", "test"));
+        WorkflowUser bad = userRepository.save(new WorkflowUser("bad_" + suffix, "Bad", "User",
+                "bounce" + suffix + "@example.com", "test"));
+
+        Long taskId = -suffix;
+        assertEquals(2, queueService.enqueue(List.of(
+                new WorkflowNotification(NotificationType.OVERDUE, null, taskId, good.getUserId(), "Overdue", "body"),
+                new WorkflowNotification(NotificationType.OVERDUE, null, taskId, bad.getUserId(), "Overdue", "body"))));
+
+        dispatcher.dispatchPending();
+
+        List<WorkflowNotification> notifications = notificationRepository.findByInstanceTaskIdOrderByNotificationId(taskId);
+        WorkflowNotification delivered = notifications.get(0);
+        WorkflowNotification rejected = notifications.get(1);
+        assertEquals(DeliveryStatus.SENT, delivered.getStatus());
+        assertEquals(DeliveryStatus.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertNotNull(rejected.getLastError());
+        assertTrue(rejected.getNextAttemptOn().isAfter(LocalDateTime.now()));
+        assertTrue(smtp.getRecipients().contains(good.getEmail()));
+    }
+
+    private Long createWorkflow(WorkflowUser reviewer) {
+        WorkflowConfig workflow = workflow("Notification Test");
+        // Reminder and escalation fall due as soon as the task is started
+        workflow.setDueInMins(30);
+        workflow.setReminderBeforeDueMins(30);
+        workflow.setEscalationAfterMins(0);
+        return createWorkflow(workflow, reviewer, task("Review", WorkflowConfigTask.TaskType.FILE_UPDATE, 1));
+    }
+
+    /**
+     * Just enough SMTP to accept mail; recipients containing "bounce" are rejected
+     */
+    static class SmtpStub implements Runnable {
+
+        private final ServerSocket server;
+        private final List<String> recipients = Collections.synchronizedList(new ArrayList<>());
+
+        private SmtpStub(ServerSocket server) {
+            this.server = server;
+        }
+
+        static SmtpStub start() {
+            try {
+                SmtpStub stub = new SmtpStub(new ServerSocket(0));
+                Thread thread = new Thread(stub, "smtp-stub");
+                thread.setDaemon(true);
+                thread.start();
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        List<String> getRecipients() {
+            synchronized (recipients) {
+                return new ArrayList<>(recipients);
+            }
+        }
+
+        void close() throws IOException {
+            server.close();
+        }
+
+        @Override
+        public void run() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread session = new Thread(() -> converse(socket), "smtp-stub-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                List<String> envelope = new ArrayList<>();
+                reply(out, "220 stub ready");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT")) {
+                        String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if (address.contains("bounce")) {
+                            reply(out, "550 no such user");
+                        } else {
+                            envelope.add(address);
+                            reply(out, "250 ok");
+                        }
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 end with .");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message content is not inspected
+                        }
+                        recipients.addAll(envelope);
+                        envelope.clear();
+                        reply(out, "250 queued");
+                    } else if (command.startsWith("RSET")) {
+                        envelope.clear();
+                        reply(out, "250 ok");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 bye");
+                        return;
+                    } else {
+                        reply(out, "250 ok");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}
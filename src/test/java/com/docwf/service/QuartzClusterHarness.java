@@ -0,0 +1,115 @@
+package com.docwf.service;
+
+import com.docwf.service.cluster.QuartzClusterMembership;
+import org.h2.jdbcx.JdbcDataSource;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.SchedulerRepository;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.jdbcjobstore.JobStoreTX;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.spi.JobFactory;
+import org.quartz.utils.ConnectionProvider;
+import org.quartz.utils.DBConnectionManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Several clustered Quartz schedulers in one JVM, sharing one in-memory H2
+ * database as their JDBC job store, as separate application nodes would share
+ * the production database.
+ *
+ * Nodes check in every {@link #CHECKIN_INTERVAL_MS} and poll for triggers
+ * every {@link #IDLE_WAIT_MS}, far below production values, so membership
+ * changes and newly scheduled jobs are seen within a test's time frame.
+ */
+final class QuartzClusterHarness implements AutoCloseable {
+
+    /**
+     * Matches the lock rows seeded by db/quartz-schema.sql
+     */
+    static final String SCHEDULER_NAME = "WorkflowScheduler";
+
+    static final long CHECKIN_INTERVAL_MS = 500;
+    static final long IDLE_WAIT_MS = 100;
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private final String dataSourceName;
+    private final List<Scheduler> nodes = new ArrayList<>();
+
+    QuartzClusterHarness(String name) {
+        dataSourceName = name + "_" + System.nanoTime();
+        dataSource.setURL("jdbc:h2:mem:" + dataSourceName + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/quartz-schema.sql")).execute(dataSource);
+
+        DBConnectionManager.getInstance().addConnectionProvider(dataSourceName, new ConnectionProvider() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return dataSource.getConnection();
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        });
+    }
+
+    /**
+     * Create a node without starting it, so jobs can be stored before any node competes for them
+     */
+    Scheduler createNode(String instanceId, int threads, JobFactory jobFactory) throws SchedulerException {
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, SCHEDULER_NAME);
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_ID, instanceId);
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_SKIP_UPDATE_CHECK, "true");
+        properties.setProperty("org.quartz.scheduler.idleWaitTime", String.valueOf(IDLE_WAIT_MS));
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, SimpleThreadPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threads));
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, JobStoreTX.class.getName());
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass", StdJDBCDelegate.class.getName());
+        properties.setProperty("org.quartz.jobStore.dataSource", dataSourceName);
+        properties.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
+        properties.setProperty("org.quartz.jobStore.isClustered", "true");
+        properties.setProperty("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(CHECKIN_INTERVAL_MS));
+
+        Scheduler node = new StdSchedulerFactory(properties).getScheduler();
+        // Every node has the same scheduler name; unregister it so the next one is a new instance
+        SchedulerRepository.getInstance().remove(SCHEDULER_NAME);
+        node.setJobFactory(jobFactory);
+        nodes.add(node);
+        return node;
+    }
+
+    Scheduler startNode(String instanceId, int threads, JobFactory jobFactory) throws SchedulerException {
+        Scheduler node = createNode(instanceId, threads, jobFactory);
+        node.start();
+        return node;
+    }
+
+    /**
+     * Membership as a node would read it, with a grace period matched to the short check-in interval
+     */
+    QuartzClusterMembership membership() {
+        return new QuartzClusterMembership(dataSource, SCHEDULER_NAME, "QRTZ_", CHECKIN_INTERVAL_MS);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Scheduler node : nodes) {
+            if (!node.isShutdown()) {
+                node.shutdown(true);
+            }
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.docwf.service;
+
+import com.docwf.dto.BulkWorkflowStartResultDto;
+import com.docwf.service.metrics.SchedulerEndpoint;
+import com.docwf.service.metrics.SchedulerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that scheduler meters record trigger lag, job duration, misfires and
+ * per-calendar workflow counts, and that the scheduler endpoint reports them.
+ * The test profile's RAMJobStore uses Quartz's default 5 second misfire threshold.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchedulerMetricsTest {
+
+    /**
+     * Meters outlive a test in the cached context, so each test fires into its own group
+     */
+    private static final String LAG_GROUP = "METRICS_LAG_TEST";
+    private static final String MISFIRE_GROUP = "METRICS_MISFIRE_TEST";
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @Autowired
+    private SchedulerEndpoint schedulerEndpoint;
+
+    @Test
+    void recordsTriggerLagAndJobDuration() throws Exception {
+        fire("metricsLate", LAG_GROUP, System.currentTimeMillis() - 2_000);
+
+        Timer lag = await(() -> registry.find(SchedulerMetrics.TRIGGER_LAG).tag("group", LAG_GROUP).timer());
+        assertEquals("QuickJob", lag.getId().getTag("job"));
+        assertTrue(lag.max(TimeUnit.MILLISECONDS) >= 1_900, "lag " + lag.max(TimeUnit.MILLISECONDS));
+
+        Timer duration = await(() -> registry.find(SchedulerMetrics.JOB_DURATION)
+            .tags("group", LAG_GROUP, "outcome", SchedulerMetrics.OUTCOME_SUCCEEDED).timer());
+        assertEquals(1, duration.count());
+
+        assertNotNull(registry.find(SchedulerMetrics.THREADS_UTILIZATION)
+            .tag("scheduler", scheduler.getSchedulerName()).gauge());
+    }
+
+    @Test
+    void countsMisfiresPerGroup() throws Exception {
+        fire("metricsMisfired", MISFIRE_GROUP, System.currentTimeMillis() - 120_000);
+
+        Counter misfires = await(() -> registry.find(SchedulerMetrics.MISFIRES).tag("group", MISFIRE_GROUP).counter());
+        assertEquals(1.0, misfires.count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endpointReportsCalendarWorkflowsAndThreads() throws Exception {
+        BulkWorkflowStartResultDto result = new BulkWorkflowStartResultDto(77L, LocalDate.now());
+        result.setStartedCount(4);
+        result.setSkippedCount(1);
+        schedulerMetrics.recordWorkflowsStarted(77L, result);
+
+        Map<String, Object> snapshot = schedulerEndpoint.scheduler();
+
+        Map<String, Object> calendar = (Map<String, Object>) ((Map<String, Object>) snapshot.get("calendarWorkflows")).get("77");
+        assertEquals(4L, calendar.get("started"));
+        assertEquals(1L, calendar.get("skipped"));
+        assertFalse(calendar.containsKey("failed"));
+
+        Map<String, Object> threads = (Map<String, Object>) ((Map<String, Object>) snapshot.get("threads"))
+            .get(scheduler.getSchedulerName());
+        assertEquals(5.0, threads.get("threads"));
+        assertTrue(snapshot.get("triggerLag") instanceof List);
+    }
+
+    private void fire(String jobName, String group, long scheduledAt) throws Exception {
+        scheduler.scheduleJob(
+            JobBuilder.newJob(QuickJob.class).withIdentity(new JobKey(jobName, group)).build(),
+            TriggerBuilder.newTrigger().withIdentity(jobName, group).startAt(new Date(scheduledAt)).build());
+    }
+
+    private static <T> T await(Supplier<T> meter) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        T found;
+        while ((found = meter.get()) == null || (found instanceof Timer && ((Timer) found).count() == 0)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Meter was not recorded");
+            Thread.sleep(20);
+        }
+        return found;
+    }
+
+    public static class QuickJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
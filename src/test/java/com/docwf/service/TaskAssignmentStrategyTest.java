@@ -0,0 +1,99 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowConfigTask.TaskType;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.service.assignment.LeastLoadedAssignmentStrategy;
+import com.docwf.service.assignment.PriorityWeightedAssignmentStrategy;
+import com.docwf.service.assignment.RoundRobinAssignmentStrategy;
+import com.docwf.service.assignment.UserWorkloadIndex;
+import com.docwf.service.plan.WorkflowPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the task assignment strategies
+ * Covers least-loaded, round-robin and priority-weighted selection and their tie-breaks
+ */
+public class TaskAssignmentStrategyTest {
+
+    private static final List<Long> CANDIDATES = List.of(10L, 20L, 30L);
+
+    private UserWorkloadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserWorkloadIndex();
+    }
+
+    @Test
+    void testLeastLoadedPicksFewestOpenTasks() {
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy();
+        assign(10L, "LOW", 2);
+        assign(20L, "LOW", 1);
+        assign(30L, "LOW", 3);
+        assertEquals(20L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+
+        // Ties go to the lowest user ID
+        assign(20L, "LOW", 1);
+        assertEquals(10L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+    }
+
+    @Test
+    void testLeastLoadedIgnoresPriority() {
+        LeastLoadedAssignmentStrategy strategy = new LeastLoadedAssignmentStrategy();
+        assign(10L, "CRITICAL", 1);
+        assign(20L, "LOW", 2);
+        assign(30L, "LOW", 2);
+        assertEquals(10L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+    }
+
+    @Test
+    void testRoundRobinRotatesPerRole() {
+        RoundRobinAssignmentStrategy strategy = new RoundRobinAssignmentStrategy();
+        List<Long> reviewers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reviewers.add(strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+        }
+        assertEquals(List.of(10L, 20L, 30L, 10L), reviewers);
+
+        // Another role has its own cursor
+        assertEquals(10L, strategy.selectAssignee(CANDIDATES, task("APPROVER"), index));
+        assertEquals(20L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+    }
+
+    @Test
+    void testPriorityWeightedPicksLowestWeightedLoad() {
+        PriorityWeightedAssignmentStrategy strategy = new PriorityWeightedAssignmentStrategy();
+        assign(10L, "CRITICAL", 1);
+        assign(20L, "LOW", 3);
+        assign(30L, "HIGH", 2);
+        // Weighted loads 4, 3 and 6
+        assertEquals(20L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+    }
+
+    @Test
+    void testPriorityWeightedBreaksTiesOnOpenTasks() {
+        PriorityWeightedAssignmentStrategy strategy = new PriorityWeightedAssignmentStrategy();
+        assign(10L, "LOW", 4);
+        assign(20L, "CRITICAL", 1);
+        assign(30L, "MEDIUM", 2);
+        // All weigh 4; one CRITICAL task is the fewest open tasks
+        assertEquals(20L, strategy.selectAssignee(CANDIDATES, task("REVIEWER"), index));
+    }
+
+    private void assign(Long userId, String priority, int tasks) {
+        for (int i = 0; i < tasks; i++) {
+            index.recordTransition(null, null, userId, TaskInstanceStatus.PENDING, priority);
+        }
+    }
+
+    private static WorkflowPlan.TaskNode task(String roleName) {
+        return new WorkflowPlan.TaskNode(1L, "Review", TaskType.FILE_UPDATE, 1, 1L, roleName,
+                null, "MEDIUM", false, false, false, false, List.of(), List.of(), List.of());
+    }
+}
@@ -0,0 +1,99 @@
+package com.docwf.service;
+
+import com.docwf.dto.TaskTransitionDto;
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.exception.WorkflowException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the instance task state machine: allowed events are applied and
+ * logged, rejected events leave the task and its log untouched, and replaying
+ * the log corrects a task row that drifted from it.
+ */
+public class TaskStateMachineTest extends WorkflowTestSupport {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private WorkflowUser user;
+
+    private Long instanceId;
+
+    private Long taskId;
+
+    @BeforeEach
+    void startWorkflow() {
+        user = createUser("state");
+        Long workflowId = createWorkflow("State Machine");
+        instanceId = executionService.startWorkflow(workflowId, user.getUserId()).getInstanceId();
+        taskId = executionService.getInstanceTasks(instanceId).get(0).getInstanceTaskId();
+    }
+
+    @Test
+    void testAllowedTransitionsAreAppliedAndLogged() {
+        assertEquals(TaskInstanceStatus.IN_PROGRESS, executionService.startTask(taskId).getStatus());
+        assertEquals(TaskInstanceStatus.COMPLETED, executionService.completeTask(taskId, "UPLOADED").getStatus());
+
+        List<TaskTransitionDto> transitions = executionService.getTaskTransitions(taskId);
+        assertEquals(List.of("CREATE", "START", "COMPLETE"), events(transitions));
+        assertNull(transitions.get(0).getFromStatus());
+        assertEquals("PENDING", transitions.get(0).getToStatus());
+        assertEquals("PENDING", transitions.get(1).getFromStatus());
+        assertEquals("IN_PROGRESS", transitions.get(1).getToStatus());
+        assertEquals("IN_PROGRESS", transitions.get(2).getFromStatus());
+        assertEquals("COMPLETED", transitions.get(2).getToStatus());
+        assertEquals("UPLOADED", transitions.get(2).getDetail());
+        transitions.forEach(transition -> assertEquals(user.getUserId(), transition.getAssignedTo()));
+        assertEquals(events(transitions), events(executionService.getInstanceTransitions(instanceId)));
+    }
+
+    @Test
+    void testRejectedTransitionLeavesTaskAndLogUnchanged() {
+        executionService.completeTask(taskId, "UPLOADED");
+
+        WorkflowException e = assertThrows(WorkflowException.class, () -> executionService.startTask(taskId));
+        assertTrue(e.getMessage().contains("Cannot apply START"));
+        assertThrows(WorkflowException.class, () -> executionService.failTask(taskId, "too late"));
+        assertThrows(WorkflowException.class, () -> executionService.escalateTask(taskId, user.getUserId()));
+
+        assertEquals(TaskInstanceStatus.COMPLETED, executionService.getInstanceTask(taskId).orElseThrow().getStatus());
+        assertEquals(List.of("CREATE", "COMPLETE"), events(executionService.getTaskTransitions(taskId)));
+    }
+
+    @Test
+    void testReplayCorrectsTaskThatDriftedFromItsLog() {
+        executionService.startTask(taskId);
+        executionService.completeTask(taskId, "UPLOADED");
+        // Written behind the state machine's back
+        jdbcTemplate.update("UPDATE WORKFLOW_INSTANCE_TASK SET STATUS = 'PENDING', ASSIGNED_TO = NULL WHERE INSTANCE_TASK_ID = ?",
+                taskId);
+
+        List<WorkflowInstanceTaskDto> corrected = executionService.replayInstanceTransitions(instanceId);
+        assertEquals(1, corrected.size());
+        assertEquals(taskId, corrected.get(0).getInstanceTaskId());
+        assertEquals(TaskInstanceStatus.COMPLETED, corrected.get(0).getStatus());
+        assertEquals(user.getUserId(), corrected.get(0).getAssignedTo());
+
+        WorkflowInstanceTaskDto task = executionService.getInstanceTask(taskId).orElseThrow();
+        assertEquals(TaskInstanceStatus.COMPLETED, task.getStatus());
+        assertEquals(user.getUserId(), task.getAssignedTo());
+
+        // The log itself is not changed, and a consistent instance replays to nothing
+        assertEquals(List.of("CREATE", "START", "COMPLETE"), events(executionService.getTaskTransitions(taskId)));
+        assertTrue(executionService.replayInstanceTransitions(instanceId).isEmpty());
+    }
+
+    private static List<String> events(List<TaskTransitionDto> transitions) {
+        return transitions.stream().map(TaskTransitionDto::getEvent).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,162 @@
+package com.docwf.service;
+
+import com.docwf.job.ThreadPerJobPool;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.JobFactory;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the thread-per-job Quartz pool: jobs run on their own threads, no more
+ * than threadCount at once, and pools naming the same datasource share its
+ * concurrency limit.
+ */
+public class ThreadPerJobPoolTest {
+
+    @Test
+    void testRunsJobsUpToThreadCount() throws Exception {
+        ThreadPerJobPool pool = pool("limitTest", 4, null, 0);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(pool.blockForAvailableThreads() > 0);
+            assertTrue(pool.runInThread(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            }));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown(true);
+
+        assertEquals(4, peak.get());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void testPoolsShareTheirDataSourceLimit() throws Exception {
+        String dataSource = "sharedTestDs_" + System.nanoTime();
+        ThreadPerJobPool first = pool("first", 10, dataSource, 3);
+        ThreadPerJobPool second = pool("second", 10, dataSource, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(24);
+        Runnable job = () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            done.countDown();
+        };
+
+        Thread feeder = new Thread(() -> {
+            for (int i = 0; i < 12; i++) {
+                second.blockForAvailableThreads();
+                second.runInThread(job);
+            }
+        });
+        feeder.start();
+        for (int i = 0; i < 12; i++) {
+            first.blockForAvailableThreads();
+            first.runInThread(job);
+        }
+        feeder.join();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        first.shutdown(true);
+        second.shutdown(true);
+
+        assertTrue(peak.get() <= 3, "peak " + peak.get() + " exceeds the datasource limit");
+    }
+
+    @Test
+    void testShutdownWaitsForRunningJobs() throws Exception {
+        ThreadPerJobPool pool = pool("shutdownTest", 2, null, 0);
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            pool.runInThread(() -> {
+                sleep(100);
+                completed.incrementAndGet();
+            });
+        }
+        pool.shutdown(true);
+        assertEquals(2, completed.get());
+        assertEquals(0, pool.blockForAvailableThreads());
+    }
+
+    @Test
+    void testDrivesAQuartzScheduler() throws Exception {
+        int jobs = 50;
+        CountDownLatch done = new CountDownLatch(jobs);
+        JobFactory factory = (bundle, scheduler) -> context -> done.countDown();
+
+        Properties properties = new Properties();
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "ThreadPerJobPoolTest");
+        properties.setProperty(StdSchedulerFactory.PROP_SCHED_SKIP_UPDATE_CHECK, "true");
+        properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        properties.setProperty(StdSchedulerFactory.PROP_THREAD_POOL_CLASS, ThreadPerJobPool.class.getName());
+        properties.setProperty("org.quartz.threadPool.threadCount", "8");
+        properties.setProperty("org.quartz.threadPool.threadPriority", "5");
+        properties.setProperty("org.quartz.threadPool.dataSource", "quartzTestDs_" + System.nanoTime());
+        properties.setProperty("org.quartz.threadPool.dataSourceConcurrency", "4");
+        Scheduler scheduler = new StdSchedulerFactory(properties).getScheduler();
+        scheduler.setJobFactory(factory);
+        try {
+            for (int i = 0; i < jobs; i++) {
+                JobDetail job = JobBuilder.newJob(NoOpJob.class).withIdentity("job" + i).build();
+                Trigger trigger = TriggerBuilder.newTrigger().withIdentity("trigger" + i)
+                        .withSchedule(SimpleScheduleBuilder.simpleSchedule()).startNow().build();
+                scheduler.scheduleJob(job, trigger);
+            }
+            scheduler.start();
+            assertTrue(done.await(10, TimeUnit.SECONDS), "jobs left: " + done.getCount());
+            assertEquals(8, scheduler.getMetaData().getThreadPoolSize());
+        } finally {
+            scheduler.shutdown(true);
+        }
+    }
+
+    private static ThreadPerJobPool pool(String name, int threadCount, String dataSource, int dataSourceConcurrency)
+            throws Exception {
+        ThreadPerJobPool pool = new ThreadPerJobPool();
+        pool.setInstanceName(name);
+        pool.setThreadCount(threadCount);
+        pool.setDataSource(dataSource);
+        pool.setDataSourceConcurrency(dataSourceConcurrency);
+        pool.initialize();
+        return pool;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stored job class only; the job factory supplies what actually runs
+     */
+    public static class NoOpJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.repository.WorkflowInstanceTaskRepository;
+import com.docwf.service.assignment.UserWorkloadIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for the in-memory workload index
+ * Covers transitions, rollback, and rebuilds racing with transitions
+ */
+public class UserWorkloadIndexTest {
+
+    private static final Long ALICE = 1L;
+    private static final Long BOB = 2L;
+
+    private WorkflowInstanceTaskRepository repository;
+
+    private UserWorkloadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WorkflowInstanceTaskRepository.class);
+        index = new UserWorkloadIndex();
+        ReflectionTestUtils.setField(index, "instanceTaskRepository", repository);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testTransitionsMoveOpenTasksBetweenUsers() {
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "CRITICAL");
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "LOW");
+        assertEquals(2, index.getOpenTaskCount(ALICE));
+        assertEquals(5, index.getWeightedLoad(ALICE));
+
+        // Starting a task keeps it open for the same user
+        index.recordTransition(ALICE, TaskInstanceStatus.PENDING, ALICE, TaskInstanceStatus.IN_PROGRESS, "LOW");
+        assertEquals(2, index.getOpenTaskCount(ALICE));
+
+        // Reassigning moves it, completing closes it
+        index.recordTransition(ALICE, TaskInstanceStatus.PENDING, BOB, TaskInstanceStatus.PENDING, "CRITICAL");
+        index.recordTransition(ALICE, TaskInstanceStatus.IN_PROGRESS, ALICE, TaskInstanceStatus.COMPLETED, "LOW");
+        assertEquals(0, index.getOpenTaskCount(ALICE));
+        assertEquals(0, index.getWeightedLoad(ALICE));
+        assertEquals(1, index.getOpenTaskCount(BOB));
+        assertEquals(4, index.getWeightedLoad(BOB));
+    }
+
+    @Test
+    void testRolledBackTransitionIsReverted() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "HIGH");
+        assertEquals(1, index.getOpenTaskCount(ALICE));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, index.getOpenTaskCount(ALICE));
+        assertEquals(0, index.getWeightedLoad(ALICE));
+    }
+
+    @Test
+    void testRebuildReplacesCountsWithTheDatabase() {
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "LOW");
+        index.recordTransition(null, null, BOB, TaskInstanceStatus.PENDING, "LOW");
+        when(repository.countOpenTasksByAssigneeAndPriority(any())).thenReturn(rows(
+                new Object[] {ALICE, "HIGH", 3L},
+                new Object[] {ALICE, null, 1L}));
+
+        index.rebuild();
+        assertEquals(4, index.getOpenTaskCount(ALICE));
+        assertEquals(11, index.getWeightedLoad(ALICE));
+        assertEquals(0, index.getOpenTaskCount(BOB));
+    }
+
+    @Test
+    void testTransitionRecordedDuringRebuildIsKept() {
+        when(repository.countOpenTasksByAssigneeAndPriority(any())).thenAnswer(invocation -> {
+            // Assigned while the query runs, after the rows were read
+            index.recordTransition(null, null, BOB, TaskInstanceStatus.PENDING, "MEDIUM");
+            return rows(new Object[] {ALICE, "MEDIUM", 2L});
+        });
+
+        index.rebuild();
+        assertEquals(2, index.getOpenTaskCount(ALICE));
+        assertEquals(1, index.getOpenTaskCount(BOB));
+        assertEquals(2, index.getWeightedLoad(BOB));
+    }
+
+    @Test
+    void testUncommittedTransitionSurvivesRebuildAndRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "MEDIUM");
+        when(repository.countOpenTasksByAssigneeAndPriority(any())).thenReturn(rows(new Object[] {ALICE, "MEDIUM", 2L}));
+
+        // Not in the database yet, so the rebuild keeps it on top of the committed count
+        index.rebuild();
+        assertEquals(3, index.getOpenTaskCount(ALICE));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(2, index.getOpenTaskCount(ALICE));
+        assertEquals(4, index.getWeightedLoad(ALICE));
+    }
+
+    @Test
+    void testCommittedTransitionIsReconciledByRebuild() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.recordTransition(null, null, ALICE, TaskInstanceStatus.PENDING, "MEDIUM");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, index.getOpenTaskCount(ALICE));
+
+        when(repository.countOpenTasksByAssigneeAndPriority(any())).thenReturn(rows(new Object[] {ALICE, "MEDIUM", 1L}));
+        index.rebuild();
+        assertEquals(1, index.getOpenTaskCount(ALICE));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,122 @@
+package com.docwf.service;
+
+import com.docwf.dto.TaskTransitionDto;
+import com.docwf.dto.WorkflowInstanceDto;
+import com.docwf.dto.WorkflowInstanceTaskDto;
+import com.docwf.dto.WorkflowProgressDto;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowInstance;
+import com.docwf.entity.WorkflowInstanceTask.TaskInstanceStatus;
+import com.docwf.entity.WorkflowUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress test for concurrent task completion on a single workflow instance.
+ *
+ * 32 reviewers complete sibling parallel tasks at the same moment. Without
+ * instance-level optimistic locking each completion sees the others as still
+ * open and the join task after the review stage is never activated.
+ */
+public class WorkflowConcurrencyStressTest extends WorkflowTestSupport {
+
+    private static final int THREADS = 32;
+
+    @Test
+    public void testParallelCompletionsOnOneInstance() throws Exception {
+        WorkflowUser user = createUser("stress");
+        Long workflowId = createReviewWorkflow(user);
+
+        WorkflowInstanceDto instance = executionService.startWorkflow(workflowId, user.getUserId());
+        Long instanceId = instance.getInstanceId();
+        WorkflowInstanceTaskDto upload = taskNamed(instanceId, "Upload");
+        executionService.completeTask(upload.getInstanceTaskId(), "UPLOADED");
+
+        List<Long> reviewIds = executionService.getInstanceTasks(instanceId).stream()
+                .filter(task -> task.getTaskName().startsWith("Review"))
+                .map(WorkflowInstanceTaskDto::getInstanceTaskId)
+                .collect(Collectors.toList());
+        assertEquals(THREADS, reviewIds.size());
+
+        // Release all reviewers at once
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long reviewId : reviewIds) {
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return executionService.completeTask(reviewId, "APPROVED");
+            }));
+        }
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // No lost updates: every review completed once and the join task was activated
+        List<WorkflowInstanceTaskDto> tasks = executionService.getInstanceTasks(instanceId);
+        for (WorkflowInstanceTaskDto task : tasks) {
+            if (task.getTaskName().startsWith("Review")) {
+                assertEquals(TaskInstanceStatus.COMPLETED, task.getStatus());
+            }
+        }
+        WorkflowInstanceTaskDto consolidate = taskNamed(instanceId, "Consolidate");
+        assertEquals(TaskInstanceStatus.PENDING, consolidate.getStatus());
+        assertNotNull(consolidate.getAssignedTo());
+
+        List<TaskTransitionDto> transitions = executionService.getInstanceTransitions(instanceId);
+        assertEquals(THREADS, transitions.stream()
+                .filter(transition -> reviewIds.contains(transition.getInstanceTaskId()))
+                .filter(transition -> "COMPLETE".equals(transition.getEvent()))
+                .count());
+        assertEquals(1, transitions.stream()
+                .filter(transition -> transition.getInstanceTaskId().equals(consolidate.getInstanceTaskId()))
+                .filter(transition -> "ACTIVATE".equals(transition.getEvent()))
+                .count());
+
+        // Progress counters moved with every concurrent transition
+        WorkflowProgressDto progress = executionService.getWorkflowProgress(instanceId);
+        assertEquals(tasks.size(), progress.getTotalTasks());
+        assertEquals(tasks.size() - 1, progress.getCompletedTasks());
+        assertEquals(1, progress.getPendingTasks());
+
+        executionService.completeTask(consolidate.getInstanceTaskId(), "DONE");
+        assertEquals(WorkflowInstance.InstanceStatus.COMPLETED,
+                executionService.getWorkflowInstance(instanceId).orElseThrow().getStatus());
+    }
+
+    private WorkflowInstanceTaskDto taskNamed(Long instanceId, String name) {
+        return executionService.getInstanceTasks(instanceId).stream()
+                .filter(task -> name.equals(task.getTaskName()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Long createReviewWorkflow(WorkflowUser user) {
+        List<WorkflowConfigTask> tasks = new ArrayList<>();
+        tasks.add(reviewTask("Upload", 1, false));
+        for (int i = 1; i <= THREADS; i++) {
+            tasks.add(reviewTask("Review " + i, 2, true));
+        }
+        tasks.add(reviewTask("Consolidate", 3, false));
+        return createWorkflow(workflow("Concurrency Stress"), user, tasks.toArray(new WorkflowConfigTask[0]));
+    }
+
+    private static WorkflowConfigTask reviewTask(String name, int sequenceOrder, boolean parallel) {
+        WorkflowConfigTask task = task(name, WorkflowConfigTask.TaskType.FILE_UPDATE, sequenceOrder);
+        task.setCanRunInParallel(parallel ? "Y" : "N");
+        return task;
+    }
+}
@@ -0,0 +1,142 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowConfigDto;
+import com.docwf.entity.WorkflowConfig;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowConfigRepository;
+import com.docwf.service.plan.WorkflowPlan;
+import com.docwf.service.plan.WorkflowPlanSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the compiled plan cache: plans are reused until the workflow
+ * definition changes, evict and evictAll drop them, and a plan compiled from
+ * pre-commit data while a config change is in flight is dropped again once
+ * the change commits.
+ */
+public class WorkflowPlanCacheTest extends WorkflowTestSupport {
+
+    @Autowired
+    private WorkflowPlanService planService;
+
+    @Autowired
+    private WorkflowConfigService configService;
+
+    @Autowired
+    private WorkflowConfigRepository workflowRepository;
+
+    @Test
+    void testPlanIsReusedUntilTheWorkflowChanges() {
+        Long workflowId = createWorkflow("Cached");
+        WorkflowPlan first = planService.getPlan(workflowId);
+        assertSame(first, planService.getPlan(workflowId));
+        assertSame(first, planService.getPlans(List.of(workflowId)).get(workflowId));
+
+        WorkflowConfigDto update = new WorkflowConfigDto();
+        update.setDescription("Changed description");
+        configService.updateWorkflow(workflowId, update);
+
+        WorkflowPlan changed = planService.getPlan(workflowId);
+        assertNotSame(first, changed);
+        assertTrue(changed.getVersion() > first.getVersion());
+        assertSame(changed, planService.getPlan(workflowId));
+    }
+
+    @Test
+    void testConfigChangesAreVisibleInTheNextPlan() {
+        Long workflowId = createWorkflow("Renamed");
+        assertEquals(1, planService.getPlan(workflowId).getTasks().size());
+
+        addTasks(workflowId, task("Review", WorkflowConfigTask.TaskType.FILE_UPDATE, 2));
+        // Written behind the service's back, so the cached plan is still served
+        assertEquals(1, planService.getPlan(workflowId).getTasks().size());
+
+        planService.evict(workflowId);
+        assertEquals(2, planService.getPlan(workflowId).getTasks().size());
+    }
+
+    @Test
+    void testEvictAndEvictAll() {
+        Long one = createWorkflow("Evict one");
+        Long other = createWorkflow("Evict other");
+        Map<Long, WorkflowPlan> before = planService.getPlans(List.of(one, other)).getPlans();
+
+        planService.evict(one);
+        WorkflowPlan oneAfterEvict = planService.getPlan(one);
+        assertNotSame(before.get(one), oneAfterEvict);
+        assertSame(before.get(other), planService.getPlan(other));
+
+        planService.evictAll();
+        Map<Long, WorkflowPlan> after = planService.getPlans(List.of(one, other)).getPlans();
+        assertNotSame(oneAfterEvict, after.get(one));
+        assertNotSame(before.get(other), after.get(other));
+    }
+
+    @Test
+    void testPlanCompiledBeforeCommitIsEvictedAfterCommit() throws Exception {
+        Long workflowId = createWorkflow("Racing");
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            WorkflowPlan stale = transactionTemplate.execute(status -> {
+                WorkflowConfig workflow = workflowRepository.findById(workflowId).orElseThrow();
+                workflow.setName("Racing renamed");
+                workflowRepository.saveAndFlush(workflow);
+                planService.evict(workflowId);
+                try {
+                    // A concurrent reader still sees the committed name and caches it
+                    return reader.submit(() -> planService.getPlan(workflowId)).get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(stale.getName().startsWith("Racing "));
+            assertFalse(stale.getName().startsWith("Racing renamed"));
+
+            WorkflowPlan current = planService.getPlan(workflowId);
+            assertNotSame(stale, current);
+            assertEquals("Racing renamed", current.getName());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRolledBackChangeStillEvicts() {
+        Long workflowId = createWorkflow("Rolled back");
+        WorkflowPlan before = planService.getPlan(workflowId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            planService.evict(workflowId);
+            // Compiled inside the transaction and cached, then dropped on completion
+            assertNotSame(before, planService.getPlan(workflowId));
+            status.setRollbackOnly();
+        });
+        WorkflowPlan after = planService.getPlan(workflowId);
+        assertNotSame(before, after);
+        assertEquals(before.getName(), after.getName());
+    }
+
+    @Test
+    void testCycleIsReportedWithoutFailingOtherPlans() {
+        Long valid = createWorkflow("Acyclic");
+        Long cyclic = createCyclicWorkflow("Cyclic");
+
+        WorkflowPlanSet plans = planService.getPlans(List.of(cyclic, valid));
+        assertNotNull(plans.get(valid));
+        assertNull(plans.get(cyclic));
+        assertTrue(plans.getFailure(cyclic).contains("cycle"));
+        assertNull(plans.getFailure(valid));
+
+        WorkflowException e = assertThrows(WorkflowException.class, () -> planService.getPlan(cyclic));
+        assertTrue(e.getMessage().contains("cycle"));
+    }
+}
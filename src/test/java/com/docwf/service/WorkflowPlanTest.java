@@ -0,0 +1,82 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowConfigTask.TaskType;
+import com.docwf.exception.WorkflowException;
+import com.docwf.service.plan.WorkflowPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the dependency graph compiled into WorkflowPlan
+ * Covers sequential fallback, parallel review stages, explicit joins and cycles
+ */
+public class WorkflowPlanTest {
+
+    @Test
+    void testSequentialWorkflowDependsOnPreviousTask() {
+        WorkflowPlan plan = plan(
+                task(1L, 1, false, List.of(), List.of(), 10),
+                task(2L, 2, false, List.of(), List.of(), 10),
+                task(3L, 3, false, List.of(), List.of(), 10));
+
+        assertEquals(List.of(), plan.getDependencyTaskIds(1L));
+        assertEquals(List.of(1L), plan.getDependencyTaskIds(2L));
+        assertEquals(List.of(2L), plan.getDependencyTaskIds(3L));
+        assertEquals(List.of(1L, 2L, 3L), plan.getCriticalPathTaskIds());
+        assertEquals(30, plan.getCriticalPathExpectedCompletion());
+    }
+
+    @Test
+    void testParallelReviewStageJoinsBeforeNextTask() {
+        // Upload, three reviewers in parallel, then a consolidation step
+        WorkflowPlan plan = plan(
+                task(1L, 1, false, List.of(), List.of(), 5),
+                task(2L, 2, true, List.of(), List.of(3L, 4L), 30),
+                task(3L, 3, true, List.of(), List.of(2L), 60),
+                task(4L, 4, true, List.of(), List.of(2L), 20),
+                task(5L, 5, false, List.of(), List.of(), 5));
+
+        assertEquals(List.of(1L), plan.getDependencyTaskIds(2L));
+        assertEquals(List.of(1L), plan.getDependencyTaskIds(3L));
+        assertEquals(List.of(1L), plan.getDependencyTaskIds(4L));
+        assertEquals(List.of(2L, 3L, 4L), plan.getDependencyTaskIds(5L));
+        assertEquals(List.of(2L, 3L, 4L), plan.getChildTaskIds(1L));
+
+        // Wall clock is the slowest reviewer, not the sum of all reviews
+        assertEquals(List.of(1L, 3L, 5L), plan.getCriticalPathTaskIds());
+        assertEquals(70, plan.getCriticalPathExpectedCompletion());
+    }
+
+    @Test
+    void testExplicitParentsOverrideSequenceOrder() {
+        WorkflowPlan plan = plan(
+                task(1L, 1, false, List.of(), List.of(), null),
+                task(2L, 2, false, List.of(1L), List.of(), null),
+                task(3L, 3, false, List.of(1L), List.of(), null),
+                task(4L, 4, false, List.of(2L, 3L), List.of(), null));
+
+        assertEquals(List.of(1L), plan.getDependencyTaskIds(3L));
+        assertEquals(List.of(2L, 3L), plan.getDependencyTaskIds(4L));
+        assertEquals(3, plan.getCriticalPathTaskIds().size());
+    }
+
+    @Test
+    void testDependencyCycleIsRejected() {
+        assertThrows(WorkflowException.class, () -> plan(
+                task(1L, 1, false, List.of(2L), List.of(), null),
+                task(2L, 2, false, List.of(1L), List.of(), null)));
+    }
+
+    private static WorkflowPlan plan(WorkflowPlan.TaskNode... tasks) {
+        return new WorkflowPlan(100L, 0L, "Test Workflow", true, null, null, null, null, null, List.of(tasks));
+    }
+
+    private static WorkflowPlan.TaskNode task(Long taskId, int sequenceOrder, boolean parallel, List<Long> parentTaskIds,
+                                              List<Long> parallelTaskIds, Integer expectedCompletion) {
+        return new WorkflowPlan.TaskNode(taskId, "Task " + taskId, TaskType.FILE_UPDATE, sequenceOrder, 1L, "REVIEWER",
+                expectedCompletion, "MEDIUM", false, parallel, true, true, parentTaskIds, parallelTaskIds, List.of());
+    }
+}
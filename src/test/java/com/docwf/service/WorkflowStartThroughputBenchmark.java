@@ -0,0 +1,175 @@
+package com.docwf.service;
+
+import com.docwf.entity.WorkflowConfig;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowInstance;
+import com.docwf.entity.WorkflowInstanceTask;
+import com.docwf.entity.WorkflowRole;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.exception.WorkflowException;
+import com.docwf.repository.WorkflowConfigRepository;
+import com.docwf.repository.WorkflowConfigTaskRepository;
+import com.docwf.repository.WorkflowInstanceRepository;
+import com.docwf.repository.WorkflowInstanceTaskRepository;
+import com.docwf.repository.WorkflowRoleRepository;
+import com.docwf.repository.WorkflowUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput benchmark for workflow instance creation.
+ *
+ * Compares the original startWorkflow code (a save per instance task) with
+ * the batched path used by {@link WorkflowExecutionService#startWorkflow(Long, Long)}.
+ *
+ * Not picked up by the default surefire includes; run explicitly:
+ * <pre>
+ *   mvn test -Dtest=WorkflowStartThroughputBenchmark
+ *   mvn test -Dtest=WorkflowStartThroughputBenchmark "-Dspring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_DELAY=-1"
+ * </pre>
+ * The first run uses the Oracle-mode H2 database from application-test.yml,
+ * the second plain H2.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class WorkflowStartThroughputBenchmark {
+
+    private static final int TASKS_PER_WORKFLOW = 60;
+    private static final int WARMUP_INSTANCES = 20;
+    private static final int MEASURED_INSTANCES = 200;
+
+    @Autowired
+    private WorkflowExecutionService executionService;
+
+    @Autowired
+    private WorkflowUserRepository userRepository;
+
+    @Autowired
+    private WorkflowRoleRepository roleRepository;
+
+    @Autowired
+    private WorkflowConfigRepository workflowRepository;
+
+    @Autowired
+    private WorkflowConfigTaskRepository configTaskRepository;
+
+    @Autowired
+    private WorkflowInstanceRepository instanceRepository;
+
+    @Autowired
+    private WorkflowInstanceTaskRepository instanceTaskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Test
+    public void measureStartWorkflowThroughput() {
+        WorkflowUser user = createUser();
+        WorkflowConfig workflow = createWorkflow(user);
+
+        // Warm up both paths so JIT and connection pool effects are excluded
+        for (int i = 0; i < WARMUP_INSTANCES; i++) {
+            startRowAtATime(workflow.getWorkflowId(), user.getUserId());
+            executionService.startWorkflow(workflow.getWorkflowId(), user.getUserId());
+        }
+
+        long rowStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_INSTANCES; i++) {
+            startRowAtATime(workflow.getWorkflowId(), user.getUserId());
+        }
+        long rowNanos = System.nanoTime() - rowStart;
+
+        Long lastInstanceId = null;
+        long batchStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_INSTANCES; i++) {
+            lastInstanceId = executionService.startWorkflow(workflow.getWorkflowId(), user.getUserId()).getInstanceId();
+        }
+        long batchNanos = System.nanoTime() - batchStart;
+
+        System.out.println("=== Workflow start throughput (" + TASKS_PER_WORKFLOW + " tasks/instance) ===");
+        System.out.println("Datasource: " + datasourceUrl);
+        System.out.printf("Row-at-a-time: %.1f instances/s%n", perSecond(rowNanos));
+        System.out.printf("Batched:       %.1f instances/s%n", perSecond(batchNanos));
+
+        assertEquals(TASKS_PER_WORKFLOW, instanceTaskRepository.findByWorkflowInstanceInstanceId(lastInstanceId).size());
+    }
+
+    /**
+     * Reproduces the previous startWorkflow statement for statement: the same
+     * lookups and checks, then one save per task, flushed together at commit.
+     * Both paths share the current ID allocation and JDBC batching settings, so
+     * the difference measured is the code path alone.
+     */
+    private Long startRowAtATime(Long workflowId, Long userId) {
+        return transactionTemplate.execute(status -> {
+            WorkflowConfig workflow = workflowRepository.findById(workflowId)
+                    .orElseThrow(() -> new WorkflowException("Workflow not found with ID: " + workflowId));
+            if (!"Y".equals(workflow.getIsActive())) {
+                throw new WorkflowException("Workflow is not active: " + workflowId);
+            }
+            WorkflowUser startedByUser = userRepository.findById(userId)
+                    .orElseThrow(() -> new WorkflowException("User not found with ID: " + userId));
+
+            WorkflowInstance instance = new WorkflowInstance();
+            instance.setWorkflow(workflow);
+            instance.setStatus(WorkflowInstance.InstanceStatus.PENDING);
+            instance.setStartedBy(startedByUser);
+            instance.setStartedOn(LocalDateTime.now());
+            WorkflowInstance savedInstance = instanceRepository.save(instance);
+
+            List<WorkflowConfigTask> configTasks = configTaskRepository.findByWorkflowWorkflowIdOrderBySequenceOrder(workflowId);
+            for (WorkflowConfigTask configTask : configTasks) {
+                WorkflowInstanceTask instanceTask = new WorkflowInstanceTask();
+                instanceTask.setWorkflowInstance(savedInstance);
+                instanceTask.setTask(configTask);
+                instanceTask.setStatus(WorkflowInstanceTask.TaskInstanceStatus.PENDING);
+                instanceTask.setStartedOn(LocalDateTime.now());
+                if (configTask.getSequenceOrder() == 1) {
+                    instanceTask.setAssignedTo(startedByUser);
+                }
+                instanceTaskRepository.save(instanceTask);
+            }
+            // The old DTO conversion read these back before returning
+            savedInstance.getWorkflow().getName();
+            savedInstance.getStartedBy().getUsername();
+            return savedInstance.getInstanceId();
+        });
+    }
+
+    private WorkflowUser createUser() {
+        WorkflowUser user = new WorkflowUser("bench_user_" + System.nanoTime(), "Bench", "User",
+                "bench@example.com", "benchmark");
+        return userRepository.save(user);
+    }
+
+    private WorkflowConfig createWorkflow(WorkflowUser user) {
+        return transactionTemplate.execute(status -> {
+            WorkflowRole role = roleRepository.save(new WorkflowRole("BENCH_ROLE_" + System.nanoTime(), "benchmark"));
+            WorkflowConfig workflow = workflowRepository.save(
+                    new WorkflowConfig("Throughput Benchmark", "Benchmark workflow", "benchmark"));
+            for (int sequence = 1; sequence <= TASKS_PER_WORKFLOW; sequence++) {
+                WorkflowConfigTask task = new WorkflowConfigTask("Task " + sequence,
+                        WorkflowConfigTask.TaskType.FILE_UPLOAD, role, sequence);
+                task.setWorkflow(workflow);
+                configTaskRepository.save(task);
+            }
+            return workflow;
+        });
+    }
+
+    private static double perSecond(long nanos) {
+        return MEASURED_INSTANCES / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.docwf.service;
+
+import com.docwf.dto.WorkflowCalendarDto;
+import com.docwf.entity.WorkflowConfig;
+import com.docwf.entity.WorkflowConfigRole;
+import com.docwf.entity.WorkflowConfigTask;
+import com.docwf.entity.WorkflowConfigTask.TaskType;
+import com.docwf.entity.WorkflowRole;
+import com.docwf.entity.WorkflowUser;
+import com.docwf.repository.WorkflowConfigRepository;
+import com.docwf.repository.WorkflowConfigRoleRepository;
+import com.docwf.repository.WorkflowConfigTaskRepository;
+import com.docwf.repository.WorkflowRoleRepository;
+import com.docwf.repository.WorkflowUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Shared setup for the Spring tests that start workflows: users, calendars and
+ * workflow definitions under unique names, written straight through the
+ * repositories, and bean settings a test changes for itself only.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+abstract class WorkflowTestSupport {
+
+    @Autowired
+    protected WorkflowExecutionService executionService;
+
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WorkflowCalendarService calendarService;
+
+    @Autowired
+    private WorkflowUserRepository userRepository;
+
+    @Autowired
+    private WorkflowRoleRepository roleRepository;
+
+    @Autowired
+    private WorkflowConfigRepository workflowRepository;
+
+    @Autowired
+    private WorkflowConfigTaskRepository configTaskRepository;
+
+    @Autowired
+    private WorkflowConfigRoleRepository configRoleRepository;
+
+    private final Deque<Runnable> restores = new ArrayDeque<>();
+
+    @AfterEach
+    void restoreOverrides() {
+        while (!restores.isEmpty()) {
+            restores.pop().run();
+        }
+    }
+
+    /**
+     * Set a configured value of a bean for the current test only
+     */
+    protected void override(Object bean, String field, Object value) {
+        Object target = AopTestUtils.<Object>getTargetObject(bean);
+        Object original = ReflectionTestUtils.getField(target, field);
+        restores.push(() -> ReflectionTestUtils.setField(target, field, original));
+        ReflectionTestUtils.setField(target, field, value);
+    }
+
+    protected WorkflowUser createUser(String name) {
+        long suffix = System.nanoTime();
+        return userRepository.save(new WorkflowUser(name + "_" + suffix, "Test", "User",
+                name + suffix + "@example.com", "test"));
+    }
+
+    protected Long createCalendar(String name) {
+        WorkflowCalendarDto calendar = new WorkflowCalendarDto(name + " " + System.nanoTime(), null,
+                LocalDate.of(2024, 1, 1), LocalDate.now().plusYears(1), "NONE", "test");
+        return calendarService.createCalendar(calendar).getCalendarId();
+    }
+
+    /**
+     * An unsaved workflow definition, named uniquely after the given name
+     */
+    protected static WorkflowConfig workflow(String name) {
+        return new WorkflowConfig(name + " " + System.nanoTime(), "Test workflow", "test");
+    }
+
+    /**
+     * An unsaved task; its role is set when it is saved with a workflow
+     */
+    protected static WorkflowConfigTask task(String name, TaskType taskType, int sequenceOrder) {
+        return new WorkflowConfigTask(name, taskType, null, sequenceOrder);
+    }
+
+    /**
+     * A workflow with a single upload task
+     */
+    protected Long createWorkflow(String name) {
+        return createWorkflow(workflow(name), null, task("Upload", TaskType.FILE_UPLOAD, 1));
+    }
+
+    /**
+     * Save a workflow and its tasks, all assigned to a new role that is mapped
+     * to the given user unless that is null
+     */
+    protected Long createWorkflow(WorkflowConfig workflow, WorkflowUser user, WorkflowConfigTask... tasks) {
+        return transactionTemplate.execute(status -> {
+            WorkflowConfig saved = workflowRepository.save(workflow);
+            WorkflowRole role = saveTasks(saved, tasks);
+            if (user != null) {
+                configRoleRepository.save(new WorkflowConfigRole(saved, role, user));
+            }
+            return saved.getWorkflowId();
+        });
+    }
+
+    /**
+     * Workflows with a single upload task each
+     */
+    protected List<Long> createWorkflows(String name, int count, String isActive) {
+        List<Long> workflowIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WorkflowConfig workflow = workflow(name + " " + i);
+            workflow.setIsActive(isActive);
+            workflowIds.add(createWorkflow(workflow, null, task("Upload", TaskType.FILE_UPLOAD, 1)));
+        }
+        return workflowIds;
+    }
+
+    /**
+     * A workflow whose two tasks each name the other as their parent
+     */
+    protected Long createCyclicWorkflow(String name) {
+        WorkflowConfigTask first = task("First", TaskType.FILE_UPLOAD, 1);
+        WorkflowConfigTask second = task("Second", TaskType.FILE_UPDATE, 2);
+        return transactionTemplate.execute(status -> {
+            Long workflowId = createWorkflow(workflow(name), null, first, second);
+            second.setParentTaskIds(String.valueOf(first.getTaskId()));
+            first.setParentTaskIds(String.valueOf(second.getTaskId()));
+            return workflowId;
+        });
+    }
+
+    /**
+     * Add tasks to a saved workflow behind the config service's back, so
+     * nothing is evicted from the plan cache
+     */
+    protected void addTasks(Long workflowId, WorkflowConfigTask... tasks) {
+        transactionTemplate.executeWithoutResult(status ->
+                saveTasks(workflowRepository.findById(workflowId).orElseThrow(), tasks));
+    }
+
+    private WorkflowRole saveTasks(WorkflowConfig workflow, WorkflowConfigTask... tasks) {
+        WorkflowRole role = roleRepository.save(new WorkflowRole("TEST_ROLE_" + System.nanoTime(), "test"));
+        for (WorkflowConfigTask task : tasks) {
+            task.setRole(role);
+            task.setWorkflow(workflow);
+            configTaskRepository.save(task);
+        }
+        return role;
+    }
+}